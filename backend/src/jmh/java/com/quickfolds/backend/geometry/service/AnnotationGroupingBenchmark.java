@@ -0,0 +1,101 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.geometry.model.dto.DeletedIdInFace;
+import com.quickfolds.backend.geometry.model.dto.response.FaceAnnotateResponse;
+import com.quickfolds.backend.geometry.model.dto.response.LineAnnotationResponse;
+import com.quickfolds.backend.geometry.model.dto.response.PointAnnotationResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmarks comparing the single pass grouping of {@link GeometryService#buildFaceAnnotations}
+ * with the per-face filtering it replaced, over {@code annotations} annotations spread over one face
+ * per ten annotations.
+ * <p>
+ * Runs in memory, without a database.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="AnnotationGroupingBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnnotationGroupingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int annotations;
+
+    private List<PointAnnotationResponse> points;
+
+    private List<LineAnnotationResponse> lines;
+
+    private List<DeletedIdInFace> deletedPoints;
+
+    private List<DeletedIdInFace> deletedLines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int numFaces = Math.max(1, annotations / 10);
+        points = new ArrayList<>();
+        lines = new ArrayList<>();
+        deletedPoints = new ArrayList<>();
+        deletedLines = new ArrayList<>();
+
+        for (int i = 0; i < annotations; i++) {
+            int face = i % numFaces;
+            switch (i % 4) {
+                case 0 -> points.add(new PointAnnotationResponse(face, i, 0.5, 0.5, null));
+                case 1 -> lines.add(new LineAnnotationResponse(face, i, i - 1, i - 2));
+                case 2 -> deletedPoints.add(new DeletedIdInFace(face, i));
+                default -> deletedLines.add(new DeletedIdInFace(face, i));
+            }
+        }
+
+        if (!singlePass().equals(perFaceFiltering())) {
+            throw new IllegalStateException("Grouping strategies disagree on " + annotations + " annotations");
+        }
+    }
+
+    /**
+     * Groups the annotations with {@link GeometryService#buildFaceAnnotations}.
+     */
+    @Benchmark
+    public List<FaceAnnotateResponse> singlePass() {
+        return GeometryService.buildFaceAnnotations(points, lines, deletedPoints, deletedLines);
+    }
+
+    /**
+     * Groups the annotations as {@code annotateStep} did before, re-streaming every list once per face.
+     */
+    @Benchmark
+    public List<FaceAnnotateResponse> perFaceFiltering() {
+        List<Integer> faceIds = Stream.concat(Stream.concat(Stream.concat(
+                points.stream().map(PointAnnotationResponse::getFaceIdInOrigami),
+                        lines.stream().map(LineAnnotationResponse::getFaceIdInOrigami)),
+                deletedPoints.stream().map(DeletedIdInFace::getFaceIdInOrigami)),
+                deletedLines.stream().map(DeletedIdInFace::getFaceIdInOrigami))
+                .distinct().toList();
+
+        List<FaceAnnotateResponse> annotationStep = new ArrayList<>();
+        for (Integer id : faceIds) {
+            annotationStep.add(new FaceAnnotateResponse(id,
+                    points.stream().filter(point -> point.getFaceIdInOrigami().equals(id))
+                            .collect(Collectors.toList()),
+                    lines.stream().filter(line -> line.getFaceIdInOrigami().equals(id))
+                            .collect(Collectors.toList()),
+                    deletedPoints.stream().filter(pointId -> pointId.getFaceIdInOrigami().equals(id))
+                            .map(DeletedIdInFace::getIdInFace).collect(Collectors.toList()),
+                    deletedLines.stream().filter(lineId -> lineId.getFaceIdInOrigami().equals(id))
+                            .map(DeletedIdInFace::getIdInFace).collect(Collectors.toList())));
+        }
+
+        return annotationStep;
+    }
+}
@@ -0,0 +1,225 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.BackendApplication;
+import com.quickfolds.backend.geometry.model.dto.request.*;
+import com.quickfolds.backend.origami.model.dto.request.NewOrigamiRequest;
+import com.quickfolds.backend.origami.service.OrigamiService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the geometry reads and writes of one origami among many, with the geometry tables
+ * unpartitioned and hash partitioned by origami.
+ * <p>
+ * Partitioning is PostgreSQL only, so {@code JMH_DB_URL} must name a PostgreSQL instance. Each trial
+ * starts the application in a new schema of that database, migrated on startup and partitioned into
+ * {@code partitions} partitions, then seeds {@link #ORIGAMI_COUNT} origami of {@link #STEPS_PER_ORIGAMI}
+ * steps with SQL, over a million points in total. Reads are measured on an origami in the middle of
+ * the dataset, and folds on a new origami built through {@link GeometryService}.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="GeometryPartitioningBenchmark"}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeometryPartitioningBenchmark {
+
+    private static final int ORIGAMI_COUNT = 500;
+
+    private static final int STEPS_PER_ORIGAMI = 250;
+
+    /**
+     * Every seeded step creates two faces: an even face, removed by the next step, and an odd face, kept.
+     * Each face has four vertices and four edges, and each odd face has an annotated point.
+     */
+    private static final String SEED = """
+            INSERT INTO users (username, password) VALUES ('partition-benchmark', 'password');
+
+            INSERT INTO origami (user_id, origami_name, is_public)
+            SELECT u.id, 'partition benchmark ' || g, TRUE
+            FROM users u CROSS JOIN generate_series(1, %1$d) g
+            WHERE u.username = 'partition-benchmark';
+
+            INSERT INTO step (origami_id, step_type_id, id_in_origami)
+            SELECT o.id, t.id, g
+            FROM origami o
+            CROSS JOIN step_type t
+            CROSS JOIN generate_series(0, %2$d - 1) g
+            WHERE t.step_type_name = 'fold'
+            ORDER BY o.id, g;
+
+            CREATE TEMP TABLE seed_step AS
+            SELECT s.id, s.origami_id, s.id_in_origami, n.id AS next_step_id
+            FROM step s
+            LEFT JOIN step n ON n.origami_id = s.origami_id AND n.id_in_origami = s.id_in_origami + 1;
+
+            INSERT INTO face (origami_id, step_id, id_in_origami, deleted_step_id)
+            SELECT s.origami_id, s.id, 2 * s.id_in_origami + k, CASE WHEN k = 0 THEN s.next_step_id END
+            FROM seed_step s CROSS JOIN generate_series(0, 1) k
+            ORDER BY s.id, k;
+
+            CREATE TEMP TABLE seed_face AS
+            SELECT f.id, f.origami_id, f.step_id, f.deleted_step_id, f.id_in_origami %% 2 = 1 AS kept
+            FROM face f;
+
+            INSERT INTO fold_step (step_id, anchored_face_id)
+            SELECT step_id, id FROM seed_face WHERE kept;
+
+            INSERT INTO origami_point (origami_id, step_id, face_id, point_type_id, x_pos, y_pos, id_in_face,
+                deleted_step_id)
+            SELECT f.origami_id, f.step_id, f.id, t.id, g, g, g, f.deleted_step_id
+            FROM seed_face f
+            CROSS JOIN generate_series(0, 4) g
+            INNER JOIN point_type t ON t.point_type_name = CASE WHEN g = 4 THEN 'annotated_point' ELSE 'vertex' END
+            WHERE g < 4 OR f.kept
+            ORDER BY f.id, g;
+
+            INSERT INTO annotated_point (origami_id, point_id)
+            SELECT origami_id, id FROM origami_point WHERE id_in_face = 4;
+
+            CREATE TEMP TABLE seed_edge AS
+            SELECT nextval(pg_get_serial_sequence('edge', 'id')) AS id, f.origami_id, f.id AS face_id, f.step_id,
+                   f.deleted_step_id, g AS id_in_face
+            FROM seed_face f CROSS JOIN generate_series(0, 3) g
+            ORDER BY f.id, g;
+
+            INSERT INTO edge (id, origami_id, step_id, edge_type_id, deleted_step_id)
+            SELECT e.id, e.origami_id, e.step_id, t.id, e.deleted_step_id
+            FROM seed_edge e
+            INNER JOIN edge_type t ON t.edge_type_name = 'side';
+
+            INSERT INTO side_edge (origami_id, edge_id, vertex_1_id, vertex_2_id, face_id, id_in_face)
+            SELECT e.origami_id, e.id, v1.id, v2.id, e.face_id, e.id_in_face
+            FROM seed_edge e
+            INNER JOIN origami_point v1 ON v1.face_id = e.face_id AND v1.id_in_face = e.id_in_face
+            INNER JOIN origami_point v2 ON v2.face_id = e.face_id AND v2.id_in_face = (e.id_in_face + 1) %% 4;
+
+            DROP TABLE seed_step, seed_face, seed_edge;
+
+            ANALYZE;
+            """.formatted(ORIGAMI_COUNT, STEPS_PER_ORIGAMI);
+
+    @Param({"0", "16"})
+    private int partitions;
+
+    private ConfigurableApplicationContext context;
+
+    private GeometryService geometryService;
+
+    // Seeded origami the reads are measured on.
+    private long seededOrigamiId;
+
+    // Origami built through the service the folds are measured on.
+    private long foldedOrigamiId;
+
+    // ID in origami of the last step of the folded origami.
+    private int lastStep;
+
+    // ID in origami of the face live after the last fold.
+    private int liveFace;
+
+    // Step read by the next getStep call.
+    private int readStep;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("JMH_DB_URL");
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("Partitioning benchmarks need JMH_DB_URL to name a PostgreSQL database");
+        }
+        String user = System.getenv("JMH_DB_USER");
+        String password = System.getenv("JMH_DB_PASSWORD");
+
+        // A new schema per trial, as partitioned tables are not turned back
+        String schema = "partition_benchmark_" + partitions;
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+        }
+
+        context = SpringApplication.run(BackendApplication.class, "--spring.profiles.active=jmh",
+                "--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                "--database.migration.geometry-partitions=" + partitions);
+        geometryService = context.getBean(GeometryService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute(SEED);
+        seededOrigamiId = jdbcTemplate.queryForObject("SELECT id FROM origami ORDER BY id OFFSET ? LIMIT 1",
+                Long.class, ORIGAMI_COUNT / 2);
+        long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'partition-benchmark'",
+                Long.class);
+
+        foldedOrigamiId = context.getBean(OrigamiService.class)
+                .newOrigami(new NewOrigamiRequest(userId, "partition benchmark folds", false))
+                .getBody().getData().getOrigamiId();
+        lastStep = 0;
+        liveFace = 0;
+        readStep = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Materializes the seeded origami in the middle of its history.
+     */
+    @Benchmark
+    public Object getSnapshot() {
+        return geometryService.getSnapshot(seededOrigamiId, STEPS_PER_ORIGAMI / 2);
+    }
+
+    /**
+     * Moves the seeded origami one step forward, cycling through its history.
+     */
+    @Benchmark
+    public Object getStep() {
+        readStep = readStep % (STEPS_PER_ORIGAMI - 1) + 1;
+        return geometryService.getStep(seededOrigamiId, readStep - 1, readStep, true);
+    }
+
+    /**
+     * Splits the live face of the folded origami in two faces sharing a fold edge.
+     */
+    @Benchmark
+    public Object fold() {
+        int left = 2 * lastStep + 1;
+        int right = left + 1;
+
+        List<FoldEdgeRequest> leftEdges = new ArrayList<>(Collections.nCopies(4, null));
+        leftEdges.set(1, new FoldEdgeRequest(3, right, 180.0));
+        List<FoldEdgeRequest> rightEdges = new ArrayList<>(Collections.nCopies(4, null));
+        rightEdges.set(3, new FoldEdgeRequest(1, left, 180.0));
+        AnnotateRequest noAnnotations = new AnnotateRequest(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList());
+
+        FaceFoldRequest leftFace = new FaceFoldRequest(left, List.of(new VertexRequest(-1.0, -1.0),
+                new VertexRequest(0.0, -1.0), new VertexRequest(0.0, 1.0), new VertexRequest(-1.0, 1.0)),
+                leftEdges, noAnnotations);
+        FaceFoldRequest rightFace = new FaceFoldRequest(right, List.of(new VertexRequest(0.0, -1.0),
+                new VertexRequest(1.0, -1.0), new VertexRequest(1.0, 1.0), new VertexRequest(0.0, 1.0)),
+                rightEdges, noAnnotations);
+
+        FoldRequest request = new FoldRequest(foldedOrigamiId, ++lastStep, left, List.of(leftFace, rightFace),
+                List.of(liveFace));
+        liveFace = left;
+
+        return geometryService.fold(request);
+    }
+}
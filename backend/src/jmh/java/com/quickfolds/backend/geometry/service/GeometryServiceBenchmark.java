@@ -0,0 +1,202 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.BackendApplication;
+import com.quickfolds.backend.geometry.model.dto.request.*;
+import com.quickfolds.backend.origami.model.dto.request.NewOrigamiRequest;
+import com.quickfolds.backend.origami.service.OrigamiService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the hot paths of {@link GeometryService}: {@code fold}, {@code annotate},
+ * {@code rotate} and {@code getStep}.
+ * <p>
+ * Each trial starts the application with the {@code jmh} Spring profile, which points at the PostgreSQL
+ * database named by {@code JMH_DB_URL}, migrated on startup, and disables keyframes and the step cache so
+ * that the database work itself is measured. An origami is
+ * then built with {@link #HISTORY_STEPS} folds, each replacing every live face by a chain of
+ * {@code faces} faces of {@code vertices} vertices holding {@code annotations} annotated points each.
+ * <p>
+ * Results are reported as throughput and as sampled latency, whose percentiles JMH prints, and the
+ * {@code gc} profiler configured in the {@code jmh} Maven profile adds the allocation rate.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeometryServiceBenchmark {
+
+    /**
+     * Number of folds in the history of the benchmarked origami before measuring.
+     */
+    private static final int HISTORY_STEPS = 50;
+
+    /**
+     * First ID in face given to annotated points, above the IDs of the vertices.
+     */
+    private static final int FIRST_POINT_ID = 1000;
+
+    @Param({"4", "16"})
+    private int faces;
+
+    @Param({"4", "8"})
+    private int vertices;
+
+    @Param({"0", "8"})
+    private int annotations;
+
+    private ConfigurableApplicationContext context;
+
+    private GeometryService geometryService;
+
+    private long origamiId;
+
+    // ID in origami of the last step written.
+    private int lastStep;
+
+    // Next unused face ID in origami.
+    private int nextFaceId;
+
+    // Next unused annotated point ID in face, shared by all faces.
+    private int nextPointId;
+
+    // IDs in origami of the faces live after the last step, in chain order.
+    private List<Integer> liveFaces;
+
+    // Step read by the next getStep call.
+    private int readStep;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(BackendApplication.class, "--spring.profiles.active=jmh");
+        geometryService = context.getBean(GeometryService.class);
+
+        origamiId = context.getBean(OrigamiService.class)
+                .newOrigami(new NewOrigamiRequest(1L, "benchmark", false))
+                .getBody().getData().getOrigamiId();
+        lastStep = 0;
+        nextFaceId = 1;
+        nextPointId = FIRST_POINT_ID;
+        liveFaces = List.of(0);
+
+        for (int i = 0; i < HISTORY_STEPS; i++) {
+            geometryService.fold(createFoldRequest());
+        }
+        readStep = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Replaces every live face by a new chain of faces.
+     */
+    @Benchmark
+    public Object fold() {
+        return geometryService.fold(createFoldRequest());
+    }
+
+    /**
+     * Adds annotated points to every live face, at least one per face.
+     */
+    @Benchmark
+    public Object annotate() {
+        List<FaceAnnotateRequest> faceAnnotations = new ArrayList<>();
+        for (int faceId : liveFaces) {
+            faceAnnotations.add(new FaceAnnotateRequest(faceId, createAnnotations(Math.max(1, annotations))));
+        }
+
+        return geometryService.annotate(new AnnotationRequest(origamiId, ++lastStep, faceAnnotations), null);
+    }
+
+    /**
+     * Rotates every face of the live chain around the fold edge it shares with the previous face.
+     */
+    @Benchmark
+    public Object rotate() {
+        List<FaceRotateRequest> rotations = new ArrayList<>();
+        for (int i = 1; i < liveFaces.size(); i++) {
+            rotations.add(new FaceRotateRequest(liveFaces.get(i - 1), liveFaces.get(i), 90.0));
+        }
+
+        return geometryService.rotate(new RotateRequest(origamiId, ++lastStep, rotations));
+    }
+
+    /**
+     * Moves one fold forward, cycling through the history.
+     */
+    @Benchmark
+    public Object getStep() {
+        readStep = readStep % HISTORY_STEPS + 1;
+        return geometryService.getStep(origamiId, readStep - 1, readStep, true);
+    }
+
+    /**
+     * Moves from the initial state to the end of the history at once.
+     */
+    @Benchmark
+    public Object getStepRange() {
+        return geometryService.getStep(origamiId, 0, HISTORY_STEPS, true);
+    }
+
+    /**
+     * Builds a fold deleting every live face and creating a chain of {@code faces} new faces,
+     * each sharing a fold edge with the next one.
+     */
+    private FoldRequest createFoldRequest() {
+        List<FaceFoldRequest> newFaces = new ArrayList<>();
+        List<Integer> newFaceIds = new ArrayList<>();
+
+        for (int i = 0; i < faces; i++) {
+            int faceId = nextFaceId + i;
+
+            List<VertexRequest> faceVertices = new ArrayList<>();
+            for (int j = 0; j < vertices; j++) {
+                double angle = 2 * Math.PI * j / vertices;
+                faceVertices.add(new VertexRequest(Math.cos(angle) + i, Math.sin(angle)));
+            }
+
+            // Side edges are null, edge 0 is shared with the next face and edge 1 with the previous one
+            List<FoldEdgeRequest> edges = new ArrayList<>(Collections.nCopies(vertices, null));
+            if (i + 1 < faces) {
+                edges.set(0, new FoldEdgeRequest(1, faceId + 1, 180.0));
+            }
+            if (i > 0) {
+                edges.set(1, new FoldEdgeRequest(0, faceId - 1, 180.0));
+            }
+
+            newFaces.add(new FaceFoldRequest(faceId, faceVertices, edges, createAnnotations(annotations)));
+            newFaceIds.add(faceId);
+        }
+
+        FoldRequest request = new FoldRequest(origamiId, ++lastStep, nextFaceId, newFaces, liveFaces);
+        nextFaceId += faces;
+        liveFaces = newFaceIds;
+
+        return request;
+    }
+
+    /**
+     * Builds an annotation request adding {@code count} points with fresh IDs.
+     */
+    private AnnotateRequest createAnnotations(int count) {
+        List<PointAnnotationRequest> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new PointAnnotationRequest(nextPointId++, 0.1 * i, -0.1 * i, null));
+        }
+
+        return new AnnotateRequest(points, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+}
@@ -0,0 +1,79 @@
+package com.quickfolds.backend.user.service;
+
+import com.quickfolds.backend.BackendApplication;
+import com.quickfolds.backend.user.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmarks of {@link UserService#registerUser(User)} under concurrent load.
+ * <p>
+ * Each trial starts the application with the {@code jmh} Spring profile, then {@link #THREADS} threads
+ * register users concurrently, either all with fresh usernames or all with the same, already taken,
+ * username. The latter measures the conflict path, which must answer without a second round trip.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="UserServiceBenchmark"}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(UserServiceBenchmark.THREADS)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    /**
+     * Number of threads registering users concurrently.
+     */
+    static final int THREADS = 8;
+
+    private static final String TAKEN_USERNAME = "benchmark-taken";
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    // Suffix of the next fresh username, unique across trials of the same database.
+    private final AtomicLong nextUser = new AtomicLong(System.currentTimeMillis());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(BackendApplication.class, "--spring.profiles.active=jmh");
+        userService = context.getBean(UserService.class);
+
+        userService.registerUser(user(TAKEN_USERNAME));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Registers a user with a fresh username.
+     */
+    @Benchmark
+    public boolean register() {
+        return userService.registerUser(user("benchmark-" + nextUser.incrementAndGet()));
+    }
+
+    /**
+     * Registers a user whose username is already taken.
+     */
+    @Benchmark
+    public boolean registerTaken() {
+        return userService.registerUser(user(TAKEN_USERNAME));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("benchmark-password");
+        return user;
+    }
+}
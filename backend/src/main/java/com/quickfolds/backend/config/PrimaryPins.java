@@ -0,0 +1,133 @@
+package com.quickfolds.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes protection of the read replica, see {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Once a write to an origami or to the public catalog commits, its key is pinned to the primary for
+ * {@code database.replica.pin-seconds} seconds. A read-only transaction reading a pinned key runs on the
+ * primary, so the author of a change, and the ETags and caches built from their reads, never see the
+ * replica lagging behind it. The pin should therefore outlast the replication lag.
+ * <p>
+ * Pins live in memory, so they only cover the reads served by the instance that wrote.
+ */
+@Component
+public class PrimaryPins {
+
+    /**
+     * Key of the public origami catalog.
+     */
+    public static final String CATALOG = "catalog";
+
+    // Above this many pins, the expired ones are dropped on the next pin.
+    private static final int SWEEP_SIZE = 10_000;
+
+    private final long pinNanos;
+
+    // Expiry of each pin, in System.nanoTime() units.
+    private final ConcurrentHashMap<String, Long> pins = new ConcurrentHashMap<>();
+
+    // Whether the read-only transaction of the current thread reads a pinned key.
+    private final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    public PrimaryPins(@Value("${database.replica.pin-seconds:5}") int pinSeconds) {
+        this.pinNanos = pinSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * @param origamiId The ID of an origami.
+     * @return The key of the origami.
+     */
+    public static String origami(long origamiId) {
+        return "origami-" + origamiId;
+    }
+
+    /**
+     * Pins a key to the primary once the current transaction commits, or right away outside a transaction.
+     *
+     * @param key The key written by the transaction.
+     */
+    public void pinAfterCommit(String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pin(key);
+                }
+            });
+        } else {
+            pin(key);
+        }
+    }
+
+    /**
+     * Pins a key to the primary from now on.
+     *
+     * @param key The key just written.
+     */
+    public void pin(String key) {
+        pin(key, System.nanoTime());
+    }
+
+    void pin(String key, long nowNanos) {
+        if (pinNanos <= 0) {
+            return;
+        }
+
+        if (pins.size() > SWEEP_SIZE) {
+            pins.values().removeIf(expiry -> expiry - nowNanos <= 0);
+        }
+        pins.put(key, nowNanos + pinNanos);
+    }
+
+    /**
+     * Declares the key read by the current transaction, before its first statement. If the key is pinned,
+     * the transaction runs on the primary until it completes.
+     *
+     * @param key The key read by the transaction.
+     */
+    public void readFrom(String key) {
+        readFrom(key, System.nanoTime());
+    }
+
+    void readFrom(String key, long nowNanos) {
+        if (!isPinned(key, nowNanos) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        if (primaryRequired.get() == null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    primaryRequired.remove();
+                }
+            });
+        }
+        primaryRequired.set(true);
+    }
+
+    boolean isPinned(String key, long nowNanos) {
+        Long expiry = pins.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - nowNanos <= 0) {
+            pins.remove(key, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the current transaction reads a pinned key and must run on the primary.
+     */
+    public boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(primaryRequired.get());
+    }
+}
@@ -0,0 +1,60 @@
+package com.quickfolds.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data source of the application when a read replica is configured in {@code database.replica.url}.
+ * <p>
+ * The primary pool is built from {@code spring.datasource} and the replica pool from
+ * {@code database.replica}; both sit behind a {@link ReplicaRoutingDataSource}. Without a replica URL,
+ * this configuration is skipped and Spring Boot builds the single primary data source as before.
+ * <p>
+ * The pools are not beans of their own, so that only the routing data source is migrated and used, and
+ * are closed with this configuration.
+ */
+@Configuration
+@ConditionalOnExpression("!'${database.replica.url:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, PrimaryPins primaryPins,
+                                 @Value("${database.replica.url}") String replicaUrl,
+                                 @Value("${database.replica.username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${database.replica.password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${database.replica.pool-size:10}") int replicaPoolSize) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername);
+        replica.setPassword(replicaPassword);
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setReadOnly(true);
+
+        pools.add(primary);
+        pools.add(replica);
+
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, primaryPins));
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
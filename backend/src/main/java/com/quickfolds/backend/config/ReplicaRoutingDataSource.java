@@ -0,0 +1,37 @@
+package com.quickfolds.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Data source sending the read-only transactions to the read replica and everything else to the primary.
+ * <p>
+ * The target is chosen when a connection is taken, so this data source is wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that takes it at the first
+ * statement, once the transaction is marked read-only. Read-only transactions reading a key pinned by
+ * {@link PrimaryPins} stay on the primary, as do statements outside any transaction, such as the migrations.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    static final String REPLICA = "replica";
+
+    private final PrimaryPins primaryPins;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, PrimaryPins primaryPins) {
+        this.primaryPins = primaryPins;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !primaryPins.isPrimaryRequired()
+                ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,257 @@
+package com.quickfolds.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned schema migrations of {@code classpath:db/migration} to the database.
+ * <p>
+ * Migrations are named {@code V<version>__<description>.sql}, as Flyway names them, and applied in version
+ * order when the data source is created, before any mapper can use it. Each migration runs in its own
+ * transaction and is recorded in {@code schema_version} with a checksum of its script; a recorded migration
+ * whose script has since changed stops the startup, as migrations must never be edited once shipped.
+ * <p>
+ * Instances starting together are serialized by a session-level PostgreSQL advisory lock. A database created
+ * with the former hand-run {@code database/schema.sql} has tables but no {@code schema_version}; it is
+ * recorded at {@link #BASELINE_VERSION} without running it, and the later migrations are applied.
+ * <p>
+ * Disabled by {@code database.migration.enabled}, for databases whose schema is managed elsewhere.
+ * <p>
+ * When {@code database.migration.geometry-partitions} is set, the geometry tables are then hash partitioned
+ * by origami into that many partitions, once, with the {@code partition_geometry_tables} function of V10.
+ * Repartitioning a partitioned database is left to a new migration.
+ */
+@Component
+public class SchemaMigrator implements BeanPostProcessor {
+
+    /**
+     * Version of the migration holding the schema of {@code database/schema.sql}.
+     */
+    static final int BASELINE_VERSION = 1;
+
+    // Key of the advisory lock held while migrating, in the two-key space unused by the origami write locks.
+    private static final int LOCK_CLASS = 0x5143;
+    private static final int LOCK_KEY = 1;
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    // Logger for reporting applied migrations.
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    /**
+     * A migration script found on the classpath.
+     */
+    record Migration(int version, String description, String script) {
+        long checksum() {
+            CRC32 crc = new CRC32();
+            crc.update(script.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+
+    private final boolean enabled;
+
+    private final String location;
+
+    private final int geometryPartitions;
+
+    public SchemaMigrator(@Value("${database.migration.enabled:true}") boolean enabled,
+                          @Value("${database.migration.location:classpath:db/migration}") String location,
+                          @Value("${database.migration.geometry-partitions:0}") int geometryPartitions) {
+        this.enabled = enabled;
+        this.location = location;
+        this.geometryPartitions = geometryPartitions;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource) {
+            migrate(dataSource, loadMigrations());
+        }
+        return bean;
+    }
+
+    /**
+     * @return The migrations found at the configured location, in version order.
+     * @throws IllegalStateException if a script cannot be read or two scripts share a version.
+     */
+    List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location + "/*.sql")) {
+                Matcher matcher = FILE_NAME.matcher(resource.getFilename() == null ? "" : resource.getFilename());
+                if (!matcher.matches()) {
+                    throw new IllegalStateException("Invalid migration file name " + resource.getFilename() +
+                            ", expected V<version>__<description>.sql");
+                }
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                        resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migrations at " + location, e);
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    /**
+     * Applies the migrations not yet recorded in the database, in version order.
+     *
+     * @param dataSource The data source of the database to migrate.
+     * @param migrations Every migration, in version order.
+     * @throws IllegalStateException if a migration fails or a recorded migration has changed.
+     */
+    void migrate(DataSource dataSource, List<Migration> migrations) {
+        try (Connection connection = dataSource.getConnection()) {
+            execute(connection, "SELECT pg_advisory_lock(" + LOCK_CLASS + ", " + LOCK_KEY + ")");
+            try {
+                Map<Integer, Long> applied = getAppliedMigrations(connection, migrations);
+
+                for (Migration migration : migrations) {
+                    Long checksum = applied.get(migration.version());
+                    if (checksum == null) {
+                        apply(connection, migration);
+                    } else if (checksum != migration.checksum()) {
+                        throw new IllegalStateException("Migration V" + migration.version() +
+                                " changed after it was applied, add a new migration instead");
+                    }
+                }
+
+                if (geometryPartitions > 0) {
+                    partitionGeometry(connection);
+                }
+            } finally {
+                execute(connection, "SELECT pg_advisory_unlock(" + LOCK_CLASS + ", " + LOCK_KEY + ")");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot migrate database schema", e);
+        }
+    }
+
+    /**
+     * Reads the recorded migrations, creating {@code schema_version} and recording the baseline first
+     * if the database has none.
+     */
+    private Map<Integer, Long> getAppliedMigrations(Connection connection, List<Migration> migrations)
+            throws SQLException {
+        boolean hasHistory = exists(connection, "schema_version");
+        boolean hasSchema = exists(connection, "origami");
+
+        if (!hasHistory) {
+            execute(connection, """
+                    CREATE TABLE schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        checksum BIGINT NOT NULL,
+                        installed_at TIMESTAMPTZ DEFAULT now()
+                    )""");
+            if (hasSchema) {
+                for (Migration migration : migrations) {
+                    if (migration.version() == BASELINE_VERSION) {
+                        record(connection, migration);
+                        logger.info("Recorded existing schema at baseline migration V{}", BASELINE_VERSION);
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Hash partitions the geometry tables by origami, unless they already are.
+     */
+    private void partitionGeometry(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT relkind FROM pg_class WHERE oid = 'face'::REGCLASS")) {
+            if (resultSet.next() && "p".equals(resultSet.getString(1))) {
+                return;
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT partition_geometry_tables(?)")) {
+            statement.setInt(1, geometryPartitions);
+            statement.execute();
+        }
+        logger.info("Partitioned geometry tables into {} partitions in {} ms", geometryPartitions,
+                System.currentTimeMillis() - start);
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        connection.setAutoCommit(false);
+        try {
+            execute(connection, migration.script());
+            record(connection, migration);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration V" + migration.version() + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        logger.info("Applied migration V{} ({}) in {} ms", migration.version(), migration.description(),
+                System.currentTimeMillis() - start);
+    }
+
+    private static void record(Connection connection, Migration migration) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)")) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setLong(3, migration.checksum());
+            statement.executeUpdate();
+        }
+    }
+
+    private static boolean exists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.quickfolds.backend.config.exception;
 
 import com.quickfolds.backend.dto.BaseResponse;
 import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.exception.TooManyRequestsException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -23,6 +25,7 @@ import java.util.stream.Collectors;
  * Key functionalities:
  * - Handles validation errors for invalid request bodies.
  * - Manages exceptions related to database operations.
+ * - Rejects requests over capacity with a retry delay.
  * - Captures unhandled exceptions and provides meaningful error messages.
  * - Ensures consistent error responses for all API endpoints.
  * <p>
@@ -87,6 +90,22 @@ public class GlobalExceptionHandler {
                 "DB inconsistency error: " + ex.getMessage());
     }
 
+    /**
+     * Handles requests rejected by admission control.
+     * <p>
+     * This method catches {@link TooManyRequestsException}, thrown when a bounded resource is saturated
+     * or a client exceeds its rate. It returns a {@code 429 Too Many Requests} with a {@code Retry-After} header.
+     *
+     * @param ex The exception describing the rejection.
+     * @return A {@link BaseResponse} containing the error message.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<BaseResponse<Boolean>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(new BaseResponse<>(false, HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage(), null));
+    }
+
     /**
      * Handles invalid arguments passed to methods.
      * <p>
@@ -0,0 +1,81 @@
+package com.quickfolds.backend.dto;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Helper for answering conditional GET requests.
+ * <p>
+ * Endpoints derive a strong ETag from cheap version information before doing any real work. If the
+ * client, or a reverse proxy in front of the backend, already holds the current version, as announced
+ * by its {@code If-None-Match} header, a bodiless {@code 304 Not Modified} is returned and the
+ * {@link BaseResponse} is never built. Otherwise the response is built and tagged with the ETag.
+ * <p>
+ * Responses are marked {@code public, no-cache}: shared caches may store them even though requests
+ * carry an {@code Authorization} header, but must revalidate them with the backend on every use.
+ */
+public class ConditionalResponse {
+
+    /**
+     * Cache-Control of every tagged response.
+     */
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    private ConditionalResponse() {
+    }
+
+    /**
+     * Answers a GET request with {@code 304 Not Modified} if the client holds the current version,
+     * or with the response built by {@code body} otherwise.
+     *
+     * @param request The current request.
+     * @param etag The strong ETag of the current version, quoted, or {@code null} if it is unknown.
+     * @param body Builds the full response. Not called when {@code 304} is returned.
+     * @return The response, carrying the ETag and Cache-Control headers if it succeeded.
+     */
+    public static <T> ResponseEntity<BaseResponse<T>> of(WebRequest request, String etag,
+                                                         Supplier<ResponseEntity<BaseResponse<T>>> body) {
+        if (etag == null) {
+            return body.get();
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+
+        ResponseEntity<BaseResponse<T>> response = body.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(response.getBody());
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against an ETag, using the weak comparison the header requires.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.quickfolds.backend.exception;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Custom exception to reject a request because the server or the client is over capacity.
+ * <p>
+ * This exception extends {@link RuntimeException}, making it an unchecked exception
+ * that can be thrown without explicit handling. It is used for admission control, such as:
+ * <ul>
+ *     <li>A bounded worker pool whose queue is full</li>
+ *     <li>A client exceeding its request rate</li>
+ * </ul>
+ * <p>
+ * It is caught in the {@link com.quickfolds.backend.config.exception.GlobalExceptionHandler},
+ * which answers {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * Descriptive message explaining why the request was rejected.
+     */
+    private final String message;
+
+    /**
+     * Number of seconds the client should wait before retrying.
+     */
+    private final long retryAfterSeconds;
+}
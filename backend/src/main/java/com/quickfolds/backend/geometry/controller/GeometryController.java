@@ -1,7 +1,9 @@
 package com.quickfolds.backend.geometry.controller;
 
 import com.quickfolds.backend.dto.BaseResponse;
+import com.quickfolds.backend.dto.ConditionalResponse;
 import com.quickfolds.backend.geometry.model.dto.request.*;
+import com.quickfolds.backend.geometry.model.dto.response.SnapshotResponse;
 import com.quickfolds.backend.geometry.model.dto.response.StepResponse;
 import com.quickfolds.backend.geometry.service.GeometryService;
 import jakarta.validation.Valid;
@@ -9,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,6 +27,7 @@ import java.util.List;
  *     <li><strong>POST /geometry/fold:</strong> Handles origami folding operations.</li>
  *     <li><strong>POST /geometry/annotate:</strong> Adds annotations to an origami structure.</li>
  *     <li><strong>GET /geometry/get/step:</strong> Retrieves a specific step in the origami process.</li>
+ *     <li><strong>GET /geometry/snapshot:</strong> Retrieves the full state of an origami at a specific step.</li>
  * </ul>
  * <p>
  * Validation:
@@ -122,36 +126,46 @@ public class GeometryController {
     }
 
     /**
-     * Retrieves necessary data to go forward or backward one step in the origami folding process.
+     * Retrieves necessary data to go forward or backward between two steps in the origami folding process.
      * <p>
      * This endpoint expects a long value representing the origami ID,
      * an int value representing the step ID in the origami of the starting step,
      * an int value representing the step ID in the origmi of the ending step,
      * and a boolean value indicating if the step is going forward.
+     * Steps more than one apart are returned as the net change between them.
      * It verifies that:
      * <ul>
      *     <li>the parameters are not null</li>
-     *     <li>startStep and endStep are exactly 1 appart</li>
+     *     <li>startStep and endStep are different and not negative</li>
      *     <li>startStep < endStep if isForward = true</li>
      *     <li>startStep > endStep if isForward = false</li>
      * </ul>
      * If verification succeeds, delegates processing to {@link GeometryService#getStep(long, int, int, boolean)}.
+     * <p>
+     * The response carries a strong ETag from {@link GeometryService#getStepETag(long, int, int, boolean)}.
+     * If the request's {@code If-None-Match} holds the current tag, {@code 304 Not Modified} is returned
+     * without building the step.
      *
      * @param origamiId The ID in the database of the origami the step is in.
      * @param startStep The ID in the origami of the starting step.
      * @param endStep The ID in the origami of the ending step.
      * @param isForward Indicates if the step is going forward or not.
+     * @param webRequest The current request, used to read its {@code If-None-Match} header.
      * @return {@link ResponseEntity} with a {@link BaseResponse} containing the step details,
      *      wrapped in a {@link StepResponse}.
      */
     @GetMapping("/getStep/{origamiId}/{startStep}/{endStep}/{isForward}")
     public ResponseEntity<BaseResponse<StepResponse>> getStep(@PathVariable long origamiId,
                                                          @PathVariable int startStep,
-                                                         @PathVariable int endStep, @PathVariable boolean isForward) {
+                                                         @PathVariable int endStep, @PathVariable boolean isForward,
+                                                         WebRequest webRequest) {
+
+        if (startStep == endStep) {
+            throw new IllegalArgumentException("Start step and end step must be different");
+        }
 
-        int a = Math.abs(startStep - endStep);
-        if (a != 1) {
-            throw new IllegalArgumentException("Can only go between 1 step at a time. Tried to go between " + a + " steps");
+        if (startStep < 0 || endStep < 0) {
+            throw new IllegalArgumentException("Step ID in origami cannot be negative, verify if request is valid");
         }
 
         if (startStep > endStep && isForward == true) {
@@ -162,6 +176,33 @@ public class GeometryController {
             throw new IllegalArgumentException("Start step cannot be less than end step when going backward");
         }
 
-        return geometryService.getStep(origamiId, startStep, endStep, isForward);
+        return ConditionalResponse.of(webRequest, geometryService.getStepETag(origamiId, startStep, endStep, isForward),
+                () -> geometryService.getStep(origamiId, startStep, endStep, isForward));
+    }
+
+    /**
+     * Retrieves the full state of an origami model at a given step.
+     * <p>
+     * This endpoint expects a long value representing the origami ID and an int value
+     * representing the step ID in the origami to materialize. It verifies that the step
+     * is not negative, then delegates processing to {@link GeometryService#getSnapshot(long, int)}.
+     * Like {@code getStep}, the response is tagged and revalidated with {@code If-None-Match}.
+     *
+     * @param origamiId The ID in the database of the origami.
+     * @param step The ID in the origami of the step to materialize.
+     * @param webRequest The current request, used to read its {@code If-None-Match} header.
+     * @return {@link ResponseEntity} with a {@link BaseResponse} containing every live face, vertex,
+     *      edge and annotation at the step, wrapped in a {@link SnapshotResponse}.
+     */
+    @GetMapping("/snapshot/{origamiId}/{step}")
+    public ResponseEntity<BaseResponse<SnapshotResponse>> getSnapshot(@PathVariable long origamiId,
+                                                                      @PathVariable int step,
+                                                                      WebRequest webRequest) {
+        if (step < 0) {
+            throw new IllegalArgumentException("Step ID in origami cannot be negative, verify if request is valid");
+        }
+
+        return ConditionalResponse.of(webRequest, geometryService.getSnapshotETag(origamiId, step),
+                () -> geometryService.getSnapshot(origamiId, step));
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.quickfolds.backend.geometry.mapper;
 import com.quickfolds.backend.geometry.model.database.AnnotatedLine;
 import com.quickfolds.backend.geometry.model.dto.response.LineAnnotationResponse;
 import com.quickfolds.backend.geometry.model.dto.DeletedIdInFace;
+import com.quickfolds.backend.geometry.model.dto.IdInFace;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -27,11 +28,13 @@ public interface AnnotateLineMapper {
      * This method returns the unique database IDs of annotated lines based on their identifiers
      * within a specific face, ensuring accurate data retrieval for further processing.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param faceId The ID of the face containing the annotated lines.
      * @param idsInFace A list of unique identifiers for annotated lines within the face.
      * @return A list of database IDs corresponding to the requested annotated lines, or an empty list if none are found.
      */
-    List<Long> getIdsByIdsInFace(@Param("faceId") long faceId, @Param("idsInFace") List<Integer> idsInFace);
+    List<Long> getIdsByIdsInFace(@Param("origamiId") long origamiId,
+                                 @Param("faceId") long faceId, @Param("idsInFace") List<Integer> idsInFace);
 
     /**
      * Retrieves a list of annotated line IDs that are dependent on specific points.
@@ -39,21 +42,25 @@ public interface AnnotateLineMapper {
      * This method identifies annotated lines within a face that rely on the provided point IDs,
      * typically for deletion or update operations.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param faceId The ID of the face containing the annotations.
      * @param pointIds A list of point IDs that annotated lines depend on.
      * @return A list of dependent annotated line IDs, or an empty list if none are found.
      */
-    List<Long> getDependentIds(@Param("faceId") long faceId, @Param("pointIds") List<Long> pointIds);
+    List<Long> getDependentIds(@Param("origamiId") long origamiId,
+                               @Param("faceId") long faceId, @Param("pointIds") List<Long> pointIds);
 
     /**
      * Inserts a new annotated line into the database.
      * <p>
      * This method adds an {@link AnnotatedLine} entity to the database, representing
-     * an annotation linked to a specific origami face and step.
+     * an annotation linked to a specific origami face and step. The generated primary key
+     * is written back to {@code annotatedLine.id}.
      *
      * @param annotatedLine The {@link AnnotatedLine} object representing the new annotation.
+     * @return The number of rows inserted.
      */
-    void addByObj(@Param("annotatedLine") AnnotatedLine annotatedLine);
+    int addByObj(@Param("annotatedLine") AnnotatedLine annotatedLine);
 
     /**
      * Deletes an annotated line by its database ID.
@@ -85,23 +92,9 @@ public interface AnnotateLineMapper {
      */
     void deleteByIdInFace(@Param("faceId") long faceId, @Param("idInFace") int idInFace);
 
-    /**
-     * Deletes multiple annotated lines within a face, linked to a specific step ID.
-     * <p>
-     * This method deletes annotated lines identified by their in-face IDs while associating
-     * the deletion with a specific step in the origami process.
-     *
-     * @param faceId The ID of the face containing the annotated lines.
-     * @param idsInFace A list of unique identifiers for the annotated lines within the face.
-     * @param deletedStepId The step ID associated with the deletion of annotations.
-     * @return The number of rows affected by the delete operation.
-     */
-    int deleteByIdsInFace(@Param("faceId") long faceId,
-                          @Param("idsInFace") List<Integer> idsInFace,
-                          @Param("deletedStepId") long deletedStepId);
-
 
-    int deleteByFaceIds(@Param("faceIds") List<Long> faceIds,
+    int deleteByFaceIds(@Param("origamiId") long origamiId,
+                        @Param("faceIds") List<Long> faceIds,
                         @Param("deletedStepId") long deletedStepId);
 
     /**
@@ -110,11 +103,13 @@ public interface AnnotateLineMapper {
      * This method returns the details of each annotated line created in the given step,
      * formated as an {@link LineAnnotationResponse} object.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId The specific step to get the annotated points of.
      * @return A list of {@link LineAnnotationResponse} objects representing an annotated point,
      * or an empty list if no annotated points were created in the given step.
      */
-    List<LineAnnotationResponse> getAnnotatedLinesByStepIdForward(@Param("stepId") long stepId);
+    List<LineAnnotationResponse> getAnnotatedLinesByStepIdForward(@Param("origamiId") long origamiId,
+                                                                  @Param("stepId") long stepId);
 
     /**
      * Retreives a list of annotated lines deleted in a specific step
@@ -122,27 +117,84 @@ public interface AnnotateLineMapper {
      * This method returns the details of each annotated line deleted in the given step,
      * formated as an {@link LineAnnotationResponse} object.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId The specific step to get the annotated points of.
      * @return A list of {@link LineAnnotationResponse} objects representing an annotated point,
      * or an empty list if no annotated points were deleted in the given step.
      */
-    List<LineAnnotationResponse> getAnnotatedLinesByStepIdBackward(@Param("stepId") long stepId);
+    List<LineAnnotationResponse> getAnnotatedLinesByStepIdBackward(@Param("origamiId") long origamiId,
+                                                                   @Param("stepId") long stepId);
 
     /**
      * Retreives a list of IDs corresponding to annotated lines deleted in a specific step.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId the specific step to get the deleted lines of.
      * @return a list of {@link DeletedIdInFace} objects representing a deleted ID,
      * or an empty list if no annotated lines were deleted in the given step
      */
-    List<DeletedIdInFace> getDeleteAnnotatedLinesByStepIdForward(@Param("stepId") long stepId);
+    List<DeletedIdInFace> getDeleteAnnotatedLinesByStepIdForward(@Param("origamiId") long origamiId,
+                                                                 @Param("stepId") long stepId);
 
     /**
      * Retreives a list of IDs corresponding to annotated lines created in a specific step.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId the specific step to get the created lines of.
      * @return a list of {@link DeletedIdInFace} objects representing a created ID,
      * or an empty list if no annotated lines were created in the given step
      */
-    List<DeletedIdInFace> getDeleteAnnotatedLinesByStepIdBackward(@Param("stepId") long stepId);
-}
\ No newline at end of file
+    List<DeletedIdInFace> getDeleteAnnotatedLinesByStepIdBackward(@Param("origamiId") long origamiId,
+                                                                  @Param("stepId") long stepId);
+
+    /**
+     * Retrieves every annotated line of an origami that is live at a given step.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step to materialize.
+     * @return A list of {@link LineAnnotationResponse} objects, or an empty list if there are none.
+     */
+    List<LineAnnotationResponse> getAnnotatedLinesAtStep(@Param("origamiId") long origamiId,
+                                                         @Param("stepId") long stepId);
+
+    /**
+     * Retrieves the annotated lines of an origami that appeared or disappeared between two steps.
+     * <p>
+     * Lines created and deleted inside the range are excluded from both results.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param fromStepId The database ID of the earlier step of the range.
+     * @param toStepId The database ID of the later step of the range.
+     * @param created {@code true} to select lines that appeared in the range, {@code false} for those that disappeared.
+     * @return A list of {@link LineAnnotationResponse} objects, or an empty list if no line changed.
+     */
+    List<LineAnnotationResponse> getAnnotatedLinesChangedInRange(@Param("origamiId") long origamiId,
+                                                                 @Param("fromStepId") long fromStepId,
+                                                                 @Param("toStepId") long toStepId,
+                                                                 @Param("created") boolean created);
+
+    /**
+     * Deletes annotated lines across several faces in a single statement, linked to a specific step ID.
+     * <p>
+     * Only lines not already deleted are affected. Callers compare the result with the request and
+     * diagnose mismatches with {@link #getIdsByIdsInFace(long, long, List)} only then.
+     *
+     * @param origamiId The ID of the origami model the rows belong to.
+     * @param deletions The lines to delete, each identified by its face and its ID in that face.
+     * @param deletedStepId The step ID associated with the deletion of annotations.
+     * @return The face ID of every deleted line, one entry per line.
+     */
+    List<Long> deleteByIdsInFaces(@Param("origamiId") long origamiId,
+                                  @Param("deletions") List<IdInFace> deletions,
+                                  @Param("deletedStepId") long deletedStepId);
+
+    /**
+     * Inserts multiple annotated lines into the database in a single statement.
+     * <p>
+     * The generated primary keys are written back to each element's {@code id} in list order.
+     *
+     * @param annotatedLines A non-empty list of {@link AnnotatedLine} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("annotatedLines") List<AnnotatedLine> annotatedLines);
+}
@@ -3,6 +3,7 @@ package com.quickfolds.backend.geometry.mapper;
 import com.quickfolds.backend.geometry.model.database.AnnotatedPoint;
 import com.quickfolds.backend.geometry.model.dto.request.AnnotatePointRequest;
 import com.quickfolds.backend.geometry.model.dto.DeletedIdInFace;
+import com.quickfolds.backend.geometry.model.dto.response.PointAnnotationResponse;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -38,11 +39,13 @@ public interface AnnotatePointMapper {
      * This method returns the details of each annotated point created in the given step,
      * formated as an {@link AnnotatePointRequest} object.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId The specific step to get the annotated points of.
      * @return A list of {@link AnnotatePointRequest} objects representing an annotated point,
      * or an empty list if no annotated points were created in the given step.
      */
-    List<AnnotatePointRequest> getAnnotatedPointsByStepIdForward(@Param("stepId") long stepId);
+    List<AnnotatePointRequest> getAnnotatedPointsByStepIdForward(@Param("origamiId") long origamiId,
+                                                                 @Param("stepId") long stepId);
 
     /**
      * Retreives a list of annotated points deleted in a specific step
@@ -50,27 +53,67 @@ public interface AnnotatePointMapper {
      * This method returns the details of each annotated point deleted in the given step,
      * formated as an {@link AnnotatePointRequest} object.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId The specific step to get the annotated points of.
      * @return A list of {@link AnnotatePointRequest} objects representing an annotated point,
      * or an empty list if no annotated points were deleted in the given step.
      */
-    List<AnnotatePointRequest> getAnnotatedPointsByStepIdBackward(@Param("stepId") long stepId);
+    List<AnnotatePointRequest> getAnnotatedPointsByStepIdBackward(@Param("origamiId") long origamiId,
+                                                                  @Param("stepId") long stepId);
 
     /**
      * Retreives a list of IDs corresponding to annotated points deleted in a specific step.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId the specific step to get the deleted points of.
      * @return a list of {@link DeletedIdInFace} objects representing a deleted ID,
      * or an empty list if no annotated points were deleted in the given step
      */
-    List<DeletedIdInFace> getDeleteAnnotatedPointsByStepIdForward(@Param("stepId") long stepId);
+    List<DeletedIdInFace> getDeleteAnnotatedPointsByStepIdForward(@Param("origamiId") long origamiId,
+                                                                  @Param("stepId") long stepId);
 
     /**
      * Retreives a list of IDs corresponding to annotated points created in a specific step.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId the specific step to get the created points of.
      * @return a list of {@link DeletedIdInFace} objects representing a created ID,
      * or an empty list if no annotated points were created in the given step
      */
-    List<DeletedIdInFace> getDeleteAnnotatedPointsByStepIdBackward(@Param("stepId") long stepId);
-}
\ No newline at end of file
+    List<DeletedIdInFace> getDeleteAnnotatedPointsByStepIdBackward(@Param("origamiId") long origamiId,
+                                                                   @Param("stepId") long stepId);
+
+    /**
+     * Retrieves every annotated point of an origami that is live at a given step.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step to materialize.
+     * @return A list of {@link PointAnnotationResponse} objects, or an empty list if there are none.
+     */
+    List<PointAnnotationResponse> getAnnotatedPointsAtStep(@Param("origamiId") long origamiId,
+                                                           @Param("stepId") long stepId);
+
+    /**
+     * Retrieves the annotated points of an origami that appeared or disappeared between two steps.
+     * <p>
+     * Points created and deleted inside the range are excluded from both results.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param fromStepId The database ID of the earlier step of the range.
+     * @param toStepId The database ID of the later step of the range.
+     * @param created {@code true} to select points that appeared in the range, {@code false} for those that disappeared.
+     * @return A list of {@link PointAnnotationResponse} objects, or an empty list if no point changed.
+     */
+    List<PointAnnotationResponse> getAnnotatedPointsChangedInRange(@Param("origamiId") long origamiId,
+                                                                   @Param("fromStepId") long fromStepId,
+                                                                   @Param("toStepId") long toStepId,
+                                                                   @Param("created") boolean created);
+
+    /**
+     * Inserts multiple annotated points into the database in a single statement.
+     *
+     * @param annotatedPoints A non-empty list of {@link AnnotatedPoint} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("annotatedPoints") List<AnnotatedPoint> annotatedPoints);
+}
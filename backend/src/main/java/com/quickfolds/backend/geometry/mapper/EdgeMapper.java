@@ -1,6 +1,8 @@
 package com.quickfolds.backend.geometry.mapper;
 
 import com.quickfolds.backend.geometry.model.database.Edge;
+import com.quickfolds.backend.geometry.model.dto.IdInFace;
+import com.quickfolds.backend.geometry.model.dto.response.FaceResponse;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -18,47 +20,87 @@ import java.util.List;
 @Mapper
 public interface EdgeMapper {
 
+    List<Long> getIdsByFaceIds(@Param("faceIds") List<Long> faceIds);
+
     /**
-     * Retrieves the most recently added edge ID for a given step.
+     * Inserts a new edge into the database.
      * <p>
-     * This method returns the database ID of the last inserted edge associated with a specific folding step.
-     * It is useful for tracking newly created edges and ensuring accurate step-by-step folding operations.
+     * This method adds an {@link Edge} entity representing a side or fold edge within an origami face.
+     * After insertion, the generated primary key is written back to {@code edge.id} for further reference.
      *
-     * @param stepId The ID of the step for which to retrieve the most recent edge.
-     * @return The database ID of the most recently inserted edge, or {@code null} if none exists.
+     * @param edge The {@link Edge} entity to be inserted into the database.
+     * @return The number of rows inserted.
      */
-    Long getMostRecentId(@Param("stepId") long stepId);
+    int addByObj(@Param("edge") Edge edge);
 
+    /**
+     * Inserts multiple edges into the database in a single statement.
+     * <p>
+     * The generated primary keys are written back to each element's {@code id} in list order,
+     * so callers can read the new IDs directly from the objects they passed in.
+     *
+     * @param edges A non-empty list of {@link Edge} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("edges") List<Edge> edges);
 
-    List<Long> getIdsByFaceIds(@Param("faceIds") List<Long> faceIds);
+    int deleteByIds(@Param("origamiId") long origamiId,
+                    @Param("ids") List<Long> ids,
+                    @Param("deletedStepId") long deletedStepId);
 
     /**
-     * Retrieves the database ID of an edge using its position within a face.
+     * Retrieves the side and fold edges of every face of an origami that is live at a given step.
      * <p>
-     * This method returns the unique database ID of an edge based on its `idInFace` within a specific origami face.
-     * It facilitates edge identification for origami model operations, such as folding and face manipulation.
+     * Fold edges are returned from the perspective of both faces they connect.
      *
-     * @param faceId   The ID of the face containing the edge.
-     * @param idInFace The unique identifier of the edge within the face.
-     * @return The database ID of the corresponding edge, or {@code null} if not found.
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step to materialize.
+     * @return A list of {@link FaceResponse} objects with only their ID in origami and edges populated.
      */
-    Long getIdByIdInFace(@Param("faceId") long faceId, @Param("idInFace") int idInFace);
+    List<FaceResponse> getEdgesAtStep(@Param("origamiId") long origamiId, @Param("stepId") long stepId);
 
     /**
-     * Inserts a new edge into the database.
+     * Retrieves the side and fold edges of the faces of an origami to redraw when moving between two steps.
      * <p>
-     * This method adds an {@link Edge} entity representing a side or fold edge within an origami face.
-     * After insertion, it returns the generated primary key for further reference.
+     * The faces are the ones returned by {@link OrigamiPointMapper#getVerticesChangedInRange}. Their edges
+     * are returned as they are at the later step if {@code created} is true, and as they were
+     * at the earlier step otherwise.
      *
-     * @param edge The {@link Edge} entity to be inserted into the database.
-     * @return The generated database ID of the newly inserted edge.
+     * @param origamiId The ID of the origami model.
+     * @param fromStepId The database ID of the earlier step of the range.
+     * @param toStepId The database ID of the later step of the range.
+     * @param created {@code true} to select faces that appeared in the range, {@code false} for those that disappeared.
+     * @return A list of {@link FaceResponse} objects with only their ID in origami and edges populated.
      */
-    Long addByObj(@Param("edge") Edge edge);
-
-    int deleteById(@Param("id") Long id,
-                   @Param("deletedStepId") long deletedStepId);
+    List<FaceResponse> getEdgesChangedInRange(@Param("origamiId") long origamiId,
+                                              @Param("fromStepId") long fromStepId,
+                                              @Param("toStepId") long toStepId,
+                                              @Param("created") boolean created);
 
-    int deleteByIds(@Param("ids") List<Long> ids,
-                    @Param("deletedStepId") long deletedStepId);
+    /**
+     * Retrieves the side and fold edges of the faces created (or deleted) in a single step.
+     * <p>
+     * The faces are the ones returned by {@link OrigamiPointMapper#getVerticesChangedInStep}. Their edges
+     * are returned as they are at the step if {@code created} is true, and as they were just before it otherwise.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step.
+     * @param created {@code true} to select the faces created in the step, {@code false} for those deleted in it.
+     * @return A list of {@link FaceResponse} objects with only their ID in origami and edges populated.
+     */
+    List<FaceResponse> getEdgesChangedInStep(@Param("origamiId") long origamiId,
+                                             @Param("stepId") long stepId,
+                                             @Param("created") boolean created);
 
-}
\ No newline at end of file
+    /**
+     * Resolves the database IDs of several edges, each identified by its face and its position in that face.
+     * <p>
+     * Each edge is looked up among the side edges of its face first, then either side of its fold edges.
+     *
+     * @param origamiId The ID of the origami model the rows belong to.
+     * @param idsInFaces A non-empty list of edges, each identified by its face ID and its ID in that face.
+     * @return One entry per requested edge, with {@code id} set to the edge ID, or {@code null} if not found.
+     */
+    List<IdInFace> getIdsByIdsInFaces(@Param("origamiId") long origamiId,
+                                      @Param("idsInFaces") List<IdInFace> idsInFaces);
+}
@@ -1,7 +1,6 @@
 package com.quickfolds.backend.geometry.mapper;
 
 import com.quickfolds.backend.geometry.model.database.Face;
-import com.quickfolds.backend.geometry.model.dto.response.FaceWithDetailsDTO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -50,10 +49,23 @@ public interface FaceMapper {
      * <p>
      * This method adds a {@link Face} entity representing a new face associated with a specific origami model.
      * The face record is linked to the model and can be further manipulated in subsequent folding steps.
+     * The generated primary key is written back to {@code face.id}.
      *
      * @param face The {@link Face} entity representing the new face to be inserted.
+     * @return The number of rows inserted.
      */
-    void addByObj(@Param("face") Face face);
+    int addByObj(@Param("face") Face face);
+
+    /**
+     * Inserts multiple faces into the database in a single statement.
+     * <p>
+     * The generated primary keys are written back to each element's {@code id} in list order,
+     * so callers can read the new IDs directly from the objects they passed in.
+     *
+     * @param faces A non-empty list of {@link Face} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("faces") List<Face> faces);
 
 
     /**
@@ -75,48 +87,69 @@ public interface FaceMapper {
      * This method performs a logical deletion by marking faces as deleted, associating them with a deletion step.
      * The historical context is retained for potential rollback or auditing purposes.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param ids A list of database IDs representing the faces to be deleted.
      * @param deletedStepId The ID of the step associated with the deletion operation.
      * @return The number of rows affected by the delete operation.
      */
-    int deleteByIds(@Param("ids") List<Long> ids,
+    int deleteByIds(@Param("origamiId") long origamiId,
+                    @Param("ids") List<Long> ids,
                     @Param("deletedStepId") long deletedStepId);
 
     /**
      * Retrieves the id_in_origami value for a specific face ID
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param faceId The database ID of the face
      * @return The ID in origami for the specified face
      */
-    Integer getIdInOrigamiByFaceId(@Param("faceId") Long faceId);
+    Integer getIdInOrigamiByFaceId(@Param("origamiId") long origamiId,
+                                   @Param("faceId") Long faceId);
 
     /**
      * Gets the list of faces (by their id_in_origami) that were deleted in a specific step
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId The ID of the step that deleted the faces
      * @return List of id_in_origami values for deleted faces
      */
-    List<Integer> getDeletedFaceIdsByStepId(@Param("stepId") Long stepId);
+    List<Integer> getDeletedFaceIdsByStepId(@Param("origamiId") long origamiId,
+                                            @Param("stepId") Long stepId);
 
     /**
      * Retrieves all faces created in a specific step with their details
-     *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param stepId The ID of the step where the faces were created
-     * @return List of FaceWithDetailsDTO containing face ID and id_in_origami
+     * @return List of face IDs created in the step
      */
-    List<FaceWithDetailsDTO> getFacesCreatedInStep(@Param("stepId") Long stepId);
+    List<Integer> getFaceIdsInOrigamiCreatedInStep(@Param("origamiId") long origamiId,
+                                                   @Param("stepId") Long stepId);
 
     /**
-     * Retrieves all faces deleted in a specific step with their details
-     * @param stepId The ID of the step where the faces were deleted
-     * @return List of FaceWithDetailsDTO containing face ID and id_in_origami
+     * Retrieves the IDs in origami of faces that appeared or disappeared between two steps.
+     * <p>
+     * Faces created and deleted inside the range are excluded from both results.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param fromStepId The database ID of the earlier step of the range.
+     * @param toStepId The database ID of the later step of the range.
+     * @param created {@code true} to select faces that appeared in the range, {@code false} for those that disappeared.
+     * @return A list of face IDs in origami, or an empty list if no face changed.
      */
-    List<FaceWithDetailsDTO> getFacesDeletedInStep(@Param("stepId") Long stepId);
+    List<Integer> getIdsInOrigamiChangedInRange(@Param("origamiId") long origamiId,
+                                                @Param("fromStepId") long fromStepId,
+                                                @Param("toStepId") long toStepId,
+                                                @Param("created") boolean created);
 
     /**
-     * Retrieves all faces created in a specific step with their details
-     * @param stepId The ID of the step where the faces were created
-     * @return List of face IDs created in the step
+     * Retrieves the faces of an origami model with the given logical IDs, in a single statement.
+     * <p>
+     * Only the {@code id} and {@code idInOrigami} of the returned faces are set.
+     *
+     * @param origamiId The ID of the origami model containing the faces.
+     * @param idsInOrigami A non-empty list of face identifiers within the origami model.
+     * @return The matching faces, in no particular order; faces that are not found are omitted.
      */
-    List<Integer> getFaceIdsInOrigamiCreatedInStep(@Param("stepId") Long stepId);
-}
\ No newline at end of file
+    List<Face> getFacesByIdsInOrigami(@Param("origamiId") long origamiId,
+                                      @Param("idsInOrigami") List<Integer> idsInOrigami);
+}
@@ -1,7 +1,7 @@
 package com.quickfolds.backend.geometry.mapper;
 
 import com.quickfolds.backend.geometry.model.database.FoldEdge;
-import com.quickfolds.backend.geometry.model.dto.response.EdgeResponse;
+import com.quickfolds.backend.geometry.model.dto.FaceIdPair;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -22,7 +22,17 @@ public interface FoldEdgeMapper {
 
     Long getIdByFaceIdPair(@Param("face1Id") Long face1Id, @Param("face2Id") Long face2Id);
 
-    FoldEdge getObjByFaceIdPair(@Param("face1Id") Long face1Id, @Param("face2Id") Long face2Id);
+    /**
+     * Retrieves the most recent fold edge of each of several face pairs, in a single statement.
+     * <p>
+     * The faces of a pair may be given in either order. Pairs without a fold edge have no row in the result.
+     *
+     * @param origamiId The ID of the origami model the rows belong to.
+     * @param facePairs A non-empty list of face pairs.
+     * @return The most recent {@link FoldEdge} of each pair, with the faces in the order they are stored.
+     */
+    List<FoldEdge> getObjsByFaceIdPairs(@Param("origamiId") long origamiId,
+                                        @Param("facePairs") List<FaceIdPair> facePairs);
 
     /**
      * Inserts a new fold edge into the database.
@@ -38,39 +48,34 @@ public interface FoldEdgeMapper {
      */
     Long addByObj(@Param("foldEdge") FoldEdge foldEdge);
 
+    /**
+     * Inserts multiple fold edges into the database in a single statement.
+     * <p>
+     * Each fold edge must already reference its parent {@code edge} row through {@code edgeId}.
+     *
+     * @param foldEdges A non-empty list of {@link FoldEdge} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("foldEdges") List<FoldEdge> foldEdges);
+
     int deleteById(@Param("id") Long id,
                    @Param("deletedStepId") long deletedStepId);
 
     int deleteByFaceId(@Param("faceId") Long faceId,
                        @Param("deletedStepId") long deletedStepId);
 
-    int deleteByFaceIds(@Param("faceIds") List<Long> faceIds,
+    int deleteByFaceIds(@Param("origamiId") long origamiId,
+                        @Param("faceIds") List<Long> faceIds,
                         @Param("deletedStepId") long deletedStepId);
 
     /**
      * Retrieves the ID in the specified face of a fold edge
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param edgeId the specific edge to get the id in face of.
      * @param faceId the face the edge is in.
      * @return the Integer value of the edge's id in face, or Null if could not be found.
      */
-    Integer getEdgeIdInFace(@Param("edgeId") long edgeId, @Param("faceId") long faceId);
-
-    /**
-     * Gets all fold edges for a specific face
-     *
-     * @param faceId The ID of the face
-     * @param origamiId The ID of the origami model
-     * @return List of edge responses containing fold edge details
-     */
-    List<EdgeResponse> getFoldEdgesByFaceId(@Param("faceId") Long faceId,
-                                            @Param("origamiId") long origamiId);
-
-    /**
-     * Gets all fold edges for a specific face that are not connected to any other face
-     * @param faceId The ID of the face
-     * @param origamiId The ID of the origami model
-     * @return List of edge responses containing fold edge details
-     */
-    List<EdgeResponse> getFoldEdgesForDeletedFace(@Param("faceId") Long faceId, @Param("origamiId") long origamiId);
+    Integer getEdgeIdInFace(@Param("origamiId") long origamiId,
+                            @Param("edgeId") long edgeId, @Param("faceId") long faceId);
 }
\ No newline at end of file
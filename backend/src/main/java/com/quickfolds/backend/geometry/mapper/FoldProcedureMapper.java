@@ -0,0 +1,34 @@
+package com.quickfolds.backend.geometry.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * MyBatis Mapper interface for applying a fold with the {@code apply_fold} database function.
+ * <p>
+ * The function performs every write of a fold (step, deleted faces, new faces, vertices, edges,
+ * fold step and annotations) in a single round trip, from the fold request serialized as JSON.
+ */
+@Mapper
+public interface FoldProcedureMapper {
+
+    /**
+     * Applies a fold request with a single call to {@code apply_fold}.
+     * <p>
+     * Writes are left in place when the request is rejected, the caller must roll back.
+     *
+     * @param request The fold request, serialized as JSON.
+     * @param foldStepTypeId The database ID of the fold step type.
+     * @param vertexTypeId The database ID of the vertex point type.
+     * @param annotatedPointTypeId The database ID of the annotated point type.
+     * @param sideEdgeTypeId The database ID of the side edge type.
+     * @param foldEdgeTypeId The database ID of the fold edge type.
+     * @return The JSON result of the function, holding either the created IDs or the error.
+     */
+    String applyFold(@Param("request") String request,
+                     @Param("foldStepTypeId") long foldStepTypeId,
+                     @Param("vertexTypeId") long vertexTypeId,
+                     @Param("annotatedPointTypeId") long annotatedPointTypeId,
+                     @Param("sideEdgeTypeId") long sideEdgeTypeId,
+                     @Param("foldEdgeTypeId") long foldEdgeTypeId);
+}
@@ -1,7 +1,8 @@
 package com.quickfolds.backend.geometry.mapper;
 
 import com.quickfolds.backend.geometry.model.database.OrigamiPoint;
-import com.quickfolds.backend.geometry.model.dto.response.VertexResponse;
+import com.quickfolds.backend.geometry.model.dto.IdInFace;
+import com.quickfolds.backend.geometry.model.dto.response.FaceResponse;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -19,29 +20,19 @@ import java.util.List;
 @Mapper
 public interface OrigamiPointMapper {
 
-    /**
-     * Retrieves the database ID of a point using its position within a face.
-     * <p>
-     * This method returns the unique database ID of an origami point based on its face ID
-     * and its identifier within the face (`idInFace`).
-     *
-     * @param faceId The ID of the face containing the point.
-     * @param idInFace The unique identifier of the point within the face.
-     * @return The database ID of the corresponding origami point, or {@code null} if not found.
-     */
-    Long getIdByIdInFace(@Param("faceId") long faceId, @Param("idInFace") int idInFace);
-
     /**
      * Retrieves the database IDs of multiple points within a specific face.
      * <p>
      * This method returns the unique database IDs of origami points based on their identifiers
      * within a face, ensuring efficient mapping of multiple logical IDs to database records.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param faceId The ID of the face containing the points.
      * @param idsInFace A list of unique identifiers of points within the face.
      * @return A list of database IDs corresponding to the requested points, or an empty list if none are found.
      */
-    List<Long> getIdsByIdsInFace(@Param("faceId") long faceId, @Param("idsInFace") List<Integer> idsInFace);
+    List<Long> getIdsByIdsInFace(@Param("origamiId") long origamiId,
+                                 @Param("faceId") long faceId, @Param("idsInFace") List<Integer> idsInFace);
 
     /**
      * Retrieves the database IDs of points based on their type and unique identifiers.
@@ -49,55 +40,114 @@ public interface OrigamiPointMapper {
      * This method filters the `OrigamiPoint` table using the specified point type and the provided list of IDs,
      * returning only the IDs that exist in the database for the given type.
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param pointTypeId The ID of the point type to filter by.
      * @param ids The list of unique point IDs to search for.
      * @return A list of matching point IDs from the database, or an empty list if none are found.
      */
-    List<Long> getIdsOfPointTypeByIds(@Param("pointTypeId") long pointTypeId, @Param("ids") List<Long> ids);
+    List<Long> getIdsOfPointTypeByIds(@Param("origamiId") long origamiId,
+                                      @Param("pointTypeId") long pointTypeId, @Param("ids") List<Long> ids);
 
     /**
      * Inserts a new origami point into the database.
      * <p>
      * This method adds an {@link OrigamiPoint} entity to the database, representing
-     * a point associated with a specific face and folding step.
+     * a point associated with a specific face and folding step. The generated primary key
+     * is written back to {@code origamiPoint.id}.
      *
      * @param origamiPoint The {@link OrigamiPoint} entity representing the new point to be inserted.
+     * @return The number of rows inserted.
      */
-    void addByObj(@Param("origamiPoint") OrigamiPoint origamiPoint);
+    int addByObj(@Param("origamiPoint") OrigamiPoint origamiPoint);
 
+    /**
+     * Inserts multiple origami points into the database in a single statement.
+     * <p>
+     * The generated primary keys are written back to each element's {@code id} in list order,
+     * so callers can read the new IDs directly from the objects they passed in.
+     *
+     * @param origamiPoints A non-empty list of {@link OrigamiPoint} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("origamiPoints") List<OrigamiPoint> origamiPoints);
 
-    int deleteByFaceIds(@Param("faceIds") List<Long> faceIds,
+
+    int deleteByFaceIds(@Param("origamiId") long origamiId,
+                        @Param("faceIds") List<Long> faceIds,
                         @Param("deletedStepId") long deletedStepId);
 
+
     /**
-     * Deletes multiple origami points within a specific face.
+     * Retrieves every face of an origami that is live at a given step, together with its vertices.
      * <p>
-     * This method removes origami points based on their `idInFace` values,
-     * typically used when reverting steps or cleaning up deleted faces.
+     * A row is live at a step when it was created at or before the step and was not
+     * deleted at or before it.
      *
-     * @param faceId The ID of the face containing the points to delete.
-     * @param idsInFace A list of unique identifiers for the points within the face.
-     * @param deletedStepId The step ID associated with the deletion for tracking purposes.
-     * @return The number of rows affected by the delete operation.
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step to materialize.
+     * @return A list of {@link FaceResponse} objects with only their ID in origami and vertices populated.
      */
-    int deleteByIdsInFace(@Param("faceId") long faceId,
-                          @Param("idsInFace") List<Integer> idsInFace,
-                          @Param("deletedStepId") long deletedStepId);
+    List<FaceResponse> getVerticesAtStep(@Param("origamiId") long origamiId, @Param("stepId") long stepId);
 
+    /**
+     * Retrieves the faces of an origami to redraw when moving between two steps, with their vertices.
+     * <p>
+     * These are the faces that appeared (or disappeared, if {@code created} is false) in the range,
+     * plus the faces live at both steps whose fold edges changed. They are returned as they are
+     * at the later step if {@code created} is true, and as they were at the earlier step otherwise.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param fromStepId The database ID of the earlier step of the range.
+     * @param toStepId The database ID of the later step of the range.
+     * @param created {@code true} to select faces that appeared in the range, {@code false} for those that disappeared.
+     * @return A list of {@link FaceResponse} objects with only their ID in origami and vertices populated.
+     */
+    List<FaceResponse> getVerticesChangedInRange(@Param("origamiId") long origamiId,
+                                                 @Param("fromStepId") long fromStepId,
+                                                 @Param("toStepId") long toStepId,
+                                                 @Param("created") boolean created);
 
     /**
-     * Gets all vertices for a specific face
+     * Retrieves the faces created (or deleted, if {@code created} is false) in a single step, with their vertices.
+     * <p>
+     * Created faces are returned as they are at the step, deleted faces as they were just before it.
      *
-     * @param faceId The ID of the face
-     * @return List of vertex responses with coordinates
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step.
+     * @param created {@code true} to select the faces created in the step, {@code false} for those deleted in it.
+     * @return A list of {@link FaceResponse} objects with only their ID in origami and vertices populated.
      */
-    List<VertexResponse> getVerticesByFaceId(@Param("faceId") Long faceId);
+    List<FaceResponse> getVerticesChangedInStep(@Param("origamiId") long origamiId,
+                                                @Param("stepId") long stepId,
+                                                @Param("created") boolean created);
 
     /**
-     * Gets all vertices for a specific face that was deleted in a specific step
+     * Deletes annotated points across several faces in a single statement, linked to a specific step ID.
+     * <p>
+     * Only points not already deleted are affected, and points that must not be deleted are skipped:
+     * points of the given vertex type, and points that live annotated lines still depend on. Callers
+     * compare the result with the request and diagnose mismatches only then.
+     *
+     * @param origamiId The ID of the origami model the rows belong to.
+     * @param deletions The points to delete, each identified by its face and its ID in that face.
+     * @param vertexTypeId The ID of the vertex point type, whose points are never deleted.
+     * @param deletedStepId The step ID associated with the deletion of annotations.
+     * @return The face ID of every deleted point, one entry per point.
+     */
+    List<Long> deleteAnnotatedByIdsInFaces(@Param("origamiId") long origamiId,
+                                           @Param("deletions") List<IdInFace> deletions,
+                                           @Param("vertexTypeId") long vertexTypeId,
+                                           @Param("deletedStepId") long deletedStepId);
+
+    /**
+     * Retrieves the points of several faces with the given identifiers, in a single statement.
+     * <p>
+     * Like {@link #getIdsByIdsInFace(long, long, List)}, deleted points are included.
      *
-     * @param faceId The ID of the face
-     * @return List of vertex responses with coordinates
+     * @param origamiId The ID of the origami model the rows belong to.
+     * @param idsInFaces A non-empty list of points, each identified by its face ID and its ID in that face.
+     * @return One entry per matching point, with {@code id} set to the point ID; points not found are omitted.
      */
-    List<VertexResponse> getVerticesForDeletedFace(@Param("faceId") Long faceId);
-}
\ No newline at end of file
+    List<IdInFace> getIdsByIdsInFaces(@Param("origamiId") long origamiId,
+                                      @Param("idsInFaces") List<IdInFace> idsInFaces);
+}
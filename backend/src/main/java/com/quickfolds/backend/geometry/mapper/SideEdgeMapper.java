@@ -1,7 +1,6 @@
 package com.quickfolds.backend.geometry.mapper;
 
 import com.quickfolds.backend.geometry.model.database.SideEdge;
-import com.quickfolds.backend.geometry.model.dto.response.EdgeResponse;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -32,31 +31,28 @@ public interface SideEdgeMapper {
      */
     void addByObj(@Param("sideEdge") SideEdge sideEdge);
 
+    /**
+     * Inserts multiple side edges into the database in a single statement.
+     * <p>
+     * Each side edge must already reference its parent {@code edge} row through {@code edgeId}.
+     *
+     * @param sideEdges A non-empty list of {@link SideEdge} entities to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObjs(@Param("sideEdges") List<SideEdge> sideEdges);
 
-    int deleteByFaceIds(@Param("faceIds") List<Long> faceIds,
+
+    int deleteByFaceIds(@Param("origamiId") long origamiId,
+                        @Param("faceIds") List<Long> faceIds,
                         @Param("deletedStepId") long deletedStepId);
 
     /**
      * Retreives the ID in face of a side edge
      *
+     * @param origamiId The ID of the origami model the rows belong to.
      * @param edgeId the specifc edge to get the id in face of.
      * @return the Integer value of the edge's id in face, or Null if could not be found.
      */
-    Integer getEdgeIdInFace(@Param("edgeId") long edgeId);
-
-    /**
-     * Gets all side edges for a specific face
-     *
-     * @param faceId The ID of the face
-     * @return List of edge responses containing side edge details
-     */
-    List<EdgeResponse> getSideEdgesByFaceId(@Param("faceId") Long faceId);
-
-    /**
-     * Gets all side edges for a specific face that are not connected to any other face
-     *
-     * @param faceId The ID of the face
-     * @return List of edge responses containing side edge details
-     */
-    List<EdgeResponse> getSideEdgesForDeletedFace(@Param("faceId") Long faceId);
+    Integer getEdgeIdInFace(@Param("origamiId") long origamiId,
+                            @Param("edgeId") long edgeId);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.quickfolds.backend.geometry.mapper;
+
+import com.quickfolds.backend.geometry.model.database.StepKeyframe;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * MyBatis Mapper interface for handling database operations related to step keyframes.
+ * <p>
+ * This interface provides methods for storing, retrieving and invalidating keyframes,
+ * the serialized full state of an origami model at every K-th step.
+ * <p>
+ * Dependencies:
+ * - {@link StepKeyframe}: Represents the database entity for a keyframe.
+ */
+@Mapper
+public interface StepKeyframeMapper {
+
+    /**
+     * Retrieves the serialized snapshot of the keyframe taken at a given step.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepIdInOrigami The step number within the origami.
+     * @return The JSON encoded snapshot, or {@code null} if no keyframe exists for the step.
+     */
+    String getSnapshot(@Param("origamiId") long origamiId, @Param("stepIdInOrigami") int stepIdInOrigami);
+
+    /**
+     * Inserts a new keyframe into the database.
+     * <p>
+     * If a keyframe already exists for the same origami and step, it is kept and nothing is inserted.
+     * Nothing is inserted either if a step up to the keyframe's was written since it was built.
+     *
+     * @param keyframe The {@link StepKeyframe} entity representing the keyframe to be inserted.
+     * @param historyVersion The highest step ID up to the keyframe's step when it was built, or 0 if none.
+     * @return The number of rows inserted, 0 if the keyframe already existed or is outdated.
+     */
+    int addByObj(@Param("keyframe") StepKeyframe keyframe, @Param("historyVersion") long historyVersion);
+
+    /**
+     * Deletes the keyframes of an origami taken at or after a given step.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepIdInOrigami The first step number whose keyframe is invalidated.
+     * @return The number of keyframes deleted.
+     */
+    int deleteFromStep(@Param("origamiId") long origamiId, @Param("stepIdInOrigami") int stepIdInOrigami);
+}
@@ -33,12 +33,12 @@ public interface StepMapper {
      * <p>
      * This method adds a {@link Step} entity to the database, representing a specific folding
      * action or milestone in the origami process. The primary key of the newly inserted record
-     * is returned after successful insertion.
+     * is written back to {@code step.id} after successful insertion.
      *
      * @param step The {@link Step} entity representing the new step to be inserted.
-     * @return The generated database ID of the newly inserted step.
+     * @return The number of rows inserted.
      */
-    Long addByObj(@Param("step") Step step);
+    int addByObj(@Param("step") Step step);
 
     /**
      * Inserts a new step into the database using individual field values.
@@ -67,4 +67,26 @@ public interface StepMapper {
      * @return the name of the step type corresponding to the specific step, or {@code null} if not found.
      */
     String getTypeByStepId(@Param("stepId") long stepId);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the highest step ID written for the steps of an origami up to a given step number.
+     * <p>
+     * A step written, or written again, always gets a new and higher ID, so this value is a version
+     * of the history of the origami up to the step.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param maxIdInOrigami The highest step number to consider.
+     * @return The highest step ID, or {@code null} if the origami has no such step.
+     */
+    Long getMaxStepId(@Param("origamiId") long origamiId, @Param("maxIdInOrigami") int maxIdInOrigami);
+
+    /**
+     * Locks an origami model for writing until the end of the current transaction.
+     * <p>
+     * This takes a transaction-scoped PostgreSQL advisory lock keyed by the origami ID, which serializes
+     * writers of the same origami across every backend instance sharing the database.
+     *
+     * @param origamiId The ID of the origami model to lock.
+     */
+    void lockOrigami(@Param("origamiId") long origamiId);
+}
@@ -32,6 +32,15 @@ public class AnnotatedLine {
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
+    /**
+     * Foreign key referencing the origami model this annotated line belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Matches the origami of the face holding the line.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
     /**
      * Foreign key referencing the step where this line was annotated.
      * <p>
@@ -31,6 +31,15 @@ public class AnnotatedPoint {
     @Column(name = "point_id", nullable = false, updatable = false)
     private Long pointId;
 
+    /**
+     * Foreign key referencing the origami model this annotated point belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Matches the origami of the same point in the "origami_point" table.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
     /**
      * Foreign key referencing the edge where this point lies, if applicable.
      * <p>
@@ -30,6 +30,15 @@ public class Edge {
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
+    /**
+     * Foreign key referencing the origami model this edge belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Matches the origami of the step that created the edge.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
     /**
      * Foreign key referencing the step in which this edge was created.
      * <p>
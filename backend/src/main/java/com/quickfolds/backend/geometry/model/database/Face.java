@@ -36,6 +36,15 @@ public class Face {
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
+    /**
+     * Foreign key referencing the origami model this face belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Matches the origami of the step that created the face.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
     /**
      * Foreign key referencing the step during which this face was created.
      * <p>
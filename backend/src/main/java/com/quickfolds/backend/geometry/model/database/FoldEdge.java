@@ -29,6 +29,15 @@ public class FoldEdge {
     @Column(name = "edge_id", nullable = false, updatable = false)
     private Long edgeId;
 
+    /**
+     * Foreign key referencing the origami model this fold edge belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Matches the origami of the same edge in the "edge" table.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
     /**
      * Foreign key referencing the first face connected by the fold edge.
      * <p>
@@ -30,6 +30,15 @@ public class OrigamiPoint {
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
+    /**
+     * Foreign key referencing the origami model this point belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Matches the origami of the face holding the point.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
     /**
      * Foreign key referencing the step in which this point was created.
      * <p>
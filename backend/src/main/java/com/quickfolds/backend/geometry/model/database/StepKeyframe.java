@@ -0,0 +1,109 @@
+package com.quickfolds.backend.geometry.model.database;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Represents a keyframe, the serialized full state of an origami model at a given step.
+ * <p>
+ * This entity maps to the "step_keyframe" table in the database. Keyframes are a cache:
+ * they can always be rebuilt from the geometry tables and are dropped whenever a step
+ * at or before them is written again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "step_keyframe")
+public class StepKeyframe {
+
+    /**
+     * Primary key for the StepKeyframe table.
+     * <p>
+     * - Auto-generated by the database using identity strategy.
+     * - Cannot be null and cannot be updated after creation.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    /**
+     * Foreign key referencing the origami this keyframe belongs to.
+     * <p>
+     * - Cannot be null.
+     * - Links this record to a specific origami in the "origami" table.
+     */
+    @Column(name = "origami_id", nullable = false)
+    private Long origamiId;
+
+    /**
+     * Foreign key referencing the step this keyframe was taken at.
+     * <p>
+     * - Cannot be null.
+     * - Links to the "step" table.
+     */
+    @Column(name = "step_id", nullable = false)
+    private Long stepId;
+
+    /**
+     * The step number within the origami sequence this keyframe was taken at.
+     * <p>
+     * - Cannot be null.
+     * - Unique together with the origami ID.
+     */
+    @Column(name = "step_id_in_origami", nullable = false)
+    private int stepIdInOrigami;
+
+    /**
+     * The serialized state of the origami at the step.
+     * <p>
+     * - Cannot be null.
+     * - Holds a JSON encoded snapshot response.
+     */
+    @Column(name = "snapshot", nullable = false, columnDefinition = "jsonb")
+    private String snapshot;
+
+    /**
+     * Identifier of the user who created this keyframe record.
+     * <p>
+     * - May be null if not explicitly set.
+     */
+    @Column(name = "created_by")
+    private String createdBy;
+
+    /**
+     * Identifier of the user who last updated this keyframe record.
+     * <p>
+     * - May be null if not explicitly set.
+     */
+    @Column(name = "updated_by")
+    private String updatedBy;
+
+    /**
+     * Timestamp when this keyframe record was created.
+     * <p>
+     * - Automatically set at the time of creation.
+     * - Cannot be updated after creation.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    /**
+     * Timestamp when this keyframe record was last updated.
+     * <p>
+     * - Updated automatically when the record is modified.
+     * - Can be null if no updates have occurred.
+     */
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+}
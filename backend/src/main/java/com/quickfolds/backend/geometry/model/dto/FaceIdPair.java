@@ -0,0 +1,34 @@
+package com.quickfolds.backend.geometry.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) identifying two faces joined by a fold edge.
+ * <p>
+ * This class is used to look up the fold edges of several face pairs, such as the pairs of
+ * a rotate request, with a single statement. The order of the faces does not matter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FaceIdPair {
+
+    /**
+     * The database ID of the first face.
+     */
+    private Long face1Id;
+
+    /**
+     * The database ID of the second face.
+     */
+    private Long face2Id;
+
+    /**
+     * @return The same pair, with the lower face ID first, so that both orders of a pair are equal.
+     */
+    public FaceIdPair normalized() {
+        return face1Id <= face2Id ? this : new FaceIdPair(face2Id, face1Id);
+    }
+}
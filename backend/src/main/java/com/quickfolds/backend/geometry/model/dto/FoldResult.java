@@ -0,0 +1,39 @@
+package com.quickfolds.backend.geometry.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) representing the result of the {@code apply_fold} database function.
+ * <p>
+ * A fold that was applied has its step and face IDs set. A rejected fold only has its error set,
+ * and {@code badRequest} tells whether the request or the database state is at fault.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoldResult {
+
+    /**
+     * The database ID of the created step.
+     */
+    private Long stepId;
+
+    /**
+     * The database IDs of the created faces, in request order.
+     */
+    private List<Long> faceIds;
+
+    /**
+     * The reason the fold was rejected, or {@code null} if it was applied.
+     */
+    private String error;
+
+    /**
+     * Whether the fold was rejected because of an invalid request.
+     */
+    private Boolean badRequest;
+}
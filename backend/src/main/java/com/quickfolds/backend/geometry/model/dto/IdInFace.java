@@ -0,0 +1,39 @@
+package com.quickfolds.backend.geometry.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) identifying an annotation by the face it is on.
+ * <p>
+ * This class is used to pass the annotations of several faces to a single statement, such as
+ * the annotated points or lines deleted by an annotate request across all of its faces, and to
+ * return the database IDs such a statement resolves.
+ * <p>
+ * Unlike {@link DeletedIdInFace}, the face is identified by its database ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdInFace {
+
+    /**
+     * The database ID of the face the annotation is on.
+     */
+    private Long faceId;
+
+    /**
+     * The identifier of the annotation within the face.
+     */
+    private Integer idInFace;
+
+    /**
+     * The database ID of the annotation or edge, set only when returned by a lookup.
+     */
+    private Long id;
+
+    public IdInFace(Long faceId, Integer idInFace) {
+        this(faceId, idInFace, null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.quickfolds.backend.geometry.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) representing the full state of an origami model at a given step.
+ * <p>
+ * Unlike {@link StepResponse}, which describes the changes made by a single step, this class
+ * describes everything that is live once the step has been applied, so a client can jump
+ * directly to the step without replaying the steps before it.
+ *
+ * Dependencies:
+ * <ul>
+ *     <li>{@link FaceResponse}: Represents a live face with its vertices and edges.</li>
+ *     <li>{@link FaceAnnotateResponse}: Represents the live annotations on a face.</li>
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotResponse {
+
+    /**
+     * The ID in origami of the step the snapshot was taken at.
+     */
+    private Integer stepIdInOrigami;
+
+    /**
+     * The faces live at the step, each with its vertices and edges.
+     */
+    private List<FaceResponse> faces;
+
+    /**
+     * The annotations live at the step, grouped by face.
+     * <p>
+     * Only faces with at least one annotated point or line are included, and the deleted
+     * point and line lists of each entry are always empty.
+     */
+    private List<FaceAnnotateResponse> annotations;
+}
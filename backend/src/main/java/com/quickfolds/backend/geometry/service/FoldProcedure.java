@@ -0,0 +1,104 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.geometry.constants.EdgeType;
+import com.quickfolds.backend.geometry.constants.PointType;
+import com.quickfolds.backend.geometry.constants.StepType;
+import com.quickfolds.backend.geometry.mapper.FoldProcedureMapper;
+import com.quickfolds.backend.geometry.model.dto.FoldResult;
+import com.quickfolds.backend.geometry.model.dto.request.FoldRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies fold requests with a single call to the {@code apply_fold} database function.
+ * <p>
+ * The Java path of {@link GeometryService#fold} issues one statement per table touched by a fold.
+ * When {@code geometry.fold.db-side} is enabled, the request is instead serialized to JSON and applied
+ * by the database in one round trip, with the same validation and error messages. The Java path
+ * remains the reference implementation, and the default.
+ * <p>
+ * Dependencies:
+ * <ul>
+ *     <li>{@link FoldProcedureMapper}: Calls the database function.</li>
+ *     <li>{@link ReferenceTypeRegistry}: Provides the type IDs of the written rows.</li>
+ *     <li>{@link ObjectMapper}: Serializes requests and reads results.</li>
+ * </ul>
+ */
+@Component
+public class FoldProcedure {
+
+    private final FoldProcedureMapper foldProcedureMapper;
+
+    private final ReferenceTypeRegistry referenceTypes;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    public FoldProcedure(FoldProcedureMapper foldProcedureMapper, ReferenceTypeRegistry referenceTypes,
+                         ObjectMapper objectMapper, @Value("${geometry.fold.db-side:false}") boolean enabled) {
+        this.foldProcedureMapper = foldProcedureMapper;
+        this.referenceTypes = referenceTypes;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return {@code true} if folds are applied by the database function.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applies a fold request with a single database call.
+     * <p>
+     * Must run in a transaction: a rejected request leaves its partial writes to be rolled back
+     * by the exception thrown here.
+     *
+     * @param request The fold request.
+     * @return The IDs of the created step and faces.
+     * @throws IllegalArgumentException if the request is invalid.
+     * @throws DbException if the database state is inconsistent or the result cannot be read.
+     */
+    public FoldResult apply(FoldRequest request) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new DbException("Cannot serialize fold request of step " + request.getStepIdInOrigami());
+        }
+
+        String resultJson = foldProcedureMapper.applyFold(json,
+                referenceTypes.getStepTypeId(StepType.FOLD),
+                referenceTypes.getPointTypeId(PointType.VERTEX),
+                referenceTypes.getPointTypeId(PointType.ANNOTATED_POINT),
+                referenceTypes.getEdgeTypeId(EdgeType.SIDE),
+                referenceTypes.getEdgeTypeId(EdgeType.FOLD));
+
+        FoldResult result;
+        try {
+            result = resultJson == null ? null : objectMapper.readValue(resultJson, FoldResult.class);
+        } catch (JsonProcessingException e) {
+            throw new DbException("Error in DB, cannot read fold result of step " + request.getStepIdInOrigami());
+        }
+
+        if (result == null) {
+            throw new DbException("Fold function returned no result, verify if DB is correct");
+        }
+        if (result.getError() != null) {
+            if (Boolean.TRUE.equals(result.getBadRequest())) {
+                throw new IllegalArgumentException(result.getError());
+            }
+            throw new DbException(result.getError());
+        }
+        if (result.getStepId() == null) {
+            throw new DbException("Cannot find step ID that is just created, verify if SQL is correct");
+        }
+
+        return result;
+    }
+}
@@ -1,7 +1,10 @@
 package com.quickfolds.backend.geometry.service;
 
+import com.quickfolds.backend.config.PrimaryPins;
 import com.quickfolds.backend.dto.BaseResponse;
 import com.quickfolds.backend.geometry.model.dto.DeletedIdInFace;
+import com.quickfolds.backend.geometry.model.dto.FaceIdPair;
+import com.quickfolds.backend.geometry.model.dto.IdInFace;
 import com.quickfolds.backend.geometry.model.dto.request.*;
 import com.quickfolds.backend.geometry.model.dto.response.*;
 import com.quickfolds.backend.exception.DbException;
@@ -19,9 +22,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 
 
@@ -35,6 +44,10 @@ import java.util.stream.Stream;
  * <ul>
  *     <li>Mappers for database operations (FaceMapper, EdgeMapper, StepMapper, etc.).</li>
  *     <li>Transactional operations to maintain data consistency.</li>
+ *     <li>{@link OrigamiWriteLock} to serialize concurrent writes to the same origami.</li>
+ *     <li>{@link FoldProcedure} to apply folds with a single database call, when enabled.</li>
+ *     <li>{@link PrimaryPins} to keep the reads of an origami on the primary database right after it is
+ *     written, as the read-only methods may be served by a read replica.</li>
  * </ul>
  * <p>
  * Logging:
@@ -46,7 +59,6 @@ public class GeometryService {
 
     // Data mappers responsible for retrieving and modifying step-related data.
     private final StepMapper stepMapper;
-    private final StepTypeMapper stepTypeMapper;
     private final FoldStepMapper foldStepMapper;
 
     // Mapper for handling faces (polygonal regions) in an origami structure.
@@ -56,22 +68,41 @@ public class GeometryService {
     private final EdgeMapper edgeMapper;
     private final SideEdgeMapper sideEdgeMapper;
     private final FoldEdgeMapper foldEdgeMapper;
-    private final EdgeTypeMapper edgeTypeMapper;
 
-    // Mappers for handling origami points and their types (e.g., vertices, annotations).
-    private final PointTypeMapper pointTypeMapper;
+    // Mappers for handling origami points (e.g., vertices, annotations).
     private final OrigamiPointMapper origamiPointMapper;
     private final AnnotatePointMapper annotatePointMapper;
 
     // Mapper for handling annotated lines in origami structures.
     private final AnnotateLineMapper annotateLineMapper;
 
+    // Database IDs of the step, point and edge types, loaded at startup.
+    private final ReferenceTypeRegistry referenceTypes;
+
+    // Service for the periodic snapshots used to serve the snapshot endpoint.
+    private final KeyframeService keyframeService;
+
+    // Cache of the responses served by getStep.
+    private final StepCache stepCache;
+
+    // Lock serializing the writers of each origami.
+    private final OrigamiWriteLock origamiWriteLock;
+
+    // Database-side fold, used instead of the Java path when enabled.
+    private final FoldProcedure foldProcedure;
+
+    // Pins the reads of written origami to the primary database.
+    private final PrimaryPins primaryPins;
+
     // Logger for debugging and tracking operations in GeometryService.
     private static final Logger logger = LoggerFactory.getLogger(GeometryService.class);
 
     /**
      * Handles the folding process by deleting specified faces,
      * creating new faces, and managing edges and vertices.
+     * <p>
+     * If {@link FoldProcedure#isEnabled()}, the whole fold is applied by a single database call
+     * instead, with the same validation.
      *
      * @param request The fold request containing faces to delete and add.
      * @return ResponseEntity with a BaseResponse indicating success.
@@ -80,6 +111,16 @@ public class GeometryService {
     public ResponseEntity<BaseResponse<Boolean>> fold(FoldRequest request) {
         long origamiId = request.getOrigamiId();
         int stepIdInOrigami = request.getStepIdInOrigami();
+        origamiWriteLock.lock(origamiId);
+        primaryPins.pinAfterCommit(PrimaryPins.origami(origamiId));
+
+        // Apply the whole fold in the database, in one round trip
+        if (foldProcedure.isEnabled()) {
+            invalidateFrom(origamiId, stepIdInOrigami);
+            foldProcedure.apply(request);
+            return BaseResponse.success();
+        }
+
         long stepId = createStep(origamiId, StepType.FOLD, stepIdInOrigami);
 
         // Delete specified faces
@@ -100,8 +141,11 @@ public class GeometryService {
 
 
     /**
-     * Handles the rotation process by deleting specified faces,
-     * creating new faces, and managing edges and vertices.
+     * Handles the rotation process by replacing the fold edge between each anchored and rotated face
+     * with a new one at the requested angle.
+     * <p>
+     * All faces and fold edges of the request are resolved, deleted and inserted with one statement each,
+     * so a rotation costs the same number of statements however many face pairs it moves.
      *
      * @param request The rotate request containing faces to delete and add.
      * @return ResponseEntity with a BaseResponse indicating success.
@@ -110,42 +154,91 @@ public class GeometryService {
     public ResponseEntity<BaseResponse<Boolean>> rotate(RotateRequest request) {
         long origamiId = request.getOrigamiId();
         int stepIdInOrigami = request.getStepIdInOrigami();
+        origamiWriteLock.lock(origamiId);
+        primaryPins.pinAfterCommit(PrimaryPins.origami(origamiId));
         long stepId = createStep(origamiId, StepType.FOLD, stepIdInOrigami);
 
-        for (FaceRotateRequest face : request.getFaces()) {
-            // Retrieve the ID of the faces
-            long anchoredFaceId = getFaceIdByIdInFace(origamiId, face.getAnchoredFaceIdInOrigami(), "Anchored");
-            long rotatedFaceId = getFaceIdByIdInFace(origamiId, face.getRotatedFaceIdInOrigami(), "Rotated");
+        List<FaceRotateRequest> faces = request.getFaces();
+        if (faces.isEmpty()) return BaseResponse.success();
 
-            // Create fold step with the anchored face
-            createFoldStep(stepId, anchoredFaceId);
+        // Retrieve the IDs of all faces with one lookup
+        List<Integer> idsInOrigami = new ArrayList<>();
+        for (FaceRotateRequest face : faces) {
+            idsInOrigami.add(face.getAnchoredFaceIdInOrigami());
+            idsInOrigami.add(face.getRotatedFaceIdInOrigami());
+        }
+        Map<Integer, Long> faceIds = getFaceIdsByIdsInOrigami(origamiId, idsInOrigami);
+
+        // Keep the last angle of each pair, as a pair rotated twice ends at its last angle
+        Map<FaceIdPair, Double> angles = new LinkedHashMap<>();
+        Long firstAnchoredFaceId = null;
+        for (FaceRotateRequest face : faces) {
+            Long anchoredFaceId = faceIds.get(face.getAnchoredFaceIdInOrigami());
+            if (anchoredFaceId == null) {
+                throw new IllegalArgumentException("Anchored face id not found, verify if request is valid (no such face)");
+            }
+            Long rotatedFaceId = faceIds.get(face.getRotatedFaceIdInOrigami());
+            if (rotatedFaceId == null) {
+                throw new IllegalArgumentException("Rotated face id not found, verify if request is valid (no such face)");
+            }
+
+            if (firstAnchoredFaceId == null) firstAnchoredFaceId = anchoredFaceId;
+            angles.put(new FaceIdPair(anchoredFaceId, rotatedFaceId).normalized(), face.getAngle());
+        }
 
-            // Retrieve the related fold edge
-            FoldEdge foldEdge = foldEdgeMapper.getObjByFaceIdPair(anchoredFaceId, rotatedFaceId);
+        // Create fold step with the anchored face, once per step as it is keyed by the step
+        createFoldStep(stepId, firstAnchoredFaceId);
 
-            // Deleted the edge
-            int deletedRows = edgeMapper.deleteById(foldEdge.getEdgeId(), stepId);
+        // Retrieve the related fold edges
+        List<FaceIdPair> pairs = new ArrayList<>(angles.keySet());
+        Map<FaceIdPair, FoldEdge> foldEdgesByPair = new HashMap<>();
+        for (FoldEdge foldEdge : foldEdgeMapper.getObjsByFaceIdPairs(origamiId, pairs)) {
+            foldEdgesByPair.put(new FaceIdPair(foldEdge.getFace1Id(), foldEdge.getFace2Id()).normalized(), foldEdge);
+        }
 
-            if (deletedRows != 1) {
-                throw  new DbException("Number of deleted fold edges is incorrect, expected: 1, actual: " + deletedRows +
-                        " Verify if DB is correct");
+        List<FoldEdge> foldEdges = new ArrayList<>(pairs.size());
+        List<Long> oldEdgeIds = new ArrayList<>(pairs.size());
+        for (FaceIdPair pair : pairs) {
+            FoldEdge foldEdge = foldEdgesByPair.get(pair);
+            if (foldEdge == null) {
+                throw new IllegalArgumentException("Fold edge between faces not found, " +
+                        "verify if request is valid (no fold edge between anchored and rotated face)");
             }
+            foldEdges.add(foldEdge);
+            oldEdgeIds.add(foldEdge.getEdgeId());
+        }
 
-            // Create a new edge
-            long edgeId = createEdge(stepId, getEdgeTypeId(EdgeType.FOLD));
+        // Delete the edges
+        int deletedRows = edgeMapper.deleteByIds(origamiId, oldEdgeIds, stepId);
 
-            // Update fields of the new fold edge
-            foldEdge.setEdgeId(edgeId);
-            foldEdge.setAngle(face.getAngle());
+        if (deletedRows != oldEdgeIds.size()) {
+            throw  new DbException("Number of deleted fold edges is incorrect, expected: " + oldEdgeIds.size() +
+                    ", actual: " + deletedRows + " Verify if DB is correct");
+        }
+
+        // Create the new edges
+        long foldEdgeTypeId = getEdgeTypeId(EdgeType.FOLD);
+        List<Edge> edges = new ArrayList<>(foldEdges.size());
+        for (int i = 0; i < foldEdges.size(); i++) {
+            edges.add(buildEdge(origamiId, stepId, foldEdgeTypeId));
+        }
+        edgeMapper.addByObjs(edges);
+
+        // Update fields of the new fold edges
+        for (int i = 0; i < foldEdges.size(); i++) {
+            FoldEdge foldEdge = foldEdges.get(i);
+            foldEdge.setOrigamiId(origamiId);
+            foldEdge.setEdgeId(getCreatedEdgeId(edges.get(i)));
+            foldEdge.setAngle(angles.get(pairs.get(i)));
             foldEdge.setCreatedBy(null);
             foldEdge.setUpdatedBy(null);
             foldEdge.setCreatedAt(null);
             foldEdge.setUpdatedAt(null);
-
-            // Insert the fold edge entry
-            foldEdgeMapper.addByObj(foldEdge);
         }
 
+        // Insert the fold edge entries
+        foldEdgeMapper.addByObjs(foldEdges);
+
         return BaseResponse.success();
     }
 
@@ -177,29 +270,37 @@ public class GeometryService {
         // Retrieve point type ID for annotated points.
         Long pointTypeId = getPointTypeId(PointType.ANNOTATED_POINT);
 
-        // Create new step
+        // Create new step, unless called by fold, which already holds the write lock
         if (stepId == null) {
+            origamiWriteLock.lock(origamiId);
+            primaryPins.pinAfterCommit(PrimaryPins.origami(origamiId));
             stepId = createStep(origamiId, StepType.ANNOTATE, stepIdInOrigami);
         }
 
-        // Process each face annotation in the request.
-        for (FaceAnnotateRequest face : request.getFaces()) {
-            long faceId = getFaceId(origamiId, face.getIdInOrigami());
+        // Resolve the faces of the request.
+        List<FaceAnnotateRequest> faces = request.getFaces();
+        List<Long> faceIds = getFaceIds(origamiId, faces);
 
-            deleteAnnotatedLines(origamiId, faceId, stepId, face.getAnnotations().getDeletedLines());
-            deleteAnnotatedPoints(origamiId, faceId, stepId, face.getAnnotations().getDeletedPoints());
-            addAnnotatedPoints(faceId, stepId, pointTypeId, face.getAnnotations().getPoints());
-            addAnnotatedLines(faceId, stepId, face.getAnnotations().getLines());
-        }
+        // Delete the annotations of all faces at once, lines first so that they no longer hold their points.
+        deleteAnnotatedLines(origamiId, stepId, groupByFace(faces, faceIds, AnnotateRequest::getDeletedLines));
+        deleteAnnotatedPoints(origamiId, stepId, groupByFace(faces, faceIds, AnnotateRequest::getDeletedPoints));
+
+        // Add the annotations of all faces at once, points first so that new lines can use them.
+        addAnnotatedPoints(origamiId, faces, faceIds, stepId, pointTypeId);
+        addAnnotatedLines(origamiId, faces, faceIds, stepId);
 
         return BaseResponse.success();
     }
 
     /**
      * Handles the retrieval of data needed to go forward or backward
-     * one step in the origami folding process.
+     * between two steps in the origami folding process.
      * <p>
-     * Currently only supports querying for annotate steps.
+     * A single step is returned as an annotate or fold step. A range of several steps
+     * is returned as its net change, see {@link #getStepRange(long, int, int, boolean)}.
+     * Responses are served from {@link StepCache} when possible, for the history version also used by
+     * {@link #getStepETag(long, int, int, boolean)}, read before the response. The transaction is read-only,
+     * so it runs on the read replica unless the origami was just written.
      *
      * @param origamiId the ID in the database of the origami model the step is in.
      * @param startStep The ID in the origami of the starting step.
@@ -209,9 +310,81 @@ public class GeometryService {
      *         This response includes the detailed information of the requested step.
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<BaseResponse<StepResponse>> getStep(long origamiId, int startStep,
                                                               int endStep, boolean isForward) {
+        primaryPins.readFrom(PrimaryPins.origami(origamiId));
+        StepCache.Key key = new StepCache.Key(origamiId, startStep, endStep, isForward);
+        long version = getHistoryVersion(origamiId, key.lastStep());
+        StepResponse step = stepCache.get(key, version);
+        if (step == null) {
+            step = loadStep(origamiId, startStep, endStep, isForward);
+            stepCache.put(key, version, step);
+        }
+
+        return BaseResponse.success(step);
+    }
+
+    /**
+     * Computes the strong ETag of a {@link #getStep(long, int, int, boolean)} response.
+     * <p>
+     * The tag combines the step identity with the highest step ID written up to the later of the two
+     * steps, which changes whenever a step the response depends on is written again. It costs a single
+     * index lookup and lets unchanged responses be revalidated without being built. It is read from the
+     * same database as the response, so a lagging replica can only tag a response with an older version,
+     * which the next revalidation replaces.
+     *
+     * @param origamiId the ID in the database of the origami model the step is in.
+     * @param startStep The ID in the origami of the starting step.
+     * @param endStep The ID in the origami of the ending step.
+     * @param isForward Indicates if the step is going forward or not.
+     * @return The quoted ETag of the current response.
+     */
+    @Transactional(readOnly = true)
+    public String getStepETag(long origamiId, int startStep, int endStep, boolean isForward) {
+        primaryPins.readFrom(PrimaryPins.origami(origamiId));
+        return "\"step-" + origamiId + "-" + startStep + "-" + endStep + "-" + (isForward ? "f" : "b") + "-" +
+                getHistoryVersion(origamiId, Math.max(startStep, endStep)) + "\"";
+    }
+
+    /**
+     * Computes the strong ETag of a {@link #getSnapshot(long, int)} response.
+     *
+     * @param origamiId The ID in the database of the origami.
+     * @param stepIdInOrigami The ID in the origami of the step to materialize.
+     * @return The quoted ETag of the current response.
+     */
+    @Transactional(readOnly = true)
+    public String getSnapshotETag(long origamiId, int stepIdInOrigami) {
+        primaryPins.readFrom(PrimaryPins.origami(origamiId));
+        return "\"snapshot-" + origamiId + "-" + stepIdInOrigami + "-" +
+                getHistoryVersion(origamiId, stepIdInOrigami) + "\"";
+    }
+
+    /**
+     * @return The highest step ID written up to the step, or 0 if there is none.
+     */
+    private long getHistoryVersion(long origamiId, int stepIdInOrigami) {
+        Long version = stepMapper.getMaxStepId(origamiId, stepIdInOrigami);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Retrieves the data needed to go forward or backward between two steps from the database.
+     *
+     * @param origamiId the ID in the database of the origami model the step is in.
+     * @param startStep The ID in the origami of the starting step.
+     * @param endStep The ID in the origami of the ending step.
+     * @param isForward Indicates if the step is going forward or not.
+     * @return The detailed information of the requested step.
+     * @throws DbException if an error occurs while retrieving data from the database.
+     */
+    private StepResponse loadStep(long origamiId, int startStep, int endStep, boolean isForward) {
+        // Ranges longer than one step are collapsed into their net change
+        if (Math.abs(endStep - startStep) > 1) {
+            return getStepRange(origamiId, startStep, endStep, isForward);
+        }
+
         // Response object to return
         StepResponse step = new StepResponse();
         // ID in database of step to query
@@ -238,7 +411,7 @@ public class GeometryService {
 
         // Based on step type, retrieve the relevant data and add to the response object
         if(stepType.equals(StepType.ANNOTATE)) {
-            List<FaceAnnotateResponse> annotations = annotateStep(stepId, isForward);
+            List<FaceAnnotateResponse> annotations = annotateStep(origamiId, stepId, isForward);
 
             if (annotations.isEmpty()) {
                 throw new DbException("Error in DB, no annotations found for annotate step");
@@ -262,7 +435,169 @@ public class GeometryService {
             throw new IllegalArgumentException("Unsupported step type: " + stepType);
         }
 
-        return BaseResponse.success(step);
+        return step;
+    }
+
+    /**
+     * Handles the retrieval of the full state of an origami model at a given step.
+     * <p>
+     * When keyframes are enabled, the state is served from the keyframe at or before the step,
+     * built and stored on first use, plus the net change between the keyframe and the step.
+     * Otherwise it is materialized directly, see {@link #materializeSnapshot(long, long, int)}.
+     * <p>
+     * The transaction is read-only, so it runs on the read replica unless the origami was just written.
+     * A keyframe built from the replica is stored on the primary only if the history it was built from
+     * is still current there.
+     *
+     * @param origamiId The ID in the database of the origami model.
+     * @param stepIdInOrigami The ID in the origami of the step to materialize.
+     * @return ResponseEntity containing a {@link BaseResponse} with a {@link SnapshotResponse}.
+     * @throws IllegalArgumentException if the step does not exist.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<BaseResponse<SnapshotResponse>> getSnapshot(long origamiId, int stepIdInOrigami) {
+        primaryPins.readFrom(PrimaryPins.origami(origamiId));
+        Long stepId = stepMapper.getIdByIdInOrigami(origamiId, stepIdInOrigami);
+        if (stepId == null) {
+            throw new IllegalArgumentException("Could not find the requested step, " +
+                    "verify if request is valid (no such step)");
+        }
+
+        int keyframeStep = keyframeService.getKeyframeStep(stepIdInOrigami);
+        if (keyframeStep < 0) {
+            return BaseResponse.success(materializeSnapshot(origamiId, stepId, stepIdInOrigami));
+        }
+
+        SnapshotResponse snapshot = keyframeService.getKeyframe(origamiId, keyframeStep);
+        if (snapshot == null) {
+            Long keyframeStepId = keyframeStep == stepIdInOrigami
+                    ? stepId : stepMapper.getIdByIdInOrigami(origamiId, keyframeStep);
+            if (keyframeStepId == null) {
+                throw new DbException("Error in DB, step " + keyframeStep + " is missing from the origami");
+            }
+            long historyVersion = getHistoryVersion(origamiId, keyframeStep);
+            snapshot = materializeSnapshot(origamiId, keyframeStepId, keyframeStep);
+            keyframeService.saveKeyframe(origamiId, keyframeStepId, historyVersion, snapshot);
+        }
+
+        // Replay the steps between the keyframe and the requested step
+        if (keyframeStep != stepIdInOrigami) {
+            FoldForwardResponse change = getStepRange(origamiId, keyframeStep, stepIdInOrigami, true).getFoldForward();
+            snapshot = keyframeService.applyForward(snapshot, change, stepIdInOrigami);
+        }
+
+        return BaseResponse.success(snapshot);
+    }
+
+    /**
+     * Materializes the full state of an origami model at a given step from the geometry tables.
+     * <p>
+     * Every face, vertex, edge and annotation whose {@code step_id} / {@code deleted_step_id}
+     * interval covers the step is selected with one set-based query per kind of row.
+     *
+     * @param origamiId The ID in the database of the origami model.
+     * @param stepId The database ID of the step to materialize.
+     * @param stepIdInOrigami The ID in the origami of the step to materialize.
+     * @return The {@link SnapshotResponse} of the step.
+     */
+    private SnapshotResponse materializeSnapshot(long origamiId, long stepId, int stepIdInOrigami) {
+        List<FaceResponse> faces = mergeFaceEdges(origamiPointMapper.getVerticesAtStep(origamiId, stepId),
+                edgeMapper.getEdgesAtStep(origamiId, stepId));
+
+        List<FaceAnnotateResponse> annotations = buildFaceAnnotations(
+                annotatePointMapper.getAnnotatedPointsAtStep(origamiId, stepId),
+                annotateLineMapper.getAnnotatedLinesAtStep(origamiId, stepId),
+                new ArrayList<>(), new ArrayList<>());
+
+        return new SnapshotResponse(stepIdInOrigami, faces, annotations);
+    }
+
+    /**
+     * Handles the retrieval of the net change between two steps more than one step apart.
+     * <p>
+     * Faces, annotated points and annotated lines are selected with bulk queries over their
+     * {@code step_id} / {@code deleted_step_id} interval, so rows created and deleted inside the
+     * range cancel out and the number of queries does not depend on the length of the range.
+     * Faces live at both steps whose fold edges changed in between are sent again with the
+     * created faces and replace the existing face of the same ID.
+     * <p>
+     * The result is returned as a fold in the direction of travel whose anchored face is left
+     * unset, since the range may span several folds.
+     *
+     * @param origamiId The ID in the database of the origami model.
+     * @param startStep The ID in the origami of the starting step.
+     * @param endStep The ID in the origami of the ending step.
+     * @param isForward Indicates if the range is traversed forward or not.
+     * @return A {@link StepResponse} of type {@code range} holding the net change.
+     * @throws IllegalArgumentException if either step does not exist.
+     */
+    private StepResponse getStepRange(long origamiId, int startStep, int endStep, boolean isForward) {
+        Long fromStepId = stepMapper.getIdByIdInOrigami(origamiId, Math.min(startStep, endStep));
+        Long toStepId = stepMapper.getIdByIdInOrigami(origamiId, Math.max(startStep, endStep));
+        if (fromStepId == null || toStepId == null) {
+            throw new IllegalArgumentException("Could not find the requested step, " +
+                    "verify if request is valid (no such step)");
+        }
+
+        // Going forward, what appeared in the range is created and what disappeared is deleted;
+        // going backward it is the other way around.
+        List<FaceResponse> facesToCreate = mergeFaceEdges(
+                origamiPointMapper.getVerticesChangedInRange(origamiId, fromStepId, toStepId, isForward),
+                edgeMapper.getEdgesChangedInRange(origamiId, fromStepId, toStepId, isForward));
+        List<Integer> facesToDelete =
+                faceMapper.getIdsInOrigamiChangedInRange(origamiId, fromStepId, toStepId, !isForward);
+
+        List<PointAnnotationResponse> points =
+                annotatePointMapper.getAnnotatedPointsChangedInRange(origamiId, fromStepId, toStepId, isForward);
+        List<LineAnnotationResponse> lines =
+                annotateLineMapper.getAnnotatedLinesChangedInRange(origamiId, fromStepId, toStepId, isForward);
+        List<DeletedIdInFace> deletedPoints = annotatePointMapper
+                .getAnnotatedPointsChangedInRange(origamiId, fromStepId, toStepId, !isForward).stream()
+                .map(point -> new DeletedIdInFace(point.getFaceIdInOrigami(), point.getIdInFace()))
+                .toList();
+        List<DeletedIdInFace> deletedLines = annotateLineMapper
+                .getAnnotatedLinesChangedInRange(origamiId, fromStepId, toStepId, !isForward).stream()
+                .map(line -> new DeletedIdInFace(line.getFaceIdInOrigami(), line.getIdInFace()))
+                .toList();
+        List<FaceAnnotateResponse> annotations = buildFaceAnnotations(points, lines, deletedPoints, deletedLines);
+
+        StepResponse step = new StepResponse();
+        step.setStepType("range");
+        step.setIsForward(isForward);
+        if (isForward) {
+            step.setFoldForward(new FoldForwardResponse(null, facesToCreate, facesToDelete, annotations));
+        } else {
+            step.setFoldBackward(new FoldBackwardResponse(null, facesToCreate, facesToDelete, annotations));
+        }
+
+        return step;
+    }
+
+    /**
+     * Attaches the edges returned by an edge query to the faces returned by the matching vertex query.
+     *
+     * @param faces The faces with their vertices, keyed by ID in origami.
+     * @param faceEdges The edges of the same faces, grouped by face ID in origami.
+     * @return The faces with both vertices and edges populated.
+     * @throws DbException if an edge belongs to a face that has no vertices.
+     */
+    private List<FaceResponse> mergeFaceEdges(List<FaceResponse> faces, List<FaceResponse> faceEdges) {
+        Map<Integer, FaceResponse> facesByIdInOrigami = new HashMap<>();
+        for (FaceResponse face : faces) {
+            face.setEdges(new ArrayList<>());
+            facesByIdInOrigami.put(face.getIdInOrigami(), face);
+        }
+
+        for (FaceResponse edges : faceEdges) {
+            FaceResponse face = facesByIdInOrigami.get(edges.getIdInOrigami());
+            if (face == null) {
+                throw new DbException("Error in DB, found edges for face " + edges.getIdInOrigami() +
+                        " which has no vertices");
+            }
+            face.getEdges().addAll(edges.getEdges());
+        }
+
+        return faces;
     }
 
 //    /**
@@ -325,81 +660,96 @@ public class GeometryService {
     /**
      * Handles the retrieval of data needed to go forward or backward one annotate step.
      *
+     * @param origamiId the ID of the origami.
      * @param stepId the specific step to retrieve
      * @param isForward indicates which direction the step is going
      * @return a list of face annotation responses that comprises the step.
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    private List<FaceAnnotateResponse> annotateStep(long stepId, boolean isForward) {
-        ArrayList<FaceAnnotateResponse> annotationStep = new ArrayList<>();
-
+    private List<FaceAnnotateResponse> annotateStep(long origamiId, long stepId, boolean isForward) {
         // get all relevant data for the step
-        List<PointAnnotationResponse> pointAnnotations = getAnnotatedPoints(stepId, isForward);
-        List<LineAnnotationResponse> lineAnnotations = getAnnotatedLines(stepId, isForward);
-        List<DeletedIdInFace> pointDeletions = getDeletedAnnotatedPoints(stepId, isForward);
-        List<DeletedIdInFace> lineDeletions = getDeletedAnnotatedLines(stepId, isForward);
-
-        // determine unique IDs of faces annotated in this step
-        List<Integer> faceIds = Stream.concat(Stream.concat(Stream.concat(
-                pointAnnotations.stream().map(PointAnnotationResponse::getFaceIdInOrigami),
-                        lineAnnotations.stream().map(LineAnnotationResponse::getFaceIdInOrigami)),
-                pointDeletions.stream().map(DeletedIdInFace::getFaceIdInOrigami)),
-                lineDeletions.stream().map(DeletedIdInFace::getFaceIdInOrigami))
-                .distinct().toList();
-
-        // create a FaceAnnotateResponse for each face ID, populate, and add to return list
-        for (Integer id : faceIds) {
-            if (id == null) {
-                throw new DbException("Error in faceIds retrieved from database");
-            }
+        List<PointAnnotationResponse> pointAnnotations = getAnnotatedPoints(origamiId, stepId, isForward);
+        List<LineAnnotationResponse> lineAnnotations = getAnnotatedLines(origamiId, stepId, isForward);
+        List<DeletedIdInFace> pointDeletions = getDeletedAnnotatedPoints(origamiId, stepId, isForward);
+        List<DeletedIdInFace> lineDeletions = getDeletedAnnotatedLines(origamiId, stepId, isForward);
 
-            FaceAnnotateResponse faceAnnotation = new FaceAnnotateResponse();
-            faceAnnotation.setIdInOrigami(id);
-
-            // Collects the annotations on the face
-            List<PointAnnotationResponse> pointsInFace = pointAnnotations.stream()
-                    .filter(point -> point.getFaceIdInOrigami().equals(id))
-                    .collect(Collectors.toList());
-            List<LineAnnotationResponse> linesInFace = lineAnnotations.stream()
-                    .filter(line -> line.getFaceIdInOrigami().equals(id))
-                    .collect(Collectors.toList());
-            List<Integer> deletedPointIds = pointDeletions.stream()
-                    .filter(pointId -> pointId.getFaceIdInOrigami().equals(id))
-                    .map(DeletedIdInFace::getIdInFace)
-                    .collect(Collectors.toList());
-            List<Integer> deletedLineIds = lineDeletions.stream()
-                    .filter(lineId -> lineId.getFaceIdInOrigami().equals(id))
-                    .map(DeletedIdInFace::getIdInFace)
-                    .collect(Collectors.toList());
-
-            // adds annotations to the face annotation response object
-            faceAnnotation.setPoints(pointsInFace);
-            faceAnnotation.setLines(linesInFace);
-            faceAnnotation.setDeletedPoints(deletedPointIds);
-            faceAnnotation.setDeletedLines(deletedLineIds);
+        return buildFaceAnnotations(pointAnnotations, lineAnnotations, pointDeletions, lineDeletions);
+    }
 
-            // adds response object to list
-            annotationStep.add(faceAnnotation);
+    /**
+     * Groups created and deleted annotations by the face they belong to.
+     * <p>
+     * Each list is walked once and every entry is appended to the bucket of its face, so the cost
+     * is linear in the number of annotations. Faces are returned in the order they are first seen.
+     *
+     * @param pointAnnotations the annotated points to create.
+     * @param lineAnnotations the annotated lines to create.
+     * @param pointDeletions the IDs of the annotated points to delete.
+     * @param lineDeletions the IDs of the annotated lines to delete.
+     * @return a list of face annotation responses, one per face with at least one change.
+     * @throws DbException if a face ID retrieved from the database is null.
+     */
+    static List<FaceAnnotateResponse> buildFaceAnnotations(List<PointAnnotationResponse> pointAnnotations,
+                                                           List<LineAnnotationResponse> lineAnnotations,
+                                                           List<DeletedIdInFace> pointDeletions,
+                                                           List<DeletedIdInFace> lineDeletions) {
+        Map<Integer, FaceAnnotateResponse> annotationsByFace = new LinkedHashMap<>();
+
+        for (PointAnnotationResponse point : pointAnnotations) {
+            getFaceAnnotation(annotationsByFace, point.getFaceIdInOrigami()).getPoints().add(point);
+        }
+        for (LineAnnotationResponse line : lineAnnotations) {
+            getFaceAnnotation(annotationsByFace, line.getFaceIdInOrigami()).getLines().add(line);
+        }
+        for (DeletedIdInFace pointId : pointDeletions) {
+            getFaceAnnotation(annotationsByFace, pointId.getFaceIdInOrigami()).getDeletedPoints()
+                    .add(pointId.getIdInFace());
+        }
+        for (DeletedIdInFace lineId : lineDeletions) {
+            getFaceAnnotation(annotationsByFace, lineId.getFaceIdInOrigami()).getDeletedLines()
+                    .add(lineId.getIdInFace());
+        }
+
+        return new ArrayList<>(annotationsByFace.values());
+    }
+
+    /**
+     * Retrieves the bucket of a face, creating an empty one the first time the face is seen.
+     *
+     * @throws DbException if the face ID is null.
+     */
+    private static FaceAnnotateResponse getFaceAnnotation(Map<Integer, FaceAnnotateResponse> annotationsByFace,
+                                                          Integer faceIdInOrigami) {
+        if (faceIdInOrigami == null) {
+            throw new DbException("Error in faceIds retrieved from database");
+        }
+
+        FaceAnnotateResponse faceAnnotation = annotationsByFace.get(faceIdInOrigami);
+        if (faceAnnotation == null) {
+            faceAnnotation = new FaceAnnotateResponse(faceIdInOrigami, new ArrayList<>(), new ArrayList<>(),
+                    new ArrayList<>(), new ArrayList<>());
+            annotationsByFace.put(faceIdInOrigami, faceAnnotation);
         }
 
-        return annotationStep;
+        return faceAnnotation;
     }
 
     /**
      * Handles the retrieval of annotated points needed to delete in an annotate step.
      *
+     * @param origamiId the ID of the origami.
      * @param stepId the specific step to retrieve
      * @param isForward indicates whether to retrieve details for the deleted points or created ones.
      * @return a list of deleted IDs in that step
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    private List<DeletedIdInFace> getDeletedAnnotatedPoints(long stepId, boolean isForward) {
+    private List<DeletedIdInFace> getDeletedAnnotatedPoints(long origamiId, long stepId, boolean isForward) {
         List<DeletedIdInFace> deletedPoints;
 
         if (isForward) {
-            deletedPoints = annotatePointMapper.getDeleteAnnotatedPointsByStepIdForward(stepId);
+            deletedPoints = annotatePointMapper.getDeleteAnnotatedPointsByStepIdForward(origamiId, stepId);
         } else {
-            deletedPoints = annotatePointMapper.getDeleteAnnotatedPointsByStepIdBackward(stepId);
+            deletedPoints = annotatePointMapper.getDeleteAnnotatedPointsByStepIdBackward(origamiId, stepId);
         }
 
         if (deletedPoints == null) {
@@ -412,18 +762,19 @@ public class GeometryService {
     /**
      * Handles the retrieval of annotated lines needed to delete in an annotate step.
      *
+     * @param origamiId the ID of the origami.
      * @param stepId the specific step to retrieve
      * @param isForward indicates whether to retrieve details for the deleted lines or created ones.
      * @return a list of deleted IDs in that step
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    private List<DeletedIdInFace> getDeletedAnnotatedLines(long stepId, boolean isForward) {
+    private List<DeletedIdInFace> getDeletedAnnotatedLines(long origamiId, long stepId, boolean isForward) {
         List<DeletedIdInFace> deletedLines;
 
         if (isForward) {
-            deletedLines = annotateLineMapper.getDeleteAnnotatedLinesByStepIdForward(stepId);
+            deletedLines = annotateLineMapper.getDeleteAnnotatedLinesByStepIdForward(origamiId, stepId);
         } else {
-            deletedLines = annotateLineMapper.getDeleteAnnotatedLinesByStepIdBackward(stepId);
+            deletedLines = annotateLineMapper.getDeleteAnnotatedLinesByStepIdBackward(origamiId, stepId);
         }
 
         if (deletedLines == null) {
@@ -436,18 +787,19 @@ public class GeometryService {
     /**
      * Handles the retrieval of annotated lines needed in an annotate step.
      *
+     * @param origamiId the ID of the origami.
      * @param stepId the specific step to retrieve
      * @param isForward indicates whether to retrieve details for the created lines or deleted ones.
      * @return a list of line annotation responses in that step
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    private List<LineAnnotationResponse> getAnnotatedLines(long stepId, boolean isForward) {
+    private List<LineAnnotationResponse> getAnnotatedLines(long origamiId, long stepId, boolean isForward) {
         List<LineAnnotationResponse> lineAnnotations;
 
         if (isForward) {
-            lineAnnotations = annotateLineMapper.getAnnotatedLinesByStepIdForward(stepId);
+            lineAnnotations = annotateLineMapper.getAnnotatedLinesByStepIdForward(origamiId, stepId);
         } else {
-            lineAnnotations = annotateLineMapper.getAnnotatedLinesByStepIdBackward(stepId);
+            lineAnnotations = annotateLineMapper.getAnnotatedLinesByStepIdBackward(origamiId, stepId);
         }
 
         if (lineAnnotations == null) {
@@ -461,20 +813,21 @@ public class GeometryService {
     /**
      * Handles the retrieval of annotated points needed in an annotate step.
      *
+     * @param origamiId the ID of the origami.
      * @param stepId the specific step to retrieve
      * @param isForward indicates whether to retrieve details for the created points or deleted ones.
      * @return a list of point annotation responses in that step.
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    private List<PointAnnotationResponse> getAnnotatedPoints(long stepId, boolean isForward) {
+    private List<PointAnnotationResponse> getAnnotatedPoints(long origamiId, long stepId, boolean isForward) {
         List<AnnotatePointRequest> annotatedPoints;
         ArrayList<PointAnnotationResponse> pointAnnotations = new ArrayList<>();
 
         // Gets the list of annotated points in the step
         if (isForward) {
-            annotatedPoints = annotatePointMapper.getAnnotatedPointsByStepIdForward(stepId);
+            annotatedPoints = annotatePointMapper.getAnnotatedPointsByStepIdForward(origamiId, stepId);
         } else {
-            annotatedPoints = annotatePointMapper.getAnnotatedPointsByStepIdBackward(stepId);
+            annotatedPoints = annotatePointMapper.getAnnotatedPointsByStepIdBackward(origamiId, stepId);
         }
 
         // If retrieval fails, throw an exception indicating a database issue.
@@ -511,13 +864,13 @@ public class GeometryService {
                     throw new DbException("Error in data from DB, on edge id of point was not null but edge type is");
                 }
                 if (edgeType.equals("side")) {
-                    onEdgeIdInFace = sideEdgeMapper.getEdgeIdInFace(annotatePointRequest.getEdgeId());
+                    onEdgeIdInFace = sideEdgeMapper.getEdgeIdInFace(origamiId, annotatePointRequest.getEdgeId());
                     if (onEdgeIdInFace == null) {
                         throw new DbException("Error in DB, cannot get onEdgeIdInFace from DB");
                     }
 
                 } else if (edgeType.equals("fold")) {
-                    onEdgeIdInFace = foldEdgeMapper.getEdgeIdInFace(
+                    onEdgeIdInFace = foldEdgeMapper.getEdgeIdInFace(origamiId,
                             annotatePointRequest.getEdgeId(), annotatePointRequest.getFaceId());
                     if (onEdgeIdInFace == null) {
                         throw new DbException("Error in DB, cannot get onEdgeIdInFace from DB");
@@ -546,6 +899,9 @@ public class GeometryService {
     /**
      * Processes the creation of new faces during a fold operation.
      * This includes adding vertices and edges for each new face.
+     * <p>
+     * Faces, vertices and edges of all new faces are each written with a single batch
+     * insert, so the number of statements does not grow with the size of the fold.
      *
      * @param faceRequests List of new faces to add.
      * @param origamiId The ID of the origami.
@@ -557,12 +913,10 @@ public class GeometryService {
         long foldEdgeTypeId = getEdgeTypeId(EdgeType.FOLD);
         long sideEdgeTypeId = getEdgeTypeId(EdgeType.SIDE);
 
-        for (FaceFoldRequest faceRequest : faceRequests) {
-            // Create face, vertices, and edges
-            long faceId = createFace(stepId, faceRequest.getIdInOrigami(), origamiId);
-            List<Long> vertexIds = addVertices(faceId, stepId, pointTypeId, faceRequest.getVertices());
-            addEdges(origamiId, faceId, stepId, vertexIds, faceRequest.getEdges(), foldEdgeTypeId, sideEdgeTypeId);
-        }
+        // Create faces, vertices, and edges
+        List<Long> faceIds = createFaces(origamiId, stepId, faceRequests);
+        List<List<Long>> vertexIds = addVertices(origamiId, faceIds, stepId, pointTypeId, faceRequests);
+        addEdges(origamiId, stepId, faceIds, vertexIds, faceRequests, foldEdgeTypeId, sideEdgeTypeId);
     }
 
     /**
@@ -583,26 +937,54 @@ public class GeometryService {
     }
 
     /**
-     * Retrieves the database ID for a face using its ID in origami.
-     * @param origamiId The ID of the origami.
-     * @param faceIdInOrigami The face ID in the origami structure.
-     * @return The database ID of the face.
-     * @throws IllegalArgumentException if the face ID is missing.
+     * Retrieves the database IDs of the faces of an annotate request, with a single lookup.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param faces The faces of the annotate request.
+     * @return The database IDs of the faces, in request order.
+     * @throws IllegalArgumentException if a face ID is missing or not found.
      */
-    private long getFaceId(long origamiId, Integer faceIdInOrigami) {
-        if (faceIdInOrigami == null) {
-            throw new IllegalArgumentException("Face id in origami not given, " +
-                    "verify if request is valid (no face in origami id)");
+    private List<Long> getFaceIds(long origamiId, List<FaceAnnotateRequest> faces) {
+        if (faces.isEmpty()) return List.of();
+
+        List<Integer> idsInOrigami = new ArrayList<>(faces.size());
+        for (FaceAnnotateRequest face : faces) {
+            if (face.getIdInOrigami() == null) {
+                throw new IllegalArgumentException("Face id in origami not given, " +
+                        "verify if request is valid (no face in origami id)");
+            }
+            idsInOrigami.add(face.getIdInOrigami());
         }
 
-        Long faceId = faceMapper.getIdByFaceIdInOrigami(origamiId, faceIdInOrigami);
+        Map<Integer, Long> faceIdsByIdInOrigami = getFaceIdsByIdsInOrigami(origamiId, idsInOrigami);
 
-        // Check if face ID is found
-        if (faceId == null) {
-            throw new IllegalArgumentException("Invalid face ID, verify if request is valid (invalid face ID)");
+        List<Long> faceIds = new ArrayList<>(faces.size());
+        for (Integer idInOrigami : idsInOrigami) {
+            Long faceId = faceIdsByIdInOrigami.get(idInOrigami);
+
+            // Check if face ID is found
+            if (faceId == null) {
+                throw new IllegalArgumentException("Invalid face ID, verify if request is valid (invalid face ID)");
+            }
+            faceIds.add(faceId);
         }
 
-        return faceId;
+        return faceIds;
+    }
+
+    /**
+     * Retrieves the database IDs of several faces by their origami-specific IDs, with a single lookup.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param idsInOrigami The IDs of the faces within the origami context.
+     * @return The database IDs of the faces found, keyed by their ID in origami.
+     */
+    private Map<Integer, Long> getFaceIdsByIdsInOrigami(long origamiId, List<Integer> idsInOrigami) {
+        Map<Integer, Long> faceIds = new HashMap<>();
+        for (Face face : faceMapper.getFacesByIdsInOrigami(origamiId, idsInOrigami)) {
+            faceIds.put(face.getIdInOrigami(), face.getId());
+        }
+        return faceIds;
     }
 
     /**
@@ -632,12 +1014,7 @@ public class GeometryService {
      * @throws DbException if the step type ID cannot be found.
      */
     private long getStepTypeId(String stepTypeName) {
-        Long stepTypeId = stepTypeMapper.getIdByName(stepTypeName);
-        if (stepTypeId == null) {
-            throw new DbException("Cannot find step type ID with type name: " + stepTypeName +
-                    ", verify if DB is correctly set up");
-        }
-        return stepTypeId;
+        return referenceTypes.getStepTypeId(stepTypeName);
     }
 
 
@@ -649,12 +1026,7 @@ public class GeometryService {
      * @throws DbException if the point type ID cannot be found.
      */
     private long getPointTypeId(String pointTypeName) {
-        Long pointTypeId = pointTypeMapper.getIdByName(pointTypeName);
-        if (pointTypeId == null) {
-            throw new DbException("Cannot find point type ID with type name: " + pointTypeName +
-                    ", verify if DB is correctly set up");
-        }
-        return pointTypeId;
+        return referenceTypes.getPointTypeId(pointTypeName);
     }
 
     /**
@@ -664,16 +1036,14 @@ public class GeometryService {
      * @return The database ID of the specified edge type.
      * @throws DbException if the edge type ID cannot be found.
      */
-    private Long getEdgeTypeId(String edgeTypeName) {
-        Long edgeTypeId = edgeTypeMapper.getEdgeTypeByName(edgeTypeName);
-        if (edgeTypeId == null) {
-            throw new DbException("Unknown edge type: " + edgeTypeName + ", check if DB is set correctly");
-        }
-        return edgeTypeId;
+    private long getEdgeTypeId(String edgeTypeName) {
+        return referenceTypes.getEdgeTypeId(edgeTypeName);
     }
 
     /**
      * Creates a new step within an origami workflow.
+     * <p>
+     * Keyframes and cached responses depending on the step are invalidated first.
      *
      * @param origamiId The ID of the origami for which the step is created.
      * @param stepTypeName The type of the step (e.g., FOLD, ANNOTATE).
@@ -682,10 +1052,8 @@ public class GeometryService {
      * @throws DbException if the step type ID or created step ID cannot be found.
      */
     private long createStep(long origamiId, String stepTypeName, int stepIdInOrigami) {
-        Long stepTypeId = stepTypeMapper.getIdByName(stepTypeName);
-        if (stepTypeId == null) {
-            throw new DbException("Unknown step type: " + stepTypeName + ", check if DB is set correctly");
-        }
+        long stepTypeId = getStepTypeId(stepTypeName);
+        invalidateFrom(origamiId, stepIdInOrigami);
 
         Step step = new Step();
         step.setOrigamiId(origamiId);
@@ -693,7 +1061,7 @@ public class GeometryService {
         step.setIdInOrigami(stepIdInOrigami);
         stepMapper.addByObj(step);
 
-        Long stepId = stepMapper.getIdByIdInOrigami(origamiId, stepIdInOrigami);
+        Long stepId = step.getId();
         if (stepId == null) {
             throw new DbException("Cannot find step ID that is just created, verify if SQL is correct");
         }
@@ -702,6 +1070,19 @@ public class GeometryService {
     }
 
 
+    /**
+     * Invalidates the keyframes and cached steps from a step on, which may no longer match the history
+     * once the step is written.
+     *
+     * @param origamiId The ID of the origami.
+     * @param stepIdInOrigami The step number about to be written.
+     */
+    private void invalidateFrom(long origamiId, int stepIdInOrigami) {
+        keyframeService.invalidateFrom(origamiId, stepIdInOrigami);
+        stepCache.invalidateFrom(origamiId, stepIdInOrigami);
+    }
+
+
     /**
      * Creates a new fold step associated with a specific anchored face.
      *
@@ -717,42 +1098,62 @@ public class GeometryService {
 
 
     /**
-     * Creates a new face for the given origami step.
+     * Creates the new faces for the given origami step in a single batch insert.
      *
-     * @param stepId The ID of the step associated with the new face.
-     * @param faceIdInOrigami The ID of the face within the origami context.
-     * @param origamiId The ID of the origami model.
-     * @return The database ID of the newly created face.
-     * @throws DbException if the created face ID cannot be retrieved.
+     * @param origamiId The ID of the origami.
+     * @param stepId The ID of the step associated with the new faces.
+     * @param faceRequests List of new faces to add.
+     * @return The database IDs of the newly created faces, in request order.
+     * @throws DbException if any created face ID cannot be retrieved.
      */
-    private long createFace(long stepId, int faceIdInOrigami, long origamiId) {
-        Face face = new Face();
-        face.setStepId(stepId);
-        face.setIdInOrigami(faceIdInOrigami);
-        faceMapper.addByObj(face);
+    private List<Long> createFaces(long origamiId, long stepId, List<FaceFoldRequest> faceRequests) {
+        if (faceRequests.isEmpty()) return List.of();
 
-        Long faceId = faceMapper.getIdByFaceIdInOrigami(origamiId, faceIdInOrigami);
-        if (faceId == null) {
-            throw new DbException("Cannot find created face ID, verify if SQL is correct");
+        List<Face> faces = new ArrayList<>();
+        for (FaceFoldRequest faceRequest : faceRequests) {
+            Face face = new Face();
+            face.setOrigamiId(origamiId);
+            face.setStepId(stepId);
+            face.setIdInOrigami(faceRequest.getIdInOrigami());
+            faces.add(face);
         }
-        return faceId;
+        faceMapper.addByObjs(faces);
+
+        List<Long> faceIds = new ArrayList<>();
+        for (Face face : faces) {
+            if (face.getId() == null) {
+                throw new DbException("Cannot find created face ID, verify if SQL is correct");
+            }
+            faceIds.add(face.getId());
+        }
+        return faceIds;
     }
 
     /**
-     * Creates a new edge within a specific step.
+     * Builds a new edge within a specific step, without inserting it.
      *
+     * @param origamiId The ID of the origami.
      * @param stepId The ID of the step in which the edge is created.
      * @param edgeTypeId The type ID of the edge (e.g., fold or side).
-     * @return The database ID of the created edge.
-     * @throws DbException if the created edge ID cannot be retrieved.
+     * @return The edge, not yet inserted.
      */
-    private long createEdge(long stepId, Long edgeTypeId) {
+    private Edge buildEdge(long origamiId, long stepId, Long edgeTypeId) {
         Edge edge = new Edge();
+        edge.setOrigamiId(origamiId);
         edge.setStepId(stepId);
         edge.setEdgeTypeId(edgeTypeId);
-        edgeMapper.addByObj(edge);
+        return edge;
+    }
 
-        Long edgeId = edgeMapper.getMostRecentId(stepId);
+    /**
+     * Retrieves the generated ID of an edge that has just been inserted.
+     *
+     * @param edge The inserted edge.
+     * @return The database ID of the edge.
+     * @throws DbException if the created edge ID cannot be retrieved.
+     */
+    private long getCreatedEdgeId(Edge edge) {
+        Long edgeId = edge.getId();
         if (edgeId == null) {
             throw new DbException("Cannot find created edge ID, verify if SQL is correct");
         }
@@ -760,206 +1161,358 @@ public class GeometryService {
     }
 
     /**
-     * Creates a fold edge between two faces during a fold operation.
+     * Builds a fold edge between two faces during a fold operation.
+     * The edge ID is assigned once the parent edge has been inserted.
      *
      * @param origamiId The ID of the origami.
      * @param faceId The ID of the first face.
+     * @param otherFaceId The ID of the other face.
      * @param idInFace1 The index of the edge within the first face.
      * @param request The fold edge request containing details about the other face.
-     * @param edgeId The ID of the newly created edge.
-     * @throws IllegalArgumentException if the other face ID is invalid.
+     * @return The fold edge, not yet inserted.
      */
-    private void createFoldEdge(Long origamiId, long faceId, int idInFace1, FoldEdgeRequest request, long edgeId) {
-        Long otherFaceId = faceMapper.getIdByFaceIdInOrigami(origamiId, request.getOtherFaceIdInOrigami());
-        if (otherFaceId == null) {
-            throw new IllegalArgumentException("Invalid other face ID, verify if request is valid (no such face)");
-        }
-
+    private FoldEdge buildFoldEdge(long origamiId, long faceId, long otherFaceId, int idInFace1,
+                                   FoldEdgeRequest request) {
         // Create fold edge linking the two faces
         FoldEdge foldEdge = new FoldEdge();
-        foldEdge.setEdgeId(edgeId);
+        foldEdge.setOrigamiId(origamiId);
         foldEdge.setFace1Id(faceId);
         foldEdge.setFace2Id(otherFaceId);
         foldEdge.setAngle(request.getAngle());
         foldEdge.setIdInFace1(idInFace1);
         foldEdge.setIdInFace2(request.getIdInOtherFace());
-
-        foldEdgeMapper.addByObj(foldEdge);
+        return foldEdge;
     }
 
 
     /**
-     * Creates a side edge connecting two vertices of a face.
+     * Builds a side edge connecting two vertices of a face.
+     * The edge ID is assigned once the parent edge has been inserted.
      *
+     * @param origamiId The ID of the origami.
      * @param faceId The ID of the face where the edge exists.
-     * @param edgeId The ID of the created edge.
      * @param vertex1Id The ID of the first vertex.
      * @param vertex2Id The ID of the second vertex.
      * @param idInFace The ID of the edge within the face context.
+     * @return The side edge, not yet inserted.
      */
-    private void createSideEdge(long faceId, long edgeId, Long vertex1Id, Long vertex2Id, int idInFace) {
+    private SideEdge buildSideEdge(long origamiId, long faceId, Long vertex1Id, Long vertex2Id, int idInFace) {
         SideEdge sideEdge = new SideEdge();
-        sideEdge.setEdgeId(edgeId);
+        sideEdge.setOrigamiId(origamiId);
         sideEdge.setVertex1Id(vertex1Id);
         sideEdge.setVertex2Id(vertex2Id);
         sideEdge.setFaceId(faceId);
         sideEdge.setIdInFace(idInFace);
-        sideEdgeMapper.addByObj(sideEdge);
+        return sideEdge;
     }
 
 
     /**
-     * Adds vertices to a face during a fold operation.
+     * Adds vertices to the new faces of a fold operation in a single batch insert.
      *
-     * @param faceId The ID of the face to which vertices are added.
+     * @param origamiId The ID of the origami.
+     * @param faceIds The IDs of the faces to which vertices are added, in request order.
      * @param stepId The ID of the current fold step.
      * @param pointTypeId The type ID for the vertex points.
-     * @param vertices List of vertex requests containing coordinates and IDs.
-     * @return A list of database IDs for the created vertices.
+     * @param faceRequests List of new faces containing the vertex coordinates.
+     * @return For each face, a list of database IDs for its created vertices.
      * @throws DbException if any vertex ID cannot be retrieved after creation.
      */
-    private List<Long> addVertices(long faceId, long stepId, long pointTypeId, List<VertexRequest> vertices) {
-        List<Long> vertexIds = new ArrayList<>();
-        for (int i = 0; i < vertices.size(); i++) {
-            VertexRequest vertex = vertices.get(i);
-            OrigamiPoint point = new OrigamiPoint();
-            point.setStepId(stepId);
-            point.setFaceId(faceId);
-            point.setPointTypeId(pointTypeId);
-            point.setXPos(vertex.getX());
-            point.setYPos(vertex.getY());
-            point.setIdInFace(i);
-
-            origamiPointMapper.addByObj(point);
-            Long vertexId = origamiPointMapper.getIdByIdInFace(faceId, i);
-            if (vertexId == null) {
-                throw new DbException("Cannot find created vertex ID, verify if SQL is correct");
+    private List<List<Long>> addVertices(long origamiId, List<Long> faceIds, long stepId, long pointTypeId,
+                                         List<FaceFoldRequest> faceRequests) {
+        List<List<OrigamiPoint>> pointsByFace = new ArrayList<>();
+        List<OrigamiPoint> allPoints = new ArrayList<>();
+        for (int f = 0; f < faceRequests.size(); f++) {
+            List<VertexRequest> vertices = faceRequests.get(f).getVertices();
+            List<OrigamiPoint> points = new ArrayList<>();
+            for (int i = 0; i < vertices.size(); i++) {
+                VertexRequest vertex = vertices.get(i);
+                OrigamiPoint point = new OrigamiPoint();
+                point.setOrigamiId(origamiId);
+                point.setStepId(stepId);
+                point.setFaceId(faceIds.get(f));
+                point.setPointTypeId(pointTypeId);
+                point.setXPos(vertex.getX());
+                point.setYPos(vertex.getY());
+                point.setIdInFace(i);
+                points.add(point);
             }
-            vertexIds.add(vertexId);
+            pointsByFace.add(points);
+            allPoints.addAll(points);
+        }
+
+        if (!allPoints.isEmpty()) {
+            origamiPointMapper.addByObjs(allPoints);
+        }
+
+        List<List<Long>> vertexIds = new ArrayList<>();
+        for (List<OrigamiPoint> points : pointsByFace) {
+            List<Long> ids = new ArrayList<>();
+            for (OrigamiPoint point : points) {
+                if (point.getId() == null) {
+                    throw new DbException("Cannot find created vertex ID, verify if SQL is correct");
+                }
+                ids.add(point.getId());
+            }
+            vertexIds.add(ids);
         }
         return vertexIds;
     }
 
 
     /**
-     * Adds new annotated points to a face.
-     * @param faceId The ID of the face.
+     * Adds the new annotated points of every face of an annotate request.
+     * <p>
+     * Points are checked for duplicates and their edges resolved with one lookup each, then
+     * the points and their annotated point rows are inserted with one batch statement each.
+     *
+     * @param origamiId The ID of the origami.
+     * @param faces The faces of the annotate request.
+     * @param faceIds The database IDs of the faces, in the same order.
      * @param stepId The step ID in which the addition occurs.
      * @param pointTypeId The point type ID.
-     * @param points List of new points to add.
-     * @throws IllegalArgumentException if duplicate points exist.
+     * @throws IllegalArgumentException if duplicate points exist or an edge is not found.
      */
-    private void addAnnotatedPoints(long faceId, long stepId, Long pointTypeId, List<PointAnnotationRequest> points) {
-        if (points == null || points.isEmpty()) return;
+    private void addAnnotatedPoints(long origamiId, List<FaceAnnotateRequest> faces, List<Long> faceIds, long stepId,
+                                    Long pointTypeId) {
+        List<OrigamiPoint> points = new ArrayList<>();
+        List<IdInFace> idsInFaces = new ArrayList<>();
+        List<IdInFace> edgeIdsInFaces = new ArrayList<>();
+        for (int i = 0; i < faces.size(); i++) {
+            List<PointAnnotationRequest> pointRequests = faces.get(i).getAnnotations().getPoints();
+            if (pointRequests == null) continue;
+
+            long faceId = faceIds.get(i);
+            for (PointAnnotationRequest pointRequest : pointRequests) {
+                OrigamiPoint point = new OrigamiPoint();
+                point.setOrigamiId(origamiId);
+                point.setStepId(stepId);
+                point.setFaceId(faceId);
+                point.setPointTypeId(pointTypeId);
+                point.setXPos(pointRequest.getX());
+                point.setYPos(pointRequest.getY());
+                point.setIdInFace(pointRequest.getIdInFace());
+                points.add(point);
+
+                idsInFaces.add(new IdInFace(faceId, pointRequest.getIdInFace()));
+                edgeIdsInFaces.add(pointRequest.getOnEdgeIdInFace() == null
+                        ? null : new IdInFace(faceId, pointRequest.getOnEdgeIdInFace()));
+            }
+        }
+        if (points.isEmpty()) return;
 
-        // Check for duplicate points
-        List<Integer> idsInFace = points.stream().map(PointAnnotationRequest::getIdInFace).toList();
-        if (!origamiPointMapper.getIdsByIdsInFace(faceId, idsInFace).isEmpty()) {
+        // Check for duplicate points, within the request and in the faces
+        if (new HashSet<>(idsInFaces).size() != idsInFaces.size() ||
+                !origamiPointMapper.getIdsByIdsInFaces(origamiId, idsInFaces).isEmpty()) {
             throw new IllegalArgumentException("Duplicate points detected, " +
                     "verify if request is valid (duplicate annotated points).");
         }
 
+        // Check that the edges the points are on exist, before inserting anything
+        List<IdInFace> requestedEdges = edgeIdsInFaces.stream().filter(Objects::nonNull).toList();
+        Map<IdInFace, Long> edgeIds = requestedEdges.isEmpty()
+                ? Map.of() : toIdsByIdInFace(edgeMapper.getIdsByIdsInFaces(origamiId, requestedEdges));
+        for (IdInFace edge : requestedEdges) {
+            if (edgeIds.get(edge) == null) {
+                throw new IllegalArgumentException("Edge id in face does not match with anything in DB, " +
+                        "verify if request is valid (no edge id in face entry in DB)");
+            }
+        }
+
         // Insert new points
-        for (PointAnnotationRequest pointRequest : points) {
-            OrigamiPoint point = new OrigamiPoint();
-            point.setStepId(stepId);
-            point.setFaceId(faceId);
-            point.setPointTypeId(pointTypeId);
-            point.setXPos(pointRequest.getX());
-            point.setYPos(pointRequest.getY());
-            point.setIdInFace(pointRequest.getIdInFace());
-
-            origamiPointMapper.addByObj(point);
-            Long pointId = origamiPointMapper.getIdByIdInFace(faceId, pointRequest.getIdInFace());
-
-            // Add corresponding AnnotatedPoint
+        origamiPointMapper.addByObjs(points);
+
+        // Add corresponding AnnotatedPoints
+        List<AnnotatedPoint> annotatedPoints = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            Long pointId = points.get(i).getId();
+            if (pointId == null) {
+                throw new DbException("Cannot find created point ID, verify if SQL is correct");
+            }
+
             AnnotatedPoint annotatedPoint = new AnnotatedPoint();
+            annotatedPoint.setOrigamiId(origamiId);
             annotatedPoint.setPointId(pointId);
-
-            // Check if the point is associated with an edge
-            Integer edgeIdInFace = pointRequest.getOnEdgeIdInFace();
-            if (edgeIdInFace != null) {
-                Long edgeId = edgeMapper.getIdByIdInFace(faceId, edgeIdInFace);
-                if (edgeId == null) {
-                    throw new IllegalArgumentException("Edge id in face does not match with anything in DB, " +
-                            "verify if request is valid (no edge id in face entry in DB)");
-                }
-                annotatedPoint.setOnEdgeId(edgeId);
+            if (edgeIdsInFaces.get(i) != null) {
+                annotatedPoint.setOnEdgeId(edgeIds.get(edgeIdsInFaces.get(i)));
             }
-            annotatePointMapper.addByObj(annotatedPoint);
+            annotatedPoints.add(annotatedPoint);
         }
+        annotatePointMapper.addByObjs(annotatedPoints);
     }
 
     /**
-     * Adds edges to a newly created face, including fold and side edges.
+     * Adds edges to the newly created faces, including fold and side edges.
+     * <p>
+     * All edges are inserted with one batch statement, followed by one batch each for
+     * the side edge and fold edge rows that reference them.
+     * <p>
+     * A fold edge between two new faces is only created once, by the face that comes
+     * later in the request, in the same way as when faces were inserted one at a time. The existing
+     * faces the other fold edges lead to are resolved with one lookup.
      *
      * @param origamiId The ID of the origami.
-     * @param faceId The ID of the face.
      * @param stepId The current fold step ID.
-     * @param vertexIds List of vertex IDs associated with the face.
-     * @param foldEdges List of fold edges to add.
+     * @param faceIds The IDs of the new faces, in request order.
+     * @param vertexIds For each face, the list of vertex IDs associated with the face.
+     * @param faceRequests List of new faces containing the fold edges to add.
      * @param foldEdgeTypeId Type ID for fold edges.
      * @param sideEdgeTypeId Type ID for side edges.
+     * @throws DbException if any created edge ID cannot be retrieved.
      */
-    private void addEdges(long origamiId, long faceId, long stepId, List<Long> vertexIds,
-                          List<FoldEdgeRequest> foldEdges, Long foldEdgeTypeId, Long sideEdgeTypeId) {
-        for (int i = 0; i < vertexIds.size(); i++) {
-            Long edgeTypeId = (foldEdges.get(i) != null) ? foldEdgeTypeId : sideEdgeTypeId;
-
-            if (foldEdges.get(i) != null) {
-                Long otherFaceId = faceMapper.getIdByFaceIdInOrigami(origamiId, foldEdges.get(i).getOtherFaceIdInOrigami());
-                if (otherFaceId == null) {
-                    continue;
+    private void addEdges(long origamiId, long stepId, List<Long> faceIds, List<List<Long>> vertexIds,
+                          List<FaceFoldRequest> faceRequests, Long foldEdgeTypeId, Long sideEdgeTypeId) {
+        // Position of each new face in the request, keyed by its ID in origami
+        Map<Integer, Integer> newFaceIndices = new HashMap<>();
+        for (int f = 0; f < faceRequests.size(); f++) {
+            newFaceIndices.put(faceRequests.get(f).getIdInOrigami(), f);
+        }
+
+        // Resolve the existing faces the new fold edges lead to with a single lookup
+        Set<Integer> existingFaceIdsInOrigami = new LinkedHashSet<>();
+        for (FaceFoldRequest faceRequest : faceRequests) {
+            for (FoldEdgeRequest foldEdgeRequest : faceRequest.getEdges()) {
+                if (foldEdgeRequest != null && !newFaceIndices.containsKey(foldEdgeRequest.getOtherFaceIdInOrigami())) {
+                    existingFaceIdsInOrigami.add(foldEdgeRequest.getOtherFaceIdInOrigami());
+                }
+            }
+        }
+        Map<Integer, Long> existingFaceIds = existingFaceIdsInOrigami.isEmpty() ? Map.of()
+                : getFaceIdsByIdsInOrigami(origamiId, new ArrayList<>(existingFaceIdsInOrigami));
+
+        List<Edge> edges = new ArrayList<>();
+        List<SideEdge> sideEdges = new ArrayList<>();
+        List<Edge> sideEdgeParents = new ArrayList<>();
+        List<FoldEdge> foldEdges = new ArrayList<>();
+        List<Edge> foldEdgeParents = new ArrayList<>();
+
+        for (int f = 0; f < faceRequests.size(); f++) {
+            long faceId = faceIds.get(f);
+            List<Long> faceVertexIds = vertexIds.get(f);
+            List<FoldEdgeRequest> foldEdgeRequests = faceRequests.get(f).getEdges();
+
+            for (int i = 0; i < faceVertexIds.size(); i++) {
+                FoldEdgeRequest foldEdgeRequest = foldEdgeRequests.get(i);
+
+                if (foldEdgeRequest != null) {
+                    Integer otherFaceIdInOrigami = foldEdgeRequest.getOtherFaceIdInOrigami();
+                    Integer otherIndex = newFaceIndices.get(otherFaceIdInOrigami);
+                    Long otherFaceId;
+                    if (otherIndex != null) {
+                        // The later of the two new faces creates the shared fold edge
+                        otherFaceId = otherIndex <= f ? faceIds.get(otherIndex) : null;
+                    } else {
+                        otherFaceId = existingFaceIds.get(otherFaceIdInOrigami);
+                    }
+                    if (otherFaceId == null) {
+                        continue;
+                    }
+                    // Create a fold edge linking two faces
+                    Edge edge = buildEdge(origamiId, stepId, foldEdgeTypeId);
+                    edges.add(edge);
+                    foldEdges.add(buildFoldEdge(origamiId, faceId, otherFaceId, i, foldEdgeRequest));
+                    foldEdgeParents.add(edge);
+                } else {
+                    // Create a side edge between adjacent vertices
+                    Edge edge = buildEdge(origamiId, stepId, sideEdgeTypeId);
+                    edges.add(edge);
+                    sideEdges.add(buildSideEdge(origamiId, faceId, faceVertexIds.get(i),
+                            faceVertexIds.get((i + 1) % faceVertexIds.size()), i));
+                    sideEdgeParents.add(edge);
                 }
-                long edgeId = createEdge(stepId, edgeTypeId);
-                // Create a fold edge linking two faces
-                createFoldEdge(origamiId, faceId, i, foldEdges.get(i), edgeId);
-            } else {
-                // Create a side edge between adjacent vertices
-                long edgeId = createEdge(stepId, edgeTypeId);
-                createSideEdge(faceId, edgeId, vertexIds.get(i), vertexIds.get((i + 1) % vertexIds.size()), i);
             }
         }
+
+        if (edges.isEmpty()) return;
+
+        edgeMapper.addByObjs(edges);
+
+        for (int i = 0; i < sideEdges.size(); i++) {
+            sideEdges.get(i).setEdgeId(getCreatedEdgeId(sideEdgeParents.get(i)));
+        }
+        for (int i = 0; i < foldEdges.size(); i++) {
+            foldEdges.get(i).setEdgeId(getCreatedEdgeId(foldEdgeParents.get(i)));
+        }
+
+        if (!sideEdges.isEmpty()) {
+            sideEdgeMapper.addByObjs(sideEdges);
+        }
+        if (!foldEdges.isEmpty()) {
+            foldEdgeMapper.addByObjs(foldEdges);
+        }
     }
 
 
     /**
-     * Adds new annotated lines to a face.
-     * @param faceId The ID of the face.
+     * Adds the new annotated lines of every face of an annotate request.
+     * <p>
+     * The end points of all lines are resolved with one lookup, and the lines inserted with one batch statement.
+     *
+     * @param origamiId The ID of the origami.
+     * @param faces The faces of the annotate request.
+     * @param faceIds The database IDs of the faces, in the same order.
      * @param stepId The step ID in which the addition occurs.
-     * @param lines List of new lines to add.
+     * @throws IllegalArgumentException if an end point of a line does not exist.
      */
-    private void addAnnotatedLines(long faceId, long stepId, List<LineAnnotationRequest> lines) {
-        if (lines == null || lines.isEmpty()) return;
+    private void addAnnotatedLines(long origamiId, List<FaceAnnotateRequest> faces, List<Long> faceIds, long stepId) {
+        List<AnnotatedLine> lines = new ArrayList<>();
+        List<LineAnnotationRequest> lineRequests = new ArrayList<>();
+        Set<IdInFace> endPoints = new LinkedHashSet<>();
+        for (int i = 0; i < faces.size(); i++) {
+            List<LineAnnotationRequest> faceLines = faces.get(i).getAnnotations().getLines();
+            if (faceLines == null) continue;
+
+            long faceId = faceIds.get(i);
+            for (LineAnnotationRequest lineRequest : faceLines) {
+                AnnotatedLine line = new AnnotatedLine();
+                line.setOrigamiId(origamiId);
+                line.setStepId(stepId);
+                line.setFaceId(faceId);
+                line.setIdInFace(lineRequest.getIdInFace());
+                lines.add(line);
+                lineRequests.add(lineRequest);
+
+                endPoints.add(new IdInFace(faceId, lineRequest.getPoint1IdInOrigami()));
+                endPoints.add(new IdInFace(faceId, lineRequest.getPoint2IdInOrigami()));
+            }
+        }
+        if (lines.isEmpty()) return;
 
         // TODO: Check if it is an edge
 
-        // Insert new lines
-        for (LineAnnotationRequest lineRequest : lines) {
-            int point1IdInOrigami = lineRequest.getPoint1IdInOrigami();
-            int point2IdInOrigami = lineRequest.getPoint2IdInOrigami();
-            List<Integer> points = new ArrayList<>();
-            points.add(point1IdInOrigami);
-            points.add(point2IdInOrigami);
-
-            List<Long> pointIds = origamiPointMapper.getIdsByIdsInFace(faceId, points);
-
-            // Check if both points exists
-            if (pointIds.size() != points.size()) {
-                throw new IllegalArgumentException("Invalid point in annotated line " + lineRequest.getIdInFace() +
+        // Resolve the end points of every line, including the points added by this request
+        Map<IdInFace, Long> pointIds = toIdsByIdInFace(origamiPointMapper.getIdsByIdsInFaces(origamiId, new ArrayList<>(endPoints)));
+        for (int i = 0; i < lines.size(); i++) {
+            AnnotatedLine line = lines.get(i);
+            int point1IdInOrigami = lineRequests.get(i).getPoint1IdInOrigami();
+            int point2IdInOrigami = lineRequests.get(i).getPoint2IdInOrigami();
+            Long point1Id = pointIds.get(new IdInFace(line.getFaceId(), point1IdInOrigami));
+            Long point2Id = pointIds.get(new IdInFace(line.getFaceId(), point2IdInOrigami));
+
+            // Check if both points exist and are distinct
+            if (point1Id == null || point2Id == null || point1IdInOrigami == point2IdInOrigami) {
+                throw new IllegalArgumentException("Invalid point in annotated line " + line.getIdInFace() +
                         ", verify if request is valid (invalid point in line)");
             }
 
-            AnnotatedLine line = new AnnotatedLine();
-            line.setStepId(stepId);
-            line.setFaceId(faceId);
-            line.setIdInFace(lineRequest.getIdInFace());
+            line.setPoint1Id(point1Id);
+            line.setPoint2Id(point2Id);
+        }
+
+        // Insert new lines
+        annotateLineMapper.addByObjs(lines);
+    }
 
-            line.setPoint1Id(origamiPointMapper.getIdByIdInFace(faceId, point1IdInOrigami));
-            line.setPoint2Id(origamiPointMapper.getIdByIdInFace(faceId, point2IdInOrigami));
 
-            annotateLineMapper.addByObj(line);
+    /**
+     * Indexes the IDs returned by a lookup by face and ID in face, keeping the first ID of each.
+     */
+    private static Map<IdInFace, Long> toIdsByIdInFace(List<IdInFace> resolved) {
+        Map<IdInFace, Long> ids = new HashMap<>();
+        for (IdInFace idInFace : resolved) {
+            ids.putIfAbsent(new IdInFace(idInFace.getFaceId(), idInFace.getIdInFace()), idInFace.getId());
         }
+        return ids;
     }
 
 
@@ -976,30 +1529,31 @@ public class GeometryService {
 
         // Retrieve and delete the specified faces
         List<Long> deletedFaceIds = faceMapper.getIdsByIdsInFace(origamiId, deletedFaceIdsInOrigami);
-        int rowsUpdated = faceMapper.deleteByIds(deletedFaceIds, stepId);
+        int rowsUpdated = faceMapper.deleteByIds(origamiId, deletedFaceIds, stepId);
 
         // Validate that the deletion was consistent with the request
         validateDeletion(origamiId, 0, deletedFaceIdsInOrigami, rowsUpdated,
                 "face", faceMapper.getIdsByIdsInFace(origamiId, deletedFaceIdsInOrigami));
 
-        deleteEdges(deletedFaceIds, stepId);
-        deletePoints(deletedFaceIds, stepId);
-        deleteAnnotatedLines(deletedFaceIds, stepId);
+        deleteEdges(origamiId, deletedFaceIds, stepId);
+        deletePoints(origamiId, deletedFaceIds, stepId);
+        deleteAnnotatedLines(origamiId, deletedFaceIds, stepId);
     }
 
 
     /**
      * Deletes faces from the origami model.
      *
+     * @param origamiId The ID of the origami.
      * @param faceIds List of face IDs.
      * @param stepId The ID of the current fold step.
      * @throws DbException if invalid number of rows of points are updated.
      */
-    private void deletePoints(List<Long> faceIds, long stepId) {
+    private void deletePoints(long origamiId, List<Long> faceIds, long stepId) {
         if (faceIds == null || faceIds.isEmpty()) return;
 
         // Retrieve and delete the specified edges
-        int rowsUpdated = origamiPointMapper.deleteByFaceIds(faceIds, stepId);
+        int rowsUpdated = origamiPointMapper.deleteByFaceIds(origamiId, faceIds, stepId);
 
         if (rowsUpdated < 3 * faceIds.size()) {
             throw new DbException("Invalid number of points deleted, " +
@@ -1011,16 +1565,17 @@ public class GeometryService {
     /**
      * Deletes faces from the origami model.
      *
+     * @param origamiId The ID of the origami.
      * @param faceIds List of face IDs.
      * @param stepId The ID of the current fold step.
      * @throws DbException if invalid number of rows of edges are updated.
      */
-    private void deleteEdges(List<Long> faceIds, long stepId) {
+    private void deleteEdges(long origamiId, List<Long> faceIds, long stepId) {
         if (faceIds == null || faceIds.isEmpty()) return;
 
         // Retrieve and delete the specified edges
-        int rowsSideUpdated = sideEdgeMapper.deleteByFaceIds(faceIds, stepId);
-        int rowsFoldUpdated = foldEdgeMapper.deleteByFaceIds(faceIds, stepId);
+        int rowsSideUpdated = sideEdgeMapper.deleteByFaceIds(origamiId, faceIds, stepId);
+        int rowsFoldUpdated = foldEdgeMapper.deleteByFaceIds(origamiId, faceIds, stepId);
 
 
         // if (rowsSideUpdated + rowsFoldUpdated < 3 * faceIds.size()) {
@@ -1034,72 +1589,137 @@ public class GeometryService {
     /**
      * Deletes faces from the origami model.
      *
+     * @param origamiId The ID of the origami.
      * @param faceIds List of face IDs.
      * @param stepId The ID of the current fold step.
      */
-    private void deleteAnnotatedLines(List<Long> faceIds, long stepId) {
+    private void deleteAnnotatedLines(long origamiId, List<Long> faceIds, long stepId) {
         if (faceIds == null || faceIds.isEmpty()) return;
 
         // Retrieve and delete the specified annotated lines
-        annotateLineMapper.deleteByFaceIds(faceIds, stepId);
+        annotateLineMapper.deleteByFaceIds(origamiId, faceIds, stepId);
     }
 
 
     /**
-     * Deletes annotated points from a face.
+     * Deletes the annotated points requested for several faces, in a single statement.
+     * <p>
+     * The statement skips vertices and points that live lines depend on. The request is only diagnosed,
+     * face by face, if fewer points than requested were deleted.
+     *
      * @param origamiId The ID of the origami.
-     * @param faceId The ID of the face.
      * @param stepId The step ID in which the deletion occurs.
-     * @param deletedPointIdsInFace List of point IDs in face to delete.
+     * @param deletedPointIdsByFace Point IDs in face to delete, by face ID, in request order.
      * @throws IllegalArgumentException if points are referenced by existing lines or do not exist.
      */
-    private void deleteAnnotatedPoints(long origamiId, long faceId, Long stepId, List<Integer> deletedPointIdsInFace) {
-        if (deletedPointIdsInFace == null || deletedPointIdsInFace.isEmpty()) return;
+    private void deleteAnnotatedPoints(long origamiId, long stepId, Map<Long, List<Integer>> deletedPointIdsByFace) {
+        List<IdInFace> deletions = toIdsInFace(deletedPointIdsByFace);
+        if (deletions.isEmpty()) return;
+
+        long vertexTypeId = getPointTypeId(PointType.VERTEX);
+        List<Long> deletedFaceIds = origamiPointMapper.deleteAnnotatedByIdsInFaces(origamiId, deletions, vertexTypeId, stepId);
+        if (deletedFaceIds.size() == deletions.size()) return;
+
+        // Find the faces the request did not match
+        Map<Long, Integer> rowsUpdatedByFace = countByFace(deletedFaceIds);
+        for (Map.Entry<Long, List<Integer>> face : deletedPointIdsByFace.entrySet()) {
+            long faceId = face.getKey();
+            List<Integer> deletedPointIdsInFace = face.getValue();
+            int rowsUpdated = rowsUpdatedByFace.getOrDefault(faceId, 0);
+            if (rowsUpdated == deletedPointIdsInFace.size()) {
+                continue;
+            }
 
-        // Recover the actual point IDs
-        List<Long> deletedPointIds = origamiPointMapper.getIdsByIdsInFace(faceId, deletedPointIdsInFace);
+            // Recover the actual point IDs
+            List<Long> deletedPointIds = origamiPointMapper.getIdsByIdsInFace(origamiId, faceId, deletedPointIdsInFace);
 
-        // Check if list contains vertices
-        long pointTypeId = getPointTypeId(PointType.VERTEX);
-        List<Long> vertexIds = origamiPointMapper.getIdsOfPointTypeByIds(pointTypeId, deletedPointIds);
-        if (!vertexIds.isEmpty()) {
-            throw new IllegalArgumentException("Deleted points contains vertices, " +
-                    "verify if request is valid (vertex deletion)");
-        }
+            if (!deletedPointIds.isEmpty()) {
+                // Check if list contains vertices
+                List<Long> vertexIds = origamiPointMapper.getIdsOfPointTypeByIds(origamiId, vertexTypeId, deletedPointIds);
+                if (!vertexIds.isEmpty()) {
+                    throw new IllegalArgumentException("Deleted points contains vertices, " +
+                            "verify if request is valid (vertex deletion)");
+                }
 
-        // Check if any points have dependent lines
-        List<Long> dependentLines = annotateLineMapper.getDependentIds(faceId, deletedPointIds);
-        if (!dependentLines.isEmpty()) {
-            throw new IllegalArgumentException("Dependent lines detected for deleted points, " +
-                    "verify if request is valid (line dependency)");
-        }
+                // Check if any points have dependent lines
+                List<Long> dependentLines = annotateLineMapper.getDependentIds(origamiId, faceId, deletedPointIds);
+                if (!dependentLines.isEmpty()) {
+                    throw new IllegalArgumentException("Dependent lines detected for deleted points, " +
+                            "verify if request is valid (line dependency)");
+                }
+            }
 
-        // Perform deletion
-        int rowsUpdated = origamiPointMapper.deleteByIdsInFace(faceId, deletedPointIdsInFace, stepId);
+            validateDeletion(origamiId, faceId, deletedPointIdsInFace, rowsUpdated, "annotated point", deletedPointIds);
+        }
 
-        // Validate the deletion
-        validateDeletion(origamiId, faceId, deletedPointIdsInFace, rowsUpdated,
-                "annotated point", origamiPointMapper.getIdsByIdsInFace(faceId, deletedPointIdsInFace));
+        throw new DbException("Impossible state reached, verify if backend/DB is correct (delete annotated point)");
     }
 
 
     /**
-     * Deletes annotated lines from a face.
+     * Deletes the annotated lines requested for several faces, in a single statement.
+     * <p>
+     * The request is only diagnosed, face by face, if fewer lines than requested were deleted.
+     *
      * @param origamiId The ID of the origami.
-     * @param faceId The ID of the face.
      * @param stepId The step ID in which the deletion occurs.
-     * @param deletedLineIdsInFace List of line IDs in face to delete.
+     * @param deletedLineIdsByFace Line IDs in face to delete, by face ID, in request order.
      * @throws IllegalArgumentException if lines do not exist.
      */
-    private void deleteAnnotatedLines(long origamiId, long faceId, long stepId, List<Integer> deletedLineIdsInFace) {
-        if (deletedLineIdsInFace == null || deletedLineIdsInFace.isEmpty()) return;
+    private void deleteAnnotatedLines(long origamiId, long stepId, Map<Long, List<Integer>> deletedLineIdsByFace) {
+        List<IdInFace> deletions = toIdsInFace(deletedLineIdsByFace);
+        if (deletions.isEmpty()) return;
+
+        List<Long> deletedFaceIds = annotateLineMapper.deleteByIdsInFaces(origamiId, deletions, stepId);
+        if (deletedFaceIds.size() == deletions.size()) return;
+
+        // Find the faces the request did not match
+        Map<Long, Integer> rowsUpdatedByFace = countByFace(deletedFaceIds);
+        for (Map.Entry<Long, List<Integer>> face : deletedLineIdsByFace.entrySet()) {
+            long faceId = face.getKey();
+            List<Integer> deletedLineIdsInFace = face.getValue();
+            int rowsUpdated = rowsUpdatedByFace.getOrDefault(faceId, 0);
+            if (rowsUpdated != deletedLineIdsInFace.size()) {
+                validateDeletion(origamiId, faceId, deletedLineIdsInFace, rowsUpdated, "annotated line",
+                        annotateLineMapper.getIdsByIdsInFace(origamiId, faceId, deletedLineIdsInFace));
+            }
+        }
+
+        throw new DbException("Impossible state reached, verify if backend/DB is correct (delete annotated line)");
+    }
+
+
+    /**
+     * Groups the IDs in face selected from each face of an annotate request by face ID.
+     * A face listed several times gets the IDs of all its entries.
+     *
+     * @param faces The faces of the annotate request.
+     * @param faceIds The database IDs of the faces, in the same order.
+     * @param idsInFace Selects the IDs in face of the annotations of a face, which may be {@code null}.
+     * @return The non-empty lists of IDs in face by face ID, in request order.
+     */
+    private static Map<Long, List<Integer>> groupByFace(List<FaceAnnotateRequest> faces, List<Long> faceIds,
+                                                        Function<AnnotateRequest, List<Integer>> idsInFace) {
+        Map<Long, List<Integer>> idsByFace = new LinkedHashMap<>();
+        for (int i = 0; i < faces.size(); i++) {
+            List<Integer> ids = idsInFace.apply(faces.get(i).getAnnotations());
+            if (ids != null && !ids.isEmpty()) {
+                idsByFace.computeIfAbsent(faceIds.get(i), faceId -> new ArrayList<>()).addAll(ids);
+            }
+        }
+        return idsByFace;
+    }
 
-        // Perform deletion
-        int rowsUpdated = annotateLineMapper.deleteByIdsInFace(faceId, deletedLineIdsInFace, stepId);
+    private static List<IdInFace> toIdsInFace(Map<Long, List<Integer>> idsByFace) {
+        List<IdInFace> idsInFace = new ArrayList<>();
+        idsByFace.forEach((faceId, ids) -> ids.forEach(id -> idsInFace.add(new IdInFace(faceId, id))));
+        return idsInFace;
+    }
 
-        // Validate the deletion
-        validateDeletion(origamiId, faceId, deletedLineIdsInFace, rowsUpdated,
-                "annotated line", annotateLineMapper.getIdsByIdsInFace(faceId, deletedLineIdsInFace));
+    private static Map<Long, Integer> countByFace(List<Long> faceIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        faceIds.forEach(faceId -> counts.merge(faceId, 1, Integer::sum));
+        return counts;
     }
 
 
@@ -1151,15 +1771,16 @@ public class GeometryService {
      * @param origamiId The ID of the origami for which geometry is built.
      */
     public void buildInitialOrigamiGeometry(long origamiId) {
+        primaryPins.pinAfterCommit(PrimaryPins.origami(origamiId));
         long stepId = buildInitialStep(origamiId);
 
         long faceId = buildInitialFace(origamiId, stepId);
 
         // Initialize four vertices at the corners.
-        buildInitialVertices(stepId, faceId);
+        List<Long> vertexIds = buildInitialVertices(origamiId, stepId, faceId);
 
         // Create four edges connecting the vertices.
-        buildInitialEdges(stepId, faceId);
+        buildInitialEdges(origamiId, stepId, faceId, vertexIds);
     }
 
     /**
@@ -1171,9 +1792,7 @@ public class GeometryService {
      * @throws DbException if the step type does not exist in the database.
      */
     private long buildInitialStep(long origamiId) {
-        // Retrieve the step type ID from the database.
-        String stepType = StepType.CREATE;
-        Long stepTypeId = stepTypeMapper.getIdByName(stepType);
+        long stepTypeId = getStepTypeId(StepType.CREATE);
 
         // Create a new step entry in the database.
         Step step = new Step();
@@ -1183,7 +1802,7 @@ public class GeometryService {
         stepMapper.addByObj(step);
 
         // Retrieve the generated step ID.
-        Long stepId = stepMapper.getIdByIdInOrigami(origamiId, 0);
+        Long stepId = step.getId();
 
         // Check if step ID is found
         if (stepId == null) {
@@ -1197,19 +1816,20 @@ public class GeometryService {
      * Creates the initial face of an origami model.
      * This represents the base shape before any modifications.
      *
-     * @param origamiId The ID of the origami for which the face is created.
+     * @param origamiId The ID of the origami.
      * @param stepId The ID of the step in which the face is created.
      * @return The database ID of the created face.
      */
-    private long buildInitialFace(Long origamiId, Long stepId) {
+    private long buildInitialFace(long origamiId, Long stepId) {
         // Create a default face associated with the given origami and step.
         Face face = new Face();
+        face.setOrigamiId(origamiId);
         face.setStepId(stepId);
         face.setIdInOrigami(0);  // Default face index (0-based)
         faceMapper.addByObj(face);
 
         // Retrieve the generated face ID.
-        Long faceId = faceMapper.getIdByFaceIdInOrigami(origamiId, 0);
+        Long faceId = face.getId();
 
         // Check if step ID is found
         if (faceId == null) {
@@ -1223,117 +1843,84 @@ public class GeometryService {
      * Creates four initial vertices (corners) for the default face in an origami model.
      * The vertices are arranged in a 3x3 square formation.
      *
+     * @param origamiId The ID of the origami.
      * @param stepId The ID of the step in which the vertices are created.
      * @param faceId The ID of the face to which the vertices belong.
+     * @return The database IDs of the created vertices, ordered by their ID in face.
+     * @throws DbException if any vertex ID cannot be retrieved after creation.
      */
-    private void buildInitialVertices(long stepId, long faceId) {
+    private List<Long> buildInitialVertices(long origamiId, long stepId, long faceId) {
         long pointTypeId = getPointTypeId(PointType.VERTEX);
+        List<OrigamiPoint> vertices = new ArrayList<>();
+        List<Long> vertexIds = new ArrayList<>();
 
         for (int i = 0; i < 4; i++) {
             double x = (i == 1 || i == 2) ? 3.0 : -3.0;
             double y = (i == 2 || i == 3) ? 3.0 : -3.0;
 
             OrigamiPoint vertex = new OrigamiPoint();
+            vertex.setOrigamiId(origamiId);
             vertex.setStepId(stepId);
             vertex.setFaceId(faceId);
             vertex.setPointTypeId(pointTypeId);
             vertex.setXPos(x);
             vertex.setYPos(y);
             vertex.setIdInFace(i);
+            vertices.add(vertex);
+        }
 
-            // Store vertex in the database.
-            origamiPointMapper.addByObj(vertex);
+        // Store vertices in the database.
+        origamiPointMapper.addByObjs(vertices);
+
+        for (OrigamiPoint vertex : vertices) {
+            if (vertex.getId() == null) {
+                throw new DbException("Cannot find vertex ID that is just created, verify if SQL is correct");
+            }
+            vertexIds.add(vertex.getId());
         }
+
+        return vertexIds;
     }
 
 
     /**
      * Creates four initial edges that connect the four vertices of the default face.
      *
+     * @param origamiId The ID of the origami.
      * @param stepId The ID of the step in which the edges are created.
      * @param faceId The ID of the face to which the edges belong.
+     * @param vertexIds The database IDs of the four vertices, ordered by their ID in face.
      */
-    private void buildInitialEdges(long stepId, long faceId) {
-        // Retrieve the side edge type ID from the database.
-        String edgeType = EdgeType.SIDE;
-        Long edgeTypeId = edgeTypeMapper.getEdgeTypeByName(edgeType);
+    private void buildInitialEdges(long origamiId, long stepId, long faceId, List<Long> vertexIds) {
+        long edgeTypeId = getEdgeTypeId(EdgeType.SIDE);
 
-        // Check if edge type ID is found
-        if (edgeTypeId == null) {
-            throw new DbException("Cannot find edge type ID with type name: " + EdgeType.SIDE +
-                    ", verify if DB is correctly set up");
+        // Create edge records.
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            edges.add(buildEdge(origamiId, stepId, edgeTypeId));
         }
+        edgeMapper.addByObjs(edges);
 
+        // Associate edges with vertices.
+        List<SideEdge> sideEdges = new ArrayList<>();
         for (int i = 0; i < 4; i++) {
-            // Create edge record.
-            Edge edge = new Edge();
-            edge.setStepId(stepId);
-            edge.setEdgeTypeId(edgeTypeId);
-            edgeMapper.addByObj(edge);
-
-            // Retrieve the most recently added edge ID.
-            Long edgeId = edgeMapper.getMostRecentId(stepId);
-
-            if (edgeId == null) {
-                throw new DbException("Cannot find edge ID that is just created, verify if SQL is correct");
-            }
-
-            // Associate edge with vertices.
-            SideEdge sideEdge = new SideEdge();
-            Long vertex1Id = origamiPointMapper.getIdByIdInFace(faceId, i);
-            Long vertex2Id = origamiPointMapper.getIdByIdInFace(faceId, (i + 1) % 4);
-            sideEdge.setEdgeId(edgeId);
-            sideEdge.setVertex1Id(vertex1Id);
-            sideEdge.setVertex2Id(vertex2Id);
-            sideEdge.setFaceId(faceId);
-            sideEdge.setIdInFace(i);
-
-            // Store edge connection in the database.
-            sideEdgeMapper.addByObj(sideEdge);
+            SideEdge sideEdge = buildSideEdge(origamiId, faceId, vertexIds.get(i), vertexIds.get((i + 1) % 4), i);
+            sideEdge.setEdgeId(getCreatedEdgeId(edges.get(i)));
+            sideEdges.add(sideEdge);
         }
+
+        // Store edge connections in the database.
+        sideEdgeMapper.addByObjs(sideEdges);
     }
 
     /**
      * Helper method to retrieve faces created in a specific step along with their vertices and edges.
+     * <p>
+     * Vertices and edges of all the faces are fetched with one query each and assembled in memory.
      */
     private List<FaceResponse> getFacesCreatedInStep(Long stepId, long origamiId) {
-        List<FaceWithDetailsDTO> facesWithDetails = faceMapper.getFacesCreatedInStep(stepId);
-        List<FaceResponse> faceResponses = new ArrayList<>();
-
-        for (FaceWithDetailsDTO faceDetails : facesWithDetails) {
-            FaceResponse faceResponse = new FaceResponse();
-            faceResponse.setIdInOrigami(faceDetails.getIdInOrigami());
-
-            // Get vertices for this face
-            List<VertexResponse> vertices = origamiPointMapper.getVerticesByFaceId(faceDetails.getFaceId());
-            faceResponse.setVertices(vertices);
-
-            // Get edges for this face
-            List<EdgeResponse> edges = getEdgesForFace(faceDetails.getFaceId(), origamiId);
-            faceResponse.setEdges(edges);
-
-            faceResponses.add(faceResponse);
-        }
-
-        return faceResponses;
-    }
-
-    /**
-     * Helper method to retrieve all edges for a face, including fold and side edges.
-     */
-    private List<EdgeResponse> getEdgesForFace(Long faceId, long origamiId) {
-        // Get side edges
-        List<EdgeResponse> sideEdges = sideEdgeMapper.getSideEdgesByFaceId(faceId);
-
-        // Get fold edges
-        List<EdgeResponse> foldEdges = foldEdgeMapper.getFoldEdgesByFaceId(faceId, origamiId);
-
-        // Combine and return
-        List<EdgeResponse> allEdges = new ArrayList<>();
-        allEdges.addAll(sideEdges);
-        allEdges.addAll(foldEdges);
-
-        return allEdges;
+        return mergeFaceEdges(origamiPointMapper.getVerticesChangedInStep(origamiId, stepId, true),
+                edgeMapper.getEdgesChangedInStep(origamiId, stepId, true));
     }
 
     /**
@@ -1363,11 +1950,11 @@ public class GeometryService {
             throw new DbException("Error in DB, could not find anchored face for fold step");
         }
 
-        Integer anchoredFaceIdInOrigami = faceMapper.getIdInOrigamiByFaceId(anchoredFaceId);
+        Integer anchoredFaceIdInOrigami = faceMapper.getIdInOrigamiByFaceId(origamiId, anchoredFaceId);
         response.setAnchoredFaceIdInOrigami(anchoredFaceIdInOrigami);
 
         // Get deleted faces
-        List<Integer> deletedFaceIdsInOrigami = faceMapper.getDeletedFaceIdsByStepId(stepId);
+        List<Integer> deletedFaceIdsInOrigami = faceMapper.getDeletedFaceIdsByStepId(origamiId, stepId);
         response.setDeletedFaces(deletedFaceIdsInOrigami);
 
         // Get faces created in this step
@@ -1375,7 +1962,7 @@ public class GeometryService {
         response.setFaces(createdFaces);
 
         // Get annotations for this step
-        List<FaceAnnotateResponse> annotations = annotateStep(stepId, true);
+        List<FaceAnnotateResponse> annotations = annotateStep(origamiId, stepId, true);
         response.setAnnotations(annotations);
 
         return response;
@@ -1409,11 +1996,11 @@ public class GeometryService {
             throw new DbException("Error in DB, could not find anchored face for fold step");
         }
 
-        Integer anchoredFaceIdInOrigami = faceMapper.getIdInOrigamiByFaceId(anchoredFaceId);
+        Integer anchoredFaceIdInOrigami = faceMapper.getIdInOrigamiByFaceId(origamiId, anchoredFaceId);
         response.setAnchoredFaceIdInOrigami(anchoredFaceIdInOrigami);
 
         // Get faces created in this step (these will be "deleted" in backward navigation)
-        List<Integer> facesCreatedInStep = faceMapper.getFaceIdsInOrigamiCreatedInStep(stepId);
+        List<Integer> facesCreatedInStep = faceMapper.getFaceIdsInOrigamiCreatedInStep(origamiId, stepId);
         response.setFacesToDelete(facesCreatedInStep);
 
         // Get faces deleted by this step (these need to be restored with full geometry)
@@ -1421,7 +2008,7 @@ public class GeometryService {
         response.setFacesToRestore(facesToRestore);
 
         // Get annotations for this step (backward direction)
-        List<FaceAnnotateResponse> annotations = annotateStep(stepId, false);
+        List<FaceAnnotateResponse> annotations = annotateStep(origamiId, stepId, false);
         response.setAnnotations(annotations);
 
         return response;
@@ -1429,45 +2016,13 @@ public class GeometryService {
 
 
     /**
-     * Helper method to retrieve full details of faces that were deleted in a specific step.
+     * Helper method to retrieve full details of faces that were deleted in a specific step,
+     * as they were just before the step.
+     * <p>
+     * Vertices and edges of all the faces are fetched with one query each and assembled in memory.
      */
     private List<FaceResponse> getFacesDeletedInStep(Long stepId, long origamiId) {
-        List<FaceWithDetailsDTO> deletedFaces = faceMapper.getFacesDeletedInStep(stepId);
-        List<FaceResponse> faceResponses = new ArrayList<>();
-
-        for (FaceWithDetailsDTO faceDetails : deletedFaces) {
-            FaceResponse faceResponse = new FaceResponse();
-            faceResponse.setIdInOrigami(faceDetails.getIdInOrigami());
-
-            // Get vertices for this face as they existed before deletion
-            List<VertexResponse> vertices = origamiPointMapper.getVerticesForDeletedFace(faceDetails.getFaceId());
-            faceResponse.setVertices(vertices);
-
-            // Get edges for this face as they existed before deletion
-            List<EdgeResponse> edges = getEdgesForDeletedFace(faceDetails.getFaceId(), origamiId);
-            faceResponse.setEdges(edges);
-
-            faceResponses.add(faceResponse);
-        }
-
-        return faceResponses;
-    }
-
-    /**
-     * Helper method to retrieve edges for a face that was deleted.
-     */
-    private List<EdgeResponse> getEdgesForDeletedFace(Long faceId, long origamiId) {
-        // Get side edges
-        List<EdgeResponse> sideEdges = sideEdgeMapper.getSideEdgesForDeletedFace(faceId);
-
-        // Get fold edges
-        List<EdgeResponse> foldEdges = foldEdgeMapper.getFoldEdgesForDeletedFace(faceId, origamiId);
-
-        // Combine and return
-        List<EdgeResponse> allEdges = new ArrayList<>();
-        allEdges.addAll(sideEdges);
-        allEdges.addAll(foldEdges);
-
-        return allEdges;
+        return mergeFaceEdges(origamiPointMapper.getVerticesChangedInStep(origamiId, stepId, false),
+                edgeMapper.getEdgesChangedInStep(origamiId, stepId, false));
     }
 }
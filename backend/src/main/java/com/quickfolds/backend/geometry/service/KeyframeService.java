@@ -0,0 +1,216 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.geometry.mapper.StepKeyframeMapper;
+import com.quickfolds.backend.geometry.model.database.StepKeyframe;
+import com.quickfolds.backend.geometry.model.dto.response.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class responsible for keyframes, serialized snapshots of an origami taken every K steps.
+ * <p>
+ * A snapshot for any step can be served from the keyframe at or before it plus the net change
+ * between the two steps, instead of being rebuilt from the whole history. Keyframes are stored
+ * in the {@code step_keyframe} table, built lazily the first time they are needed and dropped
+ * when a step at or before them is written.
+ * <p>
+ * The interval K is read from {@code geometry.keyframe.interval}; a value of 0 or less
+ * disables keyframes.
+ * <p>
+ * Dependencies:
+ * <ul>
+ *     <li>{@link StepKeyframeMapper}: Handles database interactions for keyframes.</li>
+ *     <li>{@link ObjectMapper}: Serializes snapshots to and from JSON.</li>
+ * </ul>
+ */
+@Service
+public class KeyframeService {
+
+    /**
+     * Data mapper for step keyframes.
+     */
+    private final StepKeyframeMapper stepKeyframeMapper;
+
+    /**
+     * JSON mapper used to (de)serialize snapshots.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Number of steps between two keyframes, 0 or less if keyframes are disabled.
+     */
+    private final int interval;
+
+    public KeyframeService(StepKeyframeMapper stepKeyframeMapper, ObjectMapper objectMapper,
+                           @Value("${geometry.keyframe.interval:0}") int interval) {
+        this.stepKeyframeMapper = stepKeyframeMapper;
+        this.objectMapper = objectMapper;
+        this.interval = interval;
+    }
+
+    /**
+     * Computes the step of the keyframe to start from when materializing a step.
+     *
+     * @param stepIdInOrigami The step number to materialize.
+     * @return The step number of the keyframe at or before the step, or -1 if keyframes are disabled.
+     */
+    public int getKeyframeStep(int stepIdInOrigami) {
+        if (interval <= 0) {
+            return -1;
+        }
+
+        return stepIdInOrigami - stepIdInOrigami % interval;
+    }
+
+    /**
+     * Retrieves the keyframe taken at a given step.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepIdInOrigami The step number of the keyframe.
+     * @return The deserialized snapshot, or {@code null} if no keyframe exists for the step.
+     * @throws DbException if the stored snapshot cannot be deserialized.
+     */
+    public SnapshotResponse getKeyframe(long origamiId, int stepIdInOrigami) {
+        String snapshot = stepKeyframeMapper.getSnapshot(origamiId, stepIdInOrigami);
+        if (snapshot == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(snapshot, SnapshotResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new DbException("Error in DB, cannot read keyframe of step " + stepIdInOrigami);
+        }
+    }
+
+    /**
+     * Stores a snapshot as the keyframe of its step.
+     * <p>
+     * Snapshots are built by read-only transactions, possibly on a read replica, so the keyframe is written
+     * in a transaction of its own on the primary. It is only stored if the history up to its step is still
+     * the one it was built from, which a lagging replica may not have seen.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepId The database ID of the step the snapshot was taken at.
+     * @param historyVersion The highest step ID up to the step when the snapshot was built, or 0 if none.
+     * @param snapshot The snapshot to store.
+     * @throws DbException if the snapshot cannot be serialized.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveKeyframe(long origamiId, long stepId, long historyVersion, SnapshotResponse snapshot) {
+        StepKeyframe keyframe = new StepKeyframe();
+        keyframe.setOrigamiId(origamiId);
+        keyframe.setStepId(stepId);
+        keyframe.setStepIdInOrigami(snapshot.getStepIdInOrigami());
+
+        try {
+            keyframe.setSnapshot(objectMapper.writeValueAsString(snapshot));
+        } catch (JsonProcessingException e) {
+            throw new DbException("Cannot serialize keyframe of step " + snapshot.getStepIdInOrigami());
+        }
+
+        stepKeyframeMapper.addByObj(keyframe, historyVersion);
+    }
+
+    /**
+     * Drops the keyframes that may be stale once a step is written.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepIdInOrigami The step number being written.
+     */
+    public void invalidateFrom(long origamiId, int stepIdInOrigami) {
+        if (interval <= 0) {
+            return;
+        }
+
+        stepKeyframeMapper.deleteFromStep(origamiId, stepIdInOrigami);
+    }
+
+    /**
+     * Replays the net change between a snapshot's step and a later step onto the snapshot.
+     * <p>
+     * Deleted faces are removed together with their annotations. Created faces are added,
+     * replacing the face with the same ID if there is one, which is how the change reports
+     * faces whose fold edges were modified in the range.
+     *
+     * @param snapshot The snapshot to update, modified in place.
+     * @param change The net change from the snapshot's step to the target step.
+     * @param stepIdInOrigami The target step number.
+     * @return The updated snapshot.
+     */
+    public SnapshotResponse applyForward(SnapshotResponse snapshot, FoldForwardResponse change, int stepIdInOrigami) {
+        Set<Integer> deletedFaces = new HashSet<>(change.getDeletedFaces());
+
+        Map<Integer, FaceResponse> faces = new HashMap<>();
+        for (FaceResponse face : snapshot.getFaces()) {
+            if (!deletedFaces.contains(face.getIdInOrigami())) {
+                faces.put(face.getIdInOrigami(), face);
+            }
+        }
+        for (FaceResponse face : change.getFaces()) {
+            faces.put(face.getIdInOrigami(), face);
+        }
+
+        List<FaceResponse> updatedFaces = new ArrayList<>(faces.values());
+        updatedFaces.sort(Comparator.comparing(FaceResponse::getIdInOrigami));
+
+        snapshot.setStepIdInOrigami(stepIdInOrigami);
+        snapshot.setFaces(updatedFaces);
+        snapshot.setAnnotations(applyAnnotations(snapshot.getAnnotations(), change.getAnnotations(), faces.keySet()));
+
+        return snapshot;
+    }
+
+    /**
+     * Replays annotation changes onto the annotations of a snapshot.
+     *
+     * @param annotations The annotations of the snapshot, grouped by face.
+     * @param changes The annotation changes, grouped by face.
+     * @param liveFaces The IDs in origami of the faces live after the change.
+     * @return The updated annotations of the faces that are live and still annotated.
+     */
+    private List<FaceAnnotateResponse> applyAnnotations(List<FaceAnnotateResponse> annotations,
+                                                        List<FaceAnnotateResponse> changes,
+                                                        Set<Integer> liveFaces) {
+        Map<Integer, FaceAnnotateResponse> annotationsByFace = new HashMap<>();
+        for (FaceAnnotateResponse annotation : annotations) {
+            annotationsByFace.put(annotation.getIdInOrigami(), annotation);
+        }
+
+        for (FaceAnnotateResponse change : changes) {
+            FaceAnnotateResponse annotation = annotationsByFace.computeIfAbsent(change.getIdInOrigami(),
+                    id -> new FaceAnnotateResponse(id, new ArrayList<>(), new ArrayList<>(),
+                            new ArrayList<>(), new ArrayList<>()));
+
+            Set<Integer> deletedPoints = new HashSet<>(change.getDeletedPoints());
+            Set<Integer> deletedLines = new HashSet<>(change.getDeletedLines());
+            annotation.getPoints().removeIf(point -> deletedPoints.contains(point.getIdInFace()));
+            annotation.getLines().removeIf(line -> deletedLines.contains(line.getIdInFace()));
+            annotation.getPoints().addAll(change.getPoints());
+            annotation.getLines().addAll(change.getLines());
+        }
+
+        List<FaceAnnotateResponse> updated = new ArrayList<>();
+        for (FaceAnnotateResponse annotation : annotationsByFace.values()) {
+            if (liveFaces.contains(annotation.getIdInOrigami())
+                    && !(annotation.getPoints().isEmpty() && annotation.getLines().isEmpty())) {
+                updated.add(annotation);
+            }
+        }
+
+        return updated;
+    }
+}
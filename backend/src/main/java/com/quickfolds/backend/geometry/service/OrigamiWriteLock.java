@@ -0,0 +1,98 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.geometry.mapper.StepMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the transactions writing steps to the same origami model.
+ * <p>
+ * Two clients folding the same origami concurrently would otherwise both write the same step number
+ * and read back each other's rows. A writer first takes the in-process lock of its origami, then a
+ * transaction-scoped PostgreSQL advisory lock keyed by the origami ID, so that writers on other backend
+ * instances are serialized too. Both are held until the transaction completes, so the next writer
+ * always sees the committed step of the previous one.
+ * <p>
+ * Each origami being written has its own lock, created on demand and dropped once no thread holds or
+ * awaits it, so writers on different origami never contend. The locks are reentrant, so a write may
+ * call another one on the same origami.
+ * <p>
+ * Dependencies:
+ * <ul>
+ *     <li>{@link StepMapper}: Takes the advisory lock, unless {@code geometry.write-lock.advisory} is
+ *     disabled for databases without advisory locks.</li>
+ * </ul>
+ */
+@Component
+public class OrigamiWriteLock {
+
+    /**
+     * In-process lock of an origami, and the number of threads holding or awaiting it.
+     */
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+    private final StepMapper stepMapper;
+
+    private final boolean advisory;
+
+    // Locks by origami ID, present only while used.
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public OrigamiWriteLock(StepMapper stepMapper,
+                            @Value("${geometry.write-lock.advisory:true}") boolean advisory) {
+        this.stepMapper = stepMapper;
+        this.advisory = advisory;
+    }
+
+    /**
+     * Locks an origami for writing until the current transaction completes, waiting for the transactions
+     * of other writers to complete first.
+     *
+     * @param origamiId The ID of the origami to write.
+     * @throws IllegalStateException If no transaction is active.
+     */
+    public void lock(long origamiId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Locking origami " + origamiId + " for writing requires a transaction");
+        }
+
+        Entry entry = entries.compute(origamiId, (id, current) -> {
+            Entry acquired = current == null ? new Entry() : current;
+            acquired.users++;
+            return acquired;
+        });
+        entry.lock.lock();
+
+        // Released on commit and rollback alike, by the thread of the transaction
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(origamiId, entry);
+            }
+        });
+
+        if (advisory) {
+            stepMapper.lockOrigami(origamiId);
+        }
+    }
+
+    /**
+     * @return The number of origami whose lock is held or awaited.
+     */
+    int getLockedCount() {
+        return entries.size();
+    }
+
+    private void release(long origamiId, Entry entry) {
+        entry.lock.unlock();
+        entries.computeIfPresent(origamiId, (id, current) -> --current.users == 0 ? null : current);
+    }
+}
@@ -0,0 +1,126 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.geometry.constants.EdgeType;
+import com.quickfolds.backend.geometry.constants.PointType;
+import com.quickfolds.backend.geometry.constants.StepType;
+import com.quickfolds.backend.geometry.mapper.EdgeTypeMapper;
+import com.quickfolds.backend.geometry.mapper.PointTypeMapper;
+import com.quickfolds.backend.geometry.mapper.StepTypeMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory registry of the database IDs of the step, point and edge types.
+ * <p>
+ * The {@code step_type}, {@code point_type} and {@code edge_type} tables hold fixed reference data
+ * matching {@link StepType}, {@link PointType} and {@link EdgeType}. They are loaded once at startup
+ * into immutable maps, so write paths no longer look them up on every request. Startup fails if a
+ * constant has no row in the database. {@link #refresh()} reloads the tables if they are ever changed
+ * while the application is running.
+ * <p>
+ * Dependencies:
+ * <ul>
+ *     <li>{@link StepTypeMapper}, {@link PointTypeMapper}, {@link EdgeTypeMapper}: Load the type IDs.</li>
+ * </ul>
+ */
+@Component
+public class ReferenceTypeRegistry {
+
+    /**
+     * Type IDs keyed by type name, replaced as a whole on refresh.
+     */
+    private record Types(Map<String, Long> stepTypes, Map<String, Long> pointTypes, Map<String, Long> edgeTypes) {
+    }
+
+    // Logger for reporting the loaded reference data.
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceTypeRegistry.class);
+
+    private final StepTypeMapper stepTypeMapper;
+
+    private final PointTypeMapper pointTypeMapper;
+
+    private final EdgeTypeMapper edgeTypeMapper;
+
+    private volatile Types types;
+
+    public ReferenceTypeRegistry(StepTypeMapper stepTypeMapper, PointTypeMapper pointTypeMapper,
+                                 EdgeTypeMapper edgeTypeMapper) {
+        this.stepTypeMapper = stepTypeMapper;
+        this.pointTypeMapper = pointTypeMapper;
+        this.edgeTypeMapper = edgeTypeMapper;
+    }
+
+    /**
+     * Loads the IDs of every step, point and edge type constant from the database.
+     * <p>
+     * Called once at startup, and may be called again to pick up changes to the reference tables.
+     *
+     * @throws DbException if a constant has no row in the database.
+     */
+    @PostConstruct
+    public void refresh() {
+        types = new Types(
+                load("step", List.of(StepType.CREATE, StepType.FOLD, StepType.ANNOTATE), stepTypeMapper::getIdByName),
+                load("point", List.of(PointType.VERTEX, PointType.ANNOTATED_POINT), pointTypeMapper::getIdByName),
+                load("edge", List.of(EdgeType.SIDE, EdgeType.FOLD), edgeTypeMapper::getEdgeTypeByName));
+
+        logger.info("Loaded reference types: step={}, point={}, edge={}",
+                types.stepTypes(), types.pointTypes(), types.edgeTypes());
+    }
+
+    /**
+     * @param stepTypeName The name of the step type, one of the {@link StepType} constants.
+     * @return The database ID of the step type.
+     * @throws DbException if the step type is unknown.
+     */
+    public long getStepTypeId(String stepTypeName) {
+        return get("step", types.stepTypes(), stepTypeName);
+    }
+
+    /**
+     * @param pointTypeName The name of the point type, one of the {@link PointType} constants.
+     * @return The database ID of the point type.
+     * @throws DbException if the point type is unknown.
+     */
+    public long getPointTypeId(String pointTypeName) {
+        return get("point", types.pointTypes(), pointTypeName);
+    }
+
+    /**
+     * @param edgeTypeName The name of the edge type, one of the {@link EdgeType} constants.
+     * @return The database ID of the edge type.
+     * @throws DbException if the edge type is unknown.
+     */
+    public long getEdgeTypeId(String edgeTypeName) {
+        return get("edge", types.edgeTypes(), edgeTypeName);
+    }
+
+    private static Map<String, Long> load(String kind, List<String> names, Function<String, Long> lookup) {
+        Map<String, Long> ids = new HashMap<>();
+        for (String name : names) {
+            Long id = lookup.apply(name);
+            if (id == null) {
+                throw new DbException("Cannot find " + kind + " type ID with type name: " + name +
+                        ", verify if DB is correctly set up");
+            }
+            ids.put(name, id);
+        }
+        return Map.copyOf(ids);
+    }
+
+    private static long get(String kind, Map<String, Long> ids, String name) {
+        Long id = ids.get(name);
+        if (id == null) {
+            throw new DbException("Unknown " + kind + " type: " + name + ", check if DB is set correctly");
+        }
+        return id;
+    }
+}
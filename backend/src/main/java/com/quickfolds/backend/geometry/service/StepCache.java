@@ -0,0 +1,252 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.geometry.model.dto.response.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded in-process LRU cache for the responses of {@link GeometryService#getStep(long, int, int, boolean)}.
+ * <p>
+ * History is append-only, so the response between two steps never changes unless a step at or
+ * before the end of the range is written again. Each entry is stamped with the version of the history
+ * it was read from, the highest step ID written up to the end of the range, and only served for that
+ * version: rewriting a step inserts a new, higher step row, so a response read from the old history is
+ * never served again, even if it was cached after the write invalidated the entries.
+ * <p>
+ * Entries are bounded both in number and in weight, the weight of an entry being the number of
+ * vertices, edges and annotations it holds, and the least recently used entries are evicted first.
+ * <p>
+ * Hit, miss, eviction and invalidation counts are kept for monitoring, see {@link #getStats()}.
+ * The bounds are read from {@code geometry.step-cache.max-entries} and
+ * {@code geometry.step-cache.max-weight}; a maximum of 0 or less disables the cache.
+ */
+@Component
+public class StepCache {
+
+    /**
+     * Key of a cached step response.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param startStep The ID in the origami of the starting step.
+     * @param endStep The ID in the origami of the ending step.
+     * @param isForward Indicates if the step is going forward or not.
+     */
+    public record Key(long origamiId, int startStep, int endStep, boolean isForward) {
+
+        /**
+         * @return The later of the two steps, the last step the response depends on.
+         */
+        int lastStep() {
+            return Math.max(startStep, endStep);
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @param hits Number of lookups answered from the cache.
+     * @param misses Number of lookups not found in the cache.
+     * @param evictions Number of entries evicted to stay within the bounds.
+     * @param invalidations Number of entries dropped because a step they depend on was written.
+     * @param size Number of entries currently cached.
+     * @param weight Total weight of the entries currently cached.
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, long weight) {
+    }
+
+    /**
+     * A cached response with its precomputed weight and the history version it was read from.
+     */
+    private record Entry(StepResponse response, long weight, long version) {
+    }
+
+    // Logger for reporting cache statistics.
+    private static final Logger logger = LoggerFactory.getLogger(StepCache.class);
+
+    // Number of evictions between two statistics log lines.
+    private static final long STATS_LOG_INTERVAL = 1000;
+
+    /**
+     * Cached entries in access order, least recently used first.
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxEntries;
+
+    private final long maxWeight;
+
+    private long weight;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long invalidations;
+
+    public StepCache(@Value("${geometry.step-cache.max-entries:0}") int maxEntries,
+                     @Value("${geometry.step-cache.max-weight:0}") long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Retrieves a cached response read from a given version of the history.
+     * <p>
+     * An entry read from an older version is dropped. An entry read from a newer version, seen by a
+     * lagging replica, is kept for the readers of that version.
+     *
+     * @param key The key of the response.
+     * @param version The current history version of the response, see {@link GeometryService#getStepETag}.
+     * @return The cached response, or {@code null} if it is not cached for this version.
+     */
+    public synchronized StepResponse get(Key key, long version) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() < version) {
+            entries.remove(key);
+            weight -= entry.weight();
+            invalidations++;
+            entry = null;
+        }
+        if (entry == null || entry.version() != version) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.response();
+    }
+
+    /**
+     * Caches a response, evicting the least recently used entries if the cache grows past its bounds.
+     * <p>
+     * Responses heavier than the whole cache are not cached, nor do they replace a response read
+     * from a newer version.
+     *
+     * @param key The key of the response.
+     * @param version The history version the response was read from, see {@link #get(Key, long)}.
+     * @param response The response to cache. It must not be modified afterwards.
+     */
+    public synchronized void put(Key key, long version, StepResponse response) {
+        long entryWeight = weigh(response);
+        if (maxEntries <= 0 || entryWeight > maxWeight) {
+            return;
+        }
+        Entry current = entries.get(key);
+        if (current != null && current.version() > version) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(response, entryWeight, version));
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entryWeight;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+            evictions++;
+            if (evictions % STATS_LOG_INTERVAL == 0) {
+                logger.info("Step cache statistics: {}", getStats());
+            }
+        }
+    }
+
+    /**
+     * Drops the cached responses of an origami that depend on a step being written.
+     * <p>
+     * Responses are dropped right away and once more after the current transaction commits, to free
+     * their memory early. A response read concurrently from the old state may still be cached after
+     * that; its older version keeps it from being served, see {@link #get(Key, long)}.
+     *
+     * @param origamiId The ID of the origami model.
+     * @param stepIdInOrigami The step number being written.
+     */
+    public void invalidateFrom(long origamiId, int stepIdInOrigami) {
+        evictFrom(origamiId, stepIdInOrigami);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictFrom(origamiId, stepIdInOrigami);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return A snapshot of the cache counters.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), weight);
+    }
+
+    private synchronized void evictFrom(long origamiId, int stepIdInOrigami) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().origamiId() == origamiId && entry.getKey().lastStep() >= stepIdInOrigami) {
+                weight -= entry.getValue().weight();
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Estimates the memory weight of a response as the number of objects it holds.
+     */
+    private static long weigh(StepResponse response) {
+        long total = 1 + weighAnnotations(response.getAnnotations());
+
+        FoldForwardResponse foldForward = response.getFoldForward();
+        if (foldForward != null) {
+            total += weighFaces(foldForward.getFaces()) + weighAnnotations(foldForward.getAnnotations());
+        }
+
+        FoldBackwardResponse foldBackward = response.getFoldBackward();
+        if (foldBackward != null) {
+            total += weighFaces(foldBackward.getFacesToRestore()) + weighAnnotations(foldBackward.getAnnotations());
+        }
+
+        return total;
+    }
+
+    private static long weighFaces(List<FaceResponse> faces) {
+        long total = 0;
+        if (faces != null) {
+            for (FaceResponse face : faces) {
+                total += 1 + sizeOf(face.getVertices()) + sizeOf(face.getEdges());
+            }
+        }
+        return total;
+    }
+
+    private static long weighAnnotations(List<FaceAnnotateResponse> annotations) {
+        long total = 0;
+        if (annotations != null) {
+            for (FaceAnnotateResponse annotation : annotations) {
+                total += 1 + sizeOf(annotation.getPoints()) + sizeOf(annotation.getLines())
+                        + sizeOf(annotation.getDeletedPoints()) + sizeOf(annotation.getDeletedLines());
+            }
+        }
+        return total;
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.quickfolds.backend.origami.constants;
+
+import java.util.Set;
+
+/**
+ * Defines constant values representing the orders in which the public origami catalog can be listed.
+ * <p>
+ * Each order is backed by a partial index on the public origami, and always ends with the origami ID
+ * so that every row has a distinct position, which keyset pagination relies on.
+ * <p>
+ * Sort Orders:
+ * <ul>
+ *     <li><strong>RATING:</strong> Highest rated origami first.</li>
+ *     <li><strong>NEWEST:</strong> Most recently created origami first.</li>
+ *     <li><strong>NAME:</strong> Origami in alphabetical order of their names.</li>
+ * </ul>
+ */
+public class CatalogSort {
+
+    /**
+     * Lists origami by descending average rating, ties broken by descending ID.
+     */
+    public static final String RATING = "rating";
+
+    /**
+     * Lists origami by descending ID.
+     * <p>
+     * IDs are assigned by the database in insertion order, so this is the creation order
+     * without needing a separate index on the creation timestamp.
+     */
+    public static final String NEWEST = "newest";
+
+    /**
+     * Lists origami by ascending name, ties broken by ascending ID.
+     */
+    public static final String NAME = "name";
+
+    /**
+     * All supported sort orders, used to validate requests.
+     */
+    public static final Set<String> ALL = Set.of(RATING, NEWEST, NAME);
+}
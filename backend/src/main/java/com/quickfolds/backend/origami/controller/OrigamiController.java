@@ -1,7 +1,10 @@
 package com.quickfolds.backend.origami.controller;
 
 import com.quickfolds.backend.dto.BaseResponse;
+import com.quickfolds.backend.dto.ConditionalResponse;
+import com.quickfolds.backend.origami.constants.CatalogSort;
 import com.quickfolds.backend.origami.model.dto.request.NewOrigamiRequest;
+import com.quickfolds.backend.origami.model.dto.request.RateOrigamiRequest;
 import com.quickfolds.backend.origami.model.dto.response.NewOrigamiResponse;
 import com.quickfolds.backend.origami.model.dto.response.OrigamiListResponse;
 import com.quickfolds.backend.origami.service.OrigamiService;
@@ -9,6 +12,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for handling origami-related operations.
@@ -20,7 +24,11 @@ import org.springframework.web.bind.annotation.*;
  * Endpoints:
  * <ul>
  *     <li><strong>POST /origami/new:</strong> Creates a new origami model.</li>
- *     <li><strong>GET /origami/list:</strong> Retrieves all public origami models.</li>
+ *     <li><strong>POST /origami/rate:</strong> Rates a public origami model.</li>
+ *     <li><strong>POST /origami/view/{origamiId}:</strong> Records a view of a public origami model.</li>
+ *     <li><strong>GET /origami/top-rated:</strong> Retrieves the best rated public origami models.</li>
+ *     <li><strong>GET /origami/trending:</strong> Retrieves the most active public origami models.</li>
+ *     <li><strong>GET /origami/list:</strong> Retrieves a page of public origami models.</li>
  * </ul>
  * <p>
  * Dependencies:
@@ -56,17 +64,82 @@ public class OrigamiController {
     }
 
     /**
-     * Retrieves a list of all public origami models.
+     * Rates a public origami model.
      * <p>
-     * This endpoint fetches all available origami models that are marked as public.
-     * The request is processed by {@link OrigamiService#list()} and returns
+     * Each user holds a single rating per origami; rating it again replaces the previous rating.
+     * The average rating shown in the catalog is refreshed shortly after, when pending ratings are
+     * flushed. The request is processed by {@link OrigamiService#rate(RateOrigamiRequest)}.
+     *
+     * @param request The request object containing the user ID, origami ID and rating.
+     *                Must be valid according to the constraints defined in {@link RateOrigamiRequest}.
+     * @return {@link ResponseEntity} containing a {@link BaseResponse} with {@code true} on success.
+     */
+    @PostMapping("/rate")
+    public ResponseEntity<BaseResponse<Boolean>> rate(@Valid @RequestBody RateOrigamiRequest request) {
+        return origamiService.rate(request);
+    }
+
+    /**
+     * Retrieves one page of the public origami models.
+     * <p>
+     * This endpoint fetches the origami models marked as public, in the requested order and at most
+     * {@code limit} at a time. The first page is requested without a cursor; each following page is
+     * requested with the {@code nextCursor} returned by the previous one, in the same sort order.
+     * The request is processed by {@link OrigamiService#list(String, Integer, String)} and returns
      * the results in an {@link OrigamiListResponse}.
+     * <p>
+     * Pages are tagged with the catalog version from {@link OrigamiService#getCatalogETag()}; a request
+     * whose {@code If-None-Match} holds the current tag gets {@code 304 Not Modified} without a query.
      *
-     * @return {@link ResponseEntity} containing a {@link BaseResponse} with a list of origami models,
+     * @param sort   The sort order: {@code rating}, {@code newest} (default) or {@code name}.
+     * @param limit  The page size, capped by the service, or absent for the default size.
+     * @param cursor The cursor token of the page to fetch, or absent for the first page.
+     * @param webRequest The current request, used to read its {@code If-None-Match} header.
+     * @return {@link ResponseEntity} containing a {@link BaseResponse} with a page of origami models,
      *         wrapped in an {@link OrigamiListResponse}.
      */
     @GetMapping("/list")
-    public ResponseEntity<BaseResponse<OrigamiListResponse>> getAll() {
-        return origamiService.list();
+    public ResponseEntity<BaseResponse<OrigamiListResponse>> getAll(
+            @RequestParam(defaultValue = CatalogSort.NEWEST) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        return ConditionalResponse.of(webRequest, origamiService.getCatalogETag(),
+                () -> origamiService.list(sort, limit, cursor));
+    }
+
+    /**
+     * Records a view of a public origami model, which counts towards the trending leaderboard.
+     *
+     * @param origamiId The ID of the viewed origami.
+     * @return {@link ResponseEntity} containing a {@link BaseResponse} with {@code true} on success.
+     */
+    @PostMapping("/view/{origamiId}")
+    public ResponseEntity<BaseResponse<Boolean>> view(@PathVariable long origamiId) {
+        return origamiService.view(origamiId);
+    }
+
+    /**
+     * Retrieves the best rated public origami models, served from memory.
+     *
+     * @param limit The number of origami to return, capped by the service, or absent for the default size.
+     * @return {@link ResponseEntity} containing a {@link BaseResponse} with the origami models,
+     *         wrapped in an {@link OrigamiListResponse}.
+     */
+    @GetMapping("/top-rated")
+    public ResponseEntity<BaseResponse<OrigamiListResponse>> topRated(@RequestParam(required = false) Integer limit) {
+        return origamiService.topRated(limit);
+    }
+
+    /**
+     * Retrieves the public origami models with the most views and ratings over the last days, served from memory.
+     *
+     * @param limit The number of origami to return, capped by the service, or absent for the default size.
+     * @return {@link ResponseEntity} containing a {@link BaseResponse} with the origami models,
+     *         wrapped in an {@link OrigamiListResponse}.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<BaseResponse<OrigamiListResponse>> trending(@RequestParam(required = false) Integer limit) {
+        return origamiService.trending(limit);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.quickfolds.backend.origami.mapper;
 
 import com.quickfolds.backend.origami.model.database.Origami;
+import com.quickfolds.backend.origami.model.dto.OrigamiRatingStats;
+import com.quickfolds.backend.origami.model.dto.RatingDelta;
 import com.quickfolds.backend.origami.model.dto.response.OrigamiResponse;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -18,7 +20,7 @@ import java.util.List;
  * <ul>
  *     <li>Insert new origami models.</li>
  *     <li>Retrieve public origami IDs and detailed responses.</li>
- *     <li>Fetch the most recently created origami by a specific user.</li>
+ *     <li>Maintain the running rating sum and count of origami models.</li>
  * </ul>
  * <p>
  * Dependencies:
@@ -28,17 +30,6 @@ import java.util.List;
 @Mapper
 public interface OrigamiMapper {
 
-    /**
-     * Retrieves the database ID of the most recently created origami model by a specific user.
-     * <p>
-     * This method helps track the latest origami model created by a user, often used for
-     * further processing or displaying recent user activity.
-     *
-     * @param userId The ID of the user who created the origami.
-     * @return The database ID of the most recently created origami model, or {@code null} if none exist.
-     */
-    Long getMostRecentId(@Param("userId") Long userId);
-
     /**
      * Retrieves a list of IDs for all publicly available origami models.
      * <p>
@@ -50,23 +41,70 @@ public interface OrigamiMapper {
     List<Long> getPublicOrigamiIds();
 
     /**
-     * Retrieves a list of public origami models with detailed information.
+     * Retrieves one page of public origami models with detailed information.
      * <p>
-     * This method returns the full details of each publicly available origami model,
-     * formatted as {@link OrigamiResponse} objects for easy consumption by the frontend.
+     * Pages are keyset-paginated: the page starts right after the origami identified by the cursor
+     * fields in the given sort order, so later pages cost the same as the first one.
      *
-     * @return A list of {@link OrigamiResponse} objects representing public origami models,
-     *         or an empty list if no public origami exist.
+     * @param sort        The sort order, one of the {@link com.quickfolds.backend.origami.constants.CatalogSort}
+     *                    constants.
+     * @param afterId     The ID of the last origami of the previous page, or {@code null} for the first page.
+     * @param afterRating The rating of that origami, used when sorting by rating.
+     * @param afterName   The name of that origami, used when sorting by name.
+     * @param limit       The maximum number of origami to return.
+     * @return A list of {@link OrigamiResponse} objects in the given order, or an empty list
+     *         if no public origami remain after the cursor.
      */
-    List<OrigamiResponse> getPublicOrigamis();
+    List<OrigamiResponse> getPublicOrigamisPage(@Param("sort") String sort,
+                                                @Param("afterId") Long afterId,
+                                                @Param("afterRating") Double afterRating,
+                                                @Param("afterName") String afterName,
+                                                @Param("limit") int limit);
 
     /**
      * Inserts a new origami model into the database.
      * <p>
      * This method adds an {@link Origami} entity to the database, representing a newly created origami model.
-     * The inserted record is associated with the user who created the origami.
+     * The inserted record is associated with the user who created the origami, and the generated
+     * primary key is written back to {@code origami.id}.
      *
      * @param origami The {@link Origami} entity representing the new origami model to be inserted.
+     * @return The number of rows inserted.
+     */
+    int addByObj(@Param("origami") Origami origami);
+
+    /**
+     * Retrieves the visibility of an origami model.
+     *
+     * @param origamiId The ID of the origami model.
+     * @return {@code true} if the origami is public, {@code false} if it is private,
+     *         or {@code null} if it does not exist.
+     */
+    Boolean isPublic(@Param("origamiId") long origamiId);
+
+    /**
+     * Adds pending rating changes to the running rating sum and count of several origami models,
+     * and recomputes their average rating, in a single statement.
+     *
+     * @param deltas The pending changes, at most one per origami.
+     * @return The number of origami updated.
+     */
+    int applyRatingDeltas(@Param("deltas") List<RatingDelta> deltas);
+
+    /**
+     * Rebuilds the rating sum, count and average of the origami models whose aggregates no longer match
+     * {@code rating_history}, skipping those rated within the grace period.
+     *
+     * @param graceSeconds Time after the last rating of an origami before its aggregates are rebuilt.
+     * @return The number of origami updated.
+     */
+    int reconcileRatingAggregates(@Param("graceSeconds") long graceSeconds);
+
+    /**
+     * Retrieves the catalog details and rating aggregates of public origami models.
+     *
+     * @param origamiId The ID of the origami to retrieve, or {@code null} for every public origami.
+     * @return A list of {@link OrigamiRatingStats}, empty if no matching public origami exists.
      */
-    void addByObj(@Param("origami") Origami origami);
+    List<OrigamiRatingStats> getPublicOrigamiRatingStats(@Param("origamiId") Long origamiId);
 }
\ No newline at end of file
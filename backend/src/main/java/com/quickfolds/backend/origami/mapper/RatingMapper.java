@@ -0,0 +1,62 @@
+package com.quickfolds.backend.origami.mapper;
+
+import com.quickfolds.backend.origami.model.dto.RatingEvent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * MyBatis Mapper interface for handling database operations related to origami ratings.
+ * <p>
+ * This interface stores the rating of each user for each origami in the {@code rating_history}
+ * table, where the unique (user_id, origami_id) key allows a single rating per user and origami.
+ * <p>
+ * Key functionalities:
+ * <ul>
+ *     <li>Replace the existing rating of a user, returning the previous value.</li>
+ *     <li>Insert the first rating of a user.</li>
+ *     <li>Retrieve recent ratings of public origami.</li>
+ * </ul>
+ */
+@Mapper
+public interface RatingMapper {
+
+    /**
+     * Replaces the rating a user previously gave to an origami.
+     * <p>
+     * The existing row is locked before it is read, so the returned value is the one
+     * actually replaced even under concurrent submissions.
+     *
+     * @param userId    The ID of the user rating the origami.
+     * @param origamiId The ID of the origami being rated.
+     * @param rating    The new rating.
+     * @return The previous rating, or {@code null} if the user had not rated the origami.
+     */
+    Double updateRating(@Param("userId") long userId,
+                        @Param("origamiId") long origamiId,
+                        @Param("rating") double rating);
+
+    /**
+     * Inserts the first rating of a user for an origami.
+     * <p>
+     * Nothing is inserted if a concurrent request inserted a rating for the same user and origami first.
+     *
+     * @param userId    The ID of the user rating the origami.
+     * @param origamiId The ID of the origami being rated.
+     * @param rating    The rating.
+     * @return The ID of the inserted rating, or {@code null} if a rating already existed.
+     */
+    Long insertRating(@Param("userId") long userId,
+                      @Param("origamiId") long origamiId,
+                      @Param("rating") double rating);
+
+    /**
+     * Retrieves the ratings of public origami submitted or changed after a given time.
+     *
+     * @param since The earliest submission time to include.
+     * @return A list of {@link RatingEvent}, empty if no rating was submitted since then.
+     */
+    List<RatingEvent> getRatingsSince(@Param("since") OffsetDateTime since);
+}
\ No newline at end of file
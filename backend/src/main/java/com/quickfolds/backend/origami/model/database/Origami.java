@@ -73,13 +73,23 @@ public class Origami {
     @Column(name = "ratings", nullable = false)
     private double ratings;
 
-//    /**
-//     * The number of ratings for the origami model.
-//     * <p>
-//     * This field stores the number of ratings given to the origami by users.
-//     */
-//    @Column(name = "num_ratings", nullable = false)
-//    private double numRatings;
+    /**
+     * The number of ratings for the origami model.
+     * <p>
+     * This field stores the number of users who rated the origami. Together with {@link #ratingSum}
+     * it lets the average be updated in constant time when a rating is submitted or changed.
+     */
+    @Column(name = "num_ratings", nullable = false, columnDefinition = "integer default 0")
+    private int numRatings;
+
+    /**
+     * The sum of the ratings for the origami model.
+     * <p>
+     * This field stores the running total of the current rating of every user, so that
+     * {@link #ratings} equals {@code ratingSum / numRatings} whenever at least one rating exists.
+     */
+    @Column(name = "rating_sum", nullable = false, columnDefinition = "double precision default 0.0")
+    private double ratingSum;
 
     /**
      * Identifier of the user who created this origami record.
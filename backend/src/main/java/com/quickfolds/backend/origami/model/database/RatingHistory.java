@@ -13,12 +13,16 @@ import java.time.OffsetDateTime;
  * This entity maps to the "rating_history" table in the database and stores
  * information about individual ratings, including the user who rated, the origami
  * being rated, the rating value, and timestamps for record creation and updates.
+ * <p>
+ * Each user holds at most one rating per origami: rating again replaces the previous value.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "rating_history")
+@Table(name = "rating_history",
+        uniqueConstraints = @UniqueConstraint(name = "uq_rating_history_user_origami",
+                columnNames = {"user_id", "origami_id"}))
 public class RatingHistory {
 
     /**
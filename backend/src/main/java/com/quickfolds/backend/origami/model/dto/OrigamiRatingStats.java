@@ -0,0 +1,41 @@
+package com.quickfolds.backend.origami.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) representing the catalog details and rating aggregates of a public origami.
+ * <p>
+ * This class is used to load the leaderboards of {@code TrendingIndex} from the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrigamiRatingStats {
+
+    /**
+     * The ID of the origami model.
+     */
+    private Long origamiId;
+
+    /**
+     * The name of the origami model.
+     */
+    private String origamiName;
+
+    /**
+     * The username of the author of the origami model.
+     */
+    private String author;
+
+    /**
+     * The sum of the current ratings of the origami model.
+     */
+    private double ratingSum;
+
+    /**
+     * The number of users who rated the origami model.
+     */
+    private int numRatings;
+}
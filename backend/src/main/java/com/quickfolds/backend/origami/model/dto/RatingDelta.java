@@ -0,0 +1,32 @@
+package com.quickfolds.backend.origami.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) representing pending changes to the rating aggregates of an origami.
+ * <p>
+ * This class accumulates the rating submissions of an origami between two flushes, and is then
+ * applied to the {@code rating_sum} and {@code num_ratings} columns of the origami in one update.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingDelta {
+
+    /**
+     * The ID of the origami whose aggregates change.
+     */
+    private Long origamiId;
+
+    /**
+     * The amount to add to the sum of the ratings of the origami.
+     */
+    private double sum;
+
+    /**
+     * The number of new raters of the origami.
+     */
+    private int count;
+}
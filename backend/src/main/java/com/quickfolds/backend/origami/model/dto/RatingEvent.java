@@ -0,0 +1,33 @@
+package com.quickfolds.backend.origami.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * DTO (Data Transfer Object) representing a rating submitted for an origami at a given time.
+ * <p>
+ * This class is used to replay recent ratings into the trending leaderboard on startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingEvent {
+
+    /**
+     * The ID of the rated origami model.
+     */
+    private Long origamiId;
+
+    /**
+     * The rating given by the user.
+     */
+    private double rating;
+
+    /**
+     * The time the rating was last submitted.
+     */
+    private OffsetDateTime ratedAt;
+}
@@ -0,0 +1,50 @@
+package com.quickfolds.backend.origami.model.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) representing a request to rate an origami model.
+ * <p>
+ * A user holds a single rating per origami: rating the same origami again replaces
+ * the previous rating instead of adding a new vote.
+ * <p>
+ * Validation:
+ * <ul>
+ *     <li><strong>userId:</strong> Must not be null and must be non-negative.</li>
+ *     <li><strong>origamiId:</strong> Must not be null and must be non-negative.</li>
+ *     <li><strong>rating:</strong> Must not be null and must be between 0.0 and 5.0.</li>
+ * </ul>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateOrigamiRequest {
+
+    /**
+     * The ID of the user submitting the rating.
+     */
+    @NotNull(message = "Field 'userId' in Rate Origami Request must not be null")
+    @PositiveOrZero(message = "Field 'userId' in Rate Origami Request must be non-negative")
+    private Long userId;
+
+    /**
+     * The ID of the origami model being rated.
+     */
+    @NotNull(message = "Field 'origamiId' in Rate Origami Request must not be null")
+    @PositiveOrZero(message = "Field 'origamiId' in Rate Origami Request must be non-negative")
+    private Long origamiId;
+
+    /**
+     * The rating given by the user, from 0.0 to 5.0.
+     */
+    @NotNull(message = "Field 'rating' in Rate Origami Request must not be null")
+    @DecimalMin(value = "0.0", message = "Field 'rating' in Rate Origami Request must be at least 0.0")
+    @DecimalMax(value = "5.0", message = "Field 'rating' in Rate Origami Request must be at most 5.0")
+    private Double rating;
+}
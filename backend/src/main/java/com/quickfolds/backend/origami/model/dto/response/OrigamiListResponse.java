@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 /**
- * DTO (Data Transfer Object) representing a response containing a list of origami models.
+ * DTO (Data Transfer Object) representing a response containing a page of origami models.
  * <p>
  * This class is used to return multiple origami models in API responses.
  * It wraps a list of {@link OrigamiResponse} objects, ensuring a structured and consistent
@@ -33,7 +33,14 @@ public class OrigamiListResponse {
      * Each origami is represented as an {@link OrigamiResponse} object,
      * providing detailed information about the model.
      * <p>
-     * This list can be empty if no public origami models are available.
+     * This list can be empty if no public origami models remain after the requested cursor.
      */
     private List<OrigamiResponse> origamis;
+
+    /**
+     * Opaque token to pass back as {@code cursor} to retrieve the next page.
+     * <p>
+     * This is {@code null} when the response holds the last page of the catalog.
+     */
+    private String nextCursor;
 }
\ No newline at end of file
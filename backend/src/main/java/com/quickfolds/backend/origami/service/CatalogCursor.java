@@ -0,0 +1,85 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.origami.constants.CatalogSort;
+import com.quickfolds.backend.origami.model.dto.response.OrigamiResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the public origami catalog after which the next page starts.
+ * <p>
+ * A cursor holds the sort order it was issued for, the ID of the last origami of the page and,
+ * for orders other than {@link CatalogSort#NEWEST}, the sort key of that origami. Clients receive it
+ * as an opaque URL-safe token and send it back unchanged to get the following page, which lets the
+ * database seek directly to the right index position instead of skipping the previous pages.
+ *
+ * @param sort   The sort order the cursor was issued for, one of the {@link CatalogSort} constants.
+ * @param id     The ID of the last origami of the previous page.
+ * @param rating The rating of that origami, set only for {@link CatalogSort#RATING}.
+ * @param name   The name of that origami, set only for {@link CatalogSort#NAME}.
+ */
+record CatalogCursor(String sort, Long id, Double rating, String name) {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Builds the cursor pointing after the given origami.
+     *
+     * @param sort    The sort order of the page, one of the {@link CatalogSort} constants.
+     * @param origami The last origami of the page.
+     * @return The cursor for the next page.
+     */
+    static CatalogCursor after(String sort, OrigamiResponse origami) {
+        return new CatalogCursor(sort, origami.getOrigamiId(),
+                CatalogSort.RATING.equals(sort) ? origami.getRatings() : null,
+                CatalogSort.NAME.equals(sort) ? origami.getOrigamiName() : null);
+    }
+
+    /**
+     * Encodes the cursor as an opaque token.
+     * <p>
+     * The name, which may contain the separator, is always the last field.
+     *
+     * @return The URL-safe Base64 token of the cursor.
+     */
+    String encode() {
+        String value = switch (sort) {
+            case CatalogSort.RATING -> Double.toString(rating);
+            case CatalogSort.NAME -> name;
+            default -> "";
+        };
+
+        String raw = sort + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token issued by {@link #encode()}.
+     *
+     * @param token The token sent by the client.
+     * @param sort  The sort order of the requested page, which must match the one of the token.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort order.
+     */
+    static CatalogCursor decode(String token, String sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] fields = raw.split(SEPARATOR, 3);
+
+            if (fields.length != 3 || !fields[0].equals(sort)) {
+                throw new IllegalArgumentException("Cursor does not belong to sort order: " + sort);
+            }
+
+            long id = Long.parseLong(fields[1]);
+            return switch (sort) {
+                case CatalogSort.RATING -> new CatalogCursor(sort, id, Double.parseDouble(fields[2]), null);
+                case CatalogSort.NAME -> new CatalogCursor(sort, id, null, fields[2]);
+                default -> new CatalogCursor(sort, id, null, null);
+            };
+        } catch (IllegalArgumentException e) {
+            // Also covers invalid Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.config.PrimaryPins;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter of the public origami catalog, used to tag {@code /origami/list} responses.
+ * <p>
+ * The counter is incremented whenever a catalog page may change: a public origami is created, or
+ * rating changes are flushed. It lives in memory, so the tag also holds an ID of this instance, and
+ * tags issued by another instance or before a restart never match.
+ * <p>
+ * Each change also pins the catalog reads to the primary database with {@link PrimaryPins}, so that a page
+ * read from a lagging replica is never tagged with the version of a change it does not hold.
+ */
+@Component
+public class CatalogVersion {
+
+    // Distinguishes the counters of different instances and runs.
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final PrimaryPins primaryPins;
+
+    public CatalogVersion(PrimaryPins primaryPins) {
+        this.primaryPins = primaryPins;
+    }
+
+    /**
+     * Marks the catalog as changed, once the current transaction commits.
+     */
+    public void increment() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    primaryPins.pin(PrimaryPins.CATALOG);
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            primaryPins.pin(PrimaryPins.CATALOG);
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return The quoted strong ETag of the current catalog version.
+     */
+    public String getETag() {
+        return "\"catalog-" + instanceId + "-" + version.get() + "\"";
+    }
+}
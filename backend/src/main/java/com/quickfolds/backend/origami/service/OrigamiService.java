@@ -1,11 +1,15 @@
 package com.quickfolds.backend.origami.service;
 
+import com.quickfolds.backend.config.PrimaryPins;
 import com.quickfolds.backend.dto.BaseResponse;
 import com.quickfolds.backend.exception.DbException;
 import com.quickfolds.backend.geometry.service.GeometryService;
+import com.quickfolds.backend.origami.constants.CatalogSort;
 import com.quickfolds.backend.origami.mapper.OrigamiMapper;
+import com.quickfolds.backend.origami.mapper.RatingMapper;
 import com.quickfolds.backend.origami.model.database.Origami;
 import com.quickfolds.backend.origami.model.dto.request.NewOrigamiRequest;
+import com.quickfolds.backend.origami.model.dto.request.RateOrigamiRequest;
 import com.quickfolds.backend.origami.model.dto.response.NewOrigamiResponse;
 import com.quickfolds.backend.origami.model.dto.response.OrigamiListResponse;
 import com.quickfolds.backend.origami.model.dto.response.OrigamiResponse;
@@ -19,13 +23,17 @@ import java.util.List;
 /**
  * Service class responsible for handling operations related to Origami entities.
  * <p>
- * This class provides functionality to retrieve public origami records and create new origami structures.
+ * This class provides functionality to list pages of public origami records and create new origami structures.
  * It facilitates communication between controllers and mappers while ensuring transactional integrity.
  * <p>
  * Dependencies:
  * <ul>
  *     <li>{@link OrigamiMapper}: Handles database interactions for origami entities.</li>
  *     <li>{@link GeometryService}: Manages geometric structures associated with origami models.</li>
+ *     <li>{@link RatingMapper}: Stores the rating of each user for each origami.</li>
+ *     <li>{@link RatingAggregator}: Maintains the running rating sum and count of origami.</li>
+ *     <li>{@link TrendingIndex}: Serves the top rated and trending leaderboards.</li>
+ *     <li>{@link CatalogVersion}: Tags the pages of the public catalog.</li>
  * </ul>
  */
 @Service
@@ -43,33 +51,146 @@ public class OrigamiService {
     private final GeometryService geometryService;
 
     /**
-     * Retrieves a list of all public origami models from the database.
+     * Data mapper for the ratings of users, handling database operations.
+     */
+    private final RatingMapper ratingMapper;
+
+    /**
+     * Aggregator absorbing the changes to the rating sum and count of origami.
+     */
+    private final RatingAggregator ratingAggregator;
+
+    /**
+     * In-memory leaderboards of the public origami.
+     */
+    private final TrendingIndex trendingIndex;
+
+    /**
+     * Version counter of the public catalog, used to tag catalog pages.
+     */
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * Pins the catalog reads to the primary database right after the catalog changes.
+     */
+    private final PrimaryPins primaryPins;
+
+    /**
+     * Number of origami in a page when the request does not specify it.
+     */
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * Largest number of origami a single page may hold.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Retrieves one page of the public origami models from the database.
      * <p>
-     * This method fetches all origami models marked as "public" and returns them
-     * as a structured response. If no records are found, an empty list is returned.
+     * Pages are keyset-paginated: the response carries a cursor token pointing after its last origami,
+     * which the client passes back to get the next page. The token is {@code null} on the last page.
+     * Requested page sizes above {@link #MAX_PAGE_SIZE} are capped.
+     * <p>
+     * The transaction is read-only, so it runs on the read replica unless the catalog just changed.
      *
+     * @param sort   The sort order, one of the {@link CatalogSort} constants.
+     * @param limit  The requested page size, or {@code null} for {@link #DEFAULT_PAGE_SIZE}.
+     * @param cursor The cursor token returned with the previous page, or {@code null} for the first page.
      * @return ResponseEntity containing a {@link BaseResponse} with an {@link OrigamiListResponse}.
-     *         This response includes a list of public origami records.
+     *         This response includes the origami of the page and the cursor of the next page.
+     * @throws IllegalArgumentException if the sort order, page size or cursor is invalid.
      * @throws DbException if an error occurs while retrieving data from the database.
      */
-    @Transactional
-    public ResponseEntity<BaseResponse<OrigamiListResponse>> list() {
+    @Transactional(readOnly = true)
+    public ResponseEntity<BaseResponse<OrigamiListResponse>> list(String sort, Integer limit, String cursor) {
+        primaryPins.readFrom(PrimaryPins.CATALOG);
 
-        // Fetch the list of public origami records from the database.
-        List<OrigamiResponse> origamis = origamiMapper.getPublicOrigamis();
+        // Validate the request.
+        if (!CatalogSort.ALL.contains(sort)) {
+            throw new IllegalArgumentException("Unknown sort order: " + sort + ", expected one of " +
+                    CatalogSort.ALL);
+        }
+
+        int pageSize = getPageSize(limit);
+        CatalogCursor after = cursor == null || cursor.isEmpty()
+                ? new CatalogCursor(sort, null, null, null)
+                : CatalogCursor.decode(cursor, sort);
+
+        // Fetch one extra row to know whether another page follows.
+        List<OrigamiResponse> origamis = origamiMapper.getPublicOrigamisPage(
+                sort, after.id(), after.rating(), after.name(), pageSize + 1);
 
         // If retrieval fails, throw an exception indicating a database issue.
         if (origamis == null) {
             throw new DbException("Error in DB, cannot get origami data from DB");
         }
 
+        String nextCursor = null;
+        if (origamis.size() > pageSize) {
+            origamis = origamis.subList(0, pageSize);
+            nextCursor = CatalogCursor.after(sort, origamis.get(pageSize - 1)).encode();
+        }
+
         // Wrap the retrieved origami data in a response object.
-        OrigamiListResponse response = new OrigamiListResponse(origamis);
+        OrigamiListResponse response = new OrigamiListResponse(origamis, nextCursor);
 
         // Return the successful response.
         return BaseResponse.success(response);
     }
 
+    /**
+     * Computes the strong ETag of the pages of the public catalog.
+     * <p>
+     * The tag only depends on the version of the catalog: clients and caches key stored pages by URL,
+     * which already holds the sort order, page size and cursor.
+     *
+     * @return The quoted ETag of the current catalog version.
+     */
+    public String getCatalogETag() {
+        return catalogVersion.getETag();
+    }
+
+    /**
+     * Retrieves the best rated public origami models from the in-memory leaderboard.
+     *
+     * @param limit The requested number of origami, or {@code null} for {@link #DEFAULT_PAGE_SIZE}.
+     * @return ResponseEntity containing a {@link BaseResponse} with an {@link OrigamiListResponse},
+     *         best rated first and without a next cursor.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public ResponseEntity<BaseResponse<OrigamiListResponse>> topRated(Integer limit) {
+        return BaseResponse.success(new OrigamiListResponse(trendingIndex.getTopRated(getPageSize(limit)), null));
+    }
+
+    /**
+     * Retrieves the public origami models with the most recent views and ratings from the in-memory
+     * leaderboard.
+     *
+     * @param limit The requested number of origami, or {@code null} for {@link #DEFAULT_PAGE_SIZE}.
+     * @return ResponseEntity containing a {@link BaseResponse} with an {@link OrigamiListResponse},
+     *         most active first and without a next cursor.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public ResponseEntity<BaseResponse<OrigamiListResponse>> trending(Integer limit) {
+        return BaseResponse.success(new OrigamiListResponse(trendingIndex.getTrending(getPageSize(limit)), null));
+    }
+
+    /**
+     * Records a view of a public origami model for the trending leaderboard.
+     *
+     * @param origamiId The ID of the viewed origami.
+     * @return ResponseEntity containing a {@link BaseResponse} with {@code true} on success.
+     * @throws IllegalArgumentException if the origami does not exist or is not public.
+     */
+    public ResponseEntity<BaseResponse<Boolean>> view(long origamiId) {
+        if (!trendingIndex.recordView(origamiId)) {
+            throw new IllegalArgumentException("Cannot view origami with ID: " + origamiId +
+                    ", it does not exist or is not public");
+        }
+        return BaseResponse.success(true);
+    }
+
     /**
      * Creates a new origami record with an initial default face and geometry.
      * <p>
@@ -92,8 +213,8 @@ public class OrigamiService {
         // Insert the new origami record into the database.
         origamiMapper.addByObj(origami);
 
-        // Retrieve the ID of the most recently created origami for the user.
-        Long origamiId = origamiMapper.getMostRecentId(userId);
+        // Retrieve the generated ID of the new origami.
+        Long origamiId = origami.getId();
 
         // If the origami ID cannot be retrieved, throw an exception.
         if (origamiId == null) {
@@ -103,6 +224,11 @@ public class OrigamiService {
         // Initialize the geometry structure for the new origami.
         geometryService.buildInitialOrigamiGeometry(origamiId);
 
+        // A new public origami changes the catalog pages.
+        if (origami.isPublic()) {
+            catalogVersion.increment();
+        }
+
         // Wrap the newly created origami ID in a response object.
         NewOrigamiResponse response = new NewOrigamiResponse(origamiId);
 
@@ -110,6 +236,65 @@ public class OrigamiService {
         return BaseResponse.success(response);
     }
 
+    /**
+     * Records the rating of a user for a public origami model.
+     * <p>
+     * A user holds a single rating per origami: a new rating replaces the previous one. The rating
+     * is stored right away, while the resulting change to the running sum and count of the origami
+     * is handed to {@link RatingAggregator}, which applies it at its next flush. The average rating
+     * is therefore updated in constant time, without aggregating the rating history.
+     *
+     * @param request The request object containing the user ID, origami ID and rating.
+     * @return ResponseEntity containing a {@link BaseResponse} with {@code true} on success.
+     * @throws IllegalArgumentException if the origami does not exist or is not public.
+     * @throws DbException if the rating cannot be stored.
+     */
+    @Transactional
+    public ResponseEntity<BaseResponse<Boolean>> rate(RateOrigamiRequest request) {
+        long userId = request.getUserId();
+        long origamiId = request.getOrigamiId();
+        double rating = request.getRating();
+
+        // Only public origami can be rated.
+        Boolean isPublic = origamiMapper.isPublic(origamiId);
+        if (isPublic == null || !isPublic) {
+            throw new IllegalArgumentException("Cannot rate origami with ID: " + origamiId +
+                    ", it does not exist or is not public");
+        }
+
+        // Replace the previous rating of the user, or insert the first one.
+        Double previous = ratingMapper.updateRating(userId, origamiId, rating);
+        if (previous == null && ratingMapper.insertRating(userId, origamiId, rating) == null) {
+            // A concurrent request inserted the first rating, replace it instead.
+            previous = ratingMapper.updateRating(userId, origamiId, rating);
+            if (previous == null) {
+                throw new DbException("Cannot store rating of user: " + userId + " for origami: " + origamiId);
+            }
+        }
+
+        // Apply the change to the running sum and count asynchronously.
+        double sum = previous == null ? rating : rating - previous;
+        int count = previous == null ? 1 : 0;
+        ratingAggregator.record(origamiId, sum, count);
+        trendingIndex.recordRating(origamiId, rating, sum, count);
+
+        return BaseResponse.success(true);
+    }
+
+    /**
+     * Resolves the requested page size, capped at {@link #MAX_PAGE_SIZE}.
+     *
+     * @param limit The requested page size, or {@code null} for {@link #DEFAULT_PAGE_SIZE}.
+     * @return The page size to use.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    private static int getPageSize(Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, got: " + limit);
+        }
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     /**
      * Creates an Origami object from the request data.
      * <p>
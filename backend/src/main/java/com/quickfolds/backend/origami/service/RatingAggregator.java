@@ -0,0 +1,186 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.origami.mapper.OrigamiMapper;
+import com.quickfolds.backend.origami.model.dto.RatingDelta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-behind aggregator of the rating sum and count of origami models.
+ * <p>
+ * Rating submissions only write the rating of the user to {@code rating_history}. The resulting change
+ * to the running sum and count of the origami is absorbed here, in memory, and periodically flushed
+ * with one batched update, so that a popular origami does not turn every vote into an update of the
+ * same hot row. Pending changes are kept in striped maps, each guarded by its own lock, so concurrent
+ * votes for different origami rarely contend.
+ * <p>
+ * Changes are recorded only once the transaction of the submission commits. If a flush fails, the
+ * changes it could not apply are kept for the next flush. Pending changes are flushed on shutdown.
+ * Changes lost when the process dies before that are repaired by {@link #reconcile()}, which rebuilds
+ * drifted aggregates from {@code rating_history}, the source of truth, on startup and periodically.
+ * <p>
+ * Dependencies:
+ * <ul>
+ *     <li>{@link OrigamiMapper}: Applies the flushed changes to the origami.</li>
+ *     <li>{@link CatalogVersion}: Marks the catalog as changed once ratings are flushed.</li>
+ * </ul>
+ */
+@Component
+public class RatingAggregator {
+
+    /**
+     * Number of independently locked maps pending changes are spread over.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Largest number of origami updated by a single statement.
+     */
+    static final int MAX_BATCH_SIZE = 500;
+
+    // Logger for reporting failed flushes and repaired aggregates.
+    private static final Logger logger = LoggerFactory.getLogger(RatingAggregator.class);
+
+    private final OrigamiMapper origamiMapper;
+
+    private final CatalogVersion catalogVersion;
+
+    private final long reconcileGraceSeconds;
+
+    // Pending changes keyed by origami ID, each map guarded by its own monitor.
+    private final List<Map<Long, RatingDelta>> stripes = new ArrayList<>(STRIPES);
+
+    public RatingAggregator(OrigamiMapper origamiMapper, CatalogVersion catalogVersion,
+                            @Value("${origami.rating.reconcile-grace-seconds:600}") long reconcileGraceSeconds) {
+        this.origamiMapper = origamiMapper;
+        this.catalogVersion = catalogVersion;
+        this.reconcileGraceSeconds = reconcileGraceSeconds;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Records a change to the rating aggregates of an origami, to be applied at the next flush.
+     * <p>
+     * Inside a transaction, the change is recorded only after it commits.
+     *
+     * @param origamiId The ID of the origami.
+     * @param sum The amount to add to the sum of its ratings.
+     * @param count The number of new raters.
+     */
+    public void record(long origamiId, double sum, int count) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(origamiId, sum, count);
+                }
+            });
+        } else {
+            add(origamiId, sum, count);
+        }
+    }
+
+    /**
+     * Applies every pending change to the database, in batches of at most {@link #MAX_BATCH_SIZE} origami.
+     * <p>
+     * Runs every {@code origami.rating.flush-interval-ms} milliseconds and on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${origami.rating.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<RatingDelta> deltas = drain();
+
+        for (int start = 0; start < deltas.size(); start += MAX_BATCH_SIZE) {
+            List<RatingDelta> batch = deltas.subList(start, Math.min(start + MAX_BATCH_SIZE, deltas.size()));
+            try {
+                origamiMapper.applyRatingDeltas(batch);
+                catalogVersion.increment();
+            } catch (RuntimeException e) {
+                // Keep this batch and the following ones for the next flush
+                List<RatingDelta> remaining = deltas.subList(start, deltas.size());
+                remaining.forEach(delta -> add(delta.getOrigamiId(), delta.getSum(), delta.getCount()));
+                logger.warn("Cannot flush rating changes of {} origami, retrying later", remaining.size(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the rating aggregates that drifted from {@code rating_history}, after flushing the
+     * pending changes of this instance.
+     * <p>
+     * Origami rated within {@code origami.rating.reconcile-grace-seconds} are left alone, as their changes
+     * may still be pending on another instance. The grace period must exceed the flush interval by far.
+     * Nothing is rebuilt while a failed flush keeps changes pending.
+     * Runs on startup and every {@code origami.rating.reconcile-interval-ms} milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${origami.rating.reconcile-interval-ms:3600000}")
+    public synchronized void reconcile() {
+        flush();
+        if (getPendingCount() > 0) {
+            // The flush failed: the kept changes would be counted twice
+            return;
+        }
+        try {
+            int repaired = origamiMapper.reconcileRatingAggregates(reconcileGraceSeconds);
+            if (repaired > 0) {
+                catalogVersion.increment();
+                logger.info("Rebuilt drifted rating aggregates of {} origami", repaired);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Cannot reconcile rating aggregates, retrying later", e);
+        }
+    }
+
+    /**
+     * @return The number of origami with pending changes.
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (Map<Long, RatingDelta> stripe : stripes) {
+            synchronized (stripe) {
+                pending += stripe.size();
+            }
+        }
+        return pending;
+    }
+
+    private void add(long origamiId, double sum, int count) {
+        Map<Long, RatingDelta> stripe = stripes.get(Math.floorMod(Long.hashCode(origamiId), STRIPES));
+        synchronized (stripe) {
+            RatingDelta delta = stripe.computeIfAbsent(origamiId, id -> new RatingDelta(id, 0.0, 0));
+            delta.setSum(delta.getSum() + sum);
+            delta.setCount(delta.getCount() + count);
+        }
+    }
+
+    /**
+     * Removes and returns the pending changes of every stripe, ordered by origami ID so that
+     * concurrent flushes from several instances lock the origami rows in the same order.
+     */
+    private List<RatingDelta> drain() {
+        List<RatingDelta> deltas = new ArrayList<>();
+        for (Map<Long, RatingDelta> stripe : stripes) {
+            synchronized (stripe) {
+                deltas.addAll(stripe.values());
+                stripe.clear();
+            }
+        }
+        deltas.sort(Comparator.comparing(RatingDelta::getOrigamiId));
+        return deltas;
+    }
+}
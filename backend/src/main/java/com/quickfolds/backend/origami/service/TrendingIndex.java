@@ -0,0 +1,419 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.origami.mapper.OrigamiMapper;
+import com.quickfolds.backend.origami.mapper.RatingMapper;
+import com.quickfolds.backend.origami.model.dto.OrigamiRatingStats;
+import com.quickfolds.backend.origami.model.dto.RatingEvent;
+import com.quickfolds.backend.origami.model.dto.response.OrigamiResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory leaderboards of the public origami: top rated and trending.
+ * <p>
+ * Each leaderboard keeps a score per tracked origami and a bounded sorted set of the best
+ * {@code origami.leaderboard.size} of them, updated in {@code O(log K)} as ratings and views arrive,
+ * so that serving a leaderboard never touches the database.
+ * <ul>
+ *     <li><strong>Top rated:</strong> ranked by a Bayesian average, which pulls the average of origami
+ *     with few ratings towards {@link #PRIOR_MEAN} so that a single 5.0 does not outrank many 4.9.</li>
+ *     <li><strong>Trending:</strong> ranked by time-decayed activity, where each view and rating loses half
+ *     of its weight every {@code origami.leaderboard.trending-half-life-hours}. Scores use forward decay,
+ *     relative to a fixed landmark time, so older scores never need to be decayed again.</li>
+ * </ul>
+ * The leaderboards are rebuilt from the database on startup and every
+ * {@code origami.leaderboard.rebuild-interval-ms}, replaying the ratings of the last
+ * {@link #REPLAYED_HALF_LIVES} half-lives, so that every instance ranks the ratings submitted to the
+ * others once they are flushed by {@link RatingAggregator}. Views are not stored: each instance only
+ * counts its own, from zero on startup, and keeps them across rebuilds. Ratings applied while a rebuild
+ * loads the database are replayed onto the rebuilt leaderboards.
+ * <p>
+ * Dependencies:
+ * <ul>
+ *     <li>{@link OrigamiMapper}: Loads the details and rating aggregates of public origami.</li>
+ *     <li>{@link RatingMapper}: Loads the recent ratings.</li>
+ * </ul>
+ */
+@Component
+public class TrendingIndex {
+
+    /**
+     * Rating the Bayesian average assumes before any rating is submitted.
+     */
+    static final double PRIOR_MEAN = 2.5;
+
+    /**
+     * Number of ratings the prior counts as.
+     */
+    static final double PRIOR_WEIGHT = 5;
+
+    /**
+     * Trending weight of one view. A rating weighs its value, from 0 to 5 views.
+     */
+    static final double VIEW_WEIGHT = 1;
+
+    /**
+     * Number of half-lives of ratings replayed into the trending leaderboard on startup.
+     */
+    private static final int REPLAYED_HALF_LIVES = 4;
+
+    // Logger for reporting rebuilds.
+    private static final Logger logger = LoggerFactory.getLogger(TrendingIndex.class);
+
+    /**
+     * Position of an origami in a leaderboard, best score first, then lowest ID.
+     */
+    record Ranked(long origamiId, double score) {
+        static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::score).reversed()
+                .thenComparingLong(Ranked::origamiId);
+    }
+
+    /**
+     * Catalog details and rating aggregates of a tracked origami.
+     */
+    private static final class Tracked {
+        private final String origamiName;
+        private final String author;
+        private double ratingSum;
+        private int numRatings;
+
+        private Tracked(OrigamiRatingStats stats) {
+            this.origamiName = stats.getOrigamiName();
+            this.author = stats.getAuthor();
+            this.ratingSum = stats.getRatingSum();
+            this.numRatings = stats.getNumRatings();
+        }
+
+        private double average() {
+            return numRatings == 0 ? 0.0 : ratingSum / numRatings;
+        }
+    }
+
+    /**
+     * Rating applied while a rebuild loads the database.
+     */
+    private record PendingRating(long origamiId, double sum, int count, double trendingScore) {
+    }
+
+    /**
+     * Scores of every tracked origami, and the best {@code capacity} of them in order.
+     */
+    static final class Board {
+        private final int capacity;
+        private final Map<Long, Double> scores = new HashMap<>();
+        private final TreeSet<Ranked> top = new TreeSet<>(Ranked.ORDER);
+
+        Board(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Sets the score of an origami, in {@code O(log K)} unless an origami of the top loses score.
+         */
+        void update(long origamiId, double score) {
+            Double previous = scores.put(origamiId, score);
+            boolean wasTop = previous != null && top.remove(new Ranked(origamiId, previous));
+
+            if (wasTop && score < previous && scores.size() > capacity) {
+                // An origami outside of the top may now rank higher
+                rebuild();
+            } else {
+                offer(new Ranked(origamiId, score));
+            }
+        }
+
+        /**
+         * @return The scores of the best origami, at most {@code limit}.
+         */
+        List<Ranked> top(int limit) {
+            List<Ranked> best = new ArrayList<>(Math.min(limit, top.size()));
+            for (Ranked ranked : top) {
+                if (best.size() == limit) {
+                    break;
+                }
+                best.add(ranked);
+            }
+            return best;
+        }
+
+        double score(long origamiId) {
+            return scores.getOrDefault(origamiId, 0.0);
+        }
+
+        private void offer(Ranked ranked) {
+            if (top.size() < capacity) {
+                top.add(ranked);
+            } else if (capacity > 0 && Ranked.ORDER.compare(ranked, top.last()) < 0) {
+                top.add(ranked);
+                top.pollLast();
+            }
+        }
+
+        private void rebuild() {
+            top.clear();
+            scores.forEach((id, score) -> offer(new Ranked(id, score)));
+        }
+    }
+
+    private final OrigamiMapper origamiMapper;
+
+    private final RatingMapper ratingMapper;
+
+    private final int capacity;
+
+    private final long halfLifeMillis;
+
+    // Landmark time of the forward-decayed trending scores.
+    private final long landmarkMillis;
+
+    // Guarded by this.
+    private Map<Long, Tracked> tracked = new HashMap<>();
+
+    private Board topRated;
+
+    private Board trending;
+
+    // Forward-decayed view activity of each origami recorded by this instance, guarded by this.
+    private final Map<Long, Double> viewScores = new HashMap<>();
+
+    // Ratings applied since the running rebuild started, null outside of a rebuild, guarded by this.
+    private List<PendingRating> pendingRatings;
+
+    // Serializes rebuilds, so that only one collects the pending ratings.
+    private final Object rebuildLock = new Object();
+
+    public TrendingIndex(OrigamiMapper origamiMapper, RatingMapper ratingMapper,
+                         @Value("${origami.leaderboard.size:100}") int capacity,
+                         @Value("${origami.leaderboard.trending-half-life-hours:168}") long halfLifeHours) {
+        this.origamiMapper = origamiMapper;
+        this.ratingMapper = ratingMapper;
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeHours * 3_600_000L;
+        this.landmarkMillis = System.currentTimeMillis();
+        this.topRated = new Board(capacity);
+        this.trending = new Board(capacity);
+    }
+
+    /**
+     * Rebuilds both leaderboards from the database, keeping the views recorded by this instance and
+     * the ratings applied while the database is loaded.
+     * <p>
+     * Called at startup and every {@code origami.leaderboard.rebuild-interval-ms} milliseconds.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${origami.leaderboard.rebuild-interval-ms:60000}",
+            fixedDelayString = "${origami.leaderboard.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingRatings = new ArrayList<>();
+            }
+            try {
+                rebuildFromDatabase();
+            } finally {
+                synchronized (this) {
+                    pendingRatings = null;
+                }
+            }
+        }
+    }
+
+    private void rebuildFromDatabase() {
+        long now = System.currentTimeMillis();
+
+        Map<Long, Tracked> newTracked = new HashMap<>();
+        Board newTopRated = new Board(capacity);
+        for (OrigamiRatingStats stats : origamiMapper.getPublicOrigamiRatingStats(null)) {
+            Tracked origami = new Tracked(stats);
+            newTracked.put(stats.getOrigamiId(), origami);
+            newTopRated.update(stats.getOrigamiId(), bayesianAverage(origami));
+        }
+
+        Board newTrending = new Board(capacity);
+        OffsetDateTime since = Instant.ofEpochMilli(now - REPLAYED_HALF_LIVES * halfLifeMillis).atOffset(ZoneOffset.UTC);
+        for (RatingEvent event : ratingMapper.getRatingsSince(since)) {
+            long origamiId = event.getOrigamiId();
+            if (newTracked.containsKey(origamiId)) {
+                newTrending.update(origamiId, newTrending.score(origamiId) +
+                        decayed(event.getRating(), event.getRatedAt().toInstant().toEpochMilli()));
+            }
+        }
+
+        synchronized (this) {
+            viewScores.forEach((origamiId, score) -> {
+                if (newTracked.containsKey(origamiId)) {
+                    newTrending.update(origamiId, newTrending.score(origamiId) + score);
+                }
+            });
+            // The loaded aggregates may predate these ratings, which the swap would otherwise drop
+            for (PendingRating pending : pendingRatings) {
+                Tracked origami = newTracked.get(pending.origamiId());
+                if (origami != null) {
+                    origami.ratingSum += pending.sum();
+                    origami.numRatings += pending.count();
+                    newTopRated.update(pending.origamiId(), bayesianAverage(origami));
+                    newTrending.update(pending.origamiId(),
+                            newTrending.score(pending.origamiId()) + pending.trendingScore());
+                }
+            }
+            tracked = newTracked;
+            topRated = newTopRated;
+            trending = newTrending;
+        }
+        logger.debug("Rebuilt leaderboards of {} public origami in {} ms", newTracked.size(),
+                System.currentTimeMillis() - now);
+    }
+
+    /**
+     * Records a rating submission, once the current transaction commits.
+     *
+     * @param origamiId The ID of the rated origami.
+     * @param rating The submitted rating.
+     * @param sum The change to the sum of the ratings of the origami.
+     * @param count The number of new raters of the origami.
+     */
+    public void recordRating(long origamiId, double rating, double sum, int count) {
+        afterCommit(() -> applyRating(origamiId, rating, sum, count, System.currentTimeMillis()));
+    }
+
+    /**
+     * Records a view of a public origami.
+     *
+     * @param origamiId The ID of the viewed origami.
+     * @return {@code false} if the origami does not exist or is not public.
+     */
+    public boolean recordView(long origamiId) {
+        return applyView(origamiId, System.currentTimeMillis());
+    }
+
+    /**
+     * @param limit The maximum number of origami to return, capped at the leaderboard size.
+     * @return The best rated public origami, best first.
+     */
+    public List<OrigamiResponse> getTopRated(int limit) {
+        synchronized (this) {
+            return toResponses(topRated.top(limit));
+        }
+    }
+
+    /**
+     * @param limit The maximum number of origami to return, capped at the leaderboard size.
+     * @return The public origami with the most recent activity, most active first.
+     */
+    public List<OrigamiResponse> getTrending(int limit) {
+        synchronized (this) {
+            return toResponses(trending.top(limit));
+        }
+    }
+
+    void applyRating(long origamiId, double rating, double sum, int count, long timeMillis) {
+        if (track(origamiId) == null) {
+            return;
+        }
+
+        synchronized (this) {
+            // Looked up again, a rebuild may have swapped the tracked origami since they were loaded
+            Tracked origami = tracked.get(origamiId);
+            if (origami == null) {
+                return;
+            }
+            double score = decayed(rating, timeMillis);
+            origami.ratingSum += sum;
+            origami.numRatings += count;
+            topRated.update(origamiId, bayesianAverage(origami));
+            trending.update(origamiId, trending.score(origamiId) + score);
+            if (pendingRatings != null) {
+                pendingRatings.add(new PendingRating(origamiId, sum, count, score));
+            }
+        }
+    }
+
+    boolean applyView(long origamiId, long timeMillis) {
+        if (track(origamiId) == null) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (!tracked.containsKey(origamiId)) {
+                return false;
+            }
+            double view = decayed(VIEW_WEIGHT, timeMillis);
+            viewScores.merge(origamiId, view, Double::sum);
+            trending.update(origamiId, trending.score(origamiId) + view);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tracked origami, loading it from the database on its first activity.
+     *
+     * @return The tracked origami, or {@code null} if it does not exist or is not public.
+     */
+    private Tracked track(long origamiId) {
+        synchronized (this) {
+            Tracked origami = tracked.get(origamiId);
+            if (origami != null) {
+                return origami;
+            }
+        }
+
+        List<OrigamiRatingStats> stats = origamiMapper.getPublicOrigamiRatingStats(origamiId);
+        if (stats == null || stats.isEmpty()) {
+            return null;
+        }
+
+        synchronized (this) {
+            return tracked.computeIfAbsent(origamiId, id -> new Tracked(stats.get(0)));
+        }
+    }
+
+    private List<OrigamiResponse> toResponses(List<Ranked> ranking) {
+        List<OrigamiResponse> origamis = new ArrayList<>(ranking.size());
+        for (Ranked ranked : ranking) {
+            Tracked origami = tracked.get(ranked.origamiId());
+            origamis.add(new OrigamiResponse(ranked.origamiId(), origami.origamiName, origami.author,
+                    origami.average()));
+        }
+        return origamis;
+    }
+
+    private static double bayesianAverage(Tracked origami) {
+        return (origami.ratingSum + PRIOR_MEAN * PRIOR_WEIGHT) / (origami.numRatings + PRIOR_WEIGHT);
+    }
+
+    /**
+     * Scales a weight by the forward decay factor of the time it was recorded at.
+     */
+    private double decayed(double weight, long timeMillis) {
+        return weight * Math.pow(2, (double) (timeMillis - landmarkMillis) / halfLifeMillis);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.quickfolds.backend.user.auth;
 
-import io.jsonwebtoken.Claims;
+import com.quickfolds.backend.user.auth.VerifiedTokenCache.VerifiedToken;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -20,7 +20,7 @@ import java.util.ArrayList;
  * A security filter that intercepts incoming requests to authenticate users using JWT tokens.
  *
  * - Extracts the `Authorization` header to retrieve the token.
- * - Validates and parses the token using `JwtUtil`.
+ * - Validates and parses the token using `JwtUtil`, which caches tokens it already verified.
  * - If valid, extracts user details and sets authentication in `SecurityContextHolder`.
  * - If invalid or expired, returns an unauthorized response.
  *
@@ -56,7 +56,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      *
      * - Extracts the `Authorization` header.
      * - Verifies if the token is present and follows the "Bearer " format.
-     * - Parses and validates the token using `JwtUtil`.
+     * - Validates the token using `JwtUtil`, skipping signature verification for tokens verified before.
      * - If valid, extracts user details and sets authentication in `SecurityContextHolder`.
      * - If invalid, logs the error and sends an unauthorized response.
      *
@@ -76,12 +76,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extract the token from the header.
             String token = header.substring(7);
             try {
-                // Parse and validate the JWT token.
-                Claims claims = jwtUtil.parseToken(token);
+                // Validate the JWT token, skipping verification if it was verified before.
+                VerifiedToken verified = jwtUtil.verifyToken(token);
 
-                // Extract user information from the token claims.
-                String username = claims.getSubject();
-                Long userId = ((Number) claims.get("id")).longValue();
+                // Extract user information from the token.
+                String username = verified.username();
+                Long userId = verified.userId();
 
                 // Log successful authentication.
                 logger.debug("Authenticated user: {} with id: {}", username, userId);
@@ -1,10 +1,15 @@
 package com.quickfolds.backend.user.auth;
 
+import com.quickfolds.backend.user.auth.VerifiedTokenCache.VerifiedToken;
 import com.quickfolds.backend.user.model.User;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 /**
@@ -12,6 +17,7 @@ import java.util.Date;
  *
  * - Generates JWT tokens for authenticated users.
  * - Parses and validates JWT tokens to extract claims.
+ * - Remembers verified tokens so repeat requests skip signature verification.
  *
  * Dependencies:
  * - Uses `io.jsonwebtoken` (JJWT) library for JWT operations.
@@ -20,12 +26,29 @@ import java.util.Date;
  * - Uses a secret key from application properties (`jwt.secret`) for signing.
  * - Tokens are signed using HMAC SHA-256 (`HS256`).
  * - Tokens have a default expiration time of 24 hours (86400000 ms).
+ *
+ * Performance:
+ * - The HMAC key is derived from `jwt.secret` once, and a single immutable, thread-safe parser is reused.
+ * - Verified tokens are cached in a {@link VerifiedTokenCache} of `jwt.token-cache.max-entries` entries.
  */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    // HMAC key derived once from the Base64 encoded `jwt.secret`.
+    private final SecretKey signingKey;
+
+    // Immutable and thread-safe parser verifying tokens with the signing key.
+    private final JwtParser parser;
+
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(@Value("${jwt.secret}") String secretKey,
+                   @Value("${jwt.token-cache.max-entries:0}") int maxCachedTokens) {
+        // Same key as signing with the Base64 encoded secret string
+        this.signingKey = new SecretKeySpec(Decoders.BASE64.decode(secretKey), SignatureAlgorithm.HS256.getJcaName());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(maxCachedTokens);
+    }
 
     /**
      * Generates a JWT token for a given user.
@@ -44,7 +67,7 @@ public class JwtUtil {
                 .claim("id", user.getId())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 86400000))
-                .signWith(SignatureAlgorithm.HS256, secretKey)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -60,9 +83,45 @@ public class JwtUtil {
      * @throws JwtException If the token is invalid, expired, or tampered with.
      */
     public Claims parseToken(String token) throws JwtException {
-        return Jwts.parser()
-                .setSigningKey(secretKey) // Validate with secret key
-                .parseClaimsJws(token) // Parse the token
-                .getBody(); // Extract claims
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifies a JWT token and extracts the identity it carries, using the verified token cache.
+     *
+     * - Returns the cached identity if the same token was verified before and has not expired.
+     * - Otherwise validates the token with {@link #parseToken(String)} and caches the result.
+     *
+     * @param token The JWT token to verify.
+     * @return The username and user ID carried by the token.
+     * @throws JwtException If the token is invalid, expired, or tampered with.
+     */
+    public VerifiedToken verifyToken(String token) throws JwtException {
+        long now = System.currentTimeMillis();
+        ByteBuffer digest = VerifiedTokenCache.digest(token);
+
+        VerifiedToken verified = verifiedTokens.get(digest, now);
+        if (verified != null) {
+            return verified;
+        }
+
+        Claims claims = parseToken(token);
+        Number userId = (Number) claims.get("id");
+        Date expiration = claims.getExpiration();
+        verified = new VerifiedToken(claims.getSubject(), userId == null ? null : userId.longValue(),
+                expiration == null ? Long.MAX_VALUE : expiration.getTime());
+
+        // Tokens without expiration are verified every time
+        if (expiration != null) {
+            verifiedTokens.put(digest, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * @return A snapshot of the verified token cache counters, including its hit rate.
+     */
+    public VerifiedTokenCache.Stats getTokenCacheStats() {
+        return verifiedTokens.getStats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.quickfolds.backend.user.auth;
+
+import com.quickfolds.backend.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket throttling of authentication attempts per username and per client IP.
+ * <p>
+ * Every attempt takes one token from the bucket of its username and one from the bucket of its client IP.
+ * Buckets hold at most a burst of tokens and refill continuously at a per-minute rate, so a user mistyping
+ * a password is not affected, while credential stuffing against one account or from one address is
+ * rejected before any password is hashed.
+ * <p>
+ * Buckets are kept in memory for at most {@code auth.login-throttle.max-tracked-keys} keys, least recently
+ * used first out; a forgotten bucket restarts full, which only ever lets an attempt through.
+ */
+@Component
+public class LoginThrottle {
+
+    /**
+     * Tokens available to a key, and when they were last refilled.
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAtNanos;
+
+        private Bucket(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+    }
+
+    /**
+     * Burst size and refill rate of one kind of key.
+     */
+    private record Limit(String prefix, int burst, double nanosPerToken) {
+        private Limit(String prefix, int burst, int perMinute) {
+            this(prefix, burst, perMinute > 0 ? 60e9 / perMinute : Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * @return The number of seconds until the bucket holds one token.
+         */
+        private long retryAfterSeconds(Bucket bucket) {
+            if (Double.isInfinite(nanosPerToken)) {
+                return 60;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) * nanosPerToken / 1e9));
+        }
+    }
+
+    private final Limit usernameLimit;
+
+    private final Limit ipLimit;
+
+    // Buckets by prefixed key in access order, guarded by this.
+    private final LinkedHashMap<String, Bucket> buckets;
+
+    public LoginThrottle(@Value("${auth.login-throttle.username-burst:5}") int usernameBurst,
+                         @Value("${auth.login-throttle.username-per-minute:10}") int usernamePerMinute,
+                         @Value("${auth.login-throttle.ip-burst:20}") int ipBurst,
+                         @Value("${auth.login-throttle.ip-per-minute:60}") int ipPerMinute,
+                         @Value("${auth.login-throttle.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.usernameLimit = new Limit("user:", usernameBurst, usernamePerMinute);
+        this.ipLimit = new Limit("ip:", ipBurst, ipPerMinute);
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxTrackedKeys;
+            }
+        };
+    }
+
+    /**
+     * Takes a token for an authentication attempt.
+     *
+     * @param username The username of the attempt, or {@code null} to throttle by IP only.
+     * @param clientIp The IP address of the client, or {@code null} to throttle by username only.
+     * @throws TooManyRequestsException If the username or the IP has no token left.
+     */
+    public void acquire(String username, String clientIp) {
+        acquire(username, clientIp, System.nanoTime());
+    }
+
+    synchronized void acquire(String username, String clientIp, long nowNanos) {
+        Bucket userBucket = username == null ? null : refill(usernameLimit, username, nowNanos);
+        Bucket ipBucket = clientIp == null ? null : refill(ipLimit, clientIp, nowNanos);
+
+        // Check both buckets before taking from either, so a rejected attempt costs nothing
+        if (userBucket != null && userBucket.tokens < 1) {
+            throw new TooManyRequestsException("Too many attempts for this user, please retry later",
+                    usernameLimit.retryAfterSeconds(userBucket));
+        }
+        if (ipBucket != null && ipBucket.tokens < 1) {
+            throw new TooManyRequestsException("Too many attempts from this address, please retry later",
+                    ipLimit.retryAfterSeconds(ipBucket));
+        }
+
+        if (userBucket != null) {
+            userBucket.tokens--;
+        }
+        if (ipBucket != null) {
+            ipBucket.tokens--;
+        }
+    }
+
+    private Bucket refill(Limit limit, String key, long nowNanos) {
+        Bucket bucket = buckets.computeIfAbsent(limit.prefix() + key, k -> new Bucket(limit.burst(), nowNanos));
+        bucket.tokens = Math.min(limit.burst(), bucket.tokens + (nowNanos - bucket.refilledAtNanos) / limit.nanosPerToken());
+        bucket.refilledAtNanos = nowNanos;
+        return bucket;
+    }
+}
@@ -0,0 +1,168 @@
+package com.quickfolds.backend.user.auth;
+
+import com.quickfolds.backend.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt password hashing on a dedicated, bounded pool of threads.
+ * <p>
+ * A BCrypt hash costs tens of milliseconds of CPU by design. Running it on request threads lets a
+ * burst of logins occupy every web worker and starve the rest of the API. Hashes are instead queued to
+ * a pool of {@code auth.password-hashing.threads} threads, one per core by default, behind a queue of at
+ * most {@code auth.password-hashing.queue-capacity} hashes. When the queue is full the request is
+ * rejected immediately with a {@link TooManyRequestsException} rather than waiting.
+ * <p>
+ * Hash latency, queue wait and rejections are counted for monitoring, see {@link #getStats()}.
+ */
+@Component
+public class PasswordHasher {
+
+    /**
+     * Snapshot of the hashing counters.
+     *
+     * @param hashes Number of completed hashes.
+     * @param rejections Number of hashes rejected because the queue was full.
+     * @param totalHashNanos Total time spent hashing.
+     * @param maxHashNanos Longest single hash.
+     * @param totalQueueWaitNanos Total time hashes spent queued before running.
+     * @param maxQueueWaitNanos Longest single queue wait.
+     * @param queued Number of hashes currently queued.
+     */
+    public record Stats(long hashes, long rejections, long totalHashNanos, long maxHashNanos,
+                        long totalQueueWaitNanos, long maxQueueWaitNanos, int queued) {
+    }
+
+    // Seconds a rejected client is told to wait, a few hash durations.
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    // Number of hashes between two statistics log lines.
+    private static final long STATS_LOG_INTERVAL = 1000;
+
+    // Logger for reporting statistics and rejections.
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong hashes = new AtomicLong();
+
+    private final AtomicLong rejections = new AtomicLong();
+
+    private final AtomicLong totalHashNanos = new AtomicLong();
+
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    public PasswordHasher(@Value("${auth.password-hashing.threads:0}") int threads,
+                          @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "password-hasher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hashes a password with a new salt.
+     *
+     * @param rawPassword The plaintext password.
+     * @return The BCrypt hash of the password.
+     * @throws TooManyRequestsException If too many hashes are already queued.
+     */
+    public String hash(String rawPassword) {
+        return run(() -> BCrypt.hashpw(rawPassword, BCrypt.gensalt()));
+    }
+
+    /**
+     * Checks a password against a stored hash.
+     *
+     * @param rawPassword The plaintext password.
+     * @param hashedPassword The stored BCrypt hash.
+     * @return {@code true} if the password matches the hash.
+     * @throws TooManyRequestsException If too many hashes are already queued.
+     */
+    public boolean check(String rawPassword, String hashedPassword) {
+        return run(() -> BCrypt.checkpw(rawPassword, hashedPassword));
+    }
+
+    /**
+     * @return A snapshot of the hashing counters.
+     */
+    public Stats getStats() {
+        return new Stats(hashes.get(), rejections.get(), totalHashNanos.get(), maxHashNanos.get(),
+                totalQueueWaitNanos.get(), maxQueueWaitNanos.get(), executor.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a hash on the pool and waits for its result.
+     */
+    private <T> T run(Supplier<T> hash) {
+        long submittedAt = System.nanoTime();
+
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return hash.get();
+                } finally {
+                    record(startedAt - submittedAt, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            long rejected = rejections.incrementAndGet();
+            if (rejected % STATS_LOG_INTERVAL == 1) {
+                logger.warn("Password hashing saturated, {} requests rejected so far: {}", rejected, getStats());
+            }
+            throw new TooManyRequestsException("Too many authentication requests, please retry later", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                // Such as an invalid stored hash
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void record(long queueWaitNanos, long hashNanos) {
+        totalQueueWaitNanos.addAndGet(queueWaitNanos);
+        maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+        totalHashNanos.addAndGet(hashNanos);
+        maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+
+        if (hashes.incrementAndGet() % STATS_LOG_INTERVAL == 0) {
+            logger.info("Password hashing statistics: {}", getStats());
+        }
+    }
+}
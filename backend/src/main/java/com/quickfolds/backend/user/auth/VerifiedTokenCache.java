@@ -0,0 +1,143 @@
+package com.quickfolds.backend.user.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+
+/**
+ * Bounded LRU cache of JWT tokens whose signature has already been verified.
+ * <p>
+ * A viewer scrubbing through steps sends the same token dozens of times per second. Once a token has
+ * been verified, its identity is kept here so that repeat requests skip signature verification and
+ * claim parsing. Entries are keyed by the SHA-256 digest of the token, so bearer tokens themselves
+ * are never held in memory, and are never served past the expiration of their token.
+ * <p>
+ * Hit, miss and eviction counts are kept for monitoring, see {@link #getStats()}. A maximum of 0 or
+ * less disables the cache.
+ */
+public class VerifiedTokenCache {
+
+    /**
+     * Identity carried by a verified token.
+     *
+     * @param username The username, subject of the token.
+     * @param userId The ID of the user.
+     * @param expiresAtMillis The expiration time of the token, in milliseconds since the epoch.
+     */
+    public record VerifiedToken(String username, Long userId, long expiresAtMillis) {
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @param hits Number of tokens answered from the cache.
+     * @param misses Number of tokens that had to be verified.
+     * @param evictions Number of entries evicted to stay within the bound, or because they expired.
+     * @param size Number of entries currently cached.
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        /**
+         * @return The fraction of lookups answered from the cache, 0 if there was none.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    // Logger for reporting cache statistics.
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    // Number of misses between two statistics log lines.
+    private static final long STATS_LOG_INTERVAL = 1000;
+
+    /**
+     * Cached tokens by digest in access order, least recently used first.
+     */
+    private final LinkedHashMap<ByteBuffer, VerifiedToken> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxEntries;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Computes the cache key of a token.
+     *
+     * @param token The JWT token.
+     * @return The SHA-256 digest of the token.
+     */
+    public static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Retrieves a verified token that has not expired.
+     *
+     * @param digest The digest of the token, see {@link #digest(String)}.
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @return The verified token, or {@code null} if it must be verified.
+     */
+    public synchronized VerifiedToken get(ByteBuffer digest, long nowMillis) {
+        VerifiedToken token = entries.get(digest);
+        if (token != null && token.expiresAtMillis() <= nowMillis) {
+            entries.remove(digest);
+            evictions++;
+            token = null;
+        }
+
+        if (token == null) {
+            misses++;
+            if (misses % STATS_LOG_INTERVAL == 0) {
+                logger.info("Verified token cache statistics: {}, hit rate: {}", getStats(), getStats().hitRate());
+            }
+            return null;
+        }
+
+        hits++;
+        return token;
+    }
+
+    /**
+     * Caches a verified token, evicting the least recently used entry if the cache is full.
+     *
+     * @param digest The digest of the token, see {@link #digest(String)}.
+     * @param token The identity carried by the token.
+     */
+    public synchronized void put(ByteBuffer digest, VerifiedToken token) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        entries.put(digest, token);
+        if (entries.size() > maxEntries) {
+            entries.pollFirstEntry();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return A snapshot of the cache counters.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size());
+    }
+}
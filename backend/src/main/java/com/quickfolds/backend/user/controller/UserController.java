@@ -2,8 +2,10 @@ package com.quickfolds.backend.user.controller;
 
 
 import com.quickfolds.backend.dto.BaseResponse;
+import com.quickfolds.backend.user.auth.LoginThrottle;
 import com.quickfolds.backend.user.model.User;
 import com.quickfolds.backend.user.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,9 +25,12 @@ import java.util.Map;
  *
  * Dependencies:
  * - UserService: Handles business logic for authentication and user management.
+ * - LoginThrottle: Limits the rate of signups per client IP and of logins per username and client IP.
  *
  * Security:
  * - Uses Spring Security's `SecurityContextHolder` for user authentication.
+ * - Throttles by `request.getRemoteAddr()`, which Tomcat resolves from `X-Forwarded-For` only when the
+ *   peer matches `server.tomcat.remoteip.internal-proxies`, so a client cannot choose its own bucket.
  */
 @RestController
 @RequestMapping("/user")
@@ -35,6 +40,9 @@ public class UserController {
     // Service layer handling user authentication and registration logic.
     private final UserService userService;
 
+    // Token buckets rejecting excessive authentication attempts before any password is hashed.
+    private final LoginThrottle loginThrottle;
+
     /**
      * Retrieves the currently authenticated user.
      *
@@ -53,20 +61,24 @@ public class UserController {
      * Handles user registration.
      *
      * - Validates the request body to ensure username and password are not null.
+     * - Rejects the request with 429 if the client IP exceeds its rate.
      * - Calls the service layer to create a new user.
      * - Returns a success message if registration is successful.
      * - Returns an error if the username is already taken.
      *
      * @param user The user object containing username and password.
+     * @param request The HTTP request, providing the client IP.
      * @return ResponseEntity with a success message or an error message.
      */
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody User user) {
+    public ResponseEntity<?> signup(@RequestBody User user, HttpServletRequest request) {
         // Validate request: username and password must not be empty.
         if (user.getUsername() == null || user.getPassword() == null) {
             return ResponseEntity.badRequest().body("Username and password cannot be empty");
         }
 
+        loginThrottle.acquire(null, request.getRemoteAddr());
+
         // Attempt to register the user.
         boolean success = userService.registerUser(user);
 
@@ -83,19 +95,23 @@ public class UserController {
      * Handles user authentication (login).
      *
      * - Extracts username and password from the request body.
+     * - Rejects the request with 429 if the username or the client IP exceeds its rate.
      * - Calls the service layer to verify credentials.
      * - If authentication is successful, returns a JWT token.
      * - Otherwise, returns an unauthorized error.
      *
      * @param credentials A map containing the username and password.
+     * @param request The HTTP request, providing the client IP.
      * @return ResponseEntity with a JWT token if authentication is successful, or an error message.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> signin(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<?> signin(@RequestBody Map<String, String> credentials, HttpServletRequest request) {
         // Extract username and password from the request payload.
         String username = credentials.get("username");
         String password = credentials.get("password");
 
+        loginThrottle.acquire(username, request.getRemoteAddr());
+
         // Attempt to authenticate and generate a JWT token.
         String token = userService.login(username, password);
 
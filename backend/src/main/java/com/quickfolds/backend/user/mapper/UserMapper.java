@@ -12,7 +12,7 @@ import org.apache.ibatis.annotations.*;
  * Key functionalities:
  * <ul>
  *     <li>Retrieve user by ID or username</li>
- *     <li>Insert new user records</li>
+ *     <li>Insert new user records, in a single round trip relying on the unique username</li>
  * </ul>
  * <p>
  * Dependencies:
@@ -38,11 +38,12 @@ public interface UserMapper {
      * <p>
      * This method is commonly used for authentication and user lookup operations.
      * It returns the {@link User} entity associated with the provided username or {@code null} if not found.
+     * Only the ID, username and password hash are loaded, which is all that login needs.
      *
      * @param username The username of the user to retrieve.
      * @return The {@link User} object corresponding to the given username, or {@code null} if not found.
      */
-    @Select("SELECT * FROM users WHERE username = #{username}")
+    @Select("SELECT id, username, password FROM users WHERE username = #{username}")
     User findByUsername(@Param("username") String username);
 
     /**
@@ -58,6 +59,20 @@ public interface UserMapper {
     @Options(useGeneratedKeys = true, keyProperty = "id")
     int insertUser(User user);
 
+    /**
+     * Inserts a new user into the database unless the username is already taken.
+     * <p>
+     * The unique constraint on the username decides between concurrent registrations of the same
+     * username, so no prior lookup is needed: exactly one of them inserts a row and gets its ID.
+     *
+     * @param user The {@link User} object containing the username and hashed password.
+     * @return The ID of the inserted user, or {@code null} if the username already exists.
+     */
+    @Select("INSERT INTO users(username, password) VALUES(#{username}, #{password}) " +
+            "ON CONFLICT (username) DO NOTHING RETURNING id")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Long insertUserIfAbsent(User user);
+
     @Select("SELECT id FROM users WHERE username = #{username}")
     Long getIdByUsername(@Param("username") String username);
 }
\ No newline at end of file
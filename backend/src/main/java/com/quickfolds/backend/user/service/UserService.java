@@ -1,10 +1,10 @@
 package com.quickfolds.backend.user.service;
 
 import com.quickfolds.backend.user.auth.JwtUtil;
+import com.quickfolds.backend.user.auth.PasswordHasher;
 import com.quickfolds.backend.user.mapper.UserMapper;
 import com.quickfolds.backend.user.model.User;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,9 +15,11 @@ import org.springframework.stereotype.Service;
  * Dependencies:
  * - UserMapper: Interacts with the database to retrieve and store user information.
  * - JwtUtil: Handles JSON Web Token (JWT) generation for authentication.
+ * - PasswordHasher: Runs BCrypt hashing on a bounded pool instead of the request thread.
  *
  * Security:
  * - Uses BCrypt for secure password hashing.
+ * - Rejects requests with a TooManyRequestsException when the hashing pool is saturated.
  */
 @Service
 @RequiredArgsConstructor
@@ -29,27 +31,32 @@ public class UserService {
     // Utility for generating and validating JWT tokens.
     private final JwtUtil jwtUtil;
 
+    // Bounded pool running the BCrypt hashes.
+    private final PasswordHasher passwordHasher;
+
     /**
      * Registers a new user in the system.
      *
-     * - Checks if the username is already taken.
      * - Hashes the password using BCrypt before storing it in the database.
+     * - Inserts the user in a single statement, which does nothing if the username is already taken.
+     *   The unique username decides between concurrent registrations of the same username.
      *
      * @param user The user object containing username and password.
      * @return true if registration is successful, false if the username already exists.
      */
     public boolean registerUser(User user) {
-        // Check if the username is already in use.
-        if (userMapper.findByUsername(user.getUsername()) != null) {
-            return false; // Username already exists
-        }
-
         // Hash the password using BCrypt for security.
-        String hashedPassword = BCrypt.hashpw(user.getPassword(), BCrypt.gensalt());
+        String hashedPassword = passwordHasher.hash(user.getPassword());
         user.setPassword(hashedPassword);
 
-        // Insert user into the database and return success status.
-        return userMapper.insertUser(user) > 0;
+        // Insert the user unless the username is already in use.
+        Long userId = userMapper.insertUserIfAbsent(user);
+        if (userId == null) {
+            return false; // Username already exists
+        }
+
+        user.setId(userId);
+        return true;
     }
 
 
@@ -69,7 +76,7 @@ public class UserService {
         User user = userMapper.findByUsername(username);
 
         // Verify the provided password against the stored hash.
-        if (user != null && BCrypt.checkpw(rawPassword, user.getPassword())) {
+        if (user != null && passwordHasher.check(rawPassword, user.getPassword())) {
             // Generate and return a JWT token for authentication.
             return jwtUtil.generateToken(user);
         }
@@ -0,0 +1,113 @@
+-- Optional hash partitioning of the geometry tables by origami.
+--
+-- Only defines partition_geometry_tables; SchemaMigrator calls it once the migrations are applied when
+-- database.migration.geometry-partitions is set, and the tables are left as they are otherwise.
+-- Every mapper query filters each geometry table on origami_id (see V9), so a query on one origami
+-- only reads its partition of each table.
+--
+-- A partitioned table's primary key must include the partition key, so the keys become
+-- (origami_id, id) and the foreign keys between geometry tables become (origami_id, ...) pairs.
+-- fold_step has no origami_id and cannot reference the partitioned face table: its anchored face
+-- foreign key is dropped, the anchored face being checked by the fold that records it.
+
+-- Rebuilds the geometry tables as tables hash partitioned by origami_id into p_partitions partitions,
+-- copying their rows, indexes, foreign keys, comments, sequences and updated_at triggers.
+-- Does nothing if the tables are already partitioned.
+CREATE OR REPLACE FUNCTION partition_geometry_tables(p_partitions INTEGER)
+RETURNS VOID AS $$
+DECLARE
+    -- Parents before children, so the copied rows find the rows they reference
+    v_tables TEXT[] := ARRAY['face', 'origami_point', 'edge', 'annotated_line', 'annotated_point',
+                             'side_edge', 'fold_edge'];
+    v_table TEXT;
+    v_key TEXT;
+    v_sequence TEXT;
+    v_comment TEXT;
+    v_indexes TEXT[];
+    v_index TEXT;
+    rec RECORD;
+    i INTEGER;
+BEGIN
+    IF p_partitions < 1 THEN
+        RAISE EXCEPTION 'Invalid number of geometry partitions %', p_partitions;
+    END IF;
+
+    IF (SELECT relkind FROM pg_class WHERE oid = 'face'::REGCLASS) = 'p' THEN
+        RAISE NOTICE 'Geometry tables are already partitioned';
+        RETURN;
+    END IF;
+
+    EXECUTE 'LOCK TABLE ' || array_to_string(v_tables, ', ') || ' IN ACCESS EXCLUSIVE MODE';
+
+    -- Foreign keys from or to the geometry tables, recreated once every table is rebuilt
+    CREATE TEMP TABLE geometry_foreign_key ON COMMIT DROP AS
+    SELECT c.conname::TEXT AS name, c.conrelid::REGCLASS::TEXT AS from_table,
+           c.confrelid::REGCLASS::TEXT AS to_table, pg_get_constraintdef(c.oid) AS definition
+    FROM pg_constraint c
+    WHERE c.contype = 'f'
+    AND (c.conrelid::REGCLASS::TEXT = ANY (v_tables) OR c.confrelid::REGCLASS::TEXT = ANY (v_tables));
+
+    FOR rec IN SELECT * FROM geometry_foreign_key LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', rec.from_table, rec.name);
+    END LOOP;
+
+    FOREACH v_table IN ARRAY v_tables LOOP
+        SELECT a.attname INTO v_key
+        FROM pg_index x
+        INNER JOIN pg_attribute a ON a.attrelid = x.indrelid AND a.attnum = x.indkey[0]
+        WHERE x.indrelid = v_table::REGCLASS AND x.indisprimary;
+
+        SELECT COALESCE(array_agg(pg_get_indexdef(x.indexrelid)), '{}') INTO v_indexes
+        FROM pg_index x
+        WHERE x.indrelid = v_table::REGCLASS AND NOT x.indisprimary;
+
+        v_sequence := pg_get_serial_sequence(v_table, v_key);
+        v_comment := obj_description(v_table::REGCLASS, 'pg_class');
+
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING COMMENTS) PARTITION BY HASH (origami_id)',
+                       v_table || '_partitioned', v_table);
+        FOR i IN 0 .. p_partitions - 1 LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                           v_table || '_p' || i, v_table || '_partitioned', p_partitions, i);
+        END LOOP;
+        EXECUTE format('INSERT INTO %I SELECT * FROM %I', v_table || '_partitioned', v_table);
+
+        -- The sequence of the ID would be dropped with the table
+        IF v_sequence IS NOT NULL THEN
+            EXECUTE format('ALTER SEQUENCE %s OWNED BY NONE', v_sequence);
+        END IF;
+        EXECUTE format('DROP TABLE %I', v_table);
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', v_table || '_partitioned', v_table);
+        IF v_sequence IS NOT NULL THEN
+            EXECUTE format('ALTER SEQUENCE %s OWNED BY %I.%I', v_sequence, v_table, v_key);
+        END IF;
+
+        EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (origami_id, %I)', v_table, v_key);
+        FOREACH v_index IN ARRAY v_indexes LOOP
+            EXECUTE v_index;
+        END LOOP;
+        EXECUTE format('COMMENT ON TABLE %I IS %L', v_table, v_comment);
+        EXECUTE format('
+            CREATE TRIGGER trigger_update_%s_updated_at
+            BEFORE UPDATE ON %I
+            FOR EACH ROW
+            EXECUTE FUNCTION update_updated_at_column();
+        ', v_table, v_table);
+    END LOOP;
+
+    -- Foreign keys between geometry tables pair the origami with the referenced ID
+    FOR rec IN SELECT * FROM geometry_foreign_key LOOP
+        IF NOT rec.from_table = ANY (v_tables) THEN
+            RAISE NOTICE 'Dropped foreign key % of % to partitioned table %', rec.name, rec.from_table, rec.to_table;
+        ELSIF rec.to_table = ANY (v_tables) THEN
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', rec.from_table, rec.name,
+                           regexp_replace(rec.definition, '^FOREIGN KEY \((\w+)\) REFERENCES (\w+)\((\w+)\)',
+                                          'FOREIGN KEY (origami_id, \1) REFERENCES \2(origami_id, \3)'));
+        ELSE
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', rec.from_table, rec.name, rec.definition);
+        END IF;
+    END LOOP;
+
+    EXECUTE 'ANALYZE ' || array_to_string(v_tables, ', ');
+END;
+$$ LANGUAGE plpgsql;
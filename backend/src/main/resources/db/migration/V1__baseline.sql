@@ -1,4 +1,6 @@
-BEGIN;
+-- Baseline schema, the former hand-run database/schema.sql without its BEGIN/COMMIT: SchemaMigrator runs
+-- each migration in its own transaction. Databases created with that script are recorded at this version
+-- instead of running it, so it must never change; later schema changes go in their own migrations.
 
 -- Create Users Table
 CREATE TABLE users (
@@ -473,4 +475,3 @@ CREATE INDEX idx_side_edge_vertex_1_id ON side_edge(vertex_1_id);
 CREATE INDEX idx_side_edge_vertex_2_id ON side_edge(vertex_2_id);
 CREATE INDEX idx_side_edge_face_id ON side_edge(face_id);
 
-COMMIT;
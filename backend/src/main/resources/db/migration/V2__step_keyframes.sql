@@ -0,0 +1,39 @@
+-- Keyframes of the snapshot endpoint: the full state of an origami at every K-th step.
+
+-- Create Step Keyframe Table
+CREATE TABLE step_keyframe (
+    id BIGSERIAL PRIMARY KEY,
+    origami_id BIGINT NOT NULL REFERENCES origami(id) ON DELETE CASCADE,
+    step_id BIGINT NOT NULL REFERENCES step(id) ON DELETE CASCADE ON UPDATE CASCADE,
+    step_id_in_origami INTEGER NOT NULL,
+    snapshot JSONB NOT NULL,
+
+    created_by TEXT DEFAULT NULL,
+    updated_by TEXT DEFAULT NULL,
+    created_at TIMESTAMPTZ DEFAULT now(),
+    updated_at TIMESTAMPTZ DEFAULT now(),
+
+    UNIQUE (origami_id, step_id_in_origami)
+);
+
+COMMENT ON TABLE step_keyframe IS 'Caches the full state of an origami at every K-th step, rebuildable from the geometry tables.';
+
+COMMENT ON COLUMN step_keyframe.id IS 'Unique identifier for the keyframe.';
+COMMENT ON COLUMN step_keyframe.origami_id IS 'Foreign key referencing the origami the keyframe belongs to.';
+COMMENT ON COLUMN step_keyframe.step_id IS 'Foreign key referencing the step the keyframe was taken at.';
+COMMENT ON COLUMN step_keyframe.step_id_in_origami IS 'Step number within the origami sequence the keyframe was taken at.';
+COMMENT ON COLUMN step_keyframe.snapshot IS 'Serialized faces, vertices, edges and annotations live at the step.';
+
+COMMENT ON COLUMN step_keyframe.created_by IS 'Identifier of the user who created this keyframe record.';
+COMMENT ON COLUMN step_keyframe.updated_by IS 'Identifier of the user who last updated this keyframe record.';
+COMMENT ON COLUMN step_keyframe.created_at IS 'Timestamp when this keyframe record was created.';
+COMMENT ON COLUMN step_keyframe.updated_at IS 'Timestamp when this keyframe record was last updated.';
+
+-- The baseline only added updated_at triggers to the tables it created
+CREATE OR REPLACE TRIGGER trigger_update_step_keyframe_updated_at
+BEFORE UPDATE ON step_keyframe
+FOR EACH ROW
+EXECUTE FUNCTION update_updated_at_column();
+
+-- Step Keyframe table
+CREATE INDEX idx_step_keyframe_step_id ON step_keyframe(step_id);
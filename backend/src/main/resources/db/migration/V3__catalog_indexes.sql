@@ -0,0 +1,10 @@
+-- Indexes of the public origami catalog, one partial index per sort order of /origami/list.
+--
+-- Only public origami are listed, so the is_public index the catalog never used is dropped.
+
+-- Origami table
+DROP INDEX IF EXISTS idx_origami_is_public;
+
+CREATE INDEX idx_origami_public_rating ON origami(ratings DESC, id DESC) WHERE is_public;
+CREATE INDEX idx_origami_public_id ON origami(id DESC) WHERE is_public;
+CREATE INDEX idx_origami_public_name ON origami(origami_name, id) WHERE is_public;
@@ -0,0 +1,29 @@
+-- One rating per user and origami, and the rating sum the write-behind aggregates of RatingAggregator update.
+--
+-- Duplicate ratings of a user, possible before the constraint, keep only their latest row. The aggregates
+-- are then rebuilt from the remaining history.
+
+DELETE FROM rating_history r
+USING rating_history newer
+WHERE newer.user_id = r.user_id
+AND newer.origami_id = r.origami_id
+AND newer.id > r.id;
+
+ALTER TABLE rating_history ADD CONSTRAINT uq_rating_history_user_origami UNIQUE (user_id, origami_id);
+
+-- (user_id, origami_id) is indexed by uq_rating_history_user_origami
+DROP INDEX IF EXISTS idx_rating_history_user_id;
+
+ALTER TABLE origami ADD COLUMN rating_sum DOUBLE PRECISION NOT NULL DEFAULT 0.0;
+
+COMMENT ON COLUMN origami.num_ratings IS 'Number of users who rated the origami model.';
+COMMENT ON COLUMN origami.rating_sum IS 'Sum of the current ratings of the origami model.';
+
+UPDATE origami o
+SET rating_sum = h.rating_sum,
+    num_ratings = h.num_ratings,
+    ratings = h.rating_sum / h.num_ratings
+FROM (SELECT origami_id, SUM(rating) AS rating_sum, COUNT(*) AS num_ratings
+      FROM rating_history
+      GROUP BY origami_id) h
+WHERE o.id = h.origami_id;
@@ -0,0 +1,4 @@
+-- Covering index of the step lookups by origami, including the highest step.id of the step and snapshot ETags.
+
+-- Step table
+CREATE INDEX idx_step_origami_id_in_origami ON step(origami_id, id_in_origami, id);
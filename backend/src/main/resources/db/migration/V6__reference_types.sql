@@ -0,0 +1,21 @@
+-- Reference types read by ReferenceTypeRegistry. Existing rows, imported by hand before migrations, are kept.
+
+INSERT INTO step_type (step_type_name, created_by)
+VALUES
+  ('fold', 'admin'),
+  ('create', 'admin'),
+  ('annotate', 'admin'),
+  ('rotate', 'admin')
+ON CONFLICT (step_type_name) DO NOTHING;
+
+INSERT INTO point_type (point_type_name, created_by)
+VALUES
+  ('vertex', 'admin'),
+  ('annotated_point', 'admin')
+ON CONFLICT (point_type_name) DO NOTHING;
+
+INSERT INTO edge_type (edge_type_name, created_by)
+VALUES
+  ('side', 'admin'),
+  ('fold', 'admin')
+ON CONFLICT (edge_type_name) DO NOTHING;
@@ -0,0 +1,309 @@
+-- Database-side fold of POST /geometry/fold, used when geometry.fold.db-side is enabled.
+
+-- Lists the annotated points requested for the new faces of a fold, in request order,
+-- with the database ID of the edge each point lies on.
+CREATE OR REPLACE FUNCTION apply_fold_points(p_faces JSONB, p_face_ids BIGINT[])
+RETURNS TABLE (
+    face_ord BIGINT,
+    point_ord BIGINT,
+    face_id BIGINT,
+    id_in_face INTEGER,
+    x_pos DOUBLE PRECISION,
+    y_pos DOUBLE PRECISION,
+    on_edge_id_in_face INTEGER,
+    on_edge_id BIGINT
+) AS $$
+    SELECT f.ord, p.ord, p_face_ids[f.ord], (p.value ->> 'idInFace')::INTEGER,
+           (p.value ->> 'x')::DOUBLE PRECISION, (p.value ->> 'y')::DOUBLE PRECISION,
+           (p.value ->> 'onEdgeIdInFace')::INTEGER,
+           COALESCE(
+               (SELECT edge_id FROM side_edge
+                WHERE side_edge.face_id = p_face_ids[f.ord]
+                AND side_edge.id_in_face = (p.value ->> 'onEdgeIdInFace')::INTEGER LIMIT 1),
+               (SELECT edge_id FROM fold_edge
+                WHERE face_1_id = p_face_ids[f.ord]
+                AND id_in_face_1 = (p.value ->> 'onEdgeIdInFace')::INTEGER LIMIT 1),
+               (SELECT edge_id FROM fold_edge
+                WHERE face_2_id = p_face_ids[f.ord]
+                AND id_in_face_2 = (p.value ->> 'onEdgeIdInFace')::INTEGER LIMIT 1)
+           )
+    FROM jsonb_array_elements(p_faces) WITH ORDINALITY AS f (value, ord)
+    CROSS JOIN LATERAL jsonb_array_elements(
+        COALESCE(NULLIF(f.value -> 'annotations' -> 'points', 'null'::JSONB), '[]'::JSONB)) WITH ORDINALITY AS p (value, ord)
+$$ LANGUAGE sql STABLE;
+
+-- Applies a whole fold request in a single call, mirroring GeometryService.fold:
+-- creates the step, deletes the requested faces with their edges, points and lines, creates the new faces
+-- with their vertices, side edges and fold edges, records the anchored face and adds the annotations.
+-- IDs are allocated in request order, as the batch inserts of the Java path do. An invalid request is
+-- returned as {"error": ..., "badRequest": ...} with the messages of the Java path, and the caller rolls
+-- back; otherwise {"stepId": ..., "faceIds": [...]} is returned.
+CREATE OR REPLACE FUNCTION apply_fold(
+    p_request JSONB,
+    p_fold_step_type_id BIGINT,
+    p_vertex_type_id BIGINT,
+    p_annotated_point_type_id BIGINT,
+    p_side_edge_type_id BIGINT,
+    p_fold_edge_type_id BIGINT
+)
+RETURNS JSONB AS $$
+DECLARE
+    v_origami_id BIGINT := (p_request ->> 'origamiId')::BIGINT;
+    v_faces JSONB := COALESCE(NULLIF(p_request -> 'faces', 'null'::JSONB), '[]'::JSONB);
+    v_deleted_faces JSONB := COALESCE(NULLIF(p_request -> 'deletedFaces', 'null'::JSONB), '[]'::JSONB);
+    v_step_id BIGINT;
+    v_face_ids BIGINT[];
+    v_deleted_face_ids BIGINT[];
+    v_anchored_face_id BIGINT;
+    v_rows INTEGER;
+    v_face_id BIGINT;
+    v_line_id INTEGER;
+    v_has_vertices BOOLEAN;
+BEGIN
+    INSERT INTO step (origami_id, step_type_id, id_in_origami)
+    VALUES (v_origami_id, p_fold_step_type_id, (p_request ->> 'stepIdInOrigami')::INTEGER)
+    RETURNING id INTO v_step_id;
+
+    -- Delete specified faces
+    IF jsonb_array_length(v_deleted_faces) > 0 THEN
+        SELECT COALESCE(array_agg(f.id), '{}') INTO v_deleted_face_ids
+        FROM face f
+        INNER JOIN step s ON f.step_id = s.id
+        WHERE s.origami_id = v_origami_id
+        AND f.id_in_origami IN (SELECT value::INTEGER FROM jsonb_array_elements_text(v_deleted_faces));
+
+        UPDATE face SET deleted_step_id = v_step_id WHERE id = ANY (v_deleted_face_ids);
+        GET DIAGNOSTICS v_rows = ROW_COUNT;
+
+        IF v_rows > jsonb_array_length(v_deleted_faces) THEN
+            RETURN jsonb_build_object('badRequest', FALSE, 'error',
+                'Extra rows are updated after deleting faces, verify if DB is correct (unexpected rows updated)');
+        ELSIF v_rows < jsonb_array_length(v_deleted_faces) THEN
+            RETURN jsonb_build_object('badRequest', TRUE, 'error',
+                'Invalid face id(s) found in face id 0 for origami ' || v_origami_id ||
+                ', verify if request is valid (no such face)');
+        END IF;
+
+        UPDATE edge e SET deleted_step_id = v_step_id
+        FROM side_edge se
+        WHERE se.edge_id = e.id
+        AND e.deleted_step_id IS NULL
+        AND se.face_id = ANY (v_deleted_face_ids);
+
+        UPDATE edge e SET deleted_step_id = v_step_id
+        FROM fold_edge fe
+        WHERE fe.edge_id = e.id
+        AND e.deleted_step_id IS NULL
+        AND (fe.face_1_id = ANY (v_deleted_face_ids) OR fe.face_2_id = ANY (v_deleted_face_ids));
+
+        UPDATE origami_point SET deleted_step_id = v_step_id
+        WHERE deleted_step_id IS NULL
+        AND face_id = ANY (v_deleted_face_ids);
+        GET DIAGNOSTICS v_rows = ROW_COUNT;
+
+        IF v_rows < 3 * cardinality(v_deleted_face_ids) THEN
+            RETURN jsonb_build_object('badRequest', FALSE, 'error',
+                'Invalid number of points deleted, verify if DB state is correct (too few edges deleted)');
+        END IF;
+
+        UPDATE annotated_line SET deleted_step_id = v_step_id
+        WHERE deleted_step_id IS NULL
+        AND face_id = ANY (v_deleted_face_ids);
+    END IF;
+
+    -- Create new faces, allocating their IDs in request order
+    SELECT COALESCE(array_agg(id ORDER BY ord), '{}') INTO v_face_ids
+    FROM (
+        SELECT nextval(pg_get_serial_sequence('face', 'id')) AS id, ord
+        FROM generate_series(1, jsonb_array_length(v_faces)) AS ord
+        ORDER BY ord
+    ) allocated;
+
+    INSERT INTO face (id, step_id, id_in_origami)
+    SELECT v_face_ids[f.ord], v_step_id, (f.value ->> 'idInOrigami')::INTEGER
+    FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+    ORDER BY f.ord;
+
+    -- Add the vertices of the new faces
+    INSERT INTO origami_point (step_id, face_id, point_type_id, x_pos, y_pos, id_in_face)
+    SELECT v_step_id, v_face_ids[f.ord], p_vertex_type_id,
+           (v.value ->> 'x')::DOUBLE PRECISION, (v.value ->> 'y')::DOUBLE PRECISION, (v.ord - 1)::INTEGER
+    FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+    CROSS JOIN LATERAL jsonb_array_elements(COALESCE(NULLIF(f.value -> 'vertices', 'null'::JSONB), '[]'::JSONB))
+        WITH ORDINALITY AS v (value, ord)
+    ORDER BY f.ord, v.ord;
+
+    -- Add one edge per vertex of the new faces: a side edge to the next vertex, or the fold edge requested there.
+    -- Of two new faces, the later one creates their shared fold edge; fold edges to unknown faces are skipped.
+    WITH slots AS (
+        SELECT f.ord AS face_ord, (i - 1)::INTEGER AS id_in_face,
+               jsonb_array_length(f.value -> 'vertices') AS vertex_count,
+               NULLIF(f.value -> 'edges' -> (i - 1), 'null'::JSONB) AS fold_edge
+        FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+        CROSS JOIN LATERAL generate_series(1, jsonb_array_length(
+            COALESCE(NULLIF(f.value -> 'vertices', 'null'::JSONB), '[]'::JSONB))) AS i
+    ), resolved AS (
+        SELECT s.*,
+               CASE
+                   WHEN s.fold_edge IS NULL THEN NULL
+                   WHEN other.ord IS NOT NULL THEN CASE WHEN other.ord <= s.face_ord THEN v_face_ids[other.ord] END
+                   ELSE (
+                       SELECT max(ef.id)
+                       FROM face ef
+                       INNER JOIN step es ON ef.step_id = es.id
+                       WHERE es.origami_id = v_origami_id
+                       AND ef.id_in_origami = (s.fold_edge ->> 'otherFaceIdInOrigami')::INTEGER
+                   )
+               END AS other_face_id
+        FROM slots s
+        LEFT JOIN LATERAL (
+            SELECT max(n.ord) AS ord
+            FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS n (value, ord)
+            WHERE (n.value ->> 'idInOrigami')::INTEGER = (s.fold_edge ->> 'otherFaceIdInOrigami')::INTEGER
+        ) other ON TRUE
+    ), planned AS (
+        SELECT nextval(pg_get_serial_sequence('edge', 'id')) AS edge_id, r.*
+        FROM resolved r
+        WHERE r.fold_edge IS NULL OR r.other_face_id IS NOT NULL
+        ORDER BY r.face_ord, r.id_in_face
+    ), new_edges AS (
+        INSERT INTO edge (id, step_id, edge_type_id)
+        SELECT edge_id, v_step_id, CASE WHEN fold_edge IS NULL THEN p_side_edge_type_id ELSE p_fold_edge_type_id END
+        FROM planned
+    ), new_side_edges AS (
+        INSERT INTO side_edge (edge_id, vertex_1_id, vertex_2_id, face_id, id_in_face)
+        SELECT p.edge_id, v1.id, v2.id, v_face_ids[p.face_ord], p.id_in_face
+        FROM planned p
+        INNER JOIN origami_point v1
+            ON v1.face_id = v_face_ids[p.face_ord] AND v1.id_in_face = p.id_in_face
+        INNER JOIN origami_point v2
+            ON v2.face_id = v_face_ids[p.face_ord] AND v2.id_in_face = (p.id_in_face + 1) % p.vertex_count
+        WHERE p.fold_edge IS NULL
+    )
+    INSERT INTO fold_edge (edge_id, face_1_id, face_2_id, angle, id_in_face_1, id_in_face_2)
+    SELECT edge_id, v_face_ids[face_ord], other_face_id, (fold_edge ->> 'angle')::DOUBLE PRECISION,
+           id_in_face, (fold_edge ->> 'idInOtherFace')::INTEGER
+    FROM planned
+    WHERE fold_edge IS NOT NULL;
+
+    -- Create fold step with anchored face
+    SELECT max(f.id) INTO v_anchored_face_id
+    FROM face f
+    INNER JOIN step s ON f.step_id = s.id
+    WHERE s.origami_id = v_origami_id
+    AND f.id_in_origami = (p_request ->> 'anchoredFaceIdInOrigami')::INTEGER;
+
+    IF v_anchored_face_id IS NULL THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Anchored face id not found, verify if request is valid (no such face)');
+    END IF;
+
+    INSERT INTO fold_step (step_id, anchored_face_id) VALUES (v_step_id, v_anchored_face_id);
+
+    -- Annotations of the new faces, which have no annotation to delete yet
+    SELECT v_face_ids[f.ord] INTO v_face_id
+    FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+    WHERE jsonb_array_length(COALESCE(NULLIF(f.value -> 'annotations' -> 'deletedLines', 'null'::JSONB), '[]'::JSONB)) > 0
+    ORDER BY f.ord
+    LIMIT 1;
+
+    IF v_face_id IS NOT NULL THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Invalid annotated line id(s) found in face id ' || v_face_id || ' for origami ' || v_origami_id ||
+            ', verify if request is valid (no such annotated line)');
+    END IF;
+
+    SELECT v_face_ids[f.ord],
+           EXISTS (
+               SELECT 1
+               FROM origami_point op
+               WHERE op.face_id = v_face_ids[f.ord]
+               AND op.id_in_face IN (SELECT value::INTEGER FROM jsonb_array_elements_text(f.value -> 'annotations' -> 'deletedPoints'))
+           )
+    INTO v_face_id, v_has_vertices
+    FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+    WHERE jsonb_array_length(COALESCE(NULLIF(f.value -> 'annotations' -> 'deletedPoints', 'null'::JSONB), '[]'::JSONB)) > 0
+    ORDER BY f.ord
+    LIMIT 1;
+
+    IF v_has_vertices THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Deleted points contains vertices, verify if request is valid (vertex deletion)');
+    ELSIF v_face_id IS NOT NULL THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Invalid annotated point id(s) found in face id ' || v_face_id || ' for origami ' || v_origami_id ||
+            ', verify if request is valid (no such annotated point)');
+    END IF;
+
+    -- Add the annotated points, checked for duplicates and missing edges before anything is inserted
+    IF EXISTS (
+        SELECT 1 FROM apply_fold_points(v_faces, v_face_ids) GROUP BY face_id, id_in_face HAVING count(*) > 1
+    ) OR EXISTS (
+        SELECT 1
+        FROM apply_fold_points(v_faces, v_face_ids) ap
+        INNER JOIN origami_point op ON op.face_id = ap.face_id AND op.id_in_face = ap.id_in_face
+    ) THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Duplicate points detected, verify if request is valid (duplicate annotated points).');
+    END IF;
+
+    IF EXISTS (
+        SELECT 1 FROM apply_fold_points(v_faces, v_face_ids)
+        WHERE on_edge_id_in_face IS NOT NULL AND on_edge_id IS NULL
+    ) THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Edge id in face does not match with anything in DB, ' ||
+            'verify if request is valid (no edge id in face entry in DB)');
+    END IF;
+
+    WITH points AS (
+        SELECT * FROM apply_fold_points(v_faces, v_face_ids)
+    ), new_points AS (
+        INSERT INTO origami_point (step_id, face_id, point_type_id, x_pos, y_pos, id_in_face)
+        SELECT v_step_id, face_id, p_annotated_point_type_id, x_pos, y_pos, id_in_face
+        FROM points
+        ORDER BY face_ord, point_ord
+        RETURNING id, face_id, id_in_face
+    )
+    INSERT INTO annotated_point (point_id, on_edge_id)
+    SELECT np.id, p.on_edge_id
+    FROM new_points np
+    INNER JOIN points p ON p.face_id = np.face_id AND p.id_in_face = np.id_in_face;
+
+    -- Add the annotated lines, once both end points of every line are found
+    SELECT (l.value ->> 'idInFace')::INTEGER INTO v_line_id
+    FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+    CROSS JOIN LATERAL jsonb_array_elements(
+        COALESCE(NULLIF(f.value -> 'annotations' -> 'lines', 'null'::JSONB), '[]'::JSONB)) WITH ORDINALITY AS l (value, ord)
+    WHERE (l.value ->> 'point1IdInOrigami')::INTEGER = (l.value ->> 'point2IdInOrigami')::INTEGER
+    OR NOT EXISTS (
+        SELECT 1 FROM origami_point
+        WHERE face_id = v_face_ids[f.ord] AND id_in_face = (l.value ->> 'point1IdInOrigami')::INTEGER
+    )
+    OR NOT EXISTS (
+        SELECT 1 FROM origami_point
+        WHERE face_id = v_face_ids[f.ord] AND id_in_face = (l.value ->> 'point2IdInOrigami')::INTEGER
+    )
+    ORDER BY f.ord, l.ord
+    LIMIT 1;
+
+    IF FOUND THEN
+        RETURN jsonb_build_object('badRequest', TRUE, 'error',
+            'Invalid point in annotated line ' || v_line_id || ', verify if request is valid (invalid point in line)');
+    END IF;
+
+    INSERT INTO annotated_line (step_id, face_id, point_1_id, point_2_id, id_in_face)
+    SELECT v_step_id, v_face_ids[f.ord],
+           (SELECT min(id) FROM origami_point
+            WHERE face_id = v_face_ids[f.ord] AND id_in_face = (l.value ->> 'point1IdInOrigami')::INTEGER),
+           (SELECT min(id) FROM origami_point
+            WHERE face_id = v_face_ids[f.ord] AND id_in_face = (l.value ->> 'point2IdInOrigami')::INTEGER),
+           (l.value ->> 'idInFace')::INTEGER
+    FROM jsonb_array_elements(v_faces) WITH ORDINALITY AS f (value, ord)
+    CROSS JOIN LATERAL jsonb_array_elements(
+        COALESCE(NULLIF(f.value -> 'annotations' -> 'lines', 'null'::JSONB), '[]'::JSONB)) WITH ORDINALITY AS l (value, ord)
+    ORDER BY f.ord, l.ord;
+
+    RETURN jsonb_build_object('stepId', v_step_id, 'faceIds', to_jsonb(v_face_ids));
+END;
+$$ LANGUAGE plpgsql;
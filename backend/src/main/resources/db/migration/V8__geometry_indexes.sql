@@ -0,0 +1,47 @@
+-- Composite and partial indexes of the geometry tables, matched to the mapper queries.
+--
+-- Geometry rows are looked up by their face and their ID within the face, so the single-column face
+-- indexes are replaced by composites that lead with the face and still serve the face-only lookups.
+-- Rows are removed by setting deleted_step_id, and most rows are never removed, so the indexes on
+-- deleted_step_id only hold removed rows: every query filtering on it compares it to a step, which
+-- the planner knows implies IS NOT NULL.
+
+-- Step table
+-- Every step lookup filters on its origami, served by idx_step_origami_id_in_origami
+DROP INDEX IF EXISTS idx_step_origami_id;
+DROP INDEX IF EXISTS idx_step_id_in_origami;
+
+-- Face table
+-- Faces of an origami are found through the IDs of its steps, then by ID in origami
+DROP INDEX IF EXISTS idx_face_step_id;
+DROP INDEX IF EXISTS idx_face_id_in_origami;
+CREATE INDEX idx_face_step_id_in_origami ON face(step_id, id_in_origami);
+DROP INDEX IF EXISTS idx_face_deleted_step_id;
+CREATE INDEX idx_face_deleted_step_id ON face(deleted_step_id) WHERE deleted_step_id IS NOT NULL;
+
+-- Origami Point table
+DROP INDEX IF EXISTS idx_origami_point_face_id;
+CREATE INDEX idx_origami_point_face_id_in_face ON origami_point(face_id, id_in_face);
+DROP INDEX IF EXISTS idx_origami_point_deleted_step_id;
+CREATE INDEX idx_origami_point_deleted_step_id ON origami_point(deleted_step_id) WHERE deleted_step_id IS NOT NULL;
+
+-- Annotated Line table
+DROP INDEX IF EXISTS idx_annotated_line_face_id;
+CREATE INDEX idx_annotated_line_face_id_in_face ON annotated_line(face_id, id_in_face);
+DROP INDEX IF EXISTS idx_annotated_line_deleted_step_id;
+CREATE INDEX idx_annotated_line_deleted_step_id ON annotated_line(deleted_step_id) WHERE deleted_step_id IS NOT NULL;
+
+-- Edge table
+DROP INDEX IF EXISTS idx_edge_deleted_step_id;
+CREATE INDEX idx_edge_deleted_step_id ON edge(deleted_step_id) WHERE deleted_step_id IS NOT NULL;
+
+-- Fold Edge table
+-- Fold edges are looked up by face pair in either order, and by face alone
+DROP INDEX IF EXISTS idx_fold_edge_face_1_id;
+DROP INDEX IF EXISTS idx_fold_edge_face_2_id;
+CREATE INDEX idx_fold_edge_face_1_face_2 ON fold_edge(face_1_id, face_2_id);
+CREATE INDEX idx_fold_edge_face_2_face_1 ON fold_edge(face_2_id, face_1_id);
+
+-- Side Edge table
+DROP INDEX IF EXISTS idx_side_edge_face_id;
+CREATE INDEX idx_side_edge_face_id_in_face ON side_edge(face_id, id_in_face);
@@ -0,0 +1,96 @@
+package com.quickfolds.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ReplicaRoutingDataSource} and {@link PrimaryPins}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Only read-only transactions are routed to the replica.</li>
+ *     <li>A read-only transaction reading a pinned key stays on the primary until it completes.</li>
+ *     <li>Keys are pinned once the writing transaction commits, for the configured time only.</li>
+ * </ul>
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final PrimaryPins primaryPins = new PrimaryPins(5);
+
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+            Mockito.mock(DataSource.class), Mockito.mock(DataSource.class), primaryPins);
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    public void routesReadOnlyTransactionsToReplica() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+
+        beginTransaction(false);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+        completeTransaction();
+
+        beginTransaction(true);
+        primaryPins.readFrom(PrimaryPins.origami(1L));
+        assertEquals(ReplicaRoutingDataSource.REPLICA, dataSource.determineCurrentLookupKey());
+        completeTransaction();
+    }
+
+    @Test
+    public void pinnedReadsStayOnPrimary() {
+        primaryPins.pin(PrimaryPins.origami(1L), 0);
+
+        beginTransaction(true);
+        primaryPins.readFrom(PrimaryPins.origami(2L), SECOND);
+        assertEquals(ReplicaRoutingDataSource.REPLICA, dataSource.determineCurrentLookupKey());
+        primaryPins.readFrom(PrimaryPins.origami(1L), SECOND);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+        completeTransaction();
+
+        // The next transaction is routed again, and the pin has expired by then
+        beginTransaction(true);
+        assertFalse(primaryPins.isPrimaryRequired());
+        primaryPins.readFrom(PrimaryPins.origami(1L), 5 * SECOND);
+        assertEquals(ReplicaRoutingDataSource.REPLICA, dataSource.determineCurrentLookupKey());
+        completeTransaction();
+    }
+
+    @Test
+    public void pinsAfterCommit() {
+        beginTransaction(false);
+        primaryPins.pinAfterCommit(PrimaryPins.CATALOG);
+        assertFalse(primaryPins.isPinned(PrimaryPins.CATALOG, System.nanoTime()));
+        completeTransaction();
+
+        assertTrue(primaryPins.isPinned(PrimaryPins.CATALOG, System.nanoTime()));
+
+        PrimaryPins disabled = new PrimaryPins(0);
+        disabled.pin(PrimaryPins.CATALOG);
+        assertFalse(disabled.isPinned(PrimaryPins.CATALOG, System.nanoTime()));
+    }
+}
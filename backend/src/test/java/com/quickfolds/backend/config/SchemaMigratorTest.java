@@ -0,0 +1,58 @@
+package com.quickfolds.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link SchemaMigrator}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>The shipped migrations are found in version order, starting from the baseline.</li>
+ *     <li>Misnamed scripts and duplicate versions are rejected before anything is applied.</li>
+ * </ul>
+ */
+public class SchemaMigratorTest {
+
+    @Test
+    public void loadsShippedMigrationsInOrder() {
+        List<SchemaMigrator.Migration> migrations = new SchemaMigrator(true, "classpath:db/migration", 0).loadMigrations();
+
+        assertEquals(SchemaMigrator.BASELINE_VERSION, migrations.get(0).version());
+        assertEquals("baseline", migrations.get(0).description());
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).version());
+        }
+    }
+
+    @Test
+    public void checksumFollowsScript() {
+        SchemaMigrator.Migration migration = new SchemaMigrator.Migration(2, "indexes", "CREATE INDEX a ON b(c);");
+        assertEquals(migration.checksum(), new SchemaMigrator.Migration(2, "indexes", "CREATE INDEX a ON b(c);").checksum());
+        assertNotEquals(migration.checksum(), new SchemaMigrator.Migration(2, "indexes", "CREATE INDEX a ON b(d);").checksum());
+    }
+
+    @Test
+    public void rejectsInvalidMigrations(@TempDir Path directory) throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(true, directory.toUri().toString(), 0);
+
+        Files.writeString(directory.resolve("V10__first.sql"), "SELECT 1;");
+        Files.writeString(directory.resolve("V2__second.sql"), "SELECT 2;");
+        assertEquals(List.of(2, 10), migrator.loadMigrations().stream().map(SchemaMigrator.Migration::version).toList());
+
+        Files.writeString(directory.resolve("V2__again.sql"), "SELECT 3;");
+        assertThrows(IllegalStateException.class, migrator::loadMigrations);
+
+        Files.delete(directory.resolve("V2__again.sql"));
+        Files.writeString(directory.resolve("indexes.sql"), "SELECT 4;");
+        assertThrows(IllegalStateException.class, migrator::loadMigrations);
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -255,18 +256,102 @@ public class GeometryControllerTest {
 
     /**
      * Tests that a request where the startStep and endStep values differ by a number greater than 1
-     * is rejected with an HTTP 400 Bad Request.
+     * is processed successfully.
      * <p>
      * This test makes a get request with values of startStep and endStep differing by 2,
-     * sends it to the endpoint, and expects a 400 status code as a response.
+     * sends it to the endpoint, and expects an HTTP 200 OK response.
      *
      * @throws Exception if the request cannot be processed.
      */
     @Test
-    public void handlesInvalidGetStepRequest_MoreThanOneStep() throws Exception {
+    public void handlesValidGetStepRequest_MoreThanOneStep() throws Exception {
+
+        // Mocking service response
+        Mockito.when(geometryService.getStep(1234L, 3, 1, false))
+                .thenReturn(BaseResponse.success(null));
 
         // Performing GET request and asserting response status
         mockMvc.perform(get("/geometry/getStep/1234/3/1/false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(true));
+    }
+
+    /**
+     * Tests that a request where the startStep and endStep values are equal
+     * is rejected with an HTTP 400 Bad Request.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void handlesInvalidGetStepRequest_SameStep() throws Exception {
+
+        // Performing GET request and asserting response status
+        mockMvc.perform(get("/geometry/getStep/1234/3/3/true"))
                 .andExpect(status().isBadRequest());
     }
+
+    /**
+     * Tests that a valid request to fetch a snapshot is processed successfully.
+     * <p>
+     * This test mocks the {@link GeometryService#getSnapshot(long, int)} method to return a successful response.
+     * It sends a valid {@code GET} request to {@code /geometry/snapshot/} and expects an HTTP 200 OK response.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void handlesValidSnapshotRequest() throws Exception {
+
+        // Mocking service response
+        Mockito.when(geometryService.getSnapshot(1234L, 5))
+                .thenReturn(BaseResponse.success(null));
+
+        // Performing GET request and asserting response status
+        mockMvc.perform(get("/geometry/snapshot/1234/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(true))
+                .andExpect(jsonPath("$.statusCode").value(200));
+    }
+
+    /**
+     * Tests that a snapshot request for a negative step is rejected with an HTTP 400 Bad Request.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void handlesInvalidSnapshotRequest_NegativeStep() throws Exception {
+
+        // Performing GET request and asserting response status
+        mockMvc.perform(get("/geometry/snapshot/1234/-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that a step request holding the current ETag gets a 304 Not Modified without building the step,
+     * and that other requests get the step tagged with the ETag.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void handlesConditionalGetStepRequest() throws Exception {
+        String etag = "\"step-1234-2-3-f-42\"";
+
+        // Mocking service response
+        Mockito.when(geometryService.getStepETag(1234L, 2, 3, true)).thenReturn(etag);
+        Mockito.when(geometryService.getStep(1234L, 2, 3, true))
+                .thenReturn(BaseResponse.success(null));
+
+        // Performing GET request with the current tag, the step is not built
+        mockMvc.perform(get("/geometry/getStep/1234/2/3/true").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(geometryService, Mockito.never()).getStep(1234L, 2, 3, true);
+
+        // Performing GET request with an outdated tag
+        mockMvc.perform(get("/geometry/getStep/1234/2/3/true").header("If-None-Match", "\"step-1234-2-3-f-41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache, public"))
+                .andExpect(jsonPath("$.status").value(true));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.quickfolds.backend.geometry.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickfolds.backend.geometry.model.dto.FaceIdPair;
+import com.quickfolds.backend.geometry.model.dto.IdInFace;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query plan tests of the geometry mapper statements.
+ * <p>
+ * Seeds a large origami dataset in the test transaction, then asks PostgreSQL for the plan of every
+ * statement run when folding and serving steps and snapshots. A plan scanning a whole geometry table
+ * means an index of the migrations no longer matches the statement. Like the other database tests,
+ * this runs against the test database, migrated on startup, and the seeded rows are rolled back.
+ */
+@SpringBootTest
+@ActiveProfiles(value = "${SPRING_PROFILES_ACTIVE}")
+@EnabledIfEnvironmentVariable(named = "SPRING_PROFILES_ACTIVE", matches = ".+")
+@Transactional
+public class MapperQueryPlanTest {
+
+    private static final int ORIGAMI_COUNT = 100;
+
+    private static final int STEPS_PER_ORIGAMI = 200;
+
+    /**
+     * Step in the middle of the history the statements are checked at.
+     */
+    private static final int SAMPLE_STEP = STEPS_PER_ORIGAMI / 2;
+
+    /**
+     * Tables that grow with the number of steps, which must never be scanned whole.
+     */
+    private static final Set<String> GEOMETRY_TABLES = Set.of("step", "face", "fold_step", "origami_point",
+            "annotated_point", "annotated_line", "edge", "side_edge", "fold_edge", "step_keyframe");
+
+    /**
+     * Every seeded step creates two faces: an even face, removed by the next step, and an odd face, kept.
+     * Each face has four vertices and four edges; the fourth edge of an even face is a fold edge to its odd
+     * sibling. Each odd face has an annotated point and a line to it.
+     */
+    private static final String SEED = """
+            INSERT INTO users (username, password) VALUES ('plan-check', 'password');
+
+            INSERT INTO origami (user_id, origami_name, is_public)
+            SELECT u.id, 'plan check ' || g, TRUE
+            FROM users u CROSS JOIN generate_series(1, %1$d) g
+            WHERE u.username = 'plan-check';
+
+            INSERT INTO step (origami_id, step_type_id, id_in_origami)
+            SELECT o.id, t.id, g
+            FROM origami o
+            INNER JOIN users u ON o.user_id = u.id
+            CROSS JOIN step_type t
+            CROSS JOIN generate_series(0, %2$d - 1) g
+            WHERE u.username = 'plan-check' AND t.step_type_name = 'fold'
+            ORDER BY o.id, g;
+
+            CREATE TEMP TABLE seed_step ON COMMIT DROP AS
+            SELECT s.id, s.origami_id, s.id_in_origami, n.id AS next_step_id
+            FROM step s
+            INNER JOIN origami o ON s.origami_id = o.id
+            INNER JOIN users u ON o.user_id = u.id
+            LEFT JOIN step n ON n.origami_id = s.origami_id AND n.id_in_origami = s.id_in_origami + 1
+            WHERE u.username = 'plan-check';
+
+            INSERT INTO face (origami_id, step_id, id_in_origami, deleted_step_id)
+            SELECT s.origami_id, s.id, 2 * s.id_in_origami + k, CASE WHEN k = 0 THEN s.next_step_id END
+            FROM seed_step s CROSS JOIN generate_series(0, 1) k
+            ORDER BY s.id, k;
+
+            CREATE TEMP TABLE seed_face ON COMMIT DROP AS
+            SELECT f.id, f.origami_id, f.step_id, f.deleted_step_id, f.id_in_origami, f.id_in_origami %% 2 = 1 AS kept
+            FROM face f INNER JOIN seed_step s ON f.step_id = s.id;
+
+            INSERT INTO fold_step (step_id, anchored_face_id)
+            SELECT step_id, id FROM seed_face WHERE kept;
+
+            INSERT INTO origami_point (origami_id, step_id, face_id, point_type_id, x_pos, y_pos, id_in_face,
+                deleted_step_id)
+            SELECT f.origami_id, f.step_id, f.id, t.id, g, g, g, f.deleted_step_id
+            FROM seed_face f
+            CROSS JOIN generate_series(0, 4) g
+            INNER JOIN point_type t ON t.point_type_name = CASE WHEN g = 4 THEN 'annotated_point' ELSE 'vertex' END
+            WHERE g < 4 OR f.kept
+            ORDER BY f.id, g;
+
+            INSERT INTO annotated_point (origami_id, point_id)
+            SELECT p.origami_id, p.id FROM origami_point p INNER JOIN seed_face f ON p.face_id = f.id WHERE p.id_in_face = 4;
+
+            INSERT INTO annotated_line (origami_id, step_id, face_id, point_1_id, point_2_id, id_in_face)
+            SELECT f.origami_id, f.step_id, f.id, p1.id, p2.id, 0
+            FROM seed_face f
+            INNER JOIN origami_point p1 ON p1.face_id = f.id AND p1.id_in_face = 0
+            INNER JOIN origami_point p2 ON p2.face_id = f.id AND p2.id_in_face = 4
+            WHERE f.kept;
+
+            CREATE TEMP TABLE seed_edge ON COMMIT DROP AS
+            SELECT nextval(pg_get_serial_sequence('edge', 'id')) AS id, f.origami_id, f.id AS face_id, f.step_id, f.deleted_step_id,
+                   g AS id_in_face, g = 3 AND NOT f.kept AS is_fold
+            FROM seed_face f CROSS JOIN generate_series(0, 3) g
+            ORDER BY f.id, g;
+
+            INSERT INTO edge (id, origami_id, step_id, edge_type_id, deleted_step_id)
+            SELECT e.id, e.origami_id, e.step_id, t.id, e.deleted_step_id
+            FROM seed_edge e
+            INNER JOIN edge_type t ON t.edge_type_name = CASE WHEN e.is_fold THEN 'fold' ELSE 'side' END;
+
+            INSERT INTO side_edge (origami_id, edge_id, vertex_1_id, vertex_2_id, face_id, id_in_face)
+            SELECT e.origami_id, e.id, v1.id, v2.id, e.face_id, e.id_in_face
+            FROM seed_edge e
+            INNER JOIN origami_point v1 ON v1.face_id = e.face_id AND v1.id_in_face = e.id_in_face
+            INNER JOIN origami_point v2 ON v2.face_id = e.face_id AND v2.id_in_face = (e.id_in_face + 1) %% 4
+            WHERE NOT e.is_fold;
+
+            INSERT INTO fold_edge (origami_id, edge_id, face_1_id, face_2_id, angle, id_in_face_1, id_in_face_2)
+            SELECT e.origami_id, e.id, e.face_id, k.id, 180.0, 3, 3
+            FROM seed_edge e
+            INNER JOIN seed_face f ON e.face_id = f.id
+            INNER JOIN seed_face k ON k.step_id = f.step_id AND k.kept
+            WHERE e.is_fold;
+
+            INSERT INTO step_keyframe (origami_id, step_id, step_id_in_origami, snapshot)
+            SELECT s.origami_id, s.id, s.id_in_origami, '{}'::JSONB
+            FROM step s INNER JOIN seed_step ss ON s.id = ss.id
+            WHERE s.id_in_origami %% 50 = 0;
+
+            ANALYZE step, face, fold_step, origami_point, annotated_point, annotated_line, edge, side_edge,
+                fold_edge, step_keyframe;
+            """.formatted(ORIGAMI_COUNT, STEPS_PER_ORIGAMI);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long origamiId;
+
+    private long stepId;
+
+    private long previousStepId;
+
+    private long keptFaceId;
+
+    private long removedFaceId;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.execute(SEED);
+
+        // Sample the middle of the history of an origami in the middle of the dataset
+        origamiId = jdbcTemplate.queryForObject("""
+                SELECT o.id FROM origami o INNER JOIN users u ON o.user_id = u.id
+                WHERE u.username = 'plan-check' ORDER BY o.id OFFSET ? LIMIT 1""", Long.class, ORIGAMI_COUNT / 2);
+        stepId = getStepId(SAMPLE_STEP);
+        previousStepId = getStepId(SAMPLE_STEP - 1);
+        keptFaceId = getFaceId(2 * SAMPLE_STEP + 1);
+        removedFaceId = getFaceId(2 * SAMPLE_STEP);
+    }
+
+    private long getStepId(int idInOrigami) {
+        return jdbcTemplate.queryForObject("SELECT id FROM step WHERE origami_id = ? AND id_in_origami = ?",
+                Long.class, origamiId, idInOrigami);
+    }
+
+    private long getFaceId(int idInOrigami) {
+        return jdbcTemplate.queryForObject("SELECT id FROM face WHERE step_id = ? AND id_in_origami = ?",
+                Long.class, stepId, idInOrigami);
+    }
+
+    /**
+     * @return The parameters of each checked statement, keyed by statement ID.
+     */
+    private Map<String, Map<String, Object>> createStatements() {
+        List<IdInFace> idsInFaces = List.of(new IdInFace(keptFaceId, 0, null), new IdInFace(keptFaceId, 4, null));
+        List<Long> faceIds = List.of(keptFaceId, removedFaceId);
+        List<Integer> facesInOrigami = List.of(2 * SAMPLE_STEP, 2 * SAMPLE_STEP + 1);
+        String pkg = "com.quickfolds.backend.geometry.mapper.";
+
+        Map<String, Map<String, Object>> statements = new LinkedHashMap<>();
+        statements.put(pkg + "StepMapper.getIdByIdInOrigami", Map.of("origamiId", origamiId, "idInOrigami", SAMPLE_STEP));
+        statements.put(pkg + "StepMapper.getMaxStepId", Map.of("origamiId", origamiId, "maxIdInOrigami", SAMPLE_STEP));
+        statements.put(pkg + "StepKeyframeMapper.getSnapshot", Map.of("origamiId", origamiId, "stepIdInOrigami", SAMPLE_STEP));
+        statements.put(pkg + "FoldStepMapper.getAnchoredFaceIdByStepId", Map.of("stepId", stepId));
+
+        statements.put(pkg + "FaceMapper.getIdByFaceIdInOrigami", Map.of("origamiId", origamiId, "faceIdInOrigami", 2 * SAMPLE_STEP + 1));
+        statements.put(pkg + "FaceMapper.getIdsByIdsInFace", Map.of("origamiId", origamiId, "idsInOrigami", facesInOrigami));
+        statements.put(pkg + "FaceMapper.getFacesByIdsInOrigami", Map.of("origamiId", origamiId, "idsInOrigami", facesInOrigami));
+        statements.put(pkg + "FaceMapper.getDeletedFaceIdsByStepId", Map.of("origamiId", origamiId, "stepId", stepId));
+        statements.put(pkg + "FaceMapper.getFaceIdsInOrigamiCreatedInStep", Map.of("origamiId", origamiId, "stepId", stepId));
+        for (boolean created : List.of(true, false)) {
+            Map<String, Object> range = Map.of("origamiId", origamiId, "fromStepId", previousStepId, "toStepId", stepId,
+                    "created", created);
+            statements.put(pkg + "FaceMapper.getIdsInOrigamiChangedInRange#" + created, range);
+            statements.put(pkg + "OrigamiPointMapper.getVerticesChangedInRange#" + created, range);
+            statements.put(pkg + "EdgeMapper.getEdgesChangedInRange#" + created, range);
+            statements.put(pkg + "AnnotatePointMapper.getAnnotatedPointsChangedInRange#" + created, range);
+            statements.put(pkg + "AnnotateLineMapper.getAnnotatedLinesChangedInRange#" + created, range);
+        }
+
+        Map<String, Object> atStep = Map.of("origamiId", origamiId, "stepId", stepId);
+        statements.put(pkg + "OrigamiPointMapper.getVerticesAtStep", atStep);
+        statements.put(pkg + "EdgeMapper.getEdgesAtStep", atStep);
+        statements.put(pkg + "AnnotatePointMapper.getAnnotatedPointsAtStep", atStep);
+        statements.put(pkg + "AnnotateLineMapper.getAnnotatedLinesAtStep", atStep);
+
+        for (String direction : List.of("Forward", "Backward")) {
+            statements.put(pkg + "AnnotatePointMapper.getAnnotatedPointsByStepId" + direction, atStep);
+            statements.put(pkg + "AnnotatePointMapper.getDeleteAnnotatedPointsByStepId" + direction, atStep);
+            statements.put(pkg + "AnnotateLineMapper.getAnnotatedLinesByStepId" + direction, atStep);
+            statements.put(pkg + "AnnotateLineMapper.getDeleteAnnotatedLinesByStepId" + direction, atStep);
+        }
+
+        statements.put(pkg + "OrigamiPointMapper.getIdsByIdsInFaces", Map.of("origamiId", origamiId, "idsInFaces", idsInFaces));
+        statements.put(pkg + "EdgeMapper.getIdsByIdsInFaces", Map.of("origamiId", origamiId, "idsInFaces", idsInFaces));
+        statements.put(pkg + "AnnotateLineMapper.getIdsByIdsInFace",
+                Map.of("origamiId", origamiId, "faceId", keptFaceId, "idsInFace", List.of(0)));
+        statements.put(pkg + "FoldEdgeMapper.getObjsByFaceIdPairs",
+                Map.of("origamiId", origamiId, "facePairs", List.of(new FaceIdPair(keptFaceId, removedFaceId))));
+
+        Map<String, Object> faceDeletion = Map.of("origamiId", origamiId, "faceIds", faceIds, "deletedStepId", stepId);
+        statements.put(pkg + "OrigamiPointMapper.deleteByFaceIds", faceDeletion);
+        statements.put(pkg + "AnnotateLineMapper.deleteByFaceIds", faceDeletion);
+        statements.put(pkg + "SideEdgeMapper.deleteByFaceIds", faceDeletion);
+        statements.put(pkg + "FoldEdgeMapper.deleteByFaceIds", faceDeletion);
+        statements.put(pkg + "OrigamiPointMapper.deleteAnnotatedByIdsInFaces",
+                Map.of("origamiId", origamiId, "deletions", idsInFaces, "vertexTypeId", 0L, "deletedStepId", stepId));
+        statements.put(pkg + "AnnotateLineMapper.deleteByIdsInFaces",
+                Map.of("origamiId", origamiId, "deletions", idsInFaces, "deletedStepId", stepId));
+        return statements;
+    }
+
+    @Test
+    public void noStatementScansGeometryTables() throws Exception {
+        List<String> failures = new ArrayList<>();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (Map.Entry<String, Map<String, Object>> entry : createStatements().entrySet()) {
+                String id = entry.getKey().split("#")[0];
+                JsonNode plan = explain(connection, id, new HashMap<>(entry.getValue()));
+                List<String> scanned = new ArrayList<>();
+                collectSeqScans(plan, scanned);
+                if (!scanned.isEmpty()) {
+                    failures.add(entry.getKey() + " scans " + scanned);
+                }
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        assertTrue(failures.isEmpty(), "Sequential scans of geometry tables:\n" + String.join("\n", failures));
+    }
+
+    private JsonNode explain(Connection connection, String id, Map<String, Object> parameters) throws Exception {
+        MappedStatement statement = sqlSessionFactory.getConfiguration().getMappedStatement(id);
+        BoundSql boundSql = statement.getBoundSql(parameters);
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameters, boundSql).setParameters(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private static void collectSeqScans(JsonNode plan, List<String> scanned) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())
+                && GEOMETRY_TABLES.contains(plan.path("Relation Name").asText())) {
+            scanned.add(plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSeqScans(child, scanned);
+        }
+    }
+}
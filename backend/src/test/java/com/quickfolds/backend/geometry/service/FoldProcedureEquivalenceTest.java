@@ -0,0 +1,190 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.geometry.model.dto.request.*;
+import com.quickfolds.backend.geometry.model.dto.response.SnapshotResponse;
+import com.quickfolds.backend.geometry.model.dto.response.StepResponse;
+import com.quickfolds.backend.origami.model.dto.request.NewOrigamiRequest;
+import com.quickfolds.backend.origami.service.OrigamiService;
+import com.quickfolds.backend.user.mapper.UserMapper;
+import com.quickfolds.backend.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Equivalence tests of the {@code apply_fold} database function and the Java path of {@link GeometryService#fold}.
+ * <p>
+ * Each scenario is applied to two new origami, one through each path, and the snapshots and steps
+ * served afterwards are compared, as are the errors raised by invalid requests. Like the other database
+ * tests, these run against the test database, migrated on startup.
+ */
+@SpringBootTest
+@ActiveProfiles(value = "${SPRING_PROFILES_ACTIVE}")
+@EnabledIfEnvironmentVariable(named = "SPRING_PROFILES_ACTIVE", matches = ".+")
+@Transactional
+public class FoldProcedureEquivalenceTest {
+
+    /**
+     * Service applying folds with the Java path, as {@code geometry.fold.db-side} is disabled for tests.
+     */
+    @Autowired
+    private GeometryService geometryService;
+
+    @Autowired
+    private FoldProcedure foldProcedure;
+
+    @Autowired
+    private OrigamiService origamiService;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private long userId;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setUsername("fold-equivalence");
+        user.setPassword("password");
+        userMapper.insertUser(user);
+        userId = userMapper.getIdByUsername("fold-equivalence");
+    }
+
+    private long newOrigami() {
+        NewOrigamiRequest request = new NewOrigamiRequest();
+        request.setUserId(userId);
+        request.setOrigamiName("fold equivalence");
+        request.setIsPublic(false);
+        return origamiService.newOrigami(request).getBody().getData().getOrigamiId();
+    }
+
+    /**
+     * Splits a face along the vertical line {@code x = splitX}, into a left and a right face
+     * joined by a fold edge, the left face carrying a point on the fold and a line to it.
+     */
+    private FoldRequest split(long origamiId, int step, int face, int left, int right, double minX, double splitX,
+                              double maxX, List<PointAnnotationRequest> leftPoints, List<LineAnnotationRequest> leftLines) {
+        List<FoldEdgeRequest> leftEdges = new ArrayList<>(List.of(new FoldEdgeRequest(3, right, 180.0)));
+        leftEdges.add(0, null);
+        leftEdges.add(null);
+        leftEdges.add(null);
+        List<FoldEdgeRequest> rightEdges = new ArrayList<>(List.of(new FoldEdgeRequest(1, left, 180.0)));
+        rightEdges.add(0, null);
+        rightEdges.add(0, null);
+        rightEdges.add(0, null);
+
+        FaceFoldRequest leftFace = new FaceFoldRequest(left, List.of(new VertexRequest(minX, -3.0),
+                new VertexRequest(splitX, -3.0), new VertexRequest(splitX, 3.0), new VertexRequest(minX, 3.0)),
+                leftEdges, new AnnotateRequest(leftPoints, leftLines, List.of(), List.of()));
+        FaceFoldRequest rightFace = new FaceFoldRequest(right, List.of(new VertexRequest(splitX, -3.0),
+                new VertexRequest(maxX, -3.0), new VertexRequest(maxX, 3.0), new VertexRequest(splitX, 3.0)),
+                rightEdges, new AnnotateRequest(List.of(), List.of(), List.of(), List.of()));
+
+        return new FoldRequest(origamiId, step, left, List.of(leftFace, rightFace), List.of(face));
+    }
+
+    private List<FoldRequest> createFolds(long origamiId) {
+        return List.of(
+                split(origamiId, 1, 0, 1, 2, -3.0, 0.0, 3.0,
+                        List.of(new PointAnnotationRequest(4, -1.5, 0.0, null), new PointAnnotationRequest(5, 0.0, 0.0, 1)),
+                        List.of(new LineAnnotationRequest(0, 4, 5))),
+                split(origamiId, 2, 2, 3, 4, 0.0, 1.5, 3.0, List.of(), List.of()));
+    }
+
+    private void assertSameHistory(long javaOrigamiId, long dbOrigamiId, int steps) {
+        for (int step = 1; step <= steps; step++) {
+            SnapshotResponse javaSnapshot = geometryService.getSnapshot(javaOrigamiId, step).getBody().getData();
+            SnapshotResponse dbSnapshot = geometryService.getSnapshot(dbOrigamiId, step).getBody().getData();
+            assertEquals(javaSnapshot, dbSnapshot, "Snapshot of step " + step);
+
+            for (boolean isForward : List.of(true, false)) {
+                int start = isForward ? step - 1 : step;
+                int end = isForward ? step : step - 1;
+                StepResponse javaStep = geometryService.getStep(javaOrigamiId, start, end, isForward).getBody().getData();
+                StepResponse dbStep = geometryService.getStep(dbOrigamiId, start, end, isForward).getBody().getData();
+                assertEquals(javaStep, dbStep, "Step " + start + " to " + end);
+            }
+        }
+    }
+
+    /**
+     * Applies the same invalid fold through both paths, on new origami, and compares the errors.
+     * Database IDs in the messages differ between the origami and are masked.
+     */
+    private void assertSameError(Function<Long, FoldRequest> request) {
+        long javaOrigamiId = newOrigami();
+        long dbOrigamiId = newOrigami();
+
+        RuntimeException javaError = assertThrows(RuntimeException.class,
+                () -> geometryService.fold(request.apply(javaOrigamiId)));
+        RuntimeException dbError = assertThrows(RuntimeException.class,
+                () -> foldProcedure.apply(request.apply(dbOrigamiId)));
+
+        assertEquals(javaError.getClass(), dbError.getClass());
+        assertEquals(javaError.getMessage().replaceAll("\\d+", "#"), dbError.getMessage().replaceAll("\\d+", "#"));
+    }
+
+    @Test
+    public void foldsMatch() {
+        long javaOrigamiId = newOrigami();
+        long dbOrigamiId = newOrigami();
+
+        createFolds(javaOrigamiId).forEach(geometryService::fold);
+        createFolds(dbOrigamiId).forEach(foldProcedure::apply);
+
+        assertSameHistory(javaOrigamiId, dbOrigamiId, 2);
+    }
+
+    @Test
+    public void errorsMatch() {
+        List<PointAnnotationRequest> noPoints = List.of();
+        List<LineAnnotationRequest> noLines = List.of();
+
+        // Unknown anchored face
+        assertSameError(origamiId -> {
+            FoldRequest request = split(origamiId, 1, 0, 1, 2, -3.0, 0.0, 3.0, noPoints, noLines);
+            request.setAnchoredFaceIdInOrigami(99);
+            return request;
+        });
+
+        // Unknown deleted face
+        assertSameError(origamiId -> split(origamiId, 1, 42, 1, 2, -3.0, 0.0, 3.0, noPoints, noLines));
+
+        // Annotated point reusing the ID of a vertex
+        assertSameError(origamiId -> split(origamiId, 1, 0, 1, 2, -3.0, 0.0, 3.0,
+                List.of(new PointAnnotationRequest(0, -1.5, 0.0, null)), noLines));
+
+        // Annotated point on an unknown edge
+        assertSameError(origamiId -> split(origamiId, 1, 0, 1, 2, -3.0, 0.0, 3.0,
+                List.of(new PointAnnotationRequest(4, -1.5, 0.0, 9)), noLines));
+
+        // Annotated line to an unknown point
+        assertSameError(origamiId -> split(origamiId, 1, 0, 1, 2, -3.0, 0.0, 3.0,
+                noPoints, List.of(new LineAnnotationRequest(0, 0, 8))));
+
+        // Deletion of a vertex and of an unknown line of a new face
+        Consumer<AnnotateRequest> deleteVertex = annotations -> annotations.setDeletedPoints(List.of(0));
+        Consumer<AnnotateRequest> deleteLine = annotations -> annotations.setDeletedLines(List.of(0));
+        for (Consumer<AnnotateRequest> deletion : List.of(deleteVertex, deleteLine)) {
+            assertSameError(origamiId -> {
+                FoldRequest request = split(origamiId, 1, 0, 1, 2, -3.0, 0.0, 3.0, noPoints, noLines);
+                AnnotateRequest annotations = new AnnotateRequest(new ArrayList<>(), new ArrayList<>(),
+                        new ArrayList<>(), new ArrayList<>());
+                deletion.accept(annotations);
+                request.getFaces().get(0).setAnnotations(annotations);
+                return request;
+            });
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.geometry.mapper.EdgeTypeMapper;
+import com.quickfolds.backend.geometry.mapper.FoldProcedureMapper;
+import com.quickfolds.backend.geometry.mapper.PointTypeMapper;
+import com.quickfolds.backend.geometry.mapper.StepTypeMapper;
+import com.quickfolds.backend.geometry.model.dto.FoldResult;
+import com.quickfolds.backend.geometry.model.dto.request.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Unit tests for {@link FoldProcedure}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>The request is serialized with the field names the {@code apply_fold} function reads.</li>
+ *     <li>Errors returned by the function are raised as bad requests or database errors.</li>
+ * </ul>
+ * The equivalence of the function with the Java path is tested against a database by
+ * {@link FoldProcedureEquivalenceTest}.
+ */
+public class FoldProcedureTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private FoldProcedureMapper foldProcedureMapper;
+
+    private FoldProcedure foldProcedure;
+
+    @BeforeEach
+    public void setUp() {
+        StepTypeMapper stepTypeMapper = Mockito.mock(StepTypeMapper.class);
+        PointTypeMapper pointTypeMapper = Mockito.mock(PointTypeMapper.class);
+        EdgeTypeMapper edgeTypeMapper = Mockito.mock(EdgeTypeMapper.class);
+        Mockito.when(stepTypeMapper.getIdByName(anyString())).thenReturn(1L);
+        Mockito.when(pointTypeMapper.getIdByName(anyString())).thenReturn(2L);
+        Mockito.when(edgeTypeMapper.getEdgeTypeByName(anyString())).thenReturn(3L);
+        ReferenceTypeRegistry referenceTypes = new ReferenceTypeRegistry(stepTypeMapper, pointTypeMapper, edgeTypeMapper);
+        referenceTypes.refresh();
+
+        foldProcedureMapper = Mockito.mock(FoldProcedureMapper.class);
+        foldProcedure = new FoldProcedure(foldProcedureMapper, referenceTypes, objectMapper, true);
+    }
+
+    private FoldRequest createFoldRequest() {
+        List<VertexRequest> vertices = List.of(new VertexRequest(0.0, 0.0), new VertexRequest(1.0, 0.0),
+                new VertexRequest(1.0, 1.0));
+        List<FoldEdgeRequest> edges = new ArrayList<>();
+        edges.add(new FoldEdgeRequest(0, 2, 180.0));
+        edges.add(null);
+        edges.add(null);
+        AnnotateRequest annotations = new AnnotateRequest(List.of(new PointAnnotationRequest(3, 0.5, 0.0, 0)),
+                List.of(new LineAnnotationRequest(0, 0, 3)), List.of(), List.of());
+        return new FoldRequest(1L, 4, 1, List.of(new FaceFoldRequest(1, vertices, edges, annotations)), List.of(0));
+    }
+
+    @Test
+    public void serializesRequestForFunction() throws Exception {
+        Mockito.when(foldProcedureMapper.applyFold(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn("{\"stepId\": 7, \"faceIds\": [8]}");
+
+        FoldResult result = foldProcedure.apply(createFoldRequest());
+        assertEquals(7L, result.getStepId());
+        assertEquals(List.of(8L), result.getFaceIds());
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(foldProcedureMapper).applyFold(json.capture(), Mockito.eq(1L), Mockito.eq(2L), Mockito.eq(2L),
+                Mockito.eq(3L), Mockito.eq(3L));
+
+        JsonNode request = objectMapper.readTree(json.getValue());
+        assertEquals(1L, request.get("origamiId").asLong());
+        assertEquals(4, request.get("stepIdInOrigami").asInt());
+        assertEquals(1, request.get("anchoredFaceIdInOrigami").asInt());
+        assertEquals(0, request.get("deletedFaces").get(0).asInt());
+
+        JsonNode face = request.get("faces").get(0);
+        assertEquals(1, face.get("idInOrigami").asInt());
+        assertEquals(1.0, face.get("vertices").get(1).get("x").asDouble());
+        assertEquals(2, face.get("edges").get(0).get("otherFaceIdInOrigami").asInt());
+        assertEquals(0, face.get("edges").get(0).get("idInOtherFace").asInt());
+        assertEquals(180.0, face.get("edges").get(0).get("angle").asDouble());
+        assertEquals(true, face.get("edges").get(1).isNull());
+
+        JsonNode annotations = face.get("annotations");
+        assertEquals(3, annotations.get("points").get(0).get("idInFace").asInt());
+        assertEquals(0, annotations.get("points").get(0).get("onEdgeIdInFace").asInt());
+        assertEquals(3, annotations.get("lines").get(0).get("point2IdInOrigami").asInt());
+        assertEquals(0, annotations.get("deletedPoints").size());
+        assertEquals(0, annotations.get("deletedLines").size());
+    }
+
+    @Test
+    public void raisesErrorsOfFunction() {
+        Mockito.when(foldProcedureMapper.applyFold(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn("{\"error\": \"Anchored face id not found\", \"badRequest\": true}");
+        IllegalArgumentException badRequest = assertThrows(IllegalArgumentException.class,
+                () -> foldProcedure.apply(createFoldRequest()));
+        assertEquals("Anchored face id not found", badRequest.getMessage());
+
+        Mockito.when(foldProcedureMapper.applyFold(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn("{\"error\": \"Invalid number of points deleted\", \"badRequest\": false}");
+        assertThrows(DbException.class, () -> foldProcedure.apply(createFoldRequest()));
+
+        Mockito.when(foldProcedureMapper.applyFold(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(null);
+        assertThrows(DbException.class, () -> foldProcedure.apply(createFoldRequest()));
+    }
+}
@@ -0,0 +1,556 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.config.PrimaryPins;
+import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.geometry.constants.StepType;
+import com.quickfolds.backend.geometry.mapper.*;
+import com.quickfolds.backend.geometry.model.database.Edge;
+import com.quickfolds.backend.geometry.model.database.Face;
+import com.quickfolds.backend.geometry.model.database.FoldEdge;
+import com.quickfolds.backend.geometry.model.database.OrigamiPoint;
+import com.quickfolds.backend.geometry.model.database.SideEdge;
+import com.quickfolds.backend.geometry.model.database.Step;
+import com.quickfolds.backend.geometry.model.dto.DeletedIdInFace;
+import com.quickfolds.backend.geometry.model.dto.FaceIdPair;
+import com.quickfolds.backend.geometry.model.dto.IdInFace;
+import com.quickfolds.backend.geometry.model.dto.request.*;
+import com.quickfolds.backend.geometry.model.dto.response.EdgeResponse;
+import com.quickfolds.backend.geometry.model.dto.response.FaceAnnotateResponse;
+import com.quickfolds.backend.geometry.model.dto.response.FaceResponse;
+import com.quickfolds.backend.geometry.model.dto.response.LineAnnotationResponse;
+import com.quickfolds.backend.geometry.model.dto.response.PointAnnotationResponse;
+import com.quickfolds.backend.geometry.model.dto.response.SnapshotResponse;
+import com.quickfolds.backend.geometry.model.dto.response.StepResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+
+/**
+ * Unit tests for {@link GeometryService}.
+ * <p>
+ * Every mapper is mocked so that each mapper invocation corresponds to one SQL statement
+ * sent to the database. This lets the tests count the statements issued by a write path
+ * without requiring a running database.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Number of statements issued by a single fold.</li>
+ *     <li>Generated keys are consumed directly instead of being looked up after insertion.</li>
+ *     <li>Batch insertion of faces, vertices and edges.</li>
+ *     <li>Number of statements issued by a step range request.</li>
+ *     <li>Fetching the faces of a fold step without one query per face.</li>
+ *     <li>Grouping annotation changes by face.</li>
+ *     <li>Serving snapshots from keyframes.</li>
+ *     <li>Serving steps from the step cache and invalidating it on writes.</li>
+ * </ul>
+ */
+public class GeometryServiceTest {
+
+    private static final int NUM_FACES = 8;
+
+    private static final int NUM_VERTICES = 6;
+
+    private StepMapper stepMapper;
+    private StepTypeMapper stepTypeMapper;
+    private FoldStepMapper foldStepMapper;
+    private FaceMapper faceMapper;
+    private EdgeMapper edgeMapper;
+    private SideEdgeMapper sideEdgeMapper;
+    private FoldEdgeMapper foldEdgeMapper;
+    private EdgeTypeMapper edgeTypeMapper;
+    private PointTypeMapper pointTypeMapper;
+    private OrigamiPointMapper origamiPointMapper;
+    private AnnotatePointMapper annotatePointMapper;
+    private AnnotateLineMapper annotateLineMapper;
+    private KeyframeService keyframeService;
+    private StepCache stepCache;
+
+    private GeometryService geometryService;
+
+    /**
+     * Source of fake generated keys handed out by the mocked insert statements.
+     */
+    private final AtomicLong generatedKeys = new AtomicLong(1);
+
+    @BeforeEach
+    public void setUp() {
+        stepMapper = Mockito.mock(StepMapper.class);
+        stepTypeMapper = Mockito.mock(StepTypeMapper.class);
+        foldStepMapper = Mockito.mock(FoldStepMapper.class);
+        faceMapper = Mockito.mock(FaceMapper.class);
+        edgeMapper = Mockito.mock(EdgeMapper.class);
+        sideEdgeMapper = Mockito.mock(SideEdgeMapper.class);
+        foldEdgeMapper = Mockito.mock(FoldEdgeMapper.class);
+        edgeTypeMapper = Mockito.mock(EdgeTypeMapper.class);
+        pointTypeMapper = Mockito.mock(PointTypeMapper.class);
+        origamiPointMapper = Mockito.mock(OrigamiPointMapper.class);
+        annotatePointMapper = Mockito.mock(AnnotatePointMapper.class);
+        annotateLineMapper = Mockito.mock(AnnotateLineMapper.class);
+        keyframeService = Mockito.mock(KeyframeService.class);
+        stepCache = new StepCache(100, 10000);
+
+        // Reference types are always present and loaded once, before any request.
+        Mockito.when(stepTypeMapper.getIdByName(anyString())).thenReturn(1L);
+        Mockito.when(pointTypeMapper.getIdByName(anyString())).thenReturn(1L);
+        Mockito.when(edgeTypeMapper.getEdgeTypeByName(anyString())).thenReturn(1L);
+        ReferenceTypeRegistry referenceTypes = new ReferenceTypeRegistry(stepTypeMapper, pointTypeMapper, edgeTypeMapper);
+        referenceTypes.refresh();
+        Mockito.clearInvocations(stepTypeMapper, pointTypeMapper, edgeTypeMapper);
+
+        geometryService = new GeometryService(stepMapper, foldStepMapper, faceMapper, edgeMapper, sideEdgeMapper,
+                foldEdgeMapper, origamiPointMapper, annotatePointMapper, annotateLineMapper, referenceTypes,
+                keyframeService, stepCache, Mockito.mock(OrigamiWriteLock.class), Mockito.mock(FoldProcedure.class),
+                new PrimaryPins(0));
+        Mockito.when(faceMapper.getFacesByIdsInOrigami(anyLong(), anyList()))
+                .thenAnswer(invocation -> toFaces(invocation.getArgument(1), idInOrigami -> 1L));
+
+        // Inserts write a generated key back, the same way useGeneratedKeys does.
+        Mockito.when(stepMapper.addByObj(any(Step.class))).thenAnswer(invocation -> {
+            invocation.<Step>getArgument(0).setId(generatedKeys.getAndIncrement());
+            return 1;
+        });
+        Mockito.when(faceMapper.addByObj(any(Face.class))).thenAnswer(invocation -> {
+            invocation.<Face>getArgument(0).setId(generatedKeys.getAndIncrement());
+            return 1;
+        });
+        Mockito.when(edgeMapper.addByObj(any(Edge.class))).thenAnswer(invocation -> {
+            invocation.<Edge>getArgument(0).setId(generatedKeys.getAndIncrement());
+            return 1;
+        });
+        Mockito.when(origamiPointMapper.addByObj(any(OrigamiPoint.class))).thenAnswer(invocation -> {
+            invocation.<OrigamiPoint>getArgument(0).setId(generatedKeys.getAndIncrement());
+            return 1;
+        });
+        Mockito.when(faceMapper.addByObjs(anyList())).thenAnswer(invocation -> {
+            List<Face> faces = invocation.getArgument(0);
+            faces.forEach(face -> face.setId(generatedKeys.getAndIncrement()));
+            return faces.size();
+        });
+        Mockito.when(edgeMapper.addByObjs(anyList())).thenAnswer(invocation -> {
+            List<Edge> edges = invocation.getArgument(0);
+            edges.forEach(edge -> edge.setId(generatedKeys.getAndIncrement()));
+            return edges.size();
+        });
+        Mockito.when(origamiPointMapper.addByObjs(anyList())).thenAnswer(invocation -> {
+            List<OrigamiPoint> points = invocation.getArgument(0);
+            points.forEach(point -> point.setId(generatedKeys.getAndIncrement()));
+            return points.size();
+        });
+    }
+
+    /**
+     * Builds a fold request that creates {@code numFaces} faces with {@code numVertices} side edges each
+     * and no annotations.
+     */
+    private FoldRequest createFoldRequest(int numFaces, int numVertices) {
+        List<FaceFoldRequest> faces = new ArrayList<>();
+        for (int i = 0; i < numFaces; i++) {
+            List<VertexRequest> vertices = new ArrayList<>();
+            List<FoldEdgeRequest> edges = new ArrayList<>();
+            for (int j = 0; j < numVertices; j++) {
+                vertices.add(new VertexRequest(1.0 * j, -1.0 * j));
+                edges.add(null);
+            }
+            AnnotateRequest annotations = new AnnotateRequest(Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyList(), Collections.emptyList());
+            faces.add(new FaceFoldRequest(i + 1, vertices, edges, annotations));
+        }
+        return new FoldRequest(1L, 1, 1, faces, Collections.emptyList());
+    }
+
+    /**
+     * Builds the faces a face lookup returns for IDs in origami, with database IDs given by {@code faceId}.
+     */
+    private static List<Face> toFaces(List<Integer> idsInOrigami, Function<Integer, Long> faceId) {
+        List<Face> faces = new ArrayList<>();
+        for (Integer idInOrigami : idsInOrigami) {
+            Face face = new Face();
+            face.setId(faceId.apply(idInOrigami));
+            face.setIdInOrigami(idInOrigami);
+            faces.add(face);
+        }
+        return faces;
+    }
+
+    /**
+     * Counts all statements issued through the mocked mappers.
+     */
+    private int countStatements() {
+        int count = 0;
+        for (Object mapper : List.of(stepMapper, stepTypeMapper, foldStepMapper, faceMapper, edgeMapper,
+                sideEdgeMapper, foldEdgeMapper, edgeTypeMapper, pointTypeMapper, origamiPointMapper,
+                annotatePointMapper, annotateLineMapper)) {
+            count += Mockito.mockingDetails(mapper).getInvocations().size();
+        }
+        return count;
+    }
+
+    /**
+     * Tests that a fold consumes the generated keys and issues no follow-up ID lookups.
+     * <p>
+     * Before generated keys, each inserted step, face, vertex and edge was followed by a
+     * select to recover its ID, costing {@code 9 + F * (3 + 5V)} statements for F faces of
+     * V vertices. With generated keys and batch inserts for faces, vertices, edges and side
+     * edges, and the step, point and edge types loaded at startup, the same fold costs
+     * {@code 8}, the faces of the annotation pass being resolved by a single lookup.
+     */
+    @Test
+    public void foldIssuesNoIdLookupsAfterInsert() {
+        geometryService.fold(createFoldRequest(NUM_FACES, NUM_VERTICES));
+
+        assertEquals(8, countStatements());
+
+        Mockito.verify(stepMapper, Mockito.never()).getIdByIdInOrigami(anyLong(), anyInt());
+        Mockito.verifyNoInteractions(stepTypeMapper, pointTypeMapper, edgeTypeMapper);
+    }
+
+    /**
+     * Tests that a fold edge shared by two new faces is inserted once, by the later face.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void foldCreatesSharedFoldEdgeOnce() {
+        FoldRequest request = createFoldRequest(2, 3);
+        request.getFaces().get(0).getEdges().set(0, new FoldEdgeRequest(0, 2, 180.0));
+        request.getFaces().get(1).getEdges().set(0, new FoldEdgeRequest(0, 1, 180.0));
+
+        geometryService.fold(request);
+
+        ArgumentCaptor<List<FoldEdge>> foldEdges = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(foldEdgeMapper).addByObjs(foldEdges.capture());
+        assertEquals(1, foldEdges.getValue().size());
+
+        ArgumentCaptor<List<SideEdge>> sideEdges = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(sideEdgeMapper).addByObjs(sideEdges.capture());
+        assertEquals(4, sideEdges.getValue().size());
+    }
+
+    /**
+     * Tests that the existing faces fold edges lead to are resolved with one lookup, not one per edge.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void foldResolvesExistingNeighbourFacesInBulk() {
+        FoldRequest request = createFoldRequest(2, 3);
+        request.getFaces().get(0).getEdges().set(0, new FoldEdgeRequest(0, 7, 180.0));
+        request.getFaces().get(0).getEdges().set(1, new FoldEdgeRequest(0, 8, 90.0));
+        request.getFaces().get(1).getEdges().set(0, new FoldEdgeRequest(0, 7, 180.0));
+        Mockito.when(faceMapper.getFacesByIdsInOrigami(anyLong(), anyList()))
+                .thenAnswer(invocation -> toFaces(invocation.getArgument(1), idInOrigami -> 100L + idInOrigami));
+
+        geometryService.fold(request);
+
+        // Only the anchored face is looked up on its own
+        Mockito.verify(faceMapper, Mockito.never()).getIdByFaceIdInOrigami(1L, 7);
+        Mockito.verify(faceMapper, Mockito.never()).getIdByFaceIdInOrigami(1L, 8);
+        Mockito.verify(faceMapper, Mockito.times(1)).getIdByFaceIdInOrigami(anyLong(), anyInt());
+        Mockito.verify(faceMapper).getFacesByIdsInOrigami(1L, List.of(7, 8));
+
+        ArgumentCaptor<List<FoldEdge>> foldEdges = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(foldEdgeMapper).addByObjs(foldEdges.capture());
+        assertEquals(List.of(107L, 108L, 107L), foldEdges.getValue().stream().map(FoldEdge::getFace2Id).toList());
+    }
+
+    /**
+     * Tests that a fold creating no face issues no empty batch insert.
+     */
+    @Test
+    public void foldWithoutNewFacesInsertsNoGeometry() {
+        geometryService.fold(createFoldRequest(0, 0));
+
+        Mockito.verify(faceMapper, Mockito.never()).addByObjs(any());
+        Mockito.verify(origamiPointMapper, Mockito.never()).addByObjs(any());
+        Mockito.verify(edgeMapper, Mockito.never()).addByObjs(any());
+    }
+
+    /**
+     * Tests that a step range is served by a fixed number of bulk queries, whatever its length,
+     * and that created faces are returned with the edges attached.
+     */
+    @Test
+    public void stepRangeIssuesConstantStatements() {
+        Mockito.when(stepMapper.getIdByIdInOrigami(anyLong(), anyInt()))
+                .thenAnswer(invocation -> (long) invocation.<Integer>getArgument(1));
+        Mockito.when(origamiPointMapper.getVerticesChangedInRange(anyLong(), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(List.of(new FaceResponse(2, new ArrayList<>(), null)));
+        Mockito.when(edgeMapper.getEdgesChangedInRange(anyLong(), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(List.of(new FaceResponse(2, null,
+                        List.of(new EdgeResponse(0, "side", 0, 1, null, null, null)))));
+
+        StepResponse shortRange = geometryService.getStep(1L, 0, 2, true).getBody().getData();
+        int shortRangeStatements = countStatements();
+
+        Mockito.clearInvocations(stepMapper, origamiPointMapper, edgeMapper, faceMapper,
+                annotatePointMapper, annotateLineMapper);
+        geometryService.getStep(1L, 0, 50, true);
+
+        assertEquals(shortRangeStatements, countStatements());
+        assertEquals("range", shortRange.getStepType());
+        assertEquals(1, shortRange.getFoldForward().getFaces().get(0).getEdges().size());
+        Mockito.verify(stepMapper, Mockito.never()).getTypeByStepId(anyLong());
+    }
+
+    /**
+     * Tests that the faces restored by undoing a fold are fetched with one vertex query and one
+     * edge query, whatever their number, and are returned with their edges attached.
+     */
+    @Test
+    public void foldStepIssuesConstantStatements() {
+        Mockito.when(stepMapper.getIdByIdInOrigami(anyLong(), anyInt())).thenReturn(7L);
+        Mockito.when(stepMapper.getTypeByStepId(7L)).thenReturn(StepType.FOLD);
+        Mockito.when(foldStepMapper.getAnchoredFaceIdByStepId(7L)).thenReturn(1L);
+
+        List<FaceResponse> faces = new ArrayList<>();
+        List<FaceResponse> faceEdges = new ArrayList<>();
+        for (int i = 0; i < NUM_FACES; i++) {
+            faces.add(new FaceResponse(i + 2, new ArrayList<>(), null));
+            faceEdges.add(new FaceResponse(i + 2, null,
+                    List.of(new EdgeResponse(0, "side", 0, 1, null, null, null))));
+        }
+        Mockito.when(origamiPointMapper.getVerticesChangedInStep(1L, 7L, false)).thenReturn(faces);
+        Mockito.when(edgeMapper.getEdgesChangedInStep(1L, 7L, false)).thenReturn(faceEdges);
+
+        StepResponse step = geometryService.getStep(1L, 1, 0, false).getBody().getData();
+
+        List<FaceResponse> restored = step.getFoldBackward().getFacesToRestore();
+        assertEquals(NUM_FACES, restored.size());
+        assertEquals(1, restored.get(NUM_FACES - 1).getEdges().size());
+        Mockito.verify(origamiPointMapper, Mockito.times(1)).getVerticesChangedInStep(anyLong(), anyLong(), anyBoolean());
+        Mockito.verify(edgeMapper, Mockito.times(1)).getEdgesChangedInStep(anyLong(), anyLong(), anyBoolean());
+        Mockito.verifyNoInteractions(sideEdgeMapper, foldEdgeMapper);
+    }
+
+    /**
+     * Tests that annotation changes are grouped by face, in the order the faces are first seen.
+     */
+    @Test
+    public void annotationsGroupedByFace() {
+        List<FaceAnnotateResponse> annotations = GeometryService.buildFaceAnnotations(
+                List.of(new PointAnnotationResponse(3, 4, 0.5, 0.5, null),
+                        new PointAnnotationResponse(1, 4, 0.5, 0.5, null),
+                        new PointAnnotationResponse(3, 5, 0.5, 0.5, null)),
+                List.of(new LineAnnotationResponse(2, 6, 4, 5)),
+                List.of(new DeletedIdInFace(1, 7)),
+                List.of(new DeletedIdInFace(3, 8)));
+
+        assertEquals(List.of(3, 1, 2), annotations.stream().map(FaceAnnotateResponse::getIdInOrigami).toList());
+        assertEquals(2, annotations.get(0).getPoints().size());
+        assertEquals(List.of(8), annotations.get(0).getDeletedLines());
+        assertEquals(List.of(7), annotations.get(1).getDeletedPoints());
+        assertEquals(1, annotations.get(2).getLines().size());
+        assertTrue(annotations.get(2).getPoints().isEmpty());
+    }
+
+    /**
+     * Tests that a snapshot with no stored keyframe builds and stores the keyframe,
+     * then replays the steps between the keyframe and the requested step.
+     */
+    @Test
+    public void snapshotBuildsMissingKeyframe() {
+        Mockito.when(stepMapper.getIdByIdInOrigami(anyLong(), anyInt()))
+                .thenAnswer(invocation -> 100L + invocation.<Integer>getArgument(1));
+        Mockito.when(keyframeService.getKeyframeStep(13)).thenReturn(10);
+        Mockito.when(keyframeService.applyForward(any(), any(), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        SnapshotResponse snapshot = geometryService.getSnapshot(1L, 13).getBody().getData();
+
+        Mockito.verify(origamiPointMapper).getVerticesAtStep(1L, 110L);
+        Mockito.verify(keyframeService).saveKeyframe(anyLong(), anyLong(), anyLong(), any());
+        Mockito.verify(origamiPointMapper).getVerticesChangedInRange(1L, 110L, 113L, true);
+        Mockito.verify(keyframeService).applyForward(any(), any(), anyInt());
+        assertEquals(10, snapshot.getStepIdInOrigami());
+    }
+
+    /**
+     * Tests that a repeated step request is served from the cache with only the version lookup,
+     * and that writing a step within the cached range drops the cached response.
+     */
+    @Test
+    public void stepServedFromCacheUntilRewritten() {
+        Mockito.when(stepMapper.getIdByIdInOrigami(anyLong(), anyInt()))
+                .thenAnswer(invocation -> (long) invocation.<Integer>getArgument(1));
+
+        geometryService.getStep(1L, 0, 5, true);
+        Mockito.clearInvocations(stepMapper, origamiPointMapper, edgeMapper, faceMapper,
+                annotatePointMapper, annotateLineMapper);
+
+        geometryService.getStep(1L, 0, 5, true);
+        assertEquals(1, countStatements());
+        Mockito.verify(stepMapper).getMaxStepId(1L, 5);
+        assertEquals(1, stepCache.getStats().hits());
+
+        geometryService.fold(createFoldRequest(1, 3));
+        Mockito.clearInvocations(stepMapper, stepTypeMapper, foldStepMapper, faceMapper, edgeMapper,
+                sideEdgeMapper, foldEdgeMapper, edgeTypeMapper, pointTypeMapper, origamiPointMapper,
+                annotatePointMapper, annotateLineMapper);
+
+        geometryService.getStep(1L, 0, 5, true);
+        assertTrue(countStatements() > 0);
+        assertEquals(1, stepCache.getStats().invalidations());
+    }
+
+    /**
+     * Tests that a response cached before a step was rewritten is not served once the history version
+     * has moved on, as when a concurrent read caches it after the write invalidated the cache.
+     */
+    @Test
+    public void staleCachedStepReloaded() {
+        Mockito.when(stepMapper.getIdByIdInOrigami(anyLong(), anyInt()))
+                .thenAnswer(invocation -> (long) invocation.<Integer>getArgument(1));
+        Mockito.when(stepMapper.getMaxStepId(1L, 5)).thenReturn(5L);
+        geometryService.getStep(1L, 0, 5, true);
+
+        Mockito.when(stepMapper.getMaxStepId(1L, 5)).thenReturn(9L);
+        Mockito.clearInvocations(stepMapper, origamiPointMapper, edgeMapper, faceMapper,
+                annotatePointMapper, annotateLineMapper);
+        geometryService.getStep(1L, 0, 5, true);
+
+        assertTrue(countStatements() > 1);
+        assertEquals(0, stepCache.getStats().hits());
+        assertEquals(1, stepCache.getStats().invalidations());
+    }
+
+    /**
+     * Tests that the annotations deleted on several faces are deleted with one statement per kind,
+     * and that the request is only re-queried for diagnosis when a deletion does not match.
+     */
+    @Test
+    public void annotateDeletesAllFacesAtOnce() {
+        Mockito.when(faceMapper.getFacesByIdsInOrigami(anyLong(), anyList()))
+                .thenAnswer(invocation -> toFaces(invocation.getArgument(1), idInOrigami -> 10L + idInOrigami));
+        Mockito.when(annotateLineMapper.deleteByIdsInFaces(anyLong(), anyList(), anyLong())).thenAnswer(invocation ->
+                invocation.<List<IdInFace>>getArgument(1).stream().map(IdInFace::getFaceId).toList());
+        Mockito.when(origamiPointMapper.deleteAnnotatedByIdsInFaces(anyLong(), anyList(), anyLong(), anyLong())).thenAnswer(invocation ->
+                invocation.<List<IdInFace>>getArgument(1).stream().map(IdInFace::getFaceId).toList());
+
+        List<FaceAnnotateRequest> faces = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            faces.add(new FaceAnnotateRequest(i, new AnnotateRequest(
+                    Collections.emptyList(), Collections.emptyList(), List.of(3), List.of(1, 2))));
+        }
+        geometryService.annotate(new AnnotationRequest(1L, 2, faces), null);
+
+        ArgumentCaptor<List<IdInFace>> deletedLines = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(annotateLineMapper).deleteByIdsInFaces(eq(1L), deletedLines.capture(), anyLong());
+        assertEquals(6, deletedLines.getValue().size());
+        Mockito.verify(origamiPointMapper).deleteAnnotatedByIdsInFaces(eq(1L), anyList(), eq(1L), anyLong());
+        Mockito.verify(origamiPointMapper, Mockito.never()).getIdsByIdsInFace(anyLong(), anyLong(), anyList());
+        Mockito.verify(annotateLineMapper, Mockito.never()).getIdsByIdsInFace(anyLong(), anyLong(), anyList());
+        Mockito.verify(annotateLineMapper, Mockito.never()).getDependentIds(anyLong(), anyLong(), anyList());
+
+        // The point of face 12 is still used by a line
+        Mockito.when(origamiPointMapper.deleteAnnotatedByIdsInFaces(anyLong(), anyList(), anyLong(), anyLong()))
+                .thenReturn(List.of(10L, 11L));
+        Mockito.when(origamiPointMapper.getIdsByIdsInFace(1L, 12L, List.of(3))).thenReturn(List.of(99L));
+        Mockito.when(annotateLineMapper.getDependentIds(1L, 12L, List.of(99L))).thenReturn(List.of(5L));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> geometryService.annotate(new AnnotationRequest(1L, 3, faces), null));
+        assertTrue(e.getMessage().contains("line dependency"));
+        Mockito.verify(origamiPointMapper).getIdsByIdsInFace(anyLong(), anyLong(), anyList());
+    }
+
+    /**
+     * Tests that the annotations added on several faces cost a constant number of statements:
+     * one face lookup, one duplicate check, one edge lookup and one insert per table, plus the
+     * end point lookup of the lines, whatever the number of faces, points and lines.
+     */
+    @Test
+    public void annotateAddsAllFacesAtOnce() {
+        Mockito.when(faceMapper.getFacesByIdsInOrigami(anyLong(), anyList()))
+                .thenAnswer(invocation -> toFaces(invocation.getArgument(1), idInOrigami -> 10L + idInOrigami));
+        Mockito.when(edgeMapper.getIdsByIdsInFaces(anyLong(), anyList())).thenAnswer(invocation ->
+                invocation.<List<IdInFace>>getArgument(1).stream()
+                        .map(edge -> new IdInFace(edge.getFaceId(), edge.getIdInFace(), 500L)).toList());
+
+        List<FaceAnnotateRequest> faces = new ArrayList<>();
+        for (int i = 0; i < NUM_FACES; i++) {
+            List<PointAnnotationRequest> points = new ArrayList<>();
+            for (int j = 0; j < NUM_VERTICES; j++) {
+                points.add(new PointAnnotationRequest(j, 0.5, 0.5, j == 0 ? 1 : null));
+            }
+            faces.add(new FaceAnnotateRequest(i, new AnnotateRequest(points, Collections.emptyList(),
+                    Collections.emptyList(), Collections.emptyList())));
+        }
+        geometryService.annotate(new AnnotationRequest(1L, 2, faces), null);
+
+        ArgumentCaptor<List<OrigamiPoint>> points = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(origamiPointMapper).addByObjs(points.capture());
+        assertEquals(NUM_FACES * NUM_VERTICES, points.getValue().size());
+        assertTrue(points.getValue().stream().allMatch(point -> point.getOrigamiId() == 1L));
+        Mockito.verify(faceMapper).getFacesByIdsInOrigami(anyLong(), anyList());
+        Mockito.verify(edgeMapper).getIdsByIdsInFaces(anyLong(), anyList());
+        Mockito.verify(annotatePointMapper).addByObjs(anyList());
+        Mockito.verify(origamiPointMapper, Mockito.never()).addByObj(any());
+
+        // A line whose end point is missing is rejected
+        List<FaceAnnotateRequest> lineFaces = List.of(new FaceAnnotateRequest(0, new AnnotateRequest(
+                Collections.emptyList(), List.of(new LineAnnotationRequest(0, 1, 2)),
+                Collections.emptyList(), Collections.emptyList())));
+        Mockito.when(origamiPointMapper.getIdsByIdsInFaces(anyLong(), anyList()))
+                .thenReturn(List.of(new IdInFace(10L, 1, 7L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> geometryService.annotate(new AnnotationRequest(1L, 3, lineFaces), null));
+        Mockito.verify(annotateLineMapper, Mockito.never()).addByObjs(anyList());
+    }
+
+    /**
+     * Tests that rotating several face pairs costs 7 statements, down from {@code 1 + 7P} for P pairs:
+     * the faces, fold edges and edges of all pairs are looked up, deleted and inserted with one
+     * statement each. A pair rotated twice ends at its last angle.
+     */
+    @Test
+    public void rotateRewritesAllPairsAtOnce() {
+        Mockito.when(faceMapper.getFacesByIdsInOrigami(anyLong(), anyList()))
+                .thenAnswer(invocation -> toFaces(invocation.getArgument(1), idInOrigami -> 10L + idInOrigami));
+        Mockito.when(foldEdgeMapper.getObjsByFaceIdPairs(anyLong(), anyList())).thenAnswer(invocation ->
+                invocation.<List<FaceIdPair>>getArgument(1).stream().map(pair -> {
+                    FoldEdge foldEdge = new FoldEdge();
+                    foldEdge.setEdgeId(1000L + pair.getFace1Id());
+                    foldEdge.setFace1Id(pair.getFace2Id());
+                    foldEdge.setFace2Id(pair.getFace1Id());
+                    return foldEdge;
+                }).toList());
+        Mockito.when(edgeMapper.deleteByIds(anyLong(), anyList(), anyLong()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(1).size());
+
+        List<FaceRotateRequest> faces = new ArrayList<>();
+        for (int i = 0; i < NUM_FACES; i++) {
+            faces.add(new FaceRotateRequest(0, i + 1, 90.0));
+        }
+        faces.add(new FaceRotateRequest(1, 0, 45.0));
+        geometryService.rotate(new RotateRequest(1L, 2, faces));
+
+        assertEquals(7, countStatements());
+        Mockito.verify(foldStepMapper).addByObj(any());
+        ArgumentCaptor<List<FoldEdge>> foldEdges = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(foldEdgeMapper).addByObjs(foldEdges.capture());
+        assertEquals(NUM_FACES, foldEdges.getValue().size());
+        assertEquals(45.0, foldEdges.getValue().get(0).getAngle());
+        assertEquals(90.0, foldEdges.getValue().get(1).getAngle());
+        assertTrue(foldEdges.getValue().stream().allMatch(foldEdge -> foldEdge.getOrigamiId() == 1L));
+
+        // A fold edge that is no longer live fails the whole rotation
+        Mockito.when(edgeMapper.deleteByIds(anyLong(), anyList(), anyLong())).thenReturn(NUM_FACES - 1);
+        assertThrows(DbException.class, () -> geometryService.rotate(new RotateRequest(1L, 3, faces)));
+
+        // A face that does not exist is rejected
+        Mockito.when(faceMapper.getFacesByIdsInOrigami(anyLong(), anyList())).thenReturn(List.of());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> geometryService.rotate(new RotateRequest(1L, 4, faces)));
+        assertTrue(e.getMessage().startsWith("Anchored face id not found"));
+    }
+}
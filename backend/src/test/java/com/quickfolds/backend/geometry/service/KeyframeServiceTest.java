@@ -0,0 +1,132 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickfolds.backend.geometry.mapper.StepKeyframeMapper;
+import com.quickfolds.backend.geometry.model.database.StepKeyframe;
+import com.quickfolds.backend.geometry.model.dto.response.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Unit tests for {@link KeyframeService}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Selection of the keyframe a step is served from.</li>
+ *     <li>Replaying a net change onto a keyframe.</li>
+ *     <li>Keyframes surviving a serialization round trip.</li>
+ * </ul>
+ */
+public class KeyframeServiceTest {
+
+    private static final int INTERVAL = 10;
+
+    private StepKeyframeMapper stepKeyframeMapper;
+
+    private KeyframeService keyframeService;
+
+    @BeforeEach
+    public void setUp() {
+        stepKeyframeMapper = Mockito.mock(StepKeyframeMapper.class);
+        keyframeService = new KeyframeService(stepKeyframeMapper, new ObjectMapper(), INTERVAL);
+    }
+
+    /**
+     * Builds a square face whose first edge is a fold edge to {@code otherFace}, or a side edge if it is null.
+     */
+    private FaceResponse createFace(int idInOrigami, Integer otherFace) {
+        List<VertexResponse> vertices = new ArrayList<>();
+        List<EdgeResponse> edges = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            vertices.add(new VertexResponse(i, 1.0 * i, 1.0 * i));
+            edges.add(new EdgeResponse(i, "side", i, (i + 1) % 4, null, null, null));
+        }
+        if (otherFace != null) {
+            edges.set(0, new EdgeResponse(0, "fold", null, null, otherFace, 0, 180.0));
+        }
+        return new FaceResponse(idInOrigami, vertices, edges);
+    }
+
+    private FaceAnnotateResponse createAnnotations(int faceIdInOrigami, int... pointIds) {
+        List<PointAnnotationResponse> points = new ArrayList<>();
+        for (int pointId : pointIds) {
+            points.add(new PointAnnotationResponse(faceIdInOrigami, pointId, 0.5, 0.5, null));
+        }
+        return new FaceAnnotateResponse(faceIdInOrigami, points, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Tests that steps are served from the keyframe at or before them, and that a disabled
+     * interval disables keyframes.
+     */
+    @Test
+    public void selectsKeyframeAtOrBeforeStep() {
+        assertEquals(0, keyframeService.getKeyframeStep(7));
+        assertEquals(20, keyframeService.getKeyframeStep(20));
+        assertEquals(20, keyframeService.getKeyframeStep(29));
+
+        KeyframeService disabled = new KeyframeService(stepKeyframeMapper, new ObjectMapper(), 0);
+        assertEquals(-1, disabled.getKeyframeStep(29));
+        disabled.invalidateFrom(1L, 3);
+        Mockito.verify(stepKeyframeMapper, Mockito.never()).deleteFromStep(anyLong(), anyInt());
+    }
+
+    /**
+     * Tests that replaying a change removes deleted faces and their annotations, adds created
+     * faces, replaces redrawn faces and applies annotation changes.
+     */
+    @Test
+    public void appliesChangeToKeyframe() {
+        List<FaceResponse> faces = new ArrayList<>(List.of(createFace(1, null), createFace(2, null)));
+        List<FaceAnnotateResponse> annotations = new ArrayList<>(List.of(
+                createAnnotations(1, 4, 5), createAnnotations(2, 4)));
+        SnapshotResponse keyframe = new SnapshotResponse(10, faces, annotations);
+
+        // Face 2 is split into faces 3 and 4, face 4 is folded against face 1, point 4 of face 1 is removed
+        FaceAnnotateResponse annotationChange = createAnnotations(1, 6);
+        annotationChange.getDeletedPoints().add(4);
+        FoldForwardResponse change = new FoldForwardResponse(null,
+                List.of(createFace(1, 4), createFace(3, null), createFace(4, 1)),
+                List.of(2),
+                List.of(annotationChange));
+
+        SnapshotResponse snapshot = keyframeService.applyForward(keyframe, change, 13);
+
+        assertEquals(13, snapshot.getStepIdInOrigami());
+        assertEquals(List.of(1, 3, 4), snapshot.getFaces().stream().map(FaceResponse::getIdInOrigami).toList());
+        assertEquals("fold", snapshot.getFaces().get(0).getEdges().get(0).getEdgeType());
+
+        assertEquals(1, snapshot.getAnnotations().size());
+        assertEquals(List.of(5, 6), snapshot.getAnnotations().get(0).getPoints().stream()
+                .map(PointAnnotationResponse::getIdInFace).toList());
+    }
+
+    /**
+     * Tests that a stored keyframe is read back unchanged.
+     */
+    @Test
+    public void keyframeSurvivesRoundTrip() {
+        SnapshotResponse snapshot = new SnapshotResponse(20,
+                List.of(createFace(1, 2), createFace(2, 1)), List.of(createAnnotations(1, 4)));
+
+        keyframeService.saveKeyframe(1L, 100L, 100L, snapshot);
+
+        ArgumentCaptor<StepKeyframe> keyframe = ArgumentCaptor.forClass(StepKeyframe.class);
+        Mockito.verify(stepKeyframeMapper).addByObj(keyframe.capture(), Mockito.eq(100L));
+        assertEquals(20, keyframe.getValue().getStepIdInOrigami());
+
+        Mockito.when(stepKeyframeMapper.getSnapshot(1L, 20)).thenReturn(keyframe.getValue().getSnapshot());
+        assertEquals(snapshot, keyframeService.getKeyframe(1L, 20));
+        assertNull(keyframeService.getKeyframe(1L, 30));
+    }
+}
@@ -0,0 +1,139 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.geometry.mapper.StepMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency stress tests for {@link OrigamiWriteLock}.
+ * <p>
+ * Each simulated write runs in a fake transaction whose synchronizations are triggered by hand.
+ * Writers of the same origami must never overlap and must lose no update, while writers of different
+ * origami must all be able to hold their locks at the same time.
+ */
+public class OrigamiWriteLockTest {
+
+    private static final int THREADS = 8;
+
+    private static final int WRITES_PER_THREAD = 2000;
+
+    private final StepMapper stepMapper = Mockito.mock(StepMapper.class);
+
+    private final OrigamiWriteLock writeLock = new OrigamiWriteLock(stepMapper, true);
+
+    @Test
+    public void serializesWritersOfTheSameOrigami() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        int[] steps = new int[1];
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                inTransaction(() -> {
+                    writeLock.lock(1L);
+                    // Reentrant, as when fold annotates its own step
+                    writeLock.lock(1L);
+
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    // Unsynchronized read-modify-write, only correct if writers are serialized
+                    steps[0] = steps[0] + 1;
+                    inside.decrementAndGet();
+                });
+            }
+        });
+
+        assertEquals(1, maxInside.get());
+        assertEquals(THREADS * WRITES_PER_THREAD, steps[0]);
+        assertEquals(0, writeLock.getLockedCount());
+        Mockito.verify(stepMapper, Mockito.times(2 * THREADS * WRITES_PER_THREAD)).lockOrigami(1L);
+    }
+
+    @Test
+    public void neverBlocksWritersOfDifferentOrigami() throws Exception {
+        // Every writer waits inside its lock for all others, which deadlocks if any two contend
+        CyclicBarrier allInside = new CyclicBarrier(THREADS);
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 100; i++) {
+                inTransaction(() -> {
+                    writeLock.lock(thread);
+                    try {
+                        allInside.await(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Writers of different origami contended", e);
+                    }
+                });
+            }
+        });
+
+        assertEquals(0, writeLock.getLockedCount());
+    }
+
+    @Test
+    public void releasesOnRollbackAndRequiresTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writeLock.lock(1L);
+            assertEquals(1, writeLock.getLockedCount());
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, writeLock.getLockedCount());
+        assertThrows(IllegalStateException.class, () -> writeLock.lock(1L));
+    }
+
+    /**
+     * Runs a write in a fake transaction, then completes it as committed.
+     */
+    private static void inTransaction(Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private interface Writer {
+        void run(long thread) throws Exception;
+    }
+
+    /**
+     * Runs the writer on {@link #THREADS} threads started together, rethrowing the first failure.
+     */
+    private static void runConcurrently(Writer writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    writer.run(thread);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.exception.DbException;
+import com.quickfolds.backend.geometry.constants.EdgeType;
+import com.quickfolds.backend.geometry.constants.PointType;
+import com.quickfolds.backend.geometry.constants.StepType;
+import com.quickfolds.backend.geometry.mapper.EdgeTypeMapper;
+import com.quickfolds.backend.geometry.mapper.PointTypeMapper;
+import com.quickfolds.backend.geometry.mapper.StepTypeMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Unit tests for {@link ReferenceTypeRegistry}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Type IDs are served from memory once loaded.</li>
+ *     <li>Loading fails when a type constant has no row in the database.</li>
+ * </ul>
+ */
+public class ReferenceTypeRegistryTest {
+
+    private StepTypeMapper stepTypeMapper;
+
+    private PointTypeMapper pointTypeMapper;
+
+    private EdgeTypeMapper edgeTypeMapper;
+
+    private ReferenceTypeRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        stepTypeMapper = Mockito.mock(StepTypeMapper.class);
+        pointTypeMapper = Mockito.mock(PointTypeMapper.class);
+        edgeTypeMapper = Mockito.mock(EdgeTypeMapper.class);
+        registry = new ReferenceTypeRegistry(stepTypeMapper, pointTypeMapper, edgeTypeMapper);
+
+        Mockito.when(stepTypeMapper.getIdByName(anyString())).thenReturn(1L);
+        Mockito.when(stepTypeMapper.getIdByName(StepType.ANNOTATE)).thenReturn(3L);
+        Mockito.when(pointTypeMapper.getIdByName(anyString())).thenReturn(2L);
+        Mockito.when(edgeTypeMapper.getEdgeTypeByName(anyString())).thenReturn(4L);
+    }
+
+    /**
+     * Tests that each type is looked up once on load and served from memory afterwards.
+     */
+    @Test
+    public void servesLoadedTypesFromMemory() {
+        registry.refresh();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(3L, registry.getStepTypeId(StepType.ANNOTATE));
+            assertEquals(2L, registry.getPointTypeId(PointType.VERTEX));
+            assertEquals(4L, registry.getEdgeTypeId(EdgeType.SIDE));
+        }
+
+        Mockito.verify(stepTypeMapper, Mockito.times(1)).getIdByName(StepType.ANNOTATE);
+        Mockito.verify(pointTypeMapper, Mockito.times(1)).getIdByName(PointType.VERTEX);
+        Mockito.verify(edgeTypeMapper, Mockito.times(1)).getEdgeTypeByName(EdgeType.SIDE);
+        assertThrows(DbException.class, () -> registry.getStepTypeId("unknown"));
+    }
+
+    /**
+     * Tests that loading fails as soon as one constant is missing from the database.
+     */
+    @Test
+    public void failsWhenConstantMissing() {
+        Mockito.when(edgeTypeMapper.getEdgeTypeByName(EdgeType.FOLD)).thenReturn(null);
+
+        assertThrows(DbException.class, registry::refresh);
+    }
+}
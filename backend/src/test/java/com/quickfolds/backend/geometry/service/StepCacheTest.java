@@ -0,0 +1,117 @@
+package com.quickfolds.backend.geometry.service;
+
+import com.quickfolds.backend.geometry.model.dto.response.FaceAnnotateResponse;
+import com.quickfolds.backend.geometry.model.dto.response.StepResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link StepCache}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Least recently used eviction by entry count and by weight.</li>
+ *     <li>Invalidation of the entries depending on a written step.</li>
+ *     <li>Entries only served for the history version they were read from.</li>
+ *     <li>Hit, miss, eviction and invalidation counters.</li>
+ * </ul>
+ */
+public class StepCacheTest {
+
+    /**
+     * Builds an annotate step response of weight {@code 1 + 2 * numFaces}.
+     */
+    private StepResponse createStep(int numFaces) {
+        List<FaceAnnotateResponse> annotations = new ArrayList<>();
+        for (int i = 0; i < numFaces; i++) {
+            annotations.add(new FaceAnnotateResponse(i, Collections.emptyList(), Collections.emptyList(),
+                    List.of(1), Collections.emptyList()));
+        }
+        return new StepResponse("annotate", true, annotations, null, null);
+    }
+
+    private StepCache.Key key(long origamiId, int startStep, int endStep) {
+        return new StepCache.Key(origamiId, startStep, endStep, startStep < endStep);
+    }
+
+    /**
+     * Tests that the least recently used entry is evicted once the entry count is exceeded.
+     */
+    @Test
+    public void evictsLeastRecentlyUsedEntry() {
+        StepCache cache = new StepCache(2, 1000);
+        cache.put(key(1, 0, 1), 1, createStep(1));
+        cache.put(key(1, 1, 2), 1, createStep(1));
+
+        // Touch the first entry so the second one becomes the eldest
+        assertNotNull(cache.get(key(1, 0, 1), 1));
+        cache.put(key(1, 2, 3), 1, createStep(1));
+
+        assertNotNull(cache.get(key(1, 0, 1), 1));
+        assertNull(cache.get(key(1, 1, 2), 1));
+        assertEquals(new StepCache.Stats(2, 1, 1, 0, 2, 6), cache.getStats());
+    }
+
+    /**
+     * Tests that entries are evicted to stay within the weight bound and that
+     * entries heavier than the whole cache are not cached.
+     */
+    @Test
+    public void evictsByWeight() {
+        StepCache cache = new StepCache(100, 9);
+        cache.put(key(1, 0, 1), 1, createStep(2));
+        cache.put(key(1, 1, 2), 1, createStep(2));
+        cache.put(key(1, 2, 3), 1, createStep(10));
+
+        assertNull(cache.get(key(1, 0, 1), 1));
+        assertNotNull(cache.get(key(1, 1, 2), 1));
+        assertNull(cache.get(key(1, 2, 3), 1));
+        assertEquals(5, cache.getStats().weight());
+    }
+
+    /**
+     * Tests that writing a step drops only the entries of the same origami whose range reaches the step.
+     */
+    @Test
+    public void invalidatesEntriesReachingWrittenStep() {
+        StepCache cache = new StepCache(100, 1000);
+        cache.put(key(1, 0, 1), 1, createStep(1));
+        cache.put(key(1, 5, 3), 1, createStep(1));
+        cache.put(key(2, 4, 5), 1, createStep(1));
+
+        cache.invalidateFrom(1, 4);
+
+        assertNotNull(cache.get(key(1, 0, 1), 1));
+        assertNull(cache.get(key(1, 5, 3), 1));
+        assertNotNull(cache.get(key(2, 4, 5), 1));
+        assertEquals(1, cache.getStats().invalidations());
+    }
+
+    /**
+     * Tests that an entry read from an older history version is dropped instead of served,
+     * even when no invalidation reached it, and never replaces an entry of a newer version.
+     */
+    @Test
+    public void servesEntriesOfCurrentVersionOnly() {
+        StepCache cache = new StepCache(100, 1000);
+        cache.put(key(1, 0, 5), 7, createStep(1));
+
+        assertNotNull(cache.get(key(1, 0, 5), 7));
+        assertNull(cache.get(key(1, 0, 5), 9));
+        assertEquals(1, cache.getStats().invalidations());
+        assertEquals(0, cache.getStats().size());
+
+        cache.put(key(1, 0, 5), 9, createStep(1));
+        cache.put(key(1, 0, 5), 7, createStep(2));
+        assertNull(cache.get(key(1, 0, 5), 7));
+        assertNotNull(cache.get(key(1, 0, 5), 9));
+        assertEquals(3, cache.getStats().weight());
+    }
+}
@@ -2,6 +2,7 @@ package com.quickfolds.backend.origami.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickfolds.backend.dto.BaseResponse;
+import com.quickfolds.backend.origami.model.dto.request.RateOrigamiRequest;
 import com.quickfolds.backend.origami.service.OrigamiService;
 import com.quickfolds.backend.user.auth.JwtAuthenticationFilter;
 import lombok.Data;
@@ -14,9 +15,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -70,8 +73,9 @@ public class OrigamiControllerTest {
     /**
      * Tests that a valid request to fetch the origami list is processed successfully.
      * <p>
-     * This test mocks the {@link OrigamiService#list()} method to return a successful response.
-     * It sends a valid {@code GET} request to {@code /origami/list} and expects an HTTP 200 OK response.
+     * This test mocks the {@link OrigamiService#list(String, Integer, String)} method to return a successful
+     * response. It sends a valid {@code GET} request to {@code /origami/list} without parameters, which
+     * requests the first page in the default order, and expects an HTTP 200 OK response.
      *
      * @throws Exception if the request cannot be processed.
      */
@@ -79,7 +83,7 @@ public class OrigamiControllerTest {
     public void handlesValidRequest() throws Exception {
 
         // Mocking service response
-        Mockito.when(origamiService.list())
+        Mockito.when(origamiService.list("newest", null, null))
                 .thenReturn(BaseResponse.success(null));
 
         // Performing GET request and asserting response status
@@ -90,4 +94,59 @@ public class OrigamiControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(200))
                 .andExpect(jsonPath("$.message").value("success"));
     }
+
+    /**
+     * Tests that the sort order, page size and cursor query parameters are passed to the service.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void passesPaginationParameters() throws Exception {
+
+        // Mocking service response
+        Mockito.when(origamiService.list("rating", 50, "cursor"))
+                .thenReturn(BaseResponse.success(null));
+
+        // Performing GET request and asserting the mocked call was matched
+        mockMvc.perform(get("/origami/list")
+                        .param("sort", "rating")
+                        .param("limit", "50")
+                        .param("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(true));
+    }
+
+    /**
+     * Tests that a rating outside of the 0.0 to 5.0 range is rejected before reaching the service.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void rejectsOutOfRangeRating() throws Exception {
+        String requestBody = new ObjectMapper().writeValueAsString(new RateOrigamiRequest(1L, 1L, 5.5));
+
+        mockMvc.perform(post("/origami/rate")
+                        .contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(origamiService);
+    }
+
+    /**
+     * Tests that a catalog request holding the current catalog ETag gets a 304 Not Modified
+     * without querying the catalog.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    public void handlesConditionalListRequest() throws Exception {
+        Mockito.when(origamiService.getCatalogETag()).thenReturn("\"catalog-a-7\"");
+
+        mockMvc.perform(get("/origami/list").header("If-None-Match", "\"catalog-a-6\", \"catalog-a-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"catalog-a-7\""));
+
+        Mockito.verify(origamiService, Mockito.never()).list(Mockito.any(), Mockito.any(), Mockito.any());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.origami.constants.CatalogSort;
+import com.quickfolds.backend.origami.model.dto.response.OrigamiResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CatalogCursor}.
+ * <p>
+ * Verifies that cursor tokens round-trip for every sort order, and that tokens which are malformed
+ * or were issued for another sort order are rejected as bad requests.
+ */
+public class CatalogCursorTest {
+
+    private static final OrigamiResponse ORIGAMI = new OrigamiResponse(42L, "crane: v2", "user", 4.25);
+
+    @Test
+    public void roundTripsEverySortOrder() {
+        for (String sort : CatalogSort.ALL) {
+            CatalogCursor cursor = CatalogCursor.after(sort, ORIGAMI);
+            String token = cursor.encode();
+
+            assertTrue(token.matches("[A-Za-z0-9_-]+"), "Token should be URL-safe: " + token);
+            assertEquals(cursor, CatalogCursor.decode(token, sort));
+        }
+
+        assertEquals(new CatalogCursor(CatalogSort.NAME, 42L, null, "crane: v2"),
+                CatalogCursor.decode(CatalogCursor.after(CatalogSort.NAME, ORIGAMI).encode(), CatalogSort.NAME));
+    }
+
+    @Test
+    public void rejectsInvalidTokens() {
+        String ratingToken = CatalogCursor.after(CatalogSort.RATING, ORIGAMI).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogCursor.decode(ratingToken, CatalogSort.NAME));
+        assertThrows(IllegalArgumentException.class, () -> CatalogCursor.decode("not a cursor!", CatalogSort.NEWEST));
+        assertThrows(IllegalArgumentException.class, () -> CatalogCursor.decode("bmV3ZXN0OmFiYzo", CatalogSort.NEWEST));
+    }
+}
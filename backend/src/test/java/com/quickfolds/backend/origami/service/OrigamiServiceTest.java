@@ -3,6 +3,7 @@ package com.quickfolds.backend.origami.service;
 
 import com.quickfolds.backend.dto.BaseResponse;
 import com.quickfolds.backend.geometry.mapper.StepTypeMapper;
+import com.quickfolds.backend.origami.constants.CatalogSort;
 import com.quickfolds.backend.origami.mapper.OrigamiMapper;
 import com.quickfolds.backend.origami.model.dto.request.NewOrigamiRequest;
 import com.quickfolds.backend.origami.model.dto.response.OrigamiListResponse;
@@ -34,6 +35,8 @@ public class OrigamiServiceTest {
 
     private static final int NUM_TRIALS = 200;
 
+    private static final int PAGE_SIZE = 7;
+
     /**
      * Service under test for user-related operations.
      */
@@ -80,14 +83,15 @@ public class OrigamiServiceTest {
     }
 
 
-    @Test
-    public void testListAllPublic() throws Exception {
-        List<Long> userIds = prepData();
-
-        for (int i = 0; i < NUM_TRIALS; i++) {
-            insertOrigami(userIds.get(i % userIds.size()), "origami" + i, true);
-
-            ResponseEntity<BaseResponse<OrigamiListResponse>> response = origamiService.list();
+    /**
+     * Collects every public origami by following the cursors of the catalog pages.
+     */
+    private List<OrigamiResponse> listAllPublic(String sort) {
+        List<OrigamiResponse> origamis = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<BaseResponse<OrigamiListResponse>> response =
+                    origamiService.list(sort, PAGE_SIZE, cursor);
 
             // Assert the status code
             assertEquals(200, response.getStatusCode().value());
@@ -104,12 +108,29 @@ public class OrigamiServiceTest {
             // Assert OrigamiListResponse fields
             OrigamiListResponse origamiList = responseBody.getData();
             assertNotNull(origamiList, "Origami list should not be null");
-            assertEquals(origamiList.getOrigamis().size(), i + 1,
+            assertTrue(origamiList.getOrigamis().size() <= PAGE_SIZE, "Page should not exceed the page size");
+
+            origamis.addAll(origamiList.getOrigamis());
+            cursor = origamiList.getNextCursor();
+        } while (cursor != null);
+
+        return origamis;
+    }
+
+    @Test
+    public void testListAllPublic() throws Exception {
+        List<Long> userIds = prepData();
+
+        for (int i = 0; i < NUM_TRIALS; i++) {
+            insertOrigami(userIds.get(i % userIds.size()), "origami" + i, true);
+
+            List<OrigamiResponse> origamis = listAllPublic(CatalogSort.NEWEST);
+            assertEquals(origamis.size(), i + 1,
                     "Origami list have different number of elements, " +
-                            "expected: " + (i + 1) + " actual: " + "origamiList.getOrigamis().size()");
+                            "expected: " + (i + 1) + " actual: " + origamis.size());
 
             int index = i;
-            OrigamiResponse origami = origamiList.getOrigamis()
+            OrigamiResponse origami = origamis
                     .stream()
                     .filter(o -> o.getOrigamiName().equals("origami" + index))
                     .findFirst()
@@ -119,4 +140,25 @@ public class OrigamiServiceTest {
             assertEquals("origami" + i, origami.getOrigamiName());
         }
     }
-}
+
+    @Test
+    public void testListSortedPages() {
+        List<Long> userIds = prepData();
+        for (int i = 0; i < 30; i++) {
+            insertOrigami(userIds.get(i % userIds.size()), "origami" + (i * 7 % 30), true);
+        }
+        insertOrigami(userIds.get(0), "private", false);
+
+        List<OrigamiResponse> byName = listAllPublic(CatalogSort.NAME);
+        assertEquals(30, byName.size());
+        assertEquals(byName.stream().sorted(Comparator.comparing(OrigamiResponse::getOrigamiName)
+                .thenComparing(OrigamiResponse::getOrigamiId)).toList(), byName);
+
+        List<OrigamiResponse> newest = listAllPublic(CatalogSort.NEWEST);
+        assertEquals(newest.stream().sorted(Comparator.comparing(OrigamiResponse::getOrigamiId).reversed())
+                .toList(), newest);
+
+        List<OrigamiResponse> byRating = listAllPublic(CatalogSort.RATING);
+        assertEquals(30, byRating.size());
+    }
+}
\ No newline at end of file
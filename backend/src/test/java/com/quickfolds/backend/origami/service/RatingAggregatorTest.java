@@ -0,0 +1,118 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.config.PrimaryPins;
+import com.quickfolds.backend.origami.mapper.OrigamiMapper;
+import com.quickfolds.backend.origami.model.dto.RatingDelta;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RatingAggregator}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Merging of the changes recorded for the same origami between two flushes.</li>
+ *     <li>Splitting of large flushes into batches.</li>
+ *     <li>Retention of the changes of a failed flush.</li>
+ *     <li>Reconciliation with the rating history after flushing pending changes.</li>
+ * </ul>
+ */
+public class RatingAggregatorTest {
+
+    private final OrigamiMapper origamiMapper = Mockito.mock(OrigamiMapper.class);
+
+    private final RatingAggregator aggregator = new RatingAggregator(origamiMapper, new CatalogVersion(new PrimaryPins(0)), 600);
+
+    @SuppressWarnings("unchecked")
+    private List<List<RatingDelta>> captureFlushes(int times) {
+        ArgumentCaptor<List<RatingDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(origamiMapper, times(times)).applyRatingDeltas(captor.capture());
+        return captor.getAllValues();
+    }
+
+    /**
+     * Tests that the changes of each origami are merged into one row of a single update.
+     */
+    @Test
+    public void mergesChangesPerOrigami() {
+        aggregator.record(1, 4.0, 1);
+        aggregator.record(2, 3.0, 1);
+        aggregator.record(1, 5.0, 1);
+        aggregator.record(1, -2.0, 0);
+        assertEquals(2, aggregator.getPendingCount());
+
+        aggregator.flush();
+
+        List<RatingDelta> flushed = new ArrayList<>(captureFlushes(1).get(0));
+        flushed.sort(Comparator.comparing(RatingDelta::getOrigamiId));
+        assertEquals(List.of(new RatingDelta(1L, 7.0, 2), new RatingDelta(2L, 3.0, 1)), flushed);
+        assertEquals(0, aggregator.getPendingCount());
+
+        // Nothing is left for the next flush
+        aggregator.flush();
+        verify(origamiMapper, times(1)).applyRatingDeltas(anyList());
+    }
+
+    /**
+     * Tests that a flush updates at most {@link RatingAggregator#MAX_BATCH_SIZE} origami per statement.
+     */
+    @Test
+    public void flushesInBatches() {
+        int numOrigami = RatingAggregator.MAX_BATCH_SIZE * 2 + 1;
+        for (long id = 0; id < numOrigami; id++) {
+            aggregator.record(id, 1.0, 1);
+        }
+
+        aggregator.flush();
+
+        List<List<RatingDelta>> batches = captureFlushes(3);
+        assertEquals(numOrigami, batches.stream().mapToInt(List::size).sum());
+        batches.forEach(batch -> assertEquals(true, batch.size() <= RatingAggregator.MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Tests that the changes of a failed flush are applied by the next one, merged with newer changes.
+     */
+    @Test
+    public void keepsChangesOfFailedFlush() {
+        when(origamiMapper.applyRatingDeltas(anyList()))
+                .thenThrow(new RuntimeException("connection lost"))
+                .thenReturn(1);
+
+        aggregator.record(1, 4.0, 1);
+        aggregator.flush();
+        assertEquals(1, aggregator.getPendingCount());
+
+        aggregator.record(1, 1.0, 0);
+        aggregator.flush();
+
+        assertEquals(List.of(new RatingDelta(1L, 5.0, 1)), captureFlushes(2).get(1));
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    /**
+     * Tests that reconciliation flushes the pending changes before rebuilding the aggregates,
+     * so that the rebuilt aggregates are not then changed twice.
+     */
+    @Test
+    public void reconcilesAfterFlushing() {
+        aggregator.record(1, 4.0, 1);
+
+        aggregator.reconcile();
+
+        InOrder order = inOrder(origamiMapper);
+        order.verify(origamiMapper).applyRatingDeltas(anyList());
+        order.verify(origamiMapper).reconcileRatingAggregates(600);
+        assertEquals(0, aggregator.getPendingCount());
+    }
+}
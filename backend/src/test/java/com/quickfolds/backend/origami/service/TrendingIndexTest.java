@@ -0,0 +1,172 @@
+package com.quickfolds.backend.origami.service;
+
+import com.quickfolds.backend.origami.mapper.OrigamiMapper;
+import com.quickfolds.backend.origami.mapper.RatingMapper;
+import com.quickfolds.backend.origami.model.dto.OrigamiRatingStats;
+import com.quickfolds.backend.origami.model.dto.response.OrigamiResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TrendingIndex}.
+ * <p>
+ * Key functionalities tested:
+ * <ul>
+ *     <li>Rebuilding the top rated leaderboard from the rating aggregates in the database.</li>
+ *     <li>Keeping the bounded top exact when an origami of the top loses score.</li>
+ *     <li>Time decay of the trending scores and rejection of unknown origami.</li>
+ *     <li>Periodic rebuilds keeping the views recorded by the instance.</li>
+ *     <li>Ratings and views applied while a rebuild loads the database.</li>
+ * </ul>
+ */
+public class TrendingIndexTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final OrigamiMapper origamiMapper = Mockito.mock(OrigamiMapper.class);
+
+    private final RatingMapper ratingMapper = Mockito.mock(RatingMapper.class);
+
+    private TrendingIndex createIndex(int capacity, OrigamiRatingStats... origamis) {
+        when(origamiMapper.getPublicOrigamiRatingStats(isNull())).thenReturn(List.of(origamis));
+        when(origamiMapper.getPublicOrigamiRatingStats(anyLong())).thenReturn(Collections.emptyList());
+        for (OrigamiRatingStats origami : origamis) {
+            when(origamiMapper.getPublicOrigamiRatingStats(origami.getOrigamiId())).thenReturn(List.of(origami));
+        }
+        when(ratingMapper.getRatingsSince(any())).thenReturn(Collections.emptyList());
+
+        TrendingIndex index = new TrendingIndex(origamiMapper, ratingMapper, capacity, 1);
+        index.rebuild();
+        return index;
+    }
+
+    private static OrigamiRatingStats stats(long origamiId, double ratingSum, int numRatings) {
+        return new OrigamiRatingStats(origamiId, "origami" + origamiId, "user", ratingSum, numRatings);
+    }
+
+    private static List<Long> ids(List<OrigamiResponse> origamis) {
+        return origamis.stream().map(OrigamiResponse::getOrigamiId).toList();
+    }
+
+    /**
+     * Tests that a single high rating does not outrank many slightly lower ones.
+     */
+    @Test
+    public void ranksByBayesianAverage() {
+        TrendingIndex index = createIndex(10, stats(1, 5.0, 1), stats(2, 49.0, 10), stats(3, 0.0, 0));
+
+        List<OrigamiResponse> top = index.getTopRated(10);
+        assertEquals(List.of(2L, 1L, 3L), ids(top));
+        assertEquals(4.9, top.get(0).getRatings(), 1e-9);
+        assertEquals(0.0, top.get(2).getRatings());
+    }
+
+    /**
+     * Tests that an origami leaving the bounded top is replaced by the best origami outside of it.
+     */
+    @Test
+    public void refillsTopWhenScoreDrops() {
+        TrendingIndex index = createIndex(2, stats(1, 50.0, 10), stats(2, 45.0, 10), stats(3, 40.0, 10));
+        assertEquals(List.of(1L, 2L), ids(index.getTopRated(10)));
+
+        // Ten new ratings of 0 bring origami 1 below origami 3
+        index.applyRating(1, 0.0, 0.0, 10, 0);
+        assertEquals(List.of(2L, 3L), ids(index.getTopRated(10)));
+
+        // New ratings raise origami 3 above origami 2
+        index.applyRating(3, 5.0, 10.0, 0, 0);
+        assertEquals(List.of(3L, 2L), ids(index.getTopRated(10)));
+    }
+
+    /**
+     * Tests that recent activity outweighs the same amount of older activity.
+     */
+    @Test
+    public void decaysTrendingActivity() {
+        TrendingIndex index = createIndex(10, stats(1, 0.0, 0), stats(2, 0.0, 0));
+        long now = System.currentTimeMillis();
+
+        // Three views two half-lives ago weigh less than one view now
+        for (int i = 0; i < 3; i++) {
+            assertTrue(index.applyView(1, now - 2 * HOUR));
+        }
+        assertTrue(index.applyView(2, now));
+        assertEquals(List.of(2L, 1L), ids(index.getTrending(10)));
+
+        // A rating weighs its value in views
+        index.applyRating(1, 4.0, 4.0, 1, now);
+        assertEquals(List.of(1L, 2L), ids(index.getTrending(10)));
+        assertEquals(List.of(1L), ids(index.getTrending(1)));
+    }
+
+    /**
+     * Tests that views of origami that do not exist or are not public are rejected.
+     */
+    @Test
+    public void rejectsUnknownOrigami() {
+        TrendingIndex index = createIndex(10, stats(1, 0.0, 0));
+
+        assertFalse(index.recordView(42));
+        assertTrue(index.getTrending(10).isEmpty());
+    }
+
+    /**
+     * Tests that a rebuild picks up the ratings flushed by other instances and keeps the views
+     * recorded by this one.
+     */
+    @Test
+    public void rebuildKeepsLocalViews() {
+        TrendingIndex index = createIndex(10, stats(1, 20.0, 5), stats(2, 15.0, 5));
+        long now = System.currentTimeMillis();
+        assertTrue(index.applyView(2, now));
+        assertEquals(List.of(1L, 2L), ids(index.getTopRated(10)));
+
+        // Another instance flushed ten ratings of 5 for origami 2
+        when(origamiMapper.getPublicOrigamiRatingStats(isNull()))
+                .thenReturn(List.of(stats(1, 20.0, 5), stats(2, 65.0, 15)));
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), ids(index.getTopRated(10)));
+        assertEquals(List.of(2L), ids(index.getTrending(10)));
+    }
+
+    /**
+     * Tests that ratings and views applied while a rebuild loads the database survive the swap to the
+     * rebuilt leaderboards.
+     */
+    @Test
+    public void rebuildReplaysConcurrentActivity() {
+        TrendingIndex index = createIndex(10, stats(1, 20.0, 5), stats(2, 15.0, 5));
+        long now = System.currentTimeMillis();
+
+        // Ten ratings of 5 for origami 2 and a view of origami 1 arrive after the aggregates were loaded
+        when(ratingMapper.getRatingsSince(any())).thenAnswer(invocation -> {
+            index.applyRating(2, 5.0, 50.0, 10, now);
+            assertTrue(index.applyView(1, now));
+            return Collections.emptyList();
+        });
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), ids(index.getTopRated(10)));
+        assertEquals(65.0 / 15, index.getTopRated(1).get(0).getRatings(), 1e-9);
+        assertEquals(List.of(2L, 1L), ids(index.getTrending(10)));
+
+        // The next rebuild loads the flushed aggregates instead of replaying the ratings again
+        when(ratingMapper.getRatingsSince(any())).thenReturn(Collections.emptyList());
+        when(origamiMapper.getPublicOrigamiRatingStats(isNull()))
+                .thenReturn(List.of(stats(1, 20.0, 5), stats(2, 65.0, 15)));
+        index.rebuild();
+
+        assertEquals(65.0 / 15, index.getTopRated(1).get(0).getRatings(), 1e-9);
+        assertEquals(List.of(1L), ids(index.getTrending(10)));
+    }
+}
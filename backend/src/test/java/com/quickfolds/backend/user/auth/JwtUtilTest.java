@@ -0,0 +1,77 @@
+package com.quickfolds.backend.user.auth;
+
+import com.quickfolds.backend.user.auth.VerifiedTokenCache.VerifiedToken;
+import com.quickfolds.backend.user.model.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JwtUtil} and its {@link VerifiedTokenCache}.
+ * <p>
+ * Verifies that generated tokens are accepted, that tampered tokens are rejected, that repeat
+ * verifications are answered from the cache, and that cached tokens are never served past expiry.
+ */
+public class JwtUtilTest {
+
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("folder");
+        return user;
+    }
+
+    @Test
+    public void verifiesGeneratedTokensOnce() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 100);
+        String token = jwtUtil.generateToken(user());
+
+        VerifiedToken first = jwtUtil.verifyToken(token);
+        VerifiedToken second = jwtUtil.verifyToken(token);
+
+        assertEquals("folder", first.username());
+        assertEquals(7L, first.userId());
+        assertEquals(first, second);
+        assertEquals("folder", jwtUtil.parseToken(token).getSubject());
+
+        VerifiedTokenCache.Stats stats = jwtUtil.getTokenCacheStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    public void rejectsTamperedTokens() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 100);
+        String token = jwtUtil.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verifyToken(tampered));
+        assertThrows(JwtException.class, () -> new JwtUtil(SECRET + "c2VjcmV0", 100).verifyToken(token));
+        assertEquals(0, jwtUtil.getTokenCacheStats().size());
+    }
+
+    @Test
+    public void cacheDropsExpiredAndLeastRecentlyUsedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        ByteBuffer a = VerifiedTokenCache.digest("a");
+        ByteBuffer b = VerifiedTokenCache.digest("b");
+        ByteBuffer c = VerifiedTokenCache.digest("c");
+
+        cache.put(a, new VerifiedToken("a", 1L, 1000));
+        cache.put(b, new VerifiedToken("b", 2L, 1000));
+        assertNotNull(cache.get(a, 0));
+        cache.put(c, new VerifiedToken("c", 3L, 1000));
+
+        // b was the least recently used entry
+        assertNull(cache.get(b, 0));
+        assertNotNull(cache.get(c, 0));
+        assertNull(cache.get(a, 1000));
+        assertEquals(new VerifiedTokenCache.Stats(2, 2, 2, 1), cache.getStats());
+    }
+}
@@ -0,0 +1,43 @@
+package com.quickfolds.backend.user.auth;
+
+import com.quickfolds.backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LoginThrottle}.
+ * <p>
+ * Verifies that usernames and client IPs are each limited to their burst, that buckets refill over
+ * time, and that a rejected attempt does not consume tokens.
+ */
+public class LoginThrottleTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void limitsUsernamesAndAddressesToTheirBurst() {
+        // 2 attempts per user, refilled at 1 per 6 seconds; 3 per IP, refilled at 1 per second
+        LoginThrottle throttle = new LoginThrottle(2, 10, 3, 60, 100);
+
+        throttle.acquire("alice", "10.0.0.1", 0);
+        throttle.acquire("alice", "10.0.0.1", 0);
+        TooManyRequestsException user = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("alice", "10.0.0.1", 0));
+        assertEquals(6, user.getRetryAfterSeconds());
+
+        // The rejected attempt did not use the last token of the IP
+        throttle.acquire("bob", "10.0.0.1", 0);
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("carol", "10.0.0.1", 0));
+        throttle.acquire("carol", "10.0.0.2", 0);
+    }
+
+    @Test
+    public void refillsOverTime() {
+        LoginThrottle throttle = new LoginThrottle(1, 10, 100, 60, 100);
+
+        throttle.acquire("alice", null, 0);
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("alice", null, 5 * SECOND));
+        throttle.acquire("alice", null, 6 * SECOND);
+    }
+}
@@ -0,0 +1,93 @@
+package com.quickfolds.backend.user.controller;
+
+import com.quickfolds.backend.config.exception.GlobalExceptionHandler;
+import com.quickfolds.backend.user.auth.LoginThrottle;
+import com.quickfolds.backend.user.model.User;
+import com.quickfolds.backend.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the login throttle buckets clients by the address forwarded by a trusted proxy.
+ * <p>
+ * Unlike {@link UserControllerTest}, this runs the controller on an embedded Tomcat configured by the
+ * application properties, since the {@code X-Forwarded-For} header is resolved by Tomcat's remote IP
+ * valve, which MockMvc bypasses. The test client connects from the loopback address, a trusted proxy.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = {UserController.class, LoginThrottle.class, GlobalExceptionHandler.class},
+        properties = {"auth.login-throttle.ip-burst=1", "auth.login-throttle.ip-per-minute=1"})
+@ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+        EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+class ForwardedClientIpTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    /**
+     * Mocked UserService, accepting every password.
+     */
+    @MockBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        when(userService.login(anyString(), anyString())).thenReturn("dummy-token");
+        when(userService.findByUsername(anyString())).thenReturn(user);
+    }
+
+    /**
+     * Tests that two clients behind the same proxy are throttled separately.
+     * <p>
+     * With a burst of one attempt per IP, the second attempt of the first client is rejected with 429,
+     * while the first attempt of the second client is still admitted.
+     */
+    @Test
+    void forwardedClientsGetSeparateBuckets() {
+        assertEquals(HttpStatus.OK, login("alice", "203.0.113.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("bob", "203.0.113.1"));
+        assertEquals(HttpStatus.OK, login("carol", "203.0.113.2"));
+    }
+
+    /**
+     * Posts a login attempt as forwarded by the proxy for a client.
+     *
+     * @param username The username of the attempt, distinct per attempt to leave the username buckets full.
+     * @param clientIp The client address added by the proxy to {@code X-Forwarded-For}.
+     * @return The status of the response.
+     */
+    private HttpStatusCode login(String username, String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        Map<String, String> credentials = Map.of("username", username, "password", "password");
+        return restTemplate.postForEntity("/user/login", new HttpEntity<>(credentials, headers), String.class)
+                .getStatusCode();
+    }
+}
@@ -1,7 +1,9 @@
 package com.quickfolds.backend.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickfolds.backend.exception.TooManyRequestsException;
 import com.quickfolds.backend.user.auth.JwtUtil;
+import com.quickfolds.backend.user.auth.LoginThrottle;
 import com.quickfolds.backend.user.model.User;
 import com.quickfolds.backend.user.service.UserService;
 import lombok.Data;
@@ -18,7 +20,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -77,6 +81,12 @@ class UserControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    /**
+     * Mocked LoginThrottle, admitting every attempt unless stubbed otherwise.
+     */
+    @MockBean
+    private LoginThrottle loginThrottle;
+
     /**
      * Tests that an authenticated user can retrieve their details successfully.
      * <p>
@@ -207,4 +217,31 @@ class UserControllerTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(content().string("Invalid username or password"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a throttled login attempt is rejected before any password is checked.
+     * <p>
+     * This test stubs {@link LoginThrottle#acquire(String, String)} to throw a {@link TooManyRequestsException}
+     * and expects an HTTP 429 Too Many Requests response with a {@code Retry-After} header.
+     *
+     * @throws Exception if the request cannot be processed.
+     */
+    @Test
+    void testLoginThrottled() throws Exception {
+        doThrow(new TooManyRequestsException("Too many attempts for this user, please retry later", 30))
+                .when(loginThrottle).acquire(eq("testUser"), anyString());
+
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("username", "testUser");
+        credentials.put("password", "password");
+
+        mockMvc.perform(post("/user/login")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+
+        verify(userService, never()).login(anyString(), anyString());
+    }
+}